@@ -0,0 +1,246 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.analysis;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+import tools.descartes.dlim.httploadgenerator.runner.ResultWriter;
+
+/**
+ * Writes the per-interval and per-endpoint tables and the run summary of a {@link RequestLogAnalysis}.
+ * Interval tables are joined with the load intensities of the interval result file, if given.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class AnalysisReport {
+
+	private static final String STATISTICS_HEADER = "Requests,Successful,Failed,Timed Out,Dropped,Error Rate,"
+			+ "Mean Response Time,P50 Response Time,P90 Response Time,P99 Response Time,Max Response Time";
+	private static final int SUMMARY_ENDPOINTS = 5;
+
+	private final RequestLogAnalysis analysis;
+	private final double sloMillis;
+	private final double sloQuantile;
+	private final TreeMap<Double, String> loadIntensities = new TreeMap<>();
+
+	/**
+	 * Creates a report.
+	 * @param analysis The analysis of the request log.
+	 * @param sloMillis The SLO latency in ms, 0 or less for no SLO.
+	 * @param sloPercentile The percentile that must be within the SLO latency in each interval, e.g., 99.
+	 */
+	public AnalysisReport(RequestLogAnalysis analysis, double sloMillis, double sloPercentile) {
+		this.analysis = analysis;
+		this.sloMillis = sloMillis;
+		this.sloQuantile = sloPercentile / 100.0;
+	}
+
+	/**
+	 * Reads the load intensities of the intervals from an interval result file, optionally gzip-compressed.
+	 * @param resultFile The interval result file.
+	 * @throws IOException If the file can not be read.
+	 */
+	public void readLoadIntensities(File resultFile) throws IOException {
+		InputStream in = new FileInputStream(resultFile);
+		if (resultFile.getName().endsWith(ResultWriter.GZIP_EXTENSION)) {
+			in = new GZIPInputStream(in);
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] tokens = line.split(",", 3);
+				if (tokens.length < 2) {
+					continue;
+				}
+				try {
+					loadIntensities.put(Double.parseDouble(tokens[0].trim()), tokens[1].trim());
+				} catch (NumberFormatException e) {
+					// header and time stamp lines
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the per-interval table.
+	 * @param file The csv file.
+	 * @throws IOException If the file can not be written.
+	 */
+	public void writeIntervals(File file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.append("Target Time,Load Intensity,").append(STATISTICS_HEADER);
+			if (hasSlo()) {
+				writer.append(",Within SLO,SLO Met");
+			}
+			writer.append(System.lineSeparator());
+			StringBuilder line = new StringBuilder();
+			for (Map.Entry<Double, RequestStatistics> interval : analysis.getIntervals().entrySet()) {
+				line.append(interval.getKey()).append(',')
+						.append(loadIntensities.getOrDefault(interval.getKey(), "")).append(',');
+				appendStatistics(line, interval.getValue());
+				if (hasSlo()) {
+					line.append(',').append(ratio(interval.getValue().getWithinSlo(), interval.getValue().getCount()))
+							.append(',').append(isSloMet(interval.getValue()) ? 1 : 0);
+				}
+				writer.append(line).append(System.lineSeparator());
+				line.setLength(0);
+			}
+		}
+	}
+
+	/**
+	 * Writes the per-endpoint table, ordered by request count.
+	 * @param file The csv file.
+	 * @throws IOException If the file can not be written.
+	 */
+	public void writeEndpoints(File file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.append("Endpoint,").append(STATISTICS_HEADER);
+			if (hasSlo()) {
+				writer.append(",Within SLO");
+			}
+			writer.append(System.lineSeparator());
+			List<Map.Entry<String, RequestStatistics>> endpoints = new ArrayList<>(analysis.getEndpoints().entrySet());
+			endpoints.sort(Comparator.comparingLong(
+					(Map.Entry<String, RequestStatistics> e) -> e.getValue().getCount()).reversed());
+			StringBuilder line = new StringBuilder();
+			for (Map.Entry<String, RequestStatistics> endpoint : endpoints) {
+				line.append('"').append(endpoint.getKey().replace("\"", "\"\"")).append("\",");
+				appendStatistics(line, endpoint.getValue());
+				if (hasSlo()) {
+					line.append(',').append(ratio(endpoint.getValue().getWithinSlo(), endpoint.getValue().getCount()));
+				}
+				writer.append(line).append(System.lineSeparator());
+				line.setLength(0);
+			}
+		}
+	}
+
+	/**
+	 * The summary of the whole run: totals, error breakdown, percentiles, endpoints with the most errors
+	 * and SLO compliance.
+	 * @return The summary text.
+	 */
+	public String getSummary() {
+		RequestStatistics total = analysis.getTotal();
+		StringBuilder summary = new StringBuilder();
+		String nl = System.lineSeparator();
+		summary.append("Requests: ").append(total.getCount())
+				.append(" in ").append(analysis.getIntervals().size()).append(" intervals").append(nl);
+		for (TransactionState state : TransactionState.values()) {
+			summary.append("  ").append(state).append(": ").append(total.getCount(state))
+					.append(" (").append(percent(total.getCount(state), total.getCount())).append(")").append(nl);
+		}
+		summary.append("Response Time [ms]: Mean = ").append(millis(total.meanMillis()))
+				.append("; P50 = ").append(millis(total.percentileMillis(0.5)))
+				.append("; P90 = ").append(millis(total.percentileMillis(0.9)))
+				.append("; P99 = ").append(millis(total.percentileMillis(0.99)))
+				.append("; P99.9 = ").append(millis(total.percentileMillis(0.999)))
+				.append("; Max = ").append(millis(total.percentileMillis(1.0))).append(nl);
+
+		List<Map.Entry<String, RequestStatistics>> failing = new ArrayList<>();
+		for (Map.Entry<String, RequestStatistics> endpoint : analysis.getEndpoints().entrySet()) {
+			if (errors(endpoint.getValue()) > 0) {
+				failing.add(endpoint);
+			}
+		}
+		if (!failing.isEmpty()) {
+			failing.sort(Comparator.comparingLong(
+					(Map.Entry<String, RequestStatistics> e) -> errors(e.getValue())).reversed());
+			summary.append("Endpoints with most errors:").append(nl);
+			for (Map.Entry<String, RequestStatistics> endpoint : failing.subList(0,
+					Math.min(SUMMARY_ENDPOINTS, failing.size()))) {
+				summary.append("  ").append(endpoint.getKey()).append(": ").append(errors(endpoint.getValue()))
+						.append(" (").append(percent(errors(endpoint.getValue()), endpoint.getValue().getCount()))
+						.append(")").append(nl);
+			}
+		}
+
+		if (hasSlo()) {
+			long metIntervals = analysis.getIntervals().values().stream().filter(this::isSloMet).count();
+			summary.append("SLO (P").append(formatPercentile()).append(" <= ").append(millis(sloMillis))
+					.append(" ms): met in ").append(metIntervals).append(" of ").append(analysis.getIntervals().size())
+					.append(" intervals (").append(percent(metIntervals, analysis.getIntervals().size()))
+					.append("); ").append(percent(total.getWithinSlo(), total.getCount()))
+					.append(" of requests successful within ").append(millis(sloMillis)).append(" ms").append(nl);
+		}
+		if (analysis.getSkippedLines() > 0) {
+			summary.append("Skipped ").append(analysis.getSkippedLines()).append(" malformed lines.").append(nl);
+		}
+		return summary.toString();
+	}
+
+	private boolean hasSlo() {
+		return sloMillis > 0;
+	}
+
+	private boolean isSloMet(RequestStatistics statistics) {
+		// failed requests count as slower than the SLO latency
+		return statistics.getWithinSlo() >= Math.ceil(sloQuantile * statistics.getCount());
+	}
+
+	private static long errors(RequestStatistics statistics) {
+		return statistics.getCount() - statistics.getCount(TransactionState.SUCCESS);
+	}
+
+	private static void appendStatistics(StringBuilder line, RequestStatistics statistics) {
+		line.append(statistics.getCount())
+				.append(',').append(statistics.getCount(TransactionState.SUCCESS))
+				.append(',').append(statistics.getCount(TransactionState.FAILED))
+				.append(',').append(statistics.getCount(TransactionState.TIMEOUT))
+				.append(',').append(statistics.getCount(TransactionState.DROPPED))
+				.append(',').append(ratio(errors(statistics), statistics.getCount()))
+				.append(',').append(millis(statistics.meanMillis()))
+				.append(',').append(millis(statistics.percentileMillis(0.5)))
+				.append(',').append(millis(statistics.percentileMillis(0.9)))
+				.append(',').append(millis(statistics.percentileMillis(0.99)))
+				.append(',').append(millis(statistics.percentileMillis(1.0)));
+	}
+
+	private String formatPercentile() {
+		double percentile = sloQuantile * 100;
+		return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+	}
+
+	private static String millis(double millis) {
+		return String.format(Locale.ROOT, "%.3f", millis);
+	}
+
+	private static String ratio(long part, long total) {
+		return String.format(Locale.ROOT, "%.4f", total == 0 ? 0.0 : (double) part / total);
+	}
+
+	private static String percent(long part, long total) {
+		return String.format(Locale.ROOT, "%.2f%%", total == 0 ? 0.0 : 100.0 * part / total);
+	}
+}
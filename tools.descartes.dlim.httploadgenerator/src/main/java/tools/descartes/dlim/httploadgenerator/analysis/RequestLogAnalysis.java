@@ -0,0 +1,130 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.analysis;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+
+/**
+ * Statistics of a request log for the whole run, per interval and per endpoint.
+ * Partial analyses of parts of a log are merged with {@link #add(RequestLogAnalysis)}.
+ * The number of endpoints is limited, further endpoints are counted as {@link #OTHER_ENDPOINTS}.
+ * Not thread-safe.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class RequestLogAnalysis {
+
+	/** Maximum number of distinct endpoints. */
+	public static final int MAX_ENDPOINTS = 1000;
+	/** Endpoint of all requests beyond {@link #MAX_ENDPOINTS}. */
+	public static final String OTHER_ENDPOINTS = "(other)";
+
+	private final RequestStatistics total = new RequestStatistics();
+	private final TreeMap<Double, RequestStatistics> intervals = new TreeMap<>();
+	private final Map<String, RequestStatistics> endpoints = new HashMap<>();
+	private long skippedLines = 0;
+
+	// requests arrive grouped by interval
+	private double lastIntervalTime = Double.NaN;
+	private RequestStatistics lastInterval = null;
+
+	/**
+	 * Records a request.
+	 * @param intervalTime The target time of the interval in which the request was reported.
+	 * @param endpoint The request's endpoint.
+	 * @param responseMicros The response time in µs.
+	 * @param state The request's state.
+	 * @param sloMet True if the request was successful within the SLO latency.
+	 */
+	public void record(double intervalTime, String endpoint, long responseMicros, TransactionState state,
+			boolean sloMet) {
+		total.record(responseMicros, state, sloMet);
+		if (lastInterval == null || intervalTime != lastIntervalTime) {
+			lastIntervalTime = intervalTime;
+			lastInterval = intervals.computeIfAbsent(intervalTime, t -> new RequestStatistics());
+		}
+		lastInterval.record(responseMicros, state, sloMet);
+		endpointStatistics(endpoint).record(responseMicros, state, sloMet);
+	}
+
+	/**
+	 * Adds the requests of another analysis to this one.
+	 * @param other The other analysis.
+	 */
+	public void add(RequestLogAnalysis other) {
+		total.add(other.total);
+		other.intervals.forEach((time, statistics) ->
+				intervals.computeIfAbsent(time, t -> new RequestStatistics()).add(statistics));
+		other.endpoints.forEach((endpoint, statistics) -> endpointStatistics(endpoint).add(statistics));
+		skippedLines += other.skippedLines;
+		lastInterval = null;
+	}
+
+	/**
+	 * Counts a line of the request log that could not be parsed.
+	 */
+	public void skipLine() {
+		skippedLines++;
+	}
+
+	/**
+	 * The number of lines of the request log that could not be parsed.
+	 * @return The line count.
+	 */
+	public long getSkippedLines() {
+		return skippedLines;
+	}
+
+	/**
+	 * The statistics of all requests.
+	 * @return The statistics.
+	 */
+	public RequestStatistics getTotal() {
+		return total;
+	}
+
+	/**
+	 * The statistics per interval.
+	 * @return The statistics by interval target time, in ascending order.
+	 */
+	public NavigableMap<Double, RequestStatistics> getIntervals() {
+		return Collections.unmodifiableNavigableMap(intervals);
+	}
+
+	/**
+	 * The statistics per endpoint.
+	 * @return The statistics by endpoint.
+	 */
+	public Map<String, RequestStatistics> getEndpoints() {
+		return Collections.unmodifiableMap(endpoints);
+	}
+
+	private RequestStatistics endpointStatistics(String endpoint) {
+		RequestStatistics statistics = endpoints.get(endpoint);
+		if (statistics == null) {
+			String key = endpoints.size() < MAX_ENDPOINTS ? endpoint : OTHER_ENDPOINTS;
+			statistics = endpoints.computeIfAbsent(key, e -> new RequestStatistics());
+		}
+		return statistics;
+	}
+}
@@ -0,0 +1,392 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.analysis;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPInputStream;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+import tools.descartes.dlim.httploadgenerator.runner.PerRequestIntervalResult;
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchiveReader;
+import tools.descartes.dlim.httploadgenerator.runner.ResultWriter;
+
+/**
+ * Analyzes request logs without loading them into memory.
+ * Request CSV files are memory-mapped in chunks that are parsed in parallel in a fork/join pool,
+ * each chunk into its own partial {@link RequestLogAnalysis}. The partial analyses are merged
+ * while joining. Compressed CSV files and request archives are streamed sequentially.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class RequestLogAnalyzer {
+
+	private static final int DEFAULT_CHUNK_SIZE = 32 << 20;
+	/** Lines that start in a chunk may extend this far beyond it. */
+	private static final int MAX_LINE_LENGTH = 1 << 20;
+	private static final int STREAM_BLOCK_SIZE = 4 << 20;
+	private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+	private static final TransactionState[] STATES = TransactionState.values();
+	private static final byte[][] STATE_NAMES = new byte[STATES.length][];
+
+	static {
+		for (TransactionState state : STATES) {
+			STATE_NAMES[state.ordinal()] = state.name().getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+
+	private final long sloMicros;
+	private final int chunkSize;
+
+	/**
+	 * Creates an analyzer.
+	 * @param sloMillis The SLO latency in ms, 0 or less for no SLO.
+	 */
+	public RequestLogAnalyzer(double sloMillis) {
+		this(sloMillis, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates an analyzer.
+	 * @param sloMillis The SLO latency in ms, 0 or less for no SLO.
+	 * @param chunkSize The size of the chunks that are parsed in parallel in bytes.
+	 */
+	RequestLogAnalyzer(double sloMillis, int chunkSize) {
+		this.sloMicros = sloMillis > 0 ? Math.round(sloMillis * 1000) : -1;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Analyzes a request log: a request CSV file, a gzip-compressed request CSV file or a request archive.
+	 * @param file The request log.
+	 * @return The analysis.
+	 * @throws IOException If the file can not be read.
+	 */
+	public RequestLogAnalysis analyze(File file) throws IOException {
+		if (RequestArchiveReader.isArchive(file)) {
+			return analyzeArchive(file);
+		} else if (file.getName().endsWith(ResultWriter.GZIP_EXTENSION)) {
+			try (InputStream in = new GZIPInputStream(new FileInputStream(file), 1 << 16)) {
+				return analyzeStream(in);
+			}
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+			return ForkJoinPool.commonPool().invoke(new ChunkTask(channel, size, 0, chunks));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private RequestLogAnalysis analyzeArchive(File file) throws IOException {
+		RequestLogAnalysis analysis = new RequestLogAnalysis();
+		try (RequestArchiveReader reader = new RequestArchiveReader(file)) {
+			List<PerRequestIntervalResult> requests;
+			while ((requests = reader.readRowGroup()) != null) {
+				for (PerRequestIntervalResult request : requests) {
+					TransactionState state;
+					try {
+						state = TransactionState.valueOf(request.getTransactionState());
+					} catch (IllegalArgumentException e) {
+						analysis.skipLine();
+						continue;
+					}
+					long micros = Math.round(request.getResponseTime() * 1_000_000);
+					analysis.record(request.getResponseTargetTime(),
+							endpoint(request.getMethod(), request.getRequestURI()), micros, state, isSloMet(micros, state));
+				}
+			}
+		}
+		return analysis;
+	}
+
+	private RequestLogAnalysis analyzeStream(InputStream in) throws IOException {
+		LineParser parser = new LineParser();
+		byte[] block = new byte[STREAM_BLOCK_SIZE];
+		int length = 0;
+		while (true) {
+			length += in.readNBytes(block, length, block.length - length);
+			// readNBytes only returns less than requested at the end of the stream
+			boolean endOfStream = length < block.length;
+			int parseEnd = length;
+			if (!endOfStream) {
+				while (parseEnd > 0 && block[parseEnd - 1] != '\n') {
+					parseEnd--;
+				}
+				if (parseEnd == 0) {
+					throw new IOException("Line of request log exceeds " + block.length + " bytes.");
+				}
+			}
+			parser.parseLines(ByteBuffer.wrap(block, 0, parseEnd), 0, parseEnd, true);
+			if (endOfStream) {
+				break;
+			}
+			System.arraycopy(block, parseEnd, block, 0, length - parseEnd);
+			length -= parseEnd;
+		}
+		return parser.analysis;
+	}
+
+	private boolean isSloMet(long micros, TransactionState state) {
+		return state == TransactionState.SUCCESS && micros <= sloMicros;
+	}
+
+	/**
+	 * The endpoint of a request: the method and the URI without query and quotes.
+	 */
+	private static String endpoint(String method, String uri) {
+		int from = uri.startsWith("\"") ? 1 : 0;
+		int to = uri.endsWith("\"") && uri.length() > from ? uri.length() - 1 : uri.length();
+		int query = uri.indexOf('?', from);
+		if (query >= 0 && query < to) {
+			to = query;
+		}
+		return method + " " + uri.substring(from, to);
+	}
+
+	/**
+	 * Parses a range of chunks, splitting it until single chunks are left.
+	 */
+	private final class ChunkTask extends RecursiveTask<RequestLogAnalysis> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient FileChannel channel;
+		private final long size;
+		private final int fromChunk;
+		private final int toChunk;
+
+		private ChunkTask(FileChannel channel, long size, int fromChunk, int toChunk) {
+			this.channel = channel;
+			this.size = size;
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+		}
+
+		@Override
+		protected RequestLogAnalysis compute() {
+			if (toChunk - fromChunk > 1) {
+				int middle = (fromChunk + toChunk) >>> 1;
+				ChunkTask left = new ChunkTask(channel, size, fromChunk, middle);
+				left.fork();
+				RequestLogAnalysis right = new ChunkTask(channel, size, middle, toChunk).compute();
+				RequestLogAnalysis analysis = left.join();
+				analysis.add(right);
+				return analysis;
+			}
+			try {
+				return parseChunk();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private RequestLogAnalysis parseChunk() throws IOException {
+			LineParser parser = new LineParser();
+			long start = (long) fromChunk * chunkSize;
+			long end = Math.min(size, start + chunkSize);
+			if (start >= end) {
+				return parser.analysis;
+			}
+			// map the byte before the chunk to find the first line that starts in it
+			long mapStart = start == 0 ? 0 : start - 1;
+			long mapEnd = Math.min(size, end + MAX_LINE_LENGTH);
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+			int position = 0;
+			if (start > 0) {
+				position = indexOf(buffer, (byte) '\n', 0, buffer.limit()) + 1;
+				if (position == 0) {
+					return parser.analysis;
+				}
+			}
+			parser.parseLines(buffer, position, (int) (end - mapStart), mapEnd == size);
+			return parser.analysis;
+		}
+	}
+
+	/**
+	 * Parses lines of a request CSV file into an analysis.
+	 */
+	private final class LineParser {
+
+		private final RequestLogAnalysis analysis = new RequestLogAnalysis();
+		private byte[] scratch = new byte[256];
+
+		/**
+		 * Parses all lines that start before the limit.
+		 * @param buffer The buffer, lines may end beyond the limit.
+		 * @param position The start of the first line.
+		 * @param limit The end of the range in which lines start.
+		 * @param endOfFile True if the buffer ends with the end of the file.
+		 * @throws IOException If the last line does not end within the buffer.
+		 */
+		private void parseLines(ByteBuffer buffer, int position, int limit, boolean endOfFile) throws IOException {
+			while (position < limit) {
+				int lineEnd = indexOf(buffer, (byte) '\n', position, buffer.limit());
+				if (lineEnd < 0) {
+					if (!endOfFile) {
+						throw new IOException("Line of request log exceeds " + MAX_LINE_LENGTH + " bytes.");
+					}
+					lineEnd = buffer.limit();
+				}
+				parseLine(buffer, position, lineEnd);
+				position = lineEnd + 1;
+			}
+		}
+
+		private void parseLine(ByteBuffer buffer, int from, int to) {
+			if (to > from && buffer.get(to - 1) == '\r') {
+				to--;
+			}
+			if (to == from) {
+				return;
+			}
+			byte first = buffer.get(from);
+			if (first != '-' && first != '.' && (first < '0' || first > '9')) {
+				// header
+				return;
+			}
+			// request target time, response target time, request num, URI, method, response time, status
+			int requestTimeEnd = indexOf(buffer, (byte) ',', from, to);
+			int targetTimeEnd = requestTimeEnd < 0 ? -1 : indexOf(buffer, (byte) ',', requestTimeEnd + 1, to);
+			int requestNumEnd = targetTimeEnd < 0 ? -1 : indexOf(buffer, (byte) ',', targetTimeEnd + 1, to);
+			int uriEnd = requestNumEnd < 0 ? -1 : uriEnd(buffer, requestNumEnd + 1, to);
+			int methodEnd = uriEnd < 0 ? -1 : indexOf(buffer, (byte) ',', uriEnd + 1, to);
+			int responseTimeEnd = methodEnd < 0 ? -1 : indexOf(buffer, (byte) ',', methodEnd + 1, to);
+			TransactionState state = responseTimeEnd < 0 ? null : state(buffer, responseTimeEnd + 1, to);
+			if (state == null) {
+				analysis.skipLine();
+				return;
+			}
+			try {
+				double targetTime = parseDouble(buffer, requestTimeEnd + 1, targetTimeEnd);
+				long micros = Math.round(parseDouble(buffer, methodEnd + 1, responseTimeEnd) * 1_000_000);
+				String endpoint = endpoint(buffer, requestNumEnd + 1, uriEnd, methodEnd);
+				analysis.record(targetTime, endpoint, micros, state, isSloMet(micros, state));
+			} catch (NumberFormatException e) {
+				analysis.skipLine();
+			}
+		}
+
+		private int uriEnd(ByteBuffer buffer, int from, int to) {
+			if (from < to && buffer.get(from) == '"') {
+				int quote = indexOf(buffer, (byte) '"', from + 1, to);
+				return quote < 0 ? -1 : indexOf(buffer, (byte) ',', quote, to);
+			}
+			return indexOf(buffer, (byte) ',', from, to);
+		}
+
+		private String endpoint(ByteBuffer buffer, int uriStart, int uriEnd, int methodEnd) {
+			int length = methodEnd - uriStart;
+			if (scratch.length < length) {
+				scratch = new byte[Math.max(length, scratch.length * 2)];
+			}
+			int written = 0;
+			for (int i = uriEnd + 1; i < methodEnd; i++) {
+				scratch[written++] = buffer.get(i);
+			}
+			scratch[written++] = ' ';
+			boolean quoted = uriEnd - uriStart >= 2 && buffer.get(uriStart) == '"';
+			int from = quoted ? uriStart + 1 : uriStart;
+			int to = quoted ? uriEnd - 1 : uriEnd;
+			for (int i = from; i < to; i++) {
+				byte b = buffer.get(i);
+				if (b == '?') {
+					break;
+				}
+				scratch[written++] = b;
+			}
+			return new String(scratch, 0, written, StandardCharsets.UTF_8);
+		}
+
+		private TransactionState state(ByteBuffer buffer, int from, int to) {
+			for (int s = 0; s < STATES.length; s++) {
+				byte[] name = STATE_NAMES[s];
+				if (name.length != to - from) {
+					continue;
+				}
+				int i = 0;
+				while (i < name.length && buffer.get(from + i) == name[i]) {
+					i++;
+				}
+				if (i == name.length) {
+					return STATES[s];
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a decimal number. Plain decimals are parsed without allocation and yield the same
+	 * result as {@link Double#parseDouble(String)}, other notations fall back to it.
+	 */
+	static double parseDouble(ByteBuffer buffer, int from, int to) {
+		int i = from;
+		boolean negative = i < to && buffer.get(i) == '-';
+		if (negative) {
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1;
+		for (; i < to; i++) {
+			byte b = buffer.get(i);
+			if (b >= '0' && b <= '9') {
+				mantissa = mantissa * 10 + (b - '0');
+				digits++;
+				if (decimals >= 0) {
+					decimals++;
+				}
+			} else if (b == '.' && decimals < 0) {
+				decimals = 0;
+			} else {
+				break;
+			}
+		}
+		if (i < to || digits == 0 || digits > 15) {
+			byte[] bytes = new byte[to - from];
+			for (int j = 0; j < bytes.length; j++) {
+				bytes[j] = buffer.get(from + j);
+			}
+			return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+		}
+		double value = decimals <= 0 ? mantissa : mantissa / POWERS_OF_TEN[decimals];
+		return negative ? -value : value;
+	}
+
+	private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (buffer.get(i) == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.analysis;
+
+import tools.descartes.dlim.httploadgenerator.generator.LatencyHistogram;
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+
+/**
+ * Request counts by state and a response time histogram of a set of requests, e.g., of an interval
+ * or an endpoint. Its memory is independent of the number of requests. Not thread-safe.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class RequestStatistics {
+
+	private final long[] histogram = new long[LatencyHistogram.VALUES_LENGTH];
+	private final long[] states = new long[TransactionState.values().length];
+	private long withinSlo = 0;
+
+	/**
+	 * Records a request. Response times of dropped requests are not recorded.
+	 * @param responseMicros The response time in µs.
+	 * @param state The request's state.
+	 * @param sloMet True if the request was successful within the SLO latency.
+	 */
+	public void record(long responseMicros, TransactionState state, boolean sloMet) {
+		states[state.ordinal()]++;
+		if (sloMet) {
+			withinSlo++;
+		}
+		if (state != TransactionState.DROPPED) {
+			long micros = Math.max(0, responseMicros);
+			histogram[LatencyHistogram.COUNT_INDEX]++;
+			histogram[LatencyHistogram.SUM_INDEX] += micros;
+			histogram[LatencyHistogram.FIRST_BUCKET_INDEX + LatencyHistogram.bucketIndex(micros)]++;
+		}
+	}
+
+	/**
+	 * Adds the requests of other statistics to these.
+	 * @param other The other statistics.
+	 */
+	public void add(RequestStatistics other) {
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] += other.histogram[i];
+		}
+		for (int i = 0; i < states.length; i++) {
+			states[i] += other.states[i];
+		}
+		withinSlo += other.withinSlo;
+	}
+
+	/**
+	 * The number of all requests.
+	 * @return The request count.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (long stateCount : states) {
+			count += stateCount;
+		}
+		return count;
+	}
+
+	/**
+	 * The number of requests in a state.
+	 * @param state The state.
+	 * @return The request count.
+	 */
+	public long getCount(TransactionState state) {
+		return states[state.ordinal()];
+	}
+
+	/**
+	 * The number of successful requests within the SLO latency.
+	 * @return The request count.
+	 */
+	public long getWithinSlo() {
+		return withinSlo;
+	}
+
+	/**
+	 * The mean response time of all requests that were not dropped.
+	 * @return The mean in ms.
+	 */
+	public double meanMillis() {
+		return LatencyHistogram.meanMicros(histogram) / 1000.0;
+	}
+
+	/**
+	 * A response time percentile of all requests that were not dropped, accurate to within 12.5%.
+	 * @param quantile The quantile in [0, 1], 1 for the maximum.
+	 * @return The percentile in ms.
+	 */
+	public double percentileMillis(double quantile) {
+		return LatencyHistogram.percentileMicros(histogram, quantile) / 1000.0;
+	}
+}
@@ -23,12 +23,20 @@ import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
 import tools.descartes.dlim.httploadgenerator.http.HTTPTransaction.HTTPTransactionResult;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaGlobalsBuilder;
+import tools.descartes.dlim.httploadgenerator.runner.ClockOffset;
+import tools.descartes.dlim.httploadgenerator.runner.ErrorBreakdown;
 import tools.descartes.dlim.httploadgenerator.runner.IRunnerConstants;
+import tools.descartes.dlim.httploadgenerator.runner.MetricGroup;
+import tools.descartes.dlim.httploadgenerator.runner.PeriodMerger;
 
 /**
  * The class AbstractLoadGenerator is a abstract class for various load
@@ -69,6 +77,30 @@ public abstract class AbstractLoadGenerator extends Thread {
 
 	private int timeout = -1;
 
+	private boolean luaJC = false;
+
+	private String luaLibraries = LuaGlobalsBuilder.DEFAULT_LIBRARIES;
+
+	private String requestGeneratorClassName = "";
+
+	private String bindAddresses = "";
+
+	private int clientShards = 0;
+
+	private HttpClientSettings httpClientSettings = HttpClientSettings.auto();
+
+	private int prewarmConnections = 0;
+	private int prewarmCalls = 0;
+
+	private boolean keepAlive = false;
+
+	private int reportPeriodMillis = 0;
+
+	private long startMillis = 0;
+
+	private int generatorIndex = 0;
+	private int generatorCount = 1;
+
 	/**
 	 * Constant command String to indicate that a load profile is being sent via
 	 * network. E.g. "dlim" for arrival rate tuples and "timestaps" for request
@@ -126,6 +158,8 @@ public abstract class AbstractLoadGenerator extends Thread {
 		try {
 			LOG.log(Level.INFO, "Waiting for director.");
 			streams.director = server.accept();
+			// clock requests are single lines that must not wait for acknowledgements
+			streams.director.setTcpNoDelay(true);
 			LOG.log(Level.INFO, "Director connected.");
 			streams.in = new BufferedReader(new InputStreamReader(streams.director.getInputStream()));
 			streams.out = new PrintWriter(streams.director.getOutputStream(), true);
@@ -173,6 +207,64 @@ public abstract class AbstractLoadGenerator extends Thread {
 						LOG.log(Level.WARNING, "Invalid timeout.");
 					}
 					ok();
+				} else if (line.startsWith(IRunnerConstants.LUAJC_KEY)) {
+					this.luaJC = Boolean.parseBoolean(line.substring(IRunnerConstants.LUAJC_KEY.length()).trim());
+					ok();
+				} else if (line.startsWith(IRunnerConstants.LUA_LIBRARIES_KEY)) {
+					this.luaLibraries = line.substring(IRunnerConstants.LUA_LIBRARIES_KEY.length()).trim();
+					ok();
+				} else if (line.startsWith(IRunnerConstants.REQUEST_GENERATOR_KEY)) {
+					this.requestGeneratorClassName = line.substring(IRunnerConstants.REQUEST_GENERATOR_KEY.length()).trim();
+					ok();
+				} else if (line.startsWith(IRunnerConstants.GENERATOR_INDEX_KEY)) {
+					try {
+						String[] tokens = line.substring(IRunnerConstants.GENERATOR_INDEX_KEY.length()).split(",");
+						this.generatorIndex = Integer.parseInt(tokens[0].trim());
+						this.generatorCount = Integer.parseInt(tokens[1].trim());
+					} catch (IndexOutOfBoundsException | NumberFormatException e) {
+						LOG.log(Level.WARNING, "Invalid load generator index.");
+					}
+					ok();
+				} else if (line.startsWith(IRunnerConstants.BIND_ADDRESSES_KEY)) {
+					this.bindAddresses = line.substring(IRunnerConstants.BIND_ADDRESSES_KEY.length()).trim();
+					ok();
+				} else if (line.startsWith(IRunnerConstants.CLIENT_SHARDS_KEY)) {
+					try {
+						this.clientShards = Integer.parseInt(
+								line.substring(IRunnerConstants.CLIENT_SHARDS_KEY.length()).trim());
+					} catch (NumberFormatException e) {
+						LOG.log(Level.WARNING, "Invalid client shard count.");
+					}
+					ok();
+				} else if (line.startsWith(IRunnerConstants.HTTP_CLIENT_KEY)) {
+					try {
+						this.httpClientSettings = HttpClientSettings.parse(
+								line.substring(IRunnerConstants.HTTP_CLIENT_KEY.length()));
+					} catch (IndexOutOfBoundsException | NumberFormatException e) {
+						LOG.log(Level.WARNING, "Invalid HTTP client settings, sizing them automatically.");
+						this.httpClientSettings = HttpClientSettings.auto();
+					}
+					ok();
+				} else if (line.startsWith(IRunnerConstants.PREWARM_KEY)) {
+					try {
+						String[] tokens = line.substring(IRunnerConstants.PREWARM_KEY.length()).split(",");
+						this.prewarmConnections = Integer.parseInt(tokens[0].trim());
+						this.prewarmCalls = Integer.parseInt(tokens[1].trim());
+					} catch (IndexOutOfBoundsException | NumberFormatException e) {
+						LOG.log(Level.WARNING, "Invalid pre-warm settings.");
+					}
+					ok();
+				} else if (line.startsWith(IRunnerConstants.KEEP_ALIVE_KEY)) {
+					this.keepAlive = Boolean.parseBoolean(line.substring(IRunnerConstants.KEEP_ALIVE_KEY.length()).trim());
+					ok();
+				} else if (line.startsWith(IRunnerConstants.REPORT_PERIOD_KEY)) {
+					try {
+						this.reportPeriodMillis = Integer.parseInt(
+								line.substring(IRunnerConstants.REPORT_PERIOD_KEY.length()).trim());
+					} catch (NumberFormatException e) {
+						LOG.log(Level.WARNING, "Invalid report period.");
+					}
+					ok();
 				} else if (line.startsWith(IRunnerConstants.SCRIPT_SEND_KEY)) {
 					receiveScript(in);
 					LOG.info("Received LUA script.");
@@ -233,27 +325,102 @@ public abstract class AbstractLoadGenerator extends Thread {
 		int warmupPauseS = Integer.parseInt(params[5]);
 		boolean randomizeUsers = Boolean.parseBoolean(params[6].trim());
 		ResultTracker.TRACKER.reset();
-		out.println(System.currentTimeMillis());
 
 		LOG.log(Level.INFO, "Starting run with randomBatchTimes=" + randomBatchTimes + ", seed=" + seed + "\n"
 				+ "warmupDuration=" + warmupDurationS + " s, warmupLoadIntensity=" + warmupLoad
 				+ ", warmupPause=" + warmupPauseS + " s, randomizeUsers=" + randomizeUsers);
 		File script = new File(TMP_SCRIPT_PATH);
-		if (!script.exists()) {
+		if (requestGeneratorClassName.isEmpty() && !script.exists()) {
 			error("Temporary load generator side script not found at " + TMP_SCRIPT_PATH);
+			return;
+		}
+		String prewarmReport;
+		try {
+			prewarmReport = prepare(seed, randomizeUsers);
+		} catch (RuntimeException e) {
+			// e.g., a broken script, the director aborts the run before measurement
+			LOG.log(Level.SEVERE, "Could not prepare the run: " + e.getMessage(), e);
+			error(e.getMessage());
+			return;
+		}
+		out.println(IRunnerConstants.PREWARM_REPORT_KEY + prewarmReport);
+		out.println(IRunnerConstants.READY_KEY);
+		try {
+			startMillis = awaitScheduledStart();
+		} catch (IOException e) {
+			LOG.log(Level.SEVERE, "Did not receive the scheduled start: " + e.getMessage());
+			return;
 		}
 		process(randomBatchTimes, seed, warmupDurationS, warmupLoad, warmupPauseS, randomizeUsers);
 		out.println(IRunnerConstants.DONE_KEY);
 	}
 
+	/**
+	 * Answers the director's clock requests until the director sends the scheduled start,
+	 * then waits for the start and reports the actual start to the director.
+	 * @return The scheduled start in ms since the epoch.
+	 * @throws IOException If the connection to the director broke.
+	 */
+	private long awaitScheduledStart() throws IOException {
+		while (true) {
+			String line = in.readLine();
+			if (line == null) {
+				throw new IOException("Connection closed by director.");
+			}
+			line = line.trim();
+			if (line.equals(IRunnerConstants.CLOCK_KEY)) {
+				out.println(IRunnerConstants.CLOCK_KEY + ClockOffset.epochMicros());
+			} else if (line.startsWith(IRunnerConstants.SCHEDULED_START_KEY)) {
+				long scheduledStart;
+				try {
+					scheduledStart = Long.parseLong(line.substring(IRunnerConstants.SCHEDULED_START_KEY.length()).trim());
+				} catch (NumberFormatException e) {
+					LOG.log(Level.WARNING, "Invalid scheduled start, starting now.");
+					scheduledStart = System.currentTimeMillis();
+				}
+				long remaining = scheduledStart - System.currentTimeMillis();
+				if (remaining < 0) {
+					LOG.log(Level.WARNING, "Received the scheduled start " + -remaining + " ms late.");
+				}
+				sleepUntil(scheduledStart);
+				out.println(ClockOffset.epochMicros());
+				return scheduledStart;
+			} else {
+				LOG.log(Level.SEVERE, "Unknown Command while waiting for the start: " + line);
+			}
+		}
+	}
+
+	/**
+	 * Sleeps until the given time. Sleeps coarsely and spins for the last ms,
+	 * as sleeps may overshoot by more than a ms.
+	 * @param epochMillis The time in ms since the epoch.
+	 */
+	private static void sleepUntil(long epochMillis) {
+		long remaining;
+		while ((remaining = epochMillis - System.currentTimeMillis()) > 0) {
+			if (remaining > 2) {
+				try {
+					Thread.sleep(remaining - 2);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
 	/**
 	 * Sending error message to the director.
+	 * The message must be a single line.
 	 *
 	 * @param message
 	 *            Error message.
 	 */
 	private void error(String message) {
-		out.println("Error: " + message);
+		out.println(IRunnerConstants.ERROR_KEY + message.replace('\n', ' ').replace('\r', ' '));
 	}
 
 	/**
@@ -263,6 +430,18 @@ public abstract class AbstractLoadGenerator extends Thread {
 		out.println(IRunnerConstants.OK_KEY);
 	}
 
+	/**
+	 * Prepares the run before the load generator reports that it is ready to start:
+	 * creates the virtual users and pre-warms the HTTP client.
+	 *
+	 * @param seed
+	 *            The random number generator seed.
+	 * @param randomizeUsers True if users should be randoized.
+	 * 			  False if they should be taken from a queue in order.
+	 * @return Summary of the pre-warm phase for the director.
+	 */
+	protected abstract String prepare(int seed, boolean randomizeUsers);
+
 	/**
 	 * Places and executes the work.
 	 *
@@ -303,17 +482,46 @@ public abstract class AbstractLoadGenerator extends Thread {
 	 * 			  Count of dropped transactions for the measurement interval.
 	 * @param actualtime
 	 *            actual time
+	 * @param metrics
+	 * 			  Values of the additional metric groups.
+	 * @param groups
+	 * 			  Further formatted groups with dynamic keys, e.g., the {@link ErrorBreakdown}.
+	 * @param requestResults
+	 * 			  The results of the individual requests.
 	 */
 	protected void sendToDirector(double targettime, int loadintensity, long throughput,
 				double avgResponseTime, long invalidTransactionCount, long timeoutTransactionCount,
-				long droppedTransactionCount, double actualtime, ArrayList<HTTPTransactionResult> requestResults) {
+				long droppedTransactionCount, double actualtime, EnumMap<MetricGroup, long[]> metrics,
+				List<String> groups, ArrayList<HTTPTransactionResult> requestResults) {
+		StringBuilder metricGroups = new StringBuilder();
+		metrics.forEach((group, values) -> {
+			String formatted = group.format(values);
+			if (formatted != null) {
+				metricGroups.append(formatted).append(',');
+			}
+		});
+		for (String group : groups) {
+			if (group != null) {
+				metricGroups.append(group).append(',');
+			}
+		}
 		out.println("" + targettime + "," + loadintensity + "," + throughput
 				+ "," + avgResponseTime + "," + invalidTransactionCount + ","
-				+ timeoutTransactionCount + "," + droppedTransactionCount + "," + actualtime + "," + requestResults.stream().map(result -> {
+				+ timeoutTransactionCount + "," + droppedTransactionCount + "," + actualtime + ","
+				+ metricGroups + requestResults.stream().map(result -> {
 				return result.getRequestNum() + ";\"" + result.getRequestURI() + "\";" + result.getMethod() + ";" + ((double) result.getResponseTime() / 1000.0)+ ";" + result.getTransactionState().toString() + ";" + result.getTransactionTargetStartTime();
 			}).collect(Collectors.joining("$")));
 	}
 
+	/**
+	 * Sends the results of a report period to the director. May be called concurrently to
+	 * {@link #sendToDirector}, as messages are written as whole lines.
+	 * @param message The period's results, see {@link PeriodMerger#format(long, long[], long[])}.
+	 */
+	protected void sendPeriodToDirector(String message) {
+		out.println(message);
+	}
+
 	/**
 	 * Container for network streams.
 	 *
@@ -357,4 +565,110 @@ public abstract class AbstractLoadGenerator extends Thread {
 	public int getTimeout() {
 		return timeout;
 	}
+
+	/**
+	 * True if the LUA script is to be compiled to JVM bytecode using LuaJC.
+	 * @return The LuaJC flag.
+	 */
+	public boolean isLuaJC() {
+		return luaJC;
+	}
+
+	/**
+	 * Comma separated whitelist of the LUA standard libraries that are loaded for each virtual user.
+	 * @return The library whitelist.
+	 */
+	public String getLuaLibraries() {
+		return luaLibraries;
+	}
+
+	/**
+	 * Fully qualified class name of the custom request generator.
+	 * @return The class name, empty if the LUA script generates the requests.
+	 */
+	public String getRequestGeneratorClassName() {
+		return requestGeneratorClassName;
+	}
+
+	/**
+	 * Comma separated local addresses that connections are bound to.
+	 * @return The bind addresses, empty to let the operating system choose.
+	 */
+	public String getBindAddresses() {
+		return bindAddresses;
+	}
+
+	/**
+	 * Number of independent HTTP client shards.
+	 * @return The shard count, 0 to choose it by core count.
+	 */
+	public int getClientShards() {
+		return clientShards;
+	}
+
+	/**
+	 * Selector, thread pool and connection limits of the HTTP clients.
+	 * @return The settings, possibly with values that are to be sized automatically.
+	 */
+	public HttpClientSettings getHttpClientSettings() {
+		return httpClientSettings;
+	}
+
+	/**
+	 * Number of connections per destination to open before measurement starts.
+	 * @return The connection count, 0 to skip.
+	 */
+	public int getPrewarmConnections() {
+		return prewarmConnections;
+	}
+
+	/**
+	 * Number of calls per user to send before measurement starts.
+	 * @return The call count, 0 to skip.
+	 */
+	public int getPrewarmCalls() {
+		return prewarmCalls;
+	}
+
+	/**
+	 * True if requests keep their connections open instead of sending "Connection: close".
+	 * @return The keep-alive flag.
+	 */
+	public boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * Index of this load generator among all load generators of the director, starting at 0.
+	 * @return The generator index.
+	 */
+	public int getGeneratorIndex() {
+		return generatorIndex;
+	}
+
+	/**
+	 * Number of load generators used by the director.
+	 * @return The generator count.
+	 */
+	public int getGeneratorCount() {
+		return generatorCount;
+	}
+
+	/**
+	 * Period in which results are reported in addition to the intervals of the load profile.
+	 * @return The report period in ms, 0 for no report periods.
+	 */
+	public int getReportPeriodMillis() {
+		return reportPeriodMillis;
+	}
+
+	/**
+	 * Start of the run as scheduled by the director, on the load generator's clock.
+	 * Load generators schedule their warmup and measurement from this time, so that they are
+	 * aligned with the other load generators.
+	 * @return The start in ms since the epoch.
+	 */
+	public long getStartMillis() {
+		return startMillis;
+	}
 }
@@ -19,6 +19,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -27,9 +30,17 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import tools.descartes.dlim.httploadgenerator.generator.jfr.BatchDispatchEvent;
+import tools.descartes.dlim.httploadgenerator.generator.jfr.IntervalEvent;
+import tools.descartes.dlim.httploadgenerator.generator.jfr.LoadEvents;
 import tools.descartes.dlim.httploadgenerator.http.HTTPInputGeneratorPool;
 import tools.descartes.dlim.httploadgenerator.http.HTTPTransaction;
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
+import tools.descartes.dlim.httploadgenerator.http.lua.Feeders;
+import tools.descartes.dlim.httploadgenerator.runner.EndpointTraffic;
+import tools.descartes.dlim.httploadgenerator.runner.ErrorBreakdown;
 import tools.descartes.dlim.httploadgenerator.runner.IRunnerConstants;
+import tools.descartes.dlim.httploadgenerator.runner.MetricGroup;
 import tools.descartes.dlim.httploadgenerator.transaction.TransactionBatch;
 import tools.descartes.dlim.httploadgenerator.transaction.TransactionQueueSingleton;
 
@@ -53,6 +64,15 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 	 */
 	private ThreadPoolExecutor executor;
 
+	/** Health of the load generator, sampled at the end of each interval. */
+	private HealthSampler healthSampler;
+
+	/** Maximum delay of a batch dispatch behind its schedule in the current interval, in ns. */
+	private long dispatchLatenessNanos = 0;
+
+	/** Time at which the tracker's results were last retrieved, in ns. */
+	private long lastResultNanos = System.nanoTime();
+
 	/** Arrival rates saved in a list. */
 	private List<ArrivalRateTuple> arrRates;
 
@@ -92,6 +112,35 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String prepare(int seed, boolean randomizeUsers) {
+		HTTPInputGeneratorPool.PoolMode mode = HTTPInputGeneratorPool.PoolMode.QUEUE;
+		if (randomizeUsers) {
+			mode = HTTPInputGeneratorPool.PoolMode.RANDOM;
+		}
+		Feeders.configure(getGeneratorIndex(), getGeneratorCount(), numberOfVirtualUsers);
+		HttpClientSettings httpClientSettings = resolveHttpClientSettings(Runtime.getRuntime().availableProcessors());
+		HTTPInputGeneratorPool.initializePool(mode, getScriptPath(), numberOfVirtualUsers, getTimeout(), seed,
+				isLuaJC(), getLuaLibraries(), getRequestGeneratorClassName(), getBindAddresses(),
+				getClientShards(), httpClientSettings);
+		HTTPInputGeneratorPool.getPool().setKeepAlive(isKeepAlive());
+		return HTTPInputGeneratorPool.getPool().prewarm(getPrewarmConnections(), getPrewarmCalls());
+	}
+
+	/**
+	 * Sizes the automatic HTTP client settings for this load generator's share of the load.
+	 * @param cores The number of cores of the load generator.
+	 * @return The resolved settings.
+	 */
+	HttpClientSettings resolveHttpClientSettings(int cores) {
+		// the director already divides the arrival rates by the number of load generators
+		double peakRate = arrRates == null ? 0 : arrRates.stream().mapToDouble(ArrivalRateTuple::getArrivalRate).max().orElse(0);
+		return getHttpClientSettings().resolve(cores, numberOfVirtualUsers, peakRate);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -102,11 +151,6 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 
 		try {
 			// setup initial run Variables
-			HTTPInputGeneratorPool.PoolMode mode = HTTPInputGeneratorPool.PoolMode.QUEUE;
-			if (randomizeUsers) {
-				mode = HTTPInputGeneratorPool.PoolMode.RANDOM;
-			}
-			HTTPInputGeneratorPool.initializePool(mode, getScriptPath(), numberOfVirtualUsers, getTimeout(), seed);
 			LinkedBlockingQueue<Runnable> executorQueue = new LinkedBlockingQueue<Runnable>();
 			int numThreads = Runtime.getRuntime().availableProcessors() * 2;
 			executor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS,
@@ -120,10 +164,13 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 			int defaultMeanWaitTime = Math.min(10, (int) (arrRates.get(0).getTimeStamp() * 1000) / 10);
 
 			clearResultTracker();
+			healthSampler = new HealthSampler();
 
+			// all phases are scheduled from the start scheduled by the director, so that load generators stay aligned
+			long timeZero = getStartMillis() > 0 ? getStartMillis() : System.currentTimeMillis();
 			//Warmup, if not skipped
 			if (warmupDurationS > 0 && warmupLoadIntensity >= 1) {
-				long warmupStart = System.currentTimeMillis();
+				long warmupStart = timeZero;
 				int arrivalRate = (int) warmupLoadIntensity;
 				for (long targetTime = 1000;
 						targetTime <= warmupDurationS * 1000;
@@ -138,49 +185,57 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 				}
 
 				//pause after warmup
-				long pauseStartTime = System.currentTimeMillis();
+				long pauseStartTime = warmupStart + warmupDurationS * 1000L;
 				for (long targetTime = 1000;
 						targetTime <= warmupPauseS * 1000;
 						targetTime += 1000) {
 					long currentTime = System.currentTimeMillis();
-					Thread.sleep(pauseStartTime + targetTime - currentTime);
+					Thread.sleep(Math.max(0, pauseStartTime + targetTime - currentTime));
 					sendBatchDataToDirector((targetTime / 1000) - warmupPauseS, 0,
 							//no final dispatch time, since nothing is dispatched
 							0.0);
 				}
+				timeZero = pauseStartTime + warmupPauseS * 1000L;
 			}
 
 			clearResultTracker();
-			long timeZero = System.currentTimeMillis();
 			double nextTimeStamp = 0;
+			PeriodReporter periodReporter = getReportPeriodMillis() > 0
+					? new PeriodReporter(getReportPeriodMillis(), timeZero, this::sendPeriodToDirector) : null;
 
-			for (ArrivalRateTuple t : arrRates) {
-				long currentTime = System.currentTimeMillis() - timeZero;
+			try {
+				for (ArrivalRateTuple t : arrRates) {
+					long currentTime = System.currentTimeMillis() - timeZero;
 
-				// set target arrival rate and next time target
-				int targetArrivalsInInterval = (int) t.getArrivalRate();
-				long targetTime = (long) (1000.0 * t.getTimeStamp());
+					// set target arrival rate and next time target
+					int targetArrivalsInInterval = (int) t.getArrivalRate();
+					long targetTime = (long) (1000.0 * t.getTimeStamp());
 
-				currentTime = blockingScheduleTransactionBatchesForInterval(targetArrivalsInInterval,
-						timeZero, currentTime, targetTime, defaultMeanWaitTime, randomBatchTimes);
+					currentTime = blockingScheduleTransactionBatchesForInterval(targetArrivalsInInterval,
+							timeZero, currentTime, targetTime, defaultMeanWaitTime, randomBatchTimes);
 
-				sendBatchDataToDirector(t.getTimeStamp(), (int) t.getArrivalRate(), ((double) currentTime) / 1000);
-				nextTimeStamp = t.getTimeStamp() * 1000;
-			}
+					sendBatchDataToDirector(t.getTimeStamp(), (int) t.getArrivalRate(), ((double) currentTime) / 1000);
+					nextTimeStamp = t.getTimeStamp() * 1000;
+				}
 
-			//wait for remaining transactions to trickle in
-			nextTimeStamp += 1000;
+				//wait for remaining transactions to trickle in
+				nextTimeStamp += 1000;
 
-			while (ResultTracker.TRACKER.getActiveRequests() > 0) {
-				long currentTime = System.currentTimeMillis() - timeZero;
+				while (ResultTracker.TRACKER.getActiveRequests() > 0) {
+					long currentTime = System.currentTimeMillis() - timeZero;
 
-				while (currentTime - (nextTimeStamp) < -defaultMeanWaitTime) {
-					sleep(defaultMeanWaitTime);
-					currentTime = System.currentTimeMillis() - timeZero;
-				}
+					while (currentTime - (nextTimeStamp) < -defaultMeanWaitTime) {
+						sleep(defaultMeanWaitTime);
+						currentTime = System.currentTimeMillis() - timeZero;
+					}
 
-				sendBatchDataToDirector(nextTimeStamp / 1000, 0, nextTimeStamp / 1000);
-				nextTimeStamp += 1000;
+					sendBatchDataToDirector(nextTimeStamp / 1000, 0, nextTimeStamp / 1000);
+					nextTimeStamp += 1000;
+				}
+			} finally {
+				if (periodReporter != null) {
+					periodReporter.close();
+				}
 			}
 			LOG.log(Level.INFO, "Workload finished, " + executor.getCompletedTaskCount() + " Tasks executed.");
 			LOG.log(Level.INFO, "Invalid Transactions: " + ResultTracker.TRACKER.getTotalInvalidTransactionCount());
@@ -189,6 +244,8 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 
 		} catch (InterruptedException e) {
 			LOG.log(Level.SEVERE, "Interrupted: " + e.getMessage());
+		} finally {
+			Feeders.close();
 		}
 	}
 
@@ -214,10 +271,17 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 		long actualMeanWaitTime =
 				calculateMeanWaitTime(meanWaitTime, targetTime, currentTime, targetArrivalsInInterval);
 
+		long scheduledDispatchNanos = 0;
 		while (targetArrivalsInInterval > 0) {
+			long dispatchNanos = System.nanoTime();
+			if (scheduledDispatchNanos != 0) {
+				dispatchLatenessNanos = Math.max(dispatchLatenessNanos, dispatchNanos - scheduledDispatchNanos);
+			}
 			targetArrivalsInInterval -= scheduleBatch(targetTime, currentTime,
 					actualMeanWaitTime, targetArrivalsInInterval);
-			sleep(getPostBatchSleepTime(actualMeanWaitTime, r, randomBatchTimes));
+			long sleepTime = getPostBatchSleepTime(actualMeanWaitTime, r, randomBatchTimes);
+			scheduledDispatchNanos = dispatchNanos + TimeUnit.MILLISECONDS.toNanos(sleepTime);
+			sleep(sleepTime);
 			currentTime = System.currentTimeMillis() - timeZero;
 		}
 		if (targetArrivalsInInterval > 0) {
@@ -236,9 +300,13 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 	 */
 	private int scheduleBatch(long targetTime, long currentTime, long meanWaitTime,
 			int targetArrivalsInInterval) {
+		BatchDispatchEvent event = LoadEvents.beginBatch();
 		TransactionBatch batch = new TransactionBatch(targetTime, currentTime, meanWaitTime,
 				targetArrivalsInInterval);
 		batch.executeBatch(executor);
+		if (event != null) {
+			LoadEvents.commitBatch(event, targetTime / 1000.0, batch.getBatchSize(), executor.getQueue().size());
+		}
 		return batch.getBatchSize();
 	}
 
@@ -287,10 +355,32 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 	 * @param actualtime The actual time of execution.
 	 */
 	private void sendBatchDataToDirector(double targettime, int loadintensity, double actualtime) {
+		IntervalEvent event = LoadEvents.beginInterval();
 		ResultTracker.IntervalResult result = ResultTracker.TRACKER.retrieveIntervalResultAndReset();
+		long now = System.nanoTime();
+		double seconds = Math.max(now - lastResultNanos, 1) / 1_000_000_000.0;
+		lastResultNanos = now;
+		EnumMap<MetricGroup, long[]> metrics = new EnumMap<>(MetricGroup.class);
+		metrics.put(MetricGroup.CONNECT_FAILURES, result.getConnectFailures());
+		long[] clientThreads = HTTPInputGeneratorPool.getPool().getThreadStatistics();
+		metrics.put(MetricGroup.THREADS, new long[] {clientThreads[0], clientThreads[1], clientThreads[2],
+			executor.getActiveCount(), executor.getQueue().size()});
+		metrics.put(MetricGroup.HEALTH, healthSampler.sample(clientThreads[3], clientThreads[4],
+				TimeUnit.NANOSECONDS.toMillis(dispatchLatenessNanos)));
+		dispatchLatenessNanos = 0;
+		for (TransactionPhase phase : TransactionPhase.values()) {
+			metrics.put(MetricGroup.of(phase), result.getPhaseHistogram(phase));
+		}
+		metrics.put(MetricGroup.NETWORK, Arrays.stream(result.getTraffic())
+				.map(bytes -> Math.round(bytes / seconds)).toArray());
+		List<String> groups = new ArrayList<>(EndpointTraffic.format(result.getEndpointTraffic()));
+		groups.add(ErrorBreakdown.formatStatusCodes(result.getStatusCodes()));
+		groups.add(ErrorBreakdown.formatErrors(result.getFailures()));
 		sendToDirector(targettime, loadintensity, result.getSuccessfulTransactions(),
 				result.getAverageResponseTimeInS(), result.getFailedTransactions(),
-				result.getTimeoutTransactions(), result.getDroppedTransactions(), actualtime, result.getRequestResults());
+				result.getTimeoutTransactions(), result.getDroppedTransactions(), actualtime,
+				metrics, groups, result.getRequestResults());
+		LoadEvents.commitInterval(event, targettime, loadintensity, actualtime, result);
 	}
 
 	/**
@@ -298,6 +388,7 @@ public class ArrivalRateTupleLoadGenerator extends AbstractLoadGenerator {
 	 */
 	private void clearResultTracker() {
 		ResultTracker.TRACKER.retrieveIntervalResultAndReset();
+		lastResultNanos = System.nanoTime();
 	}
 
 	@Override
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import tools.descartes.dlim.httploadgenerator.runner.MetricGroup;
+
+/**
+ * Samples the health of the load generator's JVM once per interval, so that a saturated load generator
+ * can be told apart from a saturated system under test. Values are in the key order of
+ * {@link MetricGroup#HEALTH}. CPU and allocation values are 0 on JVMs without the
+ * {@code com.sun.management} extensions.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class HealthSampler {
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+	private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+	private final com.sun.management.OperatingSystemMXBean operatingSystem;
+	private final com.sun.management.ThreadMXBean threads;
+	private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+	private final int processors = Runtime.getRuntime().availableProcessors();
+
+	private long lastSampleNanos;
+	private long lastCpuNanos;
+	private long lastGcCount;
+	private long lastGcMillis;
+	private Map<Long, Long> lastAllocatedBytes = new HashMap<>();
+
+	/**
+	 * Creates a sampler. The first sample covers the time since its creation.
+	 */
+	public HealthSampler() {
+		operatingSystem = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean
+				? (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean() : null;
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		threads = threadBean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+				? (com.sun.management.ThreadMXBean) threadBean : null;
+		if (threads != null && !threads.isThreadAllocatedMemoryEnabled()) {
+			threads.setThreadAllocatedMemoryEnabled(true);
+		}
+		sample(0, 0, 0);
+	}
+
+	/**
+	 * Samples the health since the previous sample.
+	 * @param clientUtilizedThreads Threads of the HTTP clients that run tasks, excluding selectors.
+	 * @param clientMaxAvailableThreads Threads the HTTP clients may use for tasks, excluding selectors.
+	 * @param dispatchLatenessMillis Maximum delay of a batch dispatch behind its schedule in ms.
+	 * @return The values in the key order of {@link MetricGroup#HEALTH}.
+	 */
+	public long[] sample(long clientUtilizedThreads, long clientMaxAvailableThreads, long dispatchLatenessMillis) {
+		long now = System.nanoTime();
+		double seconds = Math.max(now - lastSampleNanos, 1) / NANOS_PER_SECOND;
+		lastSampleNanos = now;
+
+		long cpu = 0;
+		if (operatingSystem != null) {
+			long cpuNanos = operatingSystem.getProcessCpuTime();
+			if (cpuNanos >= 0) {
+				cpu = Math.round(100.0 * (cpuNanos - lastCpuNanos) / NANOS_PER_SECOND / seconds / processors);
+				lastCpuNanos = cpuNanos;
+			}
+		}
+
+		long gcCount = 0;
+		long gcMillis = 0;
+		for (GarbageCollectorMXBean collector : garbageCollectors) {
+			gcCount += Math.max(0, collector.getCollectionCount());
+			gcMillis += Math.max(0, collector.getCollectionTime());
+		}
+		long[] values = new long[] {cpu, gcCount - lastGcCount, gcMillis - lastGcMillis,
+			Math.round(sampleAllocatedBytes() / BYTES_PER_MB / seconds), heapUsage(),
+			clientMaxAvailableThreads > 0 ? Math.round(100.0 * clientUtilizedThreads / clientMaxAvailableThreads) : 0,
+			ResultTracker.TRACKER.getActiveRequests(), dispatchLatenessMillis};
+		lastGcCount = gcCount;
+		lastGcMillis = gcMillis;
+		return values;
+	}
+
+	/**
+	 * Bytes allocated by all live threads since the previous sample.
+	 * Allocations of threads that terminated since then are not counted.
+	 */
+	private long sampleAllocatedBytes() {
+		if (threads == null) {
+			return 0;
+		}
+		long[] ids = threads.getAllThreadIds();
+		long[] allocated = threads.getThreadAllocatedBytes(ids);
+		Map<Long, Long> allocatedBytes = new HashMap<>(ids.length * 2);
+		long bytes = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (allocated[i] >= 0) {
+				allocatedBytes.put(ids[i], allocated[i]);
+				bytes += allocated[i] - lastAllocatedBytes.getOrDefault(ids[i], 0L);
+			}
+		}
+		lastAllocatedBytes = allocatedBytes;
+		return Math.max(0, bytes);
+	}
+
+	private static long heapUsage() {
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		long max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+		return max > 0 ? Math.round(100.0 * heap.getUsed() / max) : 0;
+	}
+}
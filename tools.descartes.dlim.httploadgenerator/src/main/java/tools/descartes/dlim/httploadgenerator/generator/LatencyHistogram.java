@@ -0,0 +1,140 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations with logarithmic buckets.
+ * Durations are recorded in microseconds. Below 8 µs, each bucket holds a single value. Above, each
+ * power of two is split into 8 buckets, so that a bucket's bounds are within 12.5% of each other.
+ * Durations of 2^27 µs (134 s) and more are counted in the last bucket.
+ * <p>
+ * The values of a histogram are exchanged as a single array: the count, the sum in µs and the bucket counts.
+ * Histograms of several load generators are merged by adding their values.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 27;
+
+	/** Number of buckets. */
+	public static final int BUCKET_COUNT = SUB_BUCKETS * (MAX_EXPONENT - SUB_BUCKET_BITS + 1);
+	/** Index of the count in the values of a histogram. */
+	public static final int COUNT_INDEX = 0;
+	/** Index of the sum in µs in the values of a histogram. */
+	public static final int SUM_INDEX = 1;
+	/** Index of the first bucket in the values of a histogram. */
+	public static final int FIRST_BUCKET_INDEX = 2;
+	/** Length of the values of a histogram. */
+	public static final int VALUES_LENGTH = FIRST_BUCKET_INDEX + BUCKET_COUNT;
+
+	private final AtomicLongArray values = new AtomicLongArray(VALUES_LENGTH);
+
+	/**
+	 * Records a duration.
+	 * @param nanos The duration in ns, negative durations are recorded as 0.
+	 */
+	public void recordNanos(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+		values.incrementAndGet(COUNT_INDEX);
+		values.addAndGet(SUM_INDEX, micros);
+		values.incrementAndGet(FIRST_BUCKET_INDEX + bucketIndex(micros));
+	}
+
+	/**
+	 * Returns the values recorded since the last reset and resets them.
+	 * Durations that are recorded concurrently are counted either in this or in the next result.
+	 * @return The count, the sum in µs and the bucket counts.
+	 */
+	public long[] retrieveAndReset() {
+		long[] result = new long[VALUES_LENGTH];
+		for (int i = 0; i < VALUES_LENGTH; i++) {
+			result[i] = values.getAndSet(i, 0);
+		}
+		return result;
+	}
+
+	/**
+	 * The bucket of a duration.
+	 * @param micros The duration in µs.
+	 * @return The bucket index.
+	 */
+	public static int bucketIndex(long micros) {
+		if (micros < SUB_BUCKETS) {
+			return (int) Math.max(0, micros);
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if (exponent >= MAX_EXPONENT) {
+			return BUCKET_COUNT - 1;
+		}
+		int subBucket = (int) (micros >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS * (exponent - SUB_BUCKET_BITS + 1) + subBucket;
+	}
+
+	/**
+	 * The exclusive upper bound of a bucket.
+	 * @param index The bucket index.
+	 * @return The upper bound in µs.
+	 */
+	public static long bucketUpperBoundMicros(int index) {
+		if (index < SUB_BUCKETS) {
+			return index + 1;
+		}
+		int octave = index / SUB_BUCKETS;
+		int subBucket = index % SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + subBucket + 1) << (octave - 1);
+	}
+
+	/**
+	 * The mean of recorded durations.
+	 * @param values The values of a histogram.
+	 * @return The mean in µs, 0 if no durations were recorded.
+	 */
+	public static double meanMicros(long[] values) {
+		return values[COUNT_INDEX] == 0 ? 0 : (double) values[SUM_INDEX] / values[COUNT_INDEX];
+	}
+
+	/**
+	 * A percentile of recorded durations, as the upper bound of the bucket that contains it.
+	 * @param values The values of a histogram.
+	 * @param quantile The quantile in [0, 1], 1 for the maximum.
+	 * @return The percentile in µs, 0 if no durations were recorded.
+	 */
+	public static long percentileMicros(long[] values, double quantile) {
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			count += values[FIRST_BUCKET_INDEX + i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += values[FIRST_BUCKET_INDEX + i];
+			if (seen >= rank) {
+				return bucketUpperBoundMicros(i);
+			}
+		}
+		return bucketUpperBoundMicros(BUCKET_COUNT - 1);
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import tools.descartes.dlim.httploadgenerator.runner.PeriodMerger;
+
+/**
+ * Reports the transactions and response times of the load generator in fixed periods, independent of the
+ * intervals of the load profile (see {@link PeriodMerger}). Periods are reported by a dedicated thread at a
+ * fixed rate from the measurement start, so that they stay aligned while the dispatcher blocks in an interval.
+ *
+ * @author Yannik Lubas
+ *
+ */
+final class PeriodReporter implements AutoCloseable {
+
+	private static final Logger LOG = Logger.getLogger(PeriodReporter.class.getName());
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "PeriodReporter");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Consumer<String> director;
+	private long index = 0;
+
+	/**
+	 * Starts reporting. Call at the measurement start.
+	 * @param periodMillis The report period in ms.
+	 * @param timeZero The measurement start in ms since the epoch, the first period ends one period after it.
+	 * @param director Sends a message to the director.
+	 */
+	PeriodReporter(long periodMillis, long timeZero, Consumer<String> director) {
+		this.director = director;
+		ResultTracker.TRACKER.setReportPeriods(true);
+		long initialDelay = Math.max(0, timeZero + periodMillis - System.currentTimeMillis());
+		scheduler.scheduleAtFixedRate(this::report, initialDelay, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void report() {
+		try {
+			director.accept(PeriodMerger.format(index++, ResultTracker.TRACKER.retrievePeriodTransactionsAndReset(),
+					ResultTracker.TRACKER.retrievePeriodResponseTimesAndReset()));
+		} catch (RuntimeException e) {
+			// an exception would cancel all further periods
+			LOG.severe("Could not report period " + index + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stops reporting. The current, incomplete period is not reported.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		ResultTracker.TRACKER.setReportPeriods(false);
+	}
+}
@@ -16,11 +16,20 @@
 package tools.descartes.dlim.httploadgenerator.generator;
 
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
+import tools.descartes.dlim.httploadgenerator.http.ConnectFailure;
 import tools.descartes.dlim.httploadgenerator.http.HTTPTransaction.HTTPTransactionResult;
+import tools.descartes.dlim.httploadgenerator.runner.EndpointTraffic;
+import tools.descartes.dlim.httploadgenerator.runner.ErrorBreakdown;
 
 /**
  * Offers tracking of results, such as response times and
@@ -46,6 +55,26 @@ public final class ResultTracker {
 	private AtomicLong successfulTransactionsPerMeasurementInterval = new AtomicLong(0);
 	private AtomicLong successfulTransactionsTotal = new AtomicLong(0);
 
+	private final AtomicLongArray connectFailuresPerMeasurementInterval =
+			new AtomicLongArray(ConnectFailure.values().length);
+
+	private final AtomicLongArray statusCodesPerMeasurementInterval = new AtomicLongArray(ErrorBreakdown.STATUS_CODES);
+	// counters are kept across intervals, so that recording a known class does not allocate
+	private final ConcurrentHashMap<Class<?>, AtomicLong> failuresPerMeasurementInterval = new ConcurrentHashMap<>();
+	private final AtomicLong otherFailuresPerMeasurementInterval = new AtomicLong(0);
+
+	private final StripedCounters trafficPerMeasurementInterval = new StripedCounters(3);
+	// like the failure counters, endpoint counters are kept across intervals
+	private final ConcurrentHashMap<String, StripedCounters> endpointTrafficPerMeasurementInterval =
+			new ConcurrentHashMap<>();
+	private final StripedCounters otherEndpointTrafficPerMeasurementInterval = new StripedCounters(3);
+
+	private volatile boolean reportPeriods = false;
+	private final StripedCounters transactionsPerReportPeriod = new StripedCounters(TransactionState.values().length);
+	private final LatencyHistogram responseTimesPerReportPeriod = new LatencyHistogram();
+
+	private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[TransactionPhase.values().length];
+
 	private AtomicLong responseTimeSum = new AtomicLong(0);
 	private AtomicLong responseTimeLogCount = new AtomicLong(0);
 
@@ -55,7 +84,9 @@ public final class ResultTracker {
 	private AtomicLong totalSentRequests = new AtomicLong(0);
 
 	private ResultTracker() {
-
+		for (int i = 0; i < phaseHistograms.length; i++) {
+			phaseHistograms[i] = new LatencyHistogram();
+		}
 	}
 
 	public void addSentRequest() {
@@ -72,6 +103,13 @@ public final class ResultTracker {
 	 * @param finishingState The finishing state.
 	 */
 	public void logTransaction(HTTPTransactionResult result) {
+		// report periods are counted lock-free, outside of the interval's lock
+		if (reportPeriods) {
+			transactionsPerReportPeriod.add(result.getTransactionState().ordinal(), 1);
+			if (result.getTransactionState() != TransactionState.DROPPED) {
+				responseTimesPerReportPeriod.recordNanos(result.getResponseTimeNanos());
+			}
+		}
 		transactionLock.lock();
 		long responseTimeMs = result.getResponseTime();
 		this.perRequestIntervalResults.add(result);
@@ -106,6 +144,105 @@ public final class ResultTracker {
 		}
 	}
 
+	/**
+	 * Log a failed connection attempt. The transaction itself must be logged separately.
+	 * @param failure The class of the connect failure.
+	 */
+	public void logConnectFailure(ConnectFailure failure) {
+		connectFailuresPerMeasurementInterval.incrementAndGet(failure.ordinal());
+	}
+
+	/**
+	 * Log the status code of a response. The transaction itself must be logged separately.
+	 * @param status The HTTP status code.
+	 */
+	public void logStatusCode(int status) {
+		statusCodesPerMeasurementInterval.incrementAndGet(ErrorBreakdown.statusIndex(status));
+	}
+
+	/**
+	 * Log the exception of a failed request by its class. {@link ExecutionException}s are logged by
+	 * their cause. At most {@link ErrorBreakdown#MAX_ERROR_CLASSES} classes are distinguished.
+	 * The transaction itself must be logged separately.
+	 * @param failure The exception.
+	 */
+	public void logFailure(Throwable failure) {
+		if (failure instanceof ExecutionException && failure.getCause() != null) {
+			failure = failure.getCause();
+		}
+		AtomicLong counter = failuresPerMeasurementInterval.get(failure.getClass());
+		if (counter == null) {
+			counter = failuresPerMeasurementInterval.size() < ErrorBreakdown.MAX_ERROR_CLASSES
+					? failuresPerMeasurementInterval.computeIfAbsent(failure.getClass(), c -> new AtomicLong(0))
+					: otherFailuresPerMeasurementInterval;
+		}
+		counter.incrementAndGet();
+	}
+
+	/**
+	 * Log the bytes of a transaction. At most {@link EndpointTraffic#MAX_ENDPOINTS} endpoints are distinguished.
+	 * The transaction itself must be logged separately.
+	 * @param endpoint The endpoint, see {@link EndpointTraffic#endpoint(String, String)}.
+	 * @param sentBytes The bytes of the request as written to the connection, including headers.
+	 * @param receivedBytes The bytes of the response as read from the connection, including headers.
+	 * @param decodedBytes The bytes of the decoded response body.
+	 */
+	public void logTraffic(String endpoint, long sentBytes, long receivedBytes, long decodedBytes) {
+		StripedCounters counter = endpointTrafficPerMeasurementInterval.get(endpoint);
+		if (counter == null) {
+			counter = endpointTrafficPerMeasurementInterval.size() < EndpointTraffic.MAX_ENDPOINTS
+					? endpointTrafficPerMeasurementInterval.computeIfAbsent(endpoint, e -> new StripedCounters(3))
+					: otherEndpointTrafficPerMeasurementInterval;
+		}
+		addTraffic(trafficPerMeasurementInterval, sentBytes, receivedBytes, decodedBytes);
+		addTraffic(counter, sentBytes, receivedBytes, decodedBytes);
+	}
+
+	private static void addTraffic(StripedCounters counters, long sentBytes, long receivedBytes, long decodedBytes) {
+		counters.add(EndpointTraffic.SENT, sentBytes);
+		counters.add(EndpointTraffic.RECEIVED, receivedBytes);
+		counters.add(EndpointTraffic.DECODED, decodedBytes);
+	}
+
+	/**
+	 * Starts or stops tracking transactions per report period, in addition to the measurement intervals.
+	 * Starting discards the transactions of any previous period.
+	 * @param enabled True to start tracking.
+	 */
+	public void setReportPeriods(boolean enabled) {
+		reportPeriods = enabled;
+		if (enabled) {
+			transactionsPerReportPeriod.retrieveAndReset();
+			responseTimesPerReportPeriod.retrieveAndReset();
+		}
+	}
+
+	/**
+	 * Returns the transactions of the report period since the last call and starts a new period.
+	 * @return The transactions per state, indexed by the state's ordinal.
+	 */
+	public long[] retrievePeriodTransactionsAndReset() {
+		return transactionsPerReportPeriod.retrieveAndReset();
+	}
+
+	/**
+	 * Returns the response times of the transactions of the report period since the last call,
+	 * dropped transactions excluded.
+	 * @return The values of the response times' {@link LatencyHistogram}.
+	 */
+	public long[] retrievePeriodResponseTimesAndReset() {
+		return responseTimesPerReportPeriod.retrieveAndReset();
+	}
+
+	/**
+	 * Log the duration of a transaction phase.
+	 * @param phase The phase.
+	 * @param nanos The duration in ns.
+	 */
+	public void logPhase(TransactionPhase phase, long nanos) {
+		phaseHistograms[phase.ordinal()].recordNanos(nanos);
+	}
+
 	/**
 	 * Resets the validity tracker.
 	 */
@@ -120,6 +257,20 @@ public final class ResultTracker {
 			successfulTransactionsTotal.set(0);
 			responseTimeSum.set(0);
 			responseTimeLogCount.set(0);
+			for (int i = 0; i < connectFailuresPerMeasurementInterval.length(); i++) {
+				connectFailuresPerMeasurementInterval.set(i, 0);
+			}
+			for (int i = 0; i < statusCodesPerMeasurementInterval.length(); i++) {
+				statusCodesPerMeasurementInterval.set(i, 0);
+			}
+			failuresPerMeasurementInterval.values().forEach(counter -> counter.set(0));
+			otherFailuresPerMeasurementInterval.set(0);
+			trafficPerMeasurementInterval.retrieveAndReset();
+			endpointTrafficPerMeasurementInterval.values().forEach(StripedCounters::retrieveAndReset);
+			otherEndpointTrafficPerMeasurementInterval.retrieveAndReset();
+			for (LatencyHistogram histogram : phaseHistograms) {
+				histogram.retrieveAndReset();
+			}
 		} finally {
 			transactionLock.unlock();
 		}
@@ -210,6 +361,36 @@ public final class ResultTracker {
 			result.timeoutTransactions = timeoutTransactionsPerMeasurementInterval.getAndSet(0);
 			result.successfulTransactions = successfulTransactionsPerMeasurementInterval.getAndSet(0);
 			result.averageResponseTimeInS = getAverageResponseTimeInSAndReset();
+			for (int i = 0; i < result.connectFailures.length; i++) {
+				result.connectFailures[i] = connectFailuresPerMeasurementInterval.getAndSet(i, 0);
+			}
+			for (int i = 0; i < result.statusCodes.length; i++) {
+				result.statusCodes[i] = statusCodesPerMeasurementInterval.getAndSet(i, 0);
+			}
+			failuresPerMeasurementInterval.forEach((failureClass, counter) -> {
+				long count = counter.getAndSet(0);
+				if (count > 0) {
+					result.failures.put(failureClass.getName(), count);
+				}
+			});
+			long otherFailures = otherFailuresPerMeasurementInterval.getAndSet(0);
+			if (otherFailures > 0) {
+				result.failures.put(ErrorBreakdown.OTHER, otherFailures);
+			}
+			result.traffic = trafficPerMeasurementInterval.retrieveAndReset();
+			endpointTrafficPerMeasurementInterval.forEach((endpoint, counter) -> {
+				long[] bytes = counter.retrieveAndReset();
+				if (bytes[EndpointTraffic.SENT] != 0 || bytes[EndpointTraffic.RECEIVED] != 0) {
+					result.endpointTraffic.put(endpoint, bytes);
+				}
+			});
+			long[] otherBytes = otherEndpointTrafficPerMeasurementInterval.retrieveAndReset();
+			if (otherBytes[EndpointTraffic.SENT] != 0 || otherBytes[EndpointTraffic.RECEIVED] != 0) {
+				result.endpointTraffic.put(ErrorBreakdown.OTHER, otherBytes);
+			}
+			for (int i = 0; i < phaseHistograms.length; i++) {
+				result.phaseHistograms[i] = phaseHistograms[i].retrieveAndReset();
+			}
 			ArrayList<HTTPTransactionResult> requestResults = new ArrayList<>(this.perRequestIntervalResults.size());
 			HTTPTransactionResult element;
 			while ((element = this.perRequestIntervalResults.poll()) != null) {
@@ -222,6 +403,41 @@ public final class ResultTracker {
 		return result;
 	}
 
+	/**
+	 * Striped counters for values that many threads add to. The counters are never reset, as resetting a
+	 * {@link LongAdder} may lose concurrent updates. Instead, the difference to the previous retrieval is returned.
+	 */
+	private static final class StripedCounters {
+
+		private final LongAdder[] counters;
+		private final long[] retrieved;
+
+		private StripedCounters(int size) {
+			counters = new LongAdder[size];
+			for (int i = 0; i < size; i++) {
+				counters[i] = new LongAdder();
+			}
+			retrieved = new long[size];
+		}
+
+		private void add(int index, long value) {
+			counters[index].add(value);
+		}
+
+		/**
+		 * Returns the values added since the previous call.
+		 */
+		private synchronized long[] retrieveAndReset() {
+			long[] values = new long[counters.length];
+			for (int i = 0; i < counters.length; i++) {
+				long sum = counters[i].sum();
+				values[i] = sum - retrieved[i];
+				retrieved[i] = sum;
+			}
+			return values;
+		}
+	}
+
 	/**
 	 * States that a transaction may have upon finishing.
 	 * @author Joakim von Kistowski
@@ -257,6 +473,12 @@ public final class ResultTracker {
 		private long timeoutTransactions = 0;
 		private long successfulTransactions = 0;
 		private double averageResponseTimeInS = 0.0;
+		private final long[] connectFailures = new long[ConnectFailure.values().length];
+		private final long[][] phaseHistograms = new long[TransactionPhase.values().length][];
+		private final long[] statusCodes = new long[ErrorBreakdown.STATUS_CODES];
+		private final Map<String, Long> failures = new TreeMap<>();
+		private long[] traffic = new long[3];
+		private final Map<String, long[]> endpointTraffic = new TreeMap<>();
 
 		private ArrayList<HTTPTransactionResult> requestResults = null;
 
@@ -302,6 +524,56 @@ public final class ResultTracker {
 			return averageResponseTimeInS;
 		}
 
+		/**
+		 * Returns the number of failed connection attempts per {@link ConnectFailure} class.
+		 * @return The connect failures, indexed by the failure class's ordinal.
+		 */
+		public long[] getConnectFailures() {
+			return connectFailures;
+		}
+
+		/**
+		 * Returns the durations of a transaction phase.
+		 * @param phase The phase.
+		 * @return The values of the phase's {@link LatencyHistogram}.
+		 */
+		public long[] getPhaseHistogram(TransactionPhase phase) {
+			return phaseHistograms[phase.ordinal()];
+		}
+
+		/**
+		 * Returns the number of responses per status code.
+		 * @return The counts, indexed by {@link ErrorBreakdown#statusIndex(int)}.
+		 */
+		public long[] getStatusCodes() {
+			return statusCodes;
+		}
+
+		/**
+		 * Returns the number of failed requests per exception class.
+		 * @return The counts by class name.
+		 */
+		public Map<String, Long> getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Returns the bytes of all transactions.
+		 * @return The sent, received and decoded bytes, indexed by {@link EndpointTraffic#SENT},
+		 *     {@link EndpointTraffic#RECEIVED} and {@link EndpointTraffic#DECODED}.
+		 */
+		public long[] getTraffic() {
+			return traffic;
+		}
+
+		/**
+		 * Returns the bytes of the transactions per endpoint.
+		 * @return The sent, received and decoded bytes by endpoint.
+		 */
+		public Map<String, long[]> getEndpointTraffic() {
+			return endpointTraffic;
+		}
+
 		public ArrayList<HTTPTransactionResult> getRequestResults() {
 			return requestResults;
 		}
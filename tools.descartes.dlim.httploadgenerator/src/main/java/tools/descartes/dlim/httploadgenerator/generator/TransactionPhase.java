@@ -0,0 +1,41 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator;
+
+/**
+ * Phases of a transaction, from being queued by its batch to the last byte of the response.
+ * Each phase is recorded in its own per-interval {@link LatencyHistogram}.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public enum TransactionPhase {
+
+	/** From queuing the transaction into the dispatcher until a dispatcher thread runs it. */
+	QUEUE,
+	/** From running the transaction until a virtual user is available. */
+	USER_WAIT,
+	/**
+	 * From the start of the socket connect until the new connection is opened, i.e., the TCP handshake,
+	 * but not the time waiting for a connection. Only for the first request on a new connection.
+	 * Jetty performs TLS handshakes with the first request, they are part of its {@link #TTFB}.
+	 */
+	CONNECT,
+	/** From beginning the request until the response status line is received (time to first byte). */
+	TTFB,
+	/** From receiving the response status line until the response is complete. */
+	TRANSFER;
+}
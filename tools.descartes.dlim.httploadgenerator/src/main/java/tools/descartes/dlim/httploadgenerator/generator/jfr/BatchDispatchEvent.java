@@ -0,0 +1,47 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The dispatch of a batch of transactions to the dispatcher's thread pool.
+ *
+ * @author Yannik Lubas
+ *
+ */
+@Name(LoadEvents.NAME_PREFIX + "BatchDispatch")
+@Label("Batch Dispatch")
+@Category(LoadEvents.CATEGORY)
+@Description("A batch of transactions queued into the load generator's dispatcher.")
+@StackTrace(false)
+public final class BatchDispatchEvent extends jdk.jfr.Event {
+
+	@Label("Target Time")
+	@Description("Target time of the interval in seconds since the start of the measurement.")
+	double targetTime;
+
+	@Label("Batch Size")
+	int batchSize;
+
+	@Label("Queued Tasks")
+	@Description("Transactions waiting for a dispatcher thread after the batch was queued.")
+	int queuedTasks;
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The rollover of an interval: retrieving its results and sending them to the director.
+ *
+ * @author Yannik Lubas
+ *
+ */
+@Name(LoadEvents.NAME_PREFIX + "Interval")
+@Label("Interval Rollover")
+@Category(LoadEvents.CATEGORY)
+@Description("The end of an interval, when its results are sent to the director.")
+@StackTrace(false)
+public final class IntervalEvent extends jdk.jfr.Event {
+
+	@Label("Target Time")
+	@Description("Target time of the interval in seconds since the start of the measurement.")
+	double targetTime;
+
+	@Label("Load Intensity")
+	int loadIntensity;
+
+	@Label("Final Batch Time")
+	@Description("Time of the interval's last batch dispatch in seconds since the start of the measurement.")
+	double finalBatchTime;
+
+	@Label("Successful Transactions")
+	long successfulTransactions;
+
+	@Label("Failed Transactions")
+	long failedTransactions;
+
+	@Label("Timed Out Transactions")
+	long timeoutTransactions;
+
+	@Label("Dropped Transactions")
+	long droppedTransactions;
+
+	@Label("Active Requests")
+	@Description("Requests that were sent and not yet completed at the end of the interval.")
+	long activeRequests;
+}
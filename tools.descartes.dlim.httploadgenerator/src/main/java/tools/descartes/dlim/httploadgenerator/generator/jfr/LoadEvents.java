@@ -0,0 +1,220 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator.jfr;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker;
+
+/**
+ * Emits the load generator's Java Flight Recorder events, so that a recording of a load generator shows
+ * batch dispatches, slow transactions, user pool waits and interval rollovers next to the JVM's GC and
+ * CPU samples. Events are only created if enabled with {@link #enable(long)}; until then, each call
+ * site costs a single static field read. Transactions and user waits are only recorded if they take
+ * at least the threshold, batches and intervals are always recorded.
+ * The events still have to be recorded by a flight recording, e.g.,
+ * {@code java -XX:StartFlightRecording=filename=generator.jfr -jar httploadgenerator.jar loadgenerator --jfr-threshold 100}.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class LoadEvents {
+
+	private static final Logger LOG = Logger.getLogger(LoadEvents.class.getName());
+
+	/** Prefix of the event names. */
+	static final String NAME_PREFIX = "tools.descartes.dlim.httploadgenerator.";
+	/** Category of the events in JDK Mission Control. */
+	static final String CATEGORY = "HTTP Load Generator";
+
+	// set once before the load generator accepts a director
+	private static boolean enabled = false;
+	private static long thresholdMillis = 0;
+
+	private LoadEvents() {
+
+	}
+
+	/**
+	 * Enables the events.
+	 * @param thresholdMillis Minimum duration of recorded transactions and user waits in ms.
+	 */
+	public static void enable(long thresholdMillis) {
+		LoadEvents.thresholdMillis = Math.max(0, thresholdMillis);
+		enabled = true;
+		LOG.info("JFR events enabled, recording transactions and user waits of at least "
+				+ LoadEvents.thresholdMillis + " ms.");
+	}
+
+	/**
+	 * Disables the events.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	/**
+	 * Whether the events are enabled.
+	 * @return True if enabled.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Begins a transaction event.
+	 * @return The event, null if events are disabled.
+	 */
+	public static TransactionEvent beginTransaction() {
+		if (!enabled) {
+			return null;
+		}
+		TransactionEvent event = new TransactionEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits a transaction event if its response time reached the threshold.
+	 * @param event The event, may be null.
+	 * @param method The request method.
+	 * @param uri The request URI.
+	 * @param state The transaction's state.
+	 * @param requestNumber Number of the request in the virtual user's call cycle.
+	 * @param targetTime The interval's target time.
+	 * @param responseTimeMillis The response time in ms.
+	 */
+	public static void commitTransaction(TransactionEvent event, String method, String uri,
+			ResultTracker.TransactionState state, int requestNumber, double targetTime, long responseTimeMillis) {
+		if (event == null || responseTimeMillis < thresholdMillis) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.method = method;
+			event.uri = uri;
+			event.state = state.name();
+			event.requestNumber = requestNumber;
+			event.targetTime = targetTime;
+			event.responseTime = responseTimeMillis;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Begins a user wait event.
+	 * @return The event, null if events are disabled.
+	 */
+	public static UserWaitEvent beginUserWait() {
+		if (!enabled) {
+			return null;
+		}
+		UserWaitEvent event = new UserWaitEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits a user wait event if the wait reached the threshold.
+	 * @param event The event, may be null.
+	 * @param waitNanos The wait time in ns.
+	 * @param targetTime The interval's target time.
+	 */
+	public static void commitUserWait(UserWaitEvent event, long waitNanos, double targetTime) {
+		if (event == null || waitNanos < TimeUnit.MILLISECONDS.toNanos(thresholdMillis)) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.targetTime = targetTime;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Begins a batch dispatch event.
+	 * @return The event, null if events are disabled.
+	 */
+	public static BatchDispatchEvent beginBatch() {
+		if (!enabled) {
+			return null;
+		}
+		BatchDispatchEvent event = new BatchDispatchEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits a batch dispatch event.
+	 * @param event The event, may be null.
+	 * @param targetTime The interval's target time.
+	 * @param batchSize The number of transactions in the batch.
+	 * @param queuedTasks The number of transactions waiting for a dispatcher thread.
+	 */
+	public static void commitBatch(BatchDispatchEvent event, double targetTime, int batchSize, int queuedTasks) {
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.targetTime = targetTime;
+			event.batchSize = batchSize;
+			event.queuedTasks = queuedTasks;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Begins an interval rollover event.
+	 * @return The event, null if events are disabled.
+	 */
+	public static IntervalEvent beginInterval() {
+		if (!enabled) {
+			return null;
+		}
+		IntervalEvent event = new IntervalEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits an interval rollover event.
+	 * @param event The event, may be null.
+	 * @param targetTime The interval's target time.
+	 * @param loadIntensity The interval's load intensity.
+	 * @param finalBatchTime The time of the interval's last batch dispatch.
+	 * @param result The interval's result.
+	 */
+	public static void commitInterval(IntervalEvent event, double targetTime, int loadIntensity,
+			double finalBatchTime, ResultTracker.IntervalResult result) {
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.targetTime = targetTime;
+			event.loadIntensity = loadIntensity;
+			event.finalBatchTime = finalBatchTime;
+			event.successfulTransactions = result.getSuccessfulTransactions();
+			event.failedTransactions = result.getFailedTransactions();
+			event.timeoutTransactions = result.getTimeoutTransactions();
+			event.droppedTransactions = result.getDroppedTransactions();
+			event.activeRequests = ResultTracker.TRACKER.getActiveRequests();
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A dispatcher thread waiting for a free virtual user.
+ *
+ * @author Yannik Lubas
+ *
+ */
+@Name(LoadEvents.NAME_PREFIX + "UserWait")
+@Label("User Wait")
+@Category(LoadEvents.CATEGORY)
+@Description("A transaction waiting for a free virtual user at least as long as the load generator's JFR threshold.")
+@StackTrace(false)
+public final class UserWaitEvent extends jdk.jfr.Event {
+
+	@Label("Target Time")
+	@Description("Target time of the interval in seconds since the start of the measurement.")
+	double targetTime;
+}
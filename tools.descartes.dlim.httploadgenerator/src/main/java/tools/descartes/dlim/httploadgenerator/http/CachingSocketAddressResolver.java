@@ -0,0 +1,92 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jetty.util.Promise;
+import org.eclipse.jetty.util.SocketAddressResolver;
+
+/**
+ * Socket address resolver that resolves each host only once per benchmark run.
+ * Target hosts are resolved before measurement starts, so that DNS lookups do not show up in the
+ * response times of the first requests. Successful lookups are kept for the lifetime of the resolver,
+ * failed lookups are retried on the next connect.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class CachingSocketAddressResolver implements SocketAddressResolver {
+
+	private final SocketAddressResolver delegate;
+	private final ConcurrentHashMap<String, List<InetSocketAddress>> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new caching resolver.
+	 * @param delegate The resolver for hosts that are not cached yet.
+	 */
+	public CachingSocketAddressResolver(SocketAddressResolver delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void resolve(String host, int port, Promise<List<InetSocketAddress>> promise) {
+		String key = host + ":" + port;
+		List<InetSocketAddress> addresses = cache.get(key);
+		if (addresses != null) {
+			promise.succeeded(addresses);
+			return;
+		}
+		delegate.resolve(host, port, new Promise<List<InetSocketAddress>>() {
+			@Override
+			public void succeeded(List<InetSocketAddress> result) {
+				cache.put(key, result);
+				promise.succeeded(result);
+			}
+
+			@Override
+			public void failed(Throwable x) {
+				promise.failed(x);
+			}
+		});
+	}
+
+	/**
+	 * Resolves a host and caches the result, blocking until it is resolved.
+	 * @param host The host name.
+	 * @param port The port.
+	 * @return The resolved addresses.
+	 * @throws ExecutionException If the host can not be resolved.
+	 * @throws InterruptedException If interrupted while waiting for the resolution.
+	 */
+	public List<InetSocketAddress> preResolve(String host, int port) throws ExecutionException, InterruptedException {
+		CompletableFuture<List<InetSocketAddress>> future = new CompletableFuture<>();
+		resolve(host, port, Promise.from(future));
+		return future.get();
+	}
+
+	/**
+	 * Number of cached hosts.
+	 * @return The cache size.
+	 */
+	public int size() {
+		return cache.size();
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import java.net.BindException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.Locale;
+
+/**
+ * Classes of socket errors that prevent a connection from being established.
+ * The JDK maps the connect errno to distinct exception types, which are used for classification.
+ * Only errors that share a type are told apart by their message.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public enum ConnectFailure {
+
+	/** ECONNREFUSED: nothing listens on the target port or the backlog is full. */
+	REFUSED("Connect Refused"),
+	/** EADDRNOTAVAIL or EADDRINUSE: no free local port for the source address, usually ephemeral port exhaustion. */
+	ADDRESS_NOT_AVAILABLE("Connect Address Not Available"),
+	/** EHOSTUNREACH or ENETUNREACH: no route to the target host. */
+	NO_ROUTE("Connect No Route"),
+	/** The host name could not be resolved. */
+	UNRESOLVED("Connect Unresolved"),
+	/** ETIMEDOUT or the client's connect timeout. */
+	TIMEOUT("Connect Timeout"),
+	/** Any other connect error. */
+	OTHER("Connect Other");
+
+	/** Maximum depth of the cause chain that is searched for the connect error. */
+	private static final int MAX_CAUSE_DEPTH = 8;
+
+	private final String columnName;
+
+	private ConnectFailure(String columnName) {
+		this.columnName = columnName;
+	}
+
+	/**
+	 * The name of the failure class in the result CSV header.
+	 * @return The column name.
+	 */
+	public String getColumnName() {
+		return columnName;
+	}
+
+	/**
+	 * The name of the failure class in messages between load generator and director.
+	 * @return The lower case key.
+	 */
+	public String getKey() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Classifies a request failure. The whole cause chain is searched for the exception types that the JDK
+	 * maps the connect errno to, before falling back to the messages of connect exceptions, whose type is
+	 * shared by several errors.
+	 * @param failure The failure, possibly wrapping the connect error.
+	 * @return The failure class, null if the failure did not occur while connecting.
+	 */
+	public static ConnectFailure classify(Throwable failure) {
+		Throwable t = failure;
+		for (int depth = 0; t != null && depth < MAX_CAUSE_DEPTH; depth++, t = t.getCause()) {
+			ConnectFailure byType = classifyType(t);
+			if (byType != null) {
+				return byType;
+			}
+		}
+		t = failure;
+		for (int depth = 0; t != null && depth < MAX_CAUSE_DEPTH; depth++, t = t.getCause()) {
+			if (t instanceof ConnectException) {
+				return classifyMessage(t);
+			}
+		}
+		return null;
+	}
+
+	private static ConnectFailure classifyType(Throwable t) {
+		if (t instanceof BindException) {
+			// EADDRNOTAVAIL, EADDRINUSE
+			return ADDRESS_NOT_AVAILABLE;
+		}
+		if (t instanceof NoRouteToHostException) {
+			// EHOSTUNREACH
+			return NO_ROUTE;
+		}
+		if (t instanceof UnknownHostException || t instanceof UnresolvedAddressException) {
+			return UNRESOLVED;
+		}
+		if (t instanceof SocketTimeoutException && isConnectMessage(t)) {
+			// the client's connect timeout
+			return TIMEOUT;
+		}
+		return null;
+	}
+
+	/**
+	 * Classifies a connect exception, which the JDK throws for ECONNREFUSED and ETIMEDOUT,
+	 * and which wrappers may use for other errors.
+	 */
+	private static ConnectFailure classifyMessage(Throwable t) {
+		String message = t.getMessage() == null ? "" : t.getMessage().toLowerCase(Locale.ROOT);
+		if (message.contains("refused")) {
+			return REFUSED;
+		}
+		if (message.contains("timed out")) {
+			return TIMEOUT;
+		}
+		if (message.contains("assign requested address") || message.contains("address already in use")) {
+			return ADDRESS_NOT_AVAILABLE;
+		}
+		if (message.contains("unreachable")) {
+			return NO_ROUTE;
+		}
+		return OTHER;
+	}
+
+	private static boolean isConnectMessage(Throwable t) {
+		return t.getMessage() != null && t.getMessage().toLowerCase(Locale.ROOT).contains("connect");
+	}
+}
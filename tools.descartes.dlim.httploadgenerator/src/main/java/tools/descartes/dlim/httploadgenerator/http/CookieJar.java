@@ -0,0 +1,324 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Compact cookie store of a single virtual user.
+ * Specialized for the load testing case of a few cookies per host: cookies are kept in a small array,
+ * matched by domain, path, secure flag and expiry (RFC 6265), and the resulting "Cookie" header value
+ * is rendered once and reused until the jar changes.
+ * Not thread safe, a virtual user is only ever used by one transaction at a time.
+ *
+ * @author Yannik Lubas
+ */
+public class CookieJar {
+
+	private static final int INITIAL_CAPACITY = 4;
+	private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+	private StoredCookie[] cookies = new StoredCookie[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/** Earliest expiry time of all stored cookies. */
+	private long earliestExpiry = NO_EXPIRY;
+	/** True if all stored cookies have the path "/", the rendered header then only depends on the host. */
+	private boolean allRootPaths = true;
+
+	private String renderedHost;
+	private String renderedPath;
+	private boolean renderedSecure;
+	private String renderedHeader;
+
+	/**
+	 * Stores all cookies of a "Set-Cookie" header value.
+	 * Cookies with a max age of 0 or an expiry date in the past delete matching stored cookies.
+	 * Cookies for domains that the request host does not belong to are rejected.
+	 * @param uri The URI of the request the cookie was received for.
+	 * @param setCookie The "Set-Cookie" header value.
+	 */
+	public void addSetCookie(URI uri, String setCookie) {
+		String host = uri.getHost();
+		if (host == null || setCookie == null) {
+			return;
+		}
+		host = host.toLowerCase(Locale.ROOT);
+		StoredCookie cookie = parse(setCookie, host, defaultPath(uri.getRawPath()));
+		if (cookie == null) {
+			return;
+		}
+		if (!cookie.hostOnly && !domainMatches(host, cookie.domain)) {
+			return;
+		}
+		invalidateRendered();
+		int existing = indexOf(cookie);
+		if (cookie.expiry <= System.currentTimeMillis()) {
+			if (existing >= 0) {
+				remove(existing);
+			}
+			return;
+		}
+		if (existing >= 0) {
+			cookies[existing] = cookie;
+		} else {
+			if (size == cookies.length) {
+				cookies = Arrays.copyOf(cookies, size * 2);
+			}
+			cookies[size++] = cookie;
+		}
+		updateSummary();
+	}
+
+	/**
+	 * Returns the "Cookie" header value for a request to the given URI.
+	 * @param uri The request URI.
+	 * @return The header value, null if no stored cookie matches.
+	 */
+	public String getCookieHeader(URI uri) {
+		if (size == 0) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if (now >= earliestExpiry) {
+			removeExpired(now);
+			if (size == 0) {
+				return null;
+			}
+		}
+		String host = uri.getHost();
+		if (host == null) {
+			return null;
+		}
+		String path = uri.getRawPath();
+		if (path == null || path.isEmpty()) {
+			path = "/";
+		}
+		boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+		if (renderedHost != null && renderedSecure == secure && renderedHost.equalsIgnoreCase(host)
+				&& (allRootPaths || renderedPath.equals(path))) {
+			return renderedHeader;
+		}
+		String lowerHost = host.toLowerCase(Locale.ROOT);
+		StringBuilder header = null;
+		for (int i = 0; i < size; i++) {
+			StoredCookie cookie = cookies[i];
+			if (cookie.matches(lowerHost, path, secure)) {
+				if (header == null) {
+					header = new StringBuilder();
+				} else {
+					header.append("; ");
+				}
+				header.append(cookie.name).append('=').append(cookie.value);
+			}
+		}
+		renderedHost = host;
+		renderedPath = path;
+		renderedSecure = secure;
+		renderedHeader = header == null ? null : header.toString();
+		return renderedHeader;
+	}
+
+	/**
+	 * Removes all cookies.
+	 */
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(cookies, 0, size, null);
+			size = 0;
+		}
+		invalidateRendered();
+		updateSummary();
+	}
+
+	/**
+	 * Number of stored cookies, including cookies that have expired but were not yet evicted.
+	 * @return The number of cookies.
+	 */
+	public int size() {
+		return size;
+	}
+
+	private void invalidateRendered() {
+		renderedHost = null;
+		renderedPath = null;
+		renderedHeader = null;
+	}
+
+	private void updateSummary() {
+		long expiry = NO_EXPIRY;
+		boolean rootPaths = true;
+		for (int i = 0; i < size; i++) {
+			expiry = Math.min(expiry, cookies[i].expiry);
+			rootPaths &= cookies[i].path.equals("/");
+		}
+		earliestExpiry = expiry;
+		allRootPaths = rootPaths;
+	}
+
+	private void removeExpired(long now) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (cookies[i].expiry <= now) {
+				remove(i);
+			}
+		}
+		invalidateRendered();
+		updateSummary();
+	}
+
+	private void remove(int index) {
+		System.arraycopy(cookies, index + 1, cookies, index, size - index - 1);
+		cookies[--size] = null;
+	}
+
+	private int indexOf(StoredCookie cookie) {
+		for (int i = 0; i < size; i++) {
+			StoredCookie stored = cookies[i];
+			if (stored.name.equals(cookie.name) && stored.domain.equals(cookie.domain)
+					&& stored.path.equals(cookie.path)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Domain matching according to RFC 6265, section 5.1.3.
+	 */
+	static boolean domainMatches(String host, String domain) {
+		if (host.equals(domain)) {
+			return true;
+		}
+		return host.endsWith(domain) && host.charAt(host.length() - domain.length() - 1) == '.'
+				&& !Character.isDigit(host.charAt(host.length() - 1));
+	}
+
+	/**
+	 * Path matching according to RFC 6265, section 5.1.4.
+	 */
+	static boolean pathMatches(String requestPath, String cookiePath) {
+		if (!requestPath.startsWith(cookiePath)) {
+			return false;
+		}
+		return requestPath.length() == cookiePath.length() || cookiePath.endsWith("/")
+				|| requestPath.charAt(cookiePath.length()) == '/';
+	}
+
+	/**
+	 * Default cookie path according to RFC 6265, section 5.1.4.
+	 */
+	private static String defaultPath(String requestPath) {
+		if (requestPath == null || !requestPath.startsWith("/")) {
+			return "/";
+		}
+		int lastSlash = requestPath.lastIndexOf('/');
+		return lastSlash == 0 ? "/" : requestPath.substring(0, lastSlash);
+	}
+
+	private static StoredCookie parse(String setCookie, String host, String defaultPath) {
+		int attributesStart = setCookie.indexOf(';');
+		String nameValue = attributesStart < 0 ? setCookie : setCookie.substring(0, attributesStart);
+		int equals = nameValue.indexOf('=');
+		if (equals <= 0) {
+			return null;
+		}
+		String name = nameValue.substring(0, equals).trim();
+		if (name.isEmpty()) {
+			return null;
+		}
+		String value = nameValue.substring(equals + 1).trim();
+		String domain = null;
+		String path = null;
+		boolean secure = false;
+		long expiry = NO_EXPIRY;
+		boolean hasMaxAge = false;
+
+		int pos = attributesStart;
+		while (pos >= 0 && pos < setCookie.length()) {
+			int next = setCookie.indexOf(';', pos + 1);
+			String attribute = setCookie.substring(pos + 1, next < 0 ? setCookie.length() : next).trim();
+			pos = next;
+			int attributeEquals = attribute.indexOf('=');
+			String attributeName = attributeEquals < 0 ? attribute : attribute.substring(0, attributeEquals).trim();
+			String attributeValue = attributeEquals < 0 ? "" : attribute.substring(attributeEquals + 1).trim();
+			if (attributeName.equalsIgnoreCase("Max-Age")) {
+				try {
+					long maxAge = Long.parseLong(attributeValue);
+					expiry = maxAge <= 0 ? Long.MIN_VALUE : System.currentTimeMillis() + maxAge * 1000L;
+					hasMaxAge = true;
+				} catch (NumberFormatException e) {
+					// ignore invalid attribute
+				}
+			} else if (attributeName.equalsIgnoreCase("Expires") && !hasMaxAge) {
+				try {
+					expiry = ZonedDateTime.parse(attributeValue, DateTimeFormatter.RFC_1123_DATE_TIME)
+							.toInstant().toEpochMilli();
+				} catch (DateTimeParseException e) {
+					// ignore invalid attribute
+				}
+			} else if (attributeName.equalsIgnoreCase("Domain") && !attributeValue.isEmpty()) {
+				domain = attributeValue.startsWith(".") ? attributeValue.substring(1) : attributeValue;
+				domain = domain.toLowerCase(Locale.ROOT);
+			} else if (attributeName.equalsIgnoreCase("Path") && attributeValue.startsWith("/")) {
+				path = attributeValue;
+			} else if (attributeName.equalsIgnoreCase("Secure")) {
+				secure = true;
+			}
+		}
+		boolean hostOnly = domain == null || domain.isEmpty();
+		return new StoredCookie(name, value, hostOnly ? host : domain, hostOnly,
+				path == null ? defaultPath : path, secure, expiry);
+	}
+
+	/**
+	 * A single stored cookie.
+	 */
+	private static final class StoredCookie {
+		private final String name;
+		private final String value;
+		private final String domain;
+		private final boolean hostOnly;
+		private final String path;
+		private final boolean secure;
+		private final long expiry;
+
+		private StoredCookie(String name, String value, String domain, boolean hostOnly,
+				String path, boolean secure, long expiry) {
+			this.name = name;
+			this.value = value;
+			this.domain = domain;
+			this.hostOnly = hostOnly;
+			this.path = path;
+			this.secure = secure;
+			this.expiry = expiry;
+		}
+
+		private boolean matches(String host, String requestPath, boolean secureRequest) {
+			if (secure && !secureRequest) {
+				return false;
+			}
+			if (hostOnly ? !host.equals(domain) : !domainMatches(host, domain)) {
+				return false;
+			}
+			return pathMatches(requestPath, path);
+		}
+	}
+}
@@ -15,33 +15,24 @@
  */
 package tools.descartes.dlim.httploadgenerator.http;
 
-import java.io.File;
-import java.net.CookieStore;
-import java.net.HttpCookie;
 import java.net.URI;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.Request;
-import org.eclipse.jetty.client.StringRequestContent;
+import org.eclipse.jetty.client.Response;
 import org.eclipse.jetty.http.HttpField;
-import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpHeader;
 import org.luaj.vm2.Globals;
-import org.luaj.vm2.LuaTable;
-import org.luaj.vm2.LuaValue;
-import org.luaj.vm2.lib.jse.JsePlatform;
 
-import tools.descartes.dlim.httploadgenerator.http.lua.HTMLFunctions;
-import tools.descartes.dlim.httploadgenerator.http.lua.HTMLLuaFunctions.ExtractAllMatches;
-import tools.descartes.dlim.httploadgenerator.http.lua.HTMLLuaFunctions.GetMatches;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaRequestGenerator;
 
 /**
- * Stateful Generator for the next HTTP-GET or POST URL.
- * URLs are generated from the script passed in the constructor.
+ * Stateful virtual user that generates the next HTTP request.
+ * Requests are generated by the {@link IRequestGenerator} passed in the constructor,
+ * usually a {@link LuaRequestGenerator} running the user's LUA script.
+ * The virtual user keeps track of the call cycle, retries and cookies.
  *
  * @author Joakim von Kistowski
  */
@@ -51,30 +42,26 @@ public class HTTPInputGenerator {
 
 	private static final String USER_AGENT = "Mozilla/5.0";
 
-	private static final String LUA_CYCLE_INIT = "onCycle";
-	private static final String LUA_CALL = "onCall";
-
-	private static final String JSON_SIGNAL = "[JSON]";
-
 	private int MAX_TRIES = Integer.MAX_VALUE;
 
 	private final HttpClient httpClient;
-	private final CookieStore cookieStore;
+	private final CookieJar cookieJar = new CookieJar();
 
 	private int id;
 	private int retries = 0;
 
 	private int currentCallNum = 0;
-	private String lastInput = "";
-	private String currentCycleInput = null;
+	private RequestDescriptor lastInput = null;
+	private RequestDescriptor currentCycleInput = null;
 	private int timeout = 0;
+	private boolean keepAlive = false;
 
-	private HTMLFunctions htmlFunctions = new HTMLFunctions("");
-	private Globals luaGlobals;
+	private IRequestGenerator requestGenerator;
 
 	/**
-	 * Constructs a new HTTPInputGenerator using a Lua generation script.
-	 * The Lua script must contain the onInit() and onCall(callnum) functions.
+	 * Constructs a new HTTPInputGenerator using a request generator, e.g.,
+	 * a {@link LuaRequestGenerator} for a Lua generation script.
+	 * The Lua script must contain the onCycle() and onCall(callnum) functions.
 	 * onCall(callnum) must return the HTTP request for a specific call with number
 	 * callnum.
 	 * callnum begins at 1 (Lua convention) and increments for each call. It resets
@@ -82,60 +69,49 @@ public class HTTPInputGenerator {
 	 * if onCall returns nil.
 	 *
 	 * @param id         The input generator's id.
-	 * @param scriptFile The url generator script.
-	 * @param randomSeed Seed for Lua random function.
+	 * @param requestGenerator The request generator of this user. Is initialized by this constructor.
+	 * @param randomSeed Seed for random decisions of the request generator.
 	 * @param timeout    The http read timeout.
 	 */
-	public HTTPInputGenerator(int id, File scriptFile, int randomSeed, int timeout, HttpClient httpClient) {
+	public HTTPInputGenerator(int id, IRequestGenerator requestGenerator, int randomSeed, int timeout,
+			HttpClient httpClient) {
 		this.id = id;
 		this.httpClient = httpClient;
-		this.cookieStore = new java.net.CookieManager().getCookieStore();
 
 		if (timeout > 0) {
 			this.timeout = timeout;
 		}
 
-		if (scriptFile != null) {
-			luaGlobals = JsePlatform.standardGlobals();
-			LuaValue library = new LuaTable();
-			library.set("getMatches", new GetMatches(htmlFunctions));
-			library.set("extractMatches", new ExtractAllMatches(htmlFunctions));
-			luaGlobals.set("html", library);
-			luaGlobals.get("math").get("randomseed").call(LuaValue.valueOf(5));
-			luaGlobals.get("dofile").call(LuaValue.valueOf(scriptFile.getAbsolutePath()));
+		if (requestGenerator != null) {
+			this.requestGenerator = requestGenerator;
+			requestGenerator.initialize(id, randomSeed);
 		}
 	}
 
 	/**
 	 * Builds a request using the HTTP client and current cookies.
 	 *
+	 * @param descriptor The request to build.
 	 * @return The http client's initialized request.
 	 */
-	public Request initializeHTTPRequest(String url, String method) {
-		Request request;
-		URI uri;
-		if (method.equalsIgnoreCase("POST")) {
-			String split[] = url.split(Pattern.quote(JSON_SIGNAL), 2);
-			url = split[0].trim();
-			request = httpClient.POST(url);
-			uri = URI.create(url);
-			if (split.length == 2) {
-				request.body(new StringRequestContent("application/json", split[1]));
-			}
-		} else if (method.equalsIgnoreCase("PUT")) {
-			request = httpClient.newRequest(url).method(HttpMethod.PUT);
-			uri = URI.create(url);
-		} else {
-			request = httpClient.newRequest(url);
-			uri = URI.create(url);
+	public Request initializeHTTPRequest(RequestDescriptor descriptor) {
+		URI uri = descriptor.getURI();
+		Request request = httpClient.newRequest(uri).method(descriptor.getMethod());
+		if (descriptor.hasBody()) {
+			request.body(descriptor.newBodyContent());
 		}
+		String cookieHeader = cookieJar.getCookieHeader(uri);
 		request = request.agent(USER_AGENT).headers(headers -> {
-			headers.put("Connection", "close");
+			if (!keepAlive) {
+				headers.put("Connection", "close");
+			}
+			if (cookieHeader != null) {
+				headers.put(HttpHeader.COOKIE, cookieHeader);
+			}
+			for (HttpField field : descriptor.getHeaders()) {
+				headers.put(field);
+			}
 		});
-		List<org.eclipse.jetty.http.HttpCookie> cookies = getCookies(uri);
-		for (org.eclipse.jetty.http.HttpCookie cookie : cookies) {
-			request = request.cookie(cookie);
-		}
 
 		if (timeout > 0) {
 			request = request.timeout(timeout, TimeUnit.MILLISECONDS)
@@ -144,19 +120,25 @@ public class HTTPInputGenerator {
 		return request;
 	}
 
+	/**
+	 * Stores the cookies of a received "Set-Cookie" header.
+	 *
+	 * @param uri   The URI of the request that received the header.
+	 * @param field The "Set-Cookie" header field.
+	 */
 	public void addCookie(URI uri, HttpField field) {
-		List<HttpCookie> cookies = HttpCookie.parse(field.getValue());
-		for (HttpCookie cookie: cookies) {
-			cookieStore.add(uri, cookie);
-		}
+		cookieJar.addSetCookie(uri, field.getValue());
 	}
 
-	private List<org.eclipse.jetty.http.HttpCookie> getCookies(URI uri) {
-		List<HttpCookie> cookies = cookieStore.get(uri);
-		return cookies.stream()
-		.filter(c -> !c.hasExpired())
-		.map(c -> org.eclipse.jetty.http.HttpCookie.from(c))
-		.collect(Collectors.toList());
+	/**
+	 * Passes a successfully received response to the request generator.
+	 *
+	 * @param request  The request that was sent.
+	 * @param response The response.
+	 * @param content  The response body.
+	 */
+	public void onResponse(RequestDescriptor request, Response response, byte[] content) {
+		requestGenerator.onResponse(request, response, content);
 	}
 
 	int getRetries() {
@@ -164,11 +146,14 @@ public class HTTPInputGenerator {
 	}
 
 	/**
-	 * Returns the next URL for the HTTPTransaction. Runs the script.
+	 * Returns the next request for the HTTPTransaction. Runs the request generator.
 	 *
-	 * @return The next URL to call.
+	 * @return The next request.
 	 */
-	public String getNextInput() {
+	public RequestDescriptor getNextRequest() {
+		if (requestGenerator == null) {
+			throw new IllegalStateException("No request generator for user " + id + ".");
+		}
 		if (currentCallNum < 1) {
 			restartCycle();
 		}
@@ -177,32 +162,46 @@ public class HTTPInputGenerator {
 			currentCycleInput = null;
 			return lastInput;
 		}
-		LuaValue lvcall = luaGlobals.get(LUA_CALL).call(LuaValue.valueOf(currentCallNum));
-		if (lvcall.isnil()) {
+		RequestDescriptor request = requestGenerator.onCall(currentCallNum);
+		if (request == null) {
 			restartCycle();
-			return getNextInput();
+			return getNextRequest();
 		} else {
 			currentCallNum++;
-			lastInput = lvcall.optjstring("");
+			lastInput = request;
 			return lastInput;
 		}
 	}
 
+	/**
+	 * Returns the next request without consuming it. The next call of {@link #getNextRequest()}
+	 * returns the same request.
+	 *
+	 * @return The next request.
+	 */
+	RequestDescriptor peekNextRequest() {
+		getCurrentCallNum();
+		return currentCycleInput;
+	}
+
+	/**
+	 * Returns the URL of the next request. Runs the request generator.
+	 *
+	 * @return The next URL to call.
+	 */
+	public String getNextInput() {
+		return getNextRequest().getURL();
+	}
+
 	/**
 	 * Restarts the call cycle.
-	 * Resets the current call number to one and calls init from the script.
+	 * Resets the current call number to one and starts a new cycle of the request generator.
 	 */
 	private void restartCycle() {
 		currentCallNum = 1;
-		// if (httpClient != null && httpClient.getHttpCookieStore() != null) {
-		// 	httpClient.getHttpCookieStore().clear();
-		// }
 		this.resetRetries();
-		cookieStore.removeAll();
-		LuaValue cycleInit = luaGlobals.get(LUA_CYCLE_INIT);
-		if (!cycleInit.isnil()) {
-			cycleInit.call();
-		}
+		cookieJar.clear();
+		requestGenerator.onCycle();
 	}
 
 	public void resetRetries() {
@@ -216,7 +215,7 @@ public class HTTPInputGenerator {
 	 */
 	public int getCurrentCallNum() {
 		if (this.currentCycleInput == null) {
-			this.currentCycleInput = getNextInput();
+			this.currentCycleInput = getNextRequest();
 		}
 
 		if (this.currentCycleInput != null) {
@@ -227,36 +226,17 @@ public class HTTPInputGenerator {
 	}
 
 	/**
-	 * Reset the HTML functions that are passed to LUA.
+	 * Get the last request that was generated on calling {@link #getNextRequest()}.
 	 *
-	 * @param html The html response that will be accessed from LUA next.
+	 * @return The last request, null if there was none.
 	 */
-	public void resetHTMLFunctions(String html) {
-		htmlFunctions.resetHTMLFunctions(html);
-	}
-
-
-	/**
-	 * Get the last call that was generated on calling {@link #getNextInput()}.
-	 *
-	 * @return The last call URL.
-	 */
-	public String getLastCall() {
+	public RequestDescriptor getLastCall() {
 		return lastInput;
 	}
 
-	/**
-	 * Get the current HTML content that was last received using this generator.
-	 *
-	 * @return The HTML content.
-	 */
-	public String getCurrentHTML() {
-		return htmlFunctions.getHTML();
-	}
-
 	/**
 	 * Decrements the last call number. Use this after an unsuccessful call
-	 * in order to be repeat it on the next call of {@link #getNextInput()}.
+	 * in order to be repeat it on the next call of {@link #getNextRequest()}.
 	 */
 	public void revertLastCall() {
 		this.retries += 1;
@@ -283,13 +263,21 @@ public class HTTPInputGenerator {
 	}
 
 	void setLuaGlobals(Globals globals) {
-		this.luaGlobals = globals;
+		this.requestGenerator = new LuaRequestGenerator(globals);
 	}
 
 	void setMaxTries(int maxTries) {
 		this.MAX_TRIES = maxTries;
 	}
 
+	/**
+	 * Keeps connections open after each request instead of sending "Connection: close",
+	 * so that later requests of the user reuse them.
+	 */
+	void setKeepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
 	/**
 	 * @see java.lang.Object#hashCode()
 	 */
@@ -16,17 +16,48 @@
 package tools.descartes.dlim.httploadgenerator.http;
 
 import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
+import org.eclipse.jetty.client.BufferingResponseListener;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.Request;
+import org.eclipse.jetty.client.Response;
+import org.eclipse.jetty.client.Result;
 import org.eclipse.jetty.http.HttpCookieStore;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.util.SocketAddressResolver;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.luaj.vm2.LuaError;
+
+import tools.descartes.dlim.httploadgenerator.http.lua.CompiledLuaScript;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaGlobalsBuilder;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaRequestGenerator;
 
 
 /**
@@ -42,18 +73,28 @@ public final class HTTPInputGeneratorPool {
 
 	private static HTTPInputGeneratorPool pool = null;
 
-	private static final int MIN_JETTY_THREADS = 32;
-	private static final int MAX_JETTY_THREADS = 512;
-	private static final int JETTY_THREAD_IDLE_TIMEOUT_MS = 60000;
+	/** Lower bound for the maximum thread count of each client shard's executor, in addition to its selectors. */
+	private static final int MIN_SHARD_THREADS = 8;
+	/** Number of cores per client shard if the shard count is chosen automatically. */
+	private static final int CORES_PER_SHARD = 4;
+	/** Upper bound for each step of the pre-warm phase. */
+	private static final int PREWARM_TIMEOUT_S = 60;
+	/** Time that aborted pre-warm calls get to complete. */
+	private static final int PREWARM_ABORT_TIMEOUT_S = 10;
 
 	private Random random;
 	private PoolMode mode;
 	private BlockingQueue<HTTPInputGenerator> queue;
 	private ConcurrentHashMap<Integer, HTTPInputGenerator> map;
 	private Semaphore mapAccessControlSemaphore;
-	private HttpClient httpClient;
+	private List<HttpClient> httpClients;
+	private CachingSocketAddressResolver addressResolver;
+	private final NewConnectionTracker connectionTracker = new NewConnectionTracker();
+	private List<HTTPInputGenerator> users;
 
-	private HTTPInputGeneratorPool(PoolMode mode, String luaScriptPath, int virtualUserCount, int timeout, int randomSeed) {
+	private HTTPInputGeneratorPool(PoolMode mode, String luaScriptPath, int virtualUserCount, int timeout, int randomSeed,
+			boolean luaJC, String luaLibraries, String requestGeneratorClassName, String bindAddresses,
+			int clientShards, HttpClientSettings httpClientSettings) {
 		this.mode = mode;
 		queue = new LinkedBlockingQueue<>();
 		map = new ConcurrentHashMap<>();
@@ -63,21 +104,141 @@ public final class HTTPInputGeneratorPool {
 		} else {
 			random = new Random(5);
 		}
-		File script = new File(luaScriptPath);
-		if (!script.exists()) {
-			LOG.severe("Lua script does not exist at: " + luaScriptPath);
+		boolean customGenerator = requestGeneratorClassName != null && !requestGeneratorClassName.trim().isEmpty();
+		// The script is parsed and compiled only once, each user gets its own closure of the shared prototype.
+		// Broken scripts and generator classes fail here, before any client is started.
+		long compileStart = System.nanoTime();
+		CompiledLuaScript script = customGenerator ? null : compileScript(new File(luaScriptPath), luaJC);
+		Class<? extends IRequestGenerator> requestGeneratorClass
+				= customGenerator ? requestGeneratorClass(requestGeneratorClassName.trim()) : null;
+		long compileNanos = System.nanoTime() - compileStart;
+
+		addressResolver = new CachingSocketAddressResolver(new SocketAddressResolver.Sync());
+		List<InetAddress> localAddresses = parseBindAddresses(bindAddresses);
+		int shardCount = shardCount(clientShards, virtualUserCount, localAddresses.size());
+		httpClients = createHttpClients(shardCount, localAddresses, httpClientSettings, timeout, addressResolver,
+				connectionTracker);
+		LOG.info("Created " + shardCount + " HTTP client shard(s) with " + httpClientSettings + ".");
+
+		// the footprint estimate needs explicit garbage collections, only for debugging
+		boolean measureHeap = LOG.isLoggable(Level.FINE);
+		long usedHeapBefore = measureHeap ? usedHeapBytes() : 0;
+		long startTime = System.nanoTime();
+		LuaGlobalsBuilder globalsBuilder = LuaGlobalsBuilder.fromWhitelist(luaLibraries);
+		// We place as many input generators as virtual users in the pool.
+		// Users are independent of each other and are instantiated in parallel,
+		// but added to the pool in the order of their ids.
+		HTTPInputGenerator[] generators;
+		try {
+			generators = IntStream.range(0, virtualUserCount).parallel()
+					.mapToObj(i -> new HTTPInputGenerator(i,
+							customGenerator ? createRequestGenerator(requestGeneratorClass)
+									: new LuaRequestGenerator(script, globalsBuilder),
+							i, timeout, httpClients.get(i % httpClients.size())))
+					.toArray(HTTPInputGenerator[]::new);
+		} catch (RuntimeException e) {
+			// e.g., a LuaError in the script's top level or a failing generator constructor
+			stopHttpClients();
+			throw e;
+		}
+		for (HTTPInputGenerator generator : generators) {
+			addInputGenerator(generator);
+		}
+		users = Arrays.asList(generators);
+		long endTime = System.nanoTime();
+		long usedHeapAfter = measureHeap ? usedHeapBytes() : 0;
+
+		int poolSize;
+		if (mode.equals(PoolMode.QUEUE)) {
+			poolSize = queue.size();
+		} else {
+			poolSize = map.size();
+		}
+		if (customGenerator) {
+			LOG.info("Created pool of " + poolSize + " users (" + requestGeneratorClassName.trim()
+					+ ", HTTP input generators) in " + (endTime - startTime) / 1000000 + " ms.");
+		} else {
+			LOG.info("Created pool of " + poolSize + " users (LUA contexts, HTTP input generators) in "
+					+ (endTime - startTime) / 1000000 + " ms, after compiling the script in "
+					+ compileNanos / 1000000 + " ms.");
+		}
+		if (poolSize > 0 && usedHeapAfter > usedHeapBefore) {
+			LOG.fine("Approximate heap footprint per user: "
+					+ (usedHeapAfter - usedHeapBefore) / poolSize / 1024 + " KiB"
+					+ (customGenerator ? "." : " (LUA libraries: " + globalsBuilder + ")."));
+		}
+	}
+
+	/**
+	 * Number of HTTP client shards to create.
+	 * @param requestedShards The requested shard count, 0 or less to choose it by core count.
+	 * @param virtualUserCount The number of users, there are never more shards than users.
+	 * @param bindAddressCount The number of local bind addresses. The shard count is rounded up
+	 * 			to a multiple of it, so that users are spread over the addresses round-robin.
+	 * @return The shard count, at least 1.
+	 */
+	static int shardCount(int requestedShards, int virtualUserCount, int bindAddressCount) {
+		int shards = requestedShards > 0 ? requestedShards
+				: Math.max(1, Runtime.getRuntime().availableProcessors() / CORES_PER_SHARD);
+		shards = Math.max(1, Math.min(shards, virtualUserCount));
+		if (bindAddressCount > 1) {
+			shards = (shards + bindAddressCount - 1) / bindAddressCount * bindAddressCount;
 		}
+		return shards;
+	}
 
+	/**
+	 * Creates and starts independent HTTP client shards. Each shard has its own selectors, executor,
+	 * scheduler and connection pools, so users of different shards do not contend on them.
+	 * The selectors, threads and connection limits of the settings are split between the shards.
+	 * User i is assigned to shard i % shardCount, shard j binds to local address j % addressCount.
+	 * @param shardCount The number of shards.
+	 * @param bindAddresses The local addresses to bind to, empty to let the operating system choose.
+	 * @param settings The resolved client settings for all shards together.
+	 * @param timeout The connect timeout in ms, 0 or less for Jetty's default.
+	 * @param addressResolver The resolver that is shared by all shards.
+	 * @param connectionTracker The tracker of new connections that is shared by all shards.
+	 * @return The started clients.
+	 */
+	static List<HttpClient> createHttpClients(int shardCount, List<InetAddress> bindAddresses,
+			HttpClientSettings settings, int timeout, SocketAddressResolver addressResolver,
+			NewConnectionTracker connectionTracker) {
+		int selectors = Math.max(1, settings.getSelectors() / shardCount);
+		// Jetty needs at least one thread per selector and one for the tasks.
+		int maxThreads = Math.max(selectors + MIN_SHARD_THREADS, ceilDiv(settings.getMaxThreads(), shardCount));
+		int minThreads = Math.min(maxThreads, Math.max(selectors + 1, ceilDiv(settings.getMinThreads(), shardCount)));
+		int queueCapacity = ceilDiv(settings.getExecutorQueueCapacity(), shardCount);
+		int maxConnections = Math.max(1, ceilDiv(settings.getMaxConnectionsPerDestination(), shardCount));
+		int maxQueued = Math.max(1, ceilDiv(settings.getMaxRequestsQueuedPerDestination(), shardCount));
+		List<HttpClient> clients = new ArrayList<>(shardCount);
+		for (int i = 0; i < shardCount; i++) {
+			InetAddress bindAddress = bindAddresses.isEmpty() ? null : bindAddresses.get(i % bindAddresses.size());
+			BlockingQueue<Runnable> executorQueue = queueCapacity > 0
+					? new LinkedBlockingQueue<>(queueCapacity) : new LinkedBlockingQueue<>();
+			QueuedThreadPool executor = new QueuedThreadPool(maxThreads, minThreads,
+					settings.getThreadIdleTimeoutMs(), executorQueue);
+			executor.setName("HttpClient-shard-" + i);
 
-		BlockingQueue<Runnable> executorQueue = new LinkedBlockingQueue<>();
-		QueuedThreadPool executor = new QueuedThreadPool(MAX_JETTY_THREADS, MIN_JETTY_THREADS, JETTY_THREAD_IDLE_TIMEOUT_MS, executorQueue);
+			HttpClient httpClient = new HttpClient(connectionTracker.newTransport(selectors));
+			httpClient.setExecutor(executor);
+			httpClient.setMaxConnectionsPerDestination(maxConnections);
+			httpClient.setMaxRequestsQueuedPerDestination(maxQueued);
+			httpClient.setHttpCookieStore(new HttpCookieStore.Empty());
+			httpClient.setSocketAddressResolver(addressResolver);
+			httpClient.addBean(connectionTracker);
+			if (bindAddress != null) {
+				httpClient.setBindAddress(new InetSocketAddress(bindAddress, 0));
+			}
+			clients.add(startHttpClient(httpClient, timeout));
+		}
+		return clients;
+	}
 
-		HttpClient httpClient = new HttpClient();
-		httpClient.setExecutor(executor);
-		httpClient.setMaxConnectionsPerDestination(virtualUserCount + (virtualUserCount / 2));
-		httpClient.setMaxRequestsQueuedPerDestination(virtualUserCount + (virtualUserCount / 2));
-		httpClient.setHttpCookieStore(new HttpCookieStore.Empty());
+	private static int ceilDiv(int value, int divisor) {
+		return (value + divisor - 1) / divisor;
+	}
 
+	private static HttpClient startHttpClient(HttpClient httpClient, int timeout) {
 		if (timeout > 0) {
 			httpClient.setConnectTimeout(timeout);
 		}
@@ -86,16 +247,278 @@ public final class HTTPInputGeneratorPool {
 		} catch (Exception e) {
 			LOG.severe("Could not start HTTP client; Exception: " + e.getMessage());
 		}
-		this.httpClient = httpClient;
-		// We place as many input generators as virtual users in the pool.
-		for (int i = 0; i < virtualUserCount; i++) {
-			addInputGenerator(new HTTPInputGenerator(i, script, i, timeout, this.httpClient));
+		return httpClient;
+	}
+
+	/**
+	 * Parses the comma separated local bind addresses. Addresses that can not be bound
+	 * on this machine are skipped with a warning.
+	 */
+	private static List<InetAddress> parseBindAddresses(String bindAddresses) {
+		List<InetAddress> addresses = new ArrayList<>();
+		if (bindAddresses == null) {
+			return addresses;
 		}
-		if (mode.equals(PoolMode.QUEUE)) {
-			LOG.info("Created pool of " + queue.size() + " users (LUA contexts, HTTP input generators).");
-		} else {
-			LOG.info("Created pool of " + map.size() + " users (LUA contexts, HTTP input generators).");
+		for (String token : bindAddresses.split(",")) {
+			String name = token.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			try (Socket socket = new Socket()) {
+				InetAddress address = InetAddress.getByName(name);
+				socket.bind(new InetSocketAddress(address, 0));
+				addresses.add(address);
+			} catch (IOException e) {
+				LOG.warning("Ignoring bind address " + name + ", it can not be bound on this machine: "
+						+ e.getMessage());
+			}
+		}
+		if (!addresses.isEmpty()) {
+			LOG.info("Binding connections to local addresses: " + addresses);
+		}
+		return addresses;
+	}
+
+	/**
+	 * Sets whether the requests of all users keep their connections open.
+	 * @param keepAlive True to reuse connections, false to send "Connection: close" with every request.
+	 */
+	public void setKeepAlive(boolean keepAlive) {
+		users.forEach(user -> user.setKeepAlive(keepAlive));
+	}
+
+	/**
+	 * Pre-warms the HTTP client before measurement starts.
+	 * Resolves the hosts of the first request of each user, opens pooled connections to them
+	 * and sends the given number of calls for each user. The calls advance the users' call cycles
+	 * like warmup calls, their results are not logged.
+	 * Unless {@link #setKeepAlive(boolean) keep-alive} is enabled, requests still send "Connection: close",
+	 * so pre-created connections serve only one request each.
+	 * Calls still in flight after the timeout are aborted, and this method returns only once
+	 * no pre-warm call uses a user anymore, as users are not thread-safe.
+	 *
+	 * @param connectionsPerDestination Number of connections to open per destination, 0 to skip.
+	 * @param callsPerUser Number of calls to send per user, 0 to skip.
+	 * @return Summary of the pre-warm phase for the director.
+	 * @throws IllegalStateException If aborted pre-warm calls do not complete.
+	 */
+	public String prewarm(int connectionsPerDestination, int callsPerUser) {
+		return prewarm(connectionsPerDestination, callsPerUser, PREWARM_TIMEOUT_S);
+	}
+
+	/**
+	 * Pre-warms the HTTP client, see {@link #prewarm(int, int)}.
+	 * @param timeoutS Upper bound for each step of the pre-warm phase in seconds.
+	 */
+	String prewarm(int connectionsPerDestination, int callsPerUser, int timeoutS) {
+		long start = System.currentTimeMillis();
+		Set<URI> origins = new LinkedHashSet<>();
+		for (HTTPInputGenerator user : users) {
+			try {
+				URI uri = user.peekNextRequest().getURI();
+				if (uri.getHost() != null) {
+					origins.add(URI.create(uri.getScheme().toLowerCase(Locale.ROOT) + "://" + uri.getHost()
+							+ ":" + port(uri)));
+				}
+			} catch (RuntimeException e) {
+				LOG.warning("Could not determine the first request of user " + user.getId() + ": " + e.getMessage());
+			}
+		}
+
+		int connections = 0;
+		for (URI origin : origins) {
+			try {
+				addressResolver.preResolve(origin.getHost(), origin.getPort());
+			} catch (ExecutionException e) {
+				LOG.warning("Could not resolve " + origin.getHost() + ": " + e.getCause().getMessage());
+				continue;
+			} catch (InterruptedException e) {
+				LOG.severe("Interrupted resolving " + origin.getHost());
+				Thread.currentThread().interrupt();
+				break;
+			}
+			for (int i = 0; i < httpClients.size() && connectionsPerDestination > 0; i++) {
+				HttpClient httpClient = httpClients.get(i);
+				try {
+					httpClient.resolveDestination(httpClient.newRequest(origin)).getConnectionPool()
+							.preCreateConnections(connectionsPerDestination).get(timeoutS, TimeUnit.SECONDS);
+					connections += connectionsPerDestination;
+				} catch (ExecutionException | TimeoutException e) {
+					LOG.warning("Could not pre-create connections to " + origin + ": " + e.getMessage());
+				} catch (InterruptedException e) {
+					LOG.severe("Interrupted pre-creating connections to " + origin);
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+
+		if (callsPerUser > 0) {
+			PrewarmCalls calls = new PrewarmCalls(users.size());
+			users.forEach(user -> sendPrewarmCalls(user, callsPerUser, calls));
+			calls.awaitOrAbort(timeoutS);
+		}
+		// measured requests do not wait for the connections opened by the pre-warm phase
+		connectionTracker.clear();
+
+		String summary = (System.currentTimeMillis() - start) + " ms (" + addressResolver.size()
+				+ " hosts resolved, " + connections + " connections opened, " + callsPerUser + " calls per user)";
+		LOG.info("Pre-warm took " + summary + ".");
+		return summary;
+	}
+
+	/**
+	 * Pre-warm calls of all users: counts the users whose calls are done
+	 * and tracks the requests in flight, so that they can be aborted.
+	 */
+	private static final class PrewarmCalls {
+		private final CountDownLatch done;
+		private final Set<Request> inFlight = ConcurrentHashMap.newKeySet();
+		private volatile boolean aborted = false;
+
+		private PrewarmCalls(int users) {
+			done = new CountDownLatch(users);
+		}
+
+		/**
+		 * Registers a request before it is sent.
+		 * @return False if the calls were aborted and the request must not be sent.
+		 */
+		private boolean begin(Request request) {
+			inFlight.add(request);
+			if (aborted) {
+				inFlight.remove(request);
+				return false;
+			}
+			return true;
+		}
+
+		private void awaitOrAbort(int timeoutS) {
+			try {
+				if (done.await(timeoutS, TimeUnit.SECONDS)) {
+					return;
+				}
+				LOG.warning("Pre-warm calls did not complete within " + timeoutS + " s, aborting "
+						+ inFlight.size() + " calls in flight.");
+				aborted = true;
+				TimeoutException cause = new TimeoutException("Pre-warm timed out");
+				inFlight.forEach(request -> request.abort(cause));
+				if (!done.await(PREWARM_ABORT_TIMEOUT_S, TimeUnit.SECONDS)) {
+					throw new IllegalStateException("Aborted pre-warm calls did not complete within "
+							+ PREWARM_ABORT_TIMEOUT_S + " s.");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted waiting for pre-warm calls.", e);
+			}
+		}
+	}
+
+	/**
+	 * Sends calls of a user one after another, without logging their results.
+	 */
+	private void sendPrewarmCalls(HTTPInputGenerator user, int remaining, PrewarmCalls calls) {
+		if (remaining <= 0 || calls.aborted) {
+			calls.done.countDown();
+			return;
+		}
+		RequestDescriptor descriptor;
+		Request request;
+		try {
+			descriptor = user.getNextRequest();
+			request = user.initializeHTTPRequest(descriptor);
+		} catch (RuntimeException e) {
+			LOG.warning("Error in request generator during pre-warm: " + e.getMessage());
+			calls.done.countDown();
+			return;
+		}
+		if (!calls.begin(request)) {
+			calls.done.countDown();
+			return;
+		}
+		request.send(new BufferingResponseListener() {
+			@Override
+			public void onComplete(Result result) {
+				calls.inFlight.remove(request);
+				Response response = result.getResponse();
+				if (!result.isFailed()) {
+					for (HttpField field : response.getHeaders().getFields(HttpHeader.SET_COOKIE)) {
+						user.addCookie(request.getURI(), field);
+					}
+					if (response.getStatus() < 400) {
+						try {
+							user.onResponse(descriptor, response, getContent());
+						} catch (RuntimeException e) {
+							LOG.warning("Failed to process pre-warm response body: " + e.getMessage());
+						}
+					}
+				}
+				user.resetRetries();
+				sendPrewarmCalls(user, remaining - 1, calls);
+			}
+		});
+	}
+
+	private static int port(URI uri) {
+		if (uri.getPort() > 0) {
+			return uri.getPort();
 		}
+		return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+	}
+
+	/**
+	 * Compiles the Lua script.
+	 * @throws IllegalStateException If the script does not exist or can not be compiled,
+	 * 			so that the run fails before measurement instead of dropping all requests.
+	 */
+	private static CompiledLuaScript compileScript(File scriptFile, boolean luaJC) {
+		if (!scriptFile.exists()) {
+			throw new IllegalStateException("Lua script does not exist at: " + scriptFile);
+		}
+		try {
+			return CompiledLuaScript.compile(scriptFile, luaJC);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read Lua script: " + e.getMessage(), e);
+		} catch (LuaError e) {
+			throw new IllegalStateException("Could not compile Lua script: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Loads a custom request generator class by its fully qualified name.
+	 * The class must implement {@link IRequestGenerator} and have a public no-argument constructor.
+	 * @throws IllegalStateException If the class can not be loaded.
+	 */
+	private static Class<? extends IRequestGenerator> requestGeneratorClass(String className) {
+		try {
+			return Class.forName(className).asSubclass(IRequestGenerator.class);
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IllegalStateException("Could not load request generator " + className + ": "
+					+ e.getClass().getSimpleName() + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Instantiates a custom request generator for a user.
+	 * @throws IllegalStateException If the class can not be instantiated.
+	 */
+	private static IRequestGenerator createRequestGenerator(Class<? extends IRequestGenerator> generatorClass) {
+		try {
+			return generatorClass.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not instantiate request generator " + generatorClass.getName()
+					+ ": " + e.getClass().getSimpleName() + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Heap in use after a garbage collection. Only called during pool initialization if fine logging is enabled,
+	 * where the explicit collection makes the per user footprint estimate meaningful.
+	 */
+	private static long usedHeapBytes() {
+		MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+		memoryBean.gc();
+		return memoryBean.getHeapMemoryUsage().getUsed();
 	}
 
 	private void addInputGenerator(HTTPInputGenerator generator) {
@@ -130,10 +553,66 @@ public final class HTTPInputGeneratorPool {
 	 * @param virtualUserCount   The number of threads that will be used to access the
 	 *                      pool.
 	 * @param timeout       The http url connection timeout.
+	 * @param luaJC         True if the script is to be compiled to JVM bytecode.
+	 *                      Falls back to the interpreter if compilation fails.
+	 * @param luaLibraries  Comma separated whitelist of the LUA standard libraries available to the script.
+	 * @param requestGeneratorClassName Fully qualified name of a custom {@link IRequestGenerator}
+	 *                      that replaces the Lua script. Null or empty to use the Lua script.
+	 * @param bindAddresses Comma separated local addresses to bind the connections to.
+	 *                      Null or empty to let the operating system choose.
+	 * @param clientShards  Number of independent HTTP client shards, 0 or less to choose by core count.
+	 * @param httpClientSettings Resolved selector, thread pool and connection limits of all shards together.
+	 * @throws IllegalStateException If the Lua script or the request generator can not be loaded.
 	 */
 	public static void initializePool(PoolMode mode, String luaScriptPath, int virtualUserCount, int timeout,
-			int randomSeed) {
-		pool = new HTTPInputGeneratorPool(mode, luaScriptPath, virtualUserCount, timeout, randomSeed);
+			int randomSeed, boolean luaJC, String luaLibraries, String requestGeneratorClassName,
+			String bindAddresses, int clientShards, HttpClientSettings httpClientSettings) {
+		if (pool != null) {
+			pool.stopHttpClients();
+			pool = null;
+		}
+		pool = new HTTPInputGeneratorPool(mode, luaScriptPath, virtualUserCount, timeout, randomSeed, luaJC,
+				luaLibraries, requestGeneratorClassName, bindAddresses, clientShards,
+				httpClientSettings);
+	}
+
+	/**
+	 * The tracker of connections that were opened but have not sent a request yet.
+	 * @return The tracker, shared by all HTTP client shards.
+	 */
+	public NewConnectionTracker getConnectionTracker() {
+		return connectionTracker;
+	}
+
+	/**
+	 * Samples the thread usage of all HTTP client shards.
+	 * @return The total number of client threads, the number of busy threads,
+	 * 			the number of tasks waiting in the executor queues, the number of threads running tasks
+	 * 			other than selectors and the maximum number of threads available for such tasks.
+	 */
+	public long[] getThreadStatistics() {
+		long[] statistics = new long[5];
+		for (HttpClient httpClient : httpClients) {
+			if (httpClient.getExecutor() instanceof QueuedThreadPool) {
+				QueuedThreadPool executor = (QueuedThreadPool) httpClient.getExecutor();
+				statistics[0] += executor.getThreads();
+				statistics[1] += executor.getBusyThreads();
+				statistics[2] += executor.getQueueSize();
+				statistics[3] += executor.getUtilizedThreads();
+				statistics[4] += executor.getMaxAvailableThreads();
+			}
+		}
+		return statistics;
+	}
+
+	private void stopHttpClients() {
+		for (HttpClient httpClient : httpClients) {
+			try {
+				httpClient.stop();
+			} catch (Exception e) {
+				LOG.warning("Could not stop HTTP client; Exception: " + e.getMessage());
+			}
+		}
 	}
 
 	/**
@@ -24,6 +24,7 @@ import java.net.UnknownHostException;
 import java.net.NoRouteToHostException;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.channels.UnresolvedAddressException;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -33,29 +34,33 @@ import org.eclipse.jetty.client.Response;
 import org.eclipse.jetty.client.Result;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
-import org.luaj.vm2.LuaError;
 
 import tools.descartes.dlim.httploadgenerator.generator.ResultTracker;
 import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+import tools.descartes.dlim.httploadgenerator.generator.TransactionPhase;
+import tools.descartes.dlim.httploadgenerator.generator.jfr.LoadEvents;
+import tools.descartes.dlim.httploadgenerator.generator.jfr.TransactionEvent;
+import tools.descartes.dlim.httploadgenerator.generator.jfr.UserWaitEvent;
+import tools.descartes.dlim.httploadgenerator.runner.EndpointTraffic;
 import tools.descartes.dlim.httploadgenerator.transaction.Transaction;
 import tools.descartes.dlim.httploadgenerator.transaction.TransactionQueueSingleton;
 
 
 /**
- * {@link HTTPTransaction} sends HTML requests to a HTTP web server based on a LUA
- * script.
+ * {@link HTTPTransaction} sends HTML requests to a HTTP web server based on the requests
+ * of an {@link IRequestGenerator}, by default a LUA script.
  *
  * @author Joakim von Kistowski, Maximilian Deffner
  *
  */
 public class HTTPTransaction extends Transaction {
 
-	private static final String POST_SIGNAL = "[POST]";
-	private static final String PUT_SIGNAL = "[PUT]";
-
 	/** The constant logging instance. */
 	private static final Logger LOG = Logger.getLogger(HTTPTransaction.class.getName());
 
+	/** JFR event of the running transaction, null if JFR events are disabled. */
+	private TransactionEvent transactionEvent;
+
 	/**
      * Asynchronously processes an HTTP transaction using Jetty's non-blocking client.
      * This method is more scalable and recommended for high-throughput load generation.
@@ -65,7 +70,14 @@ public class HTTPTransaction extends Transaction {
 	private void processAsync(HTTPInputGenerator generator) {
 		long processStartTime = System.currentTimeMillis();
 		long requestStartTime = System.nanoTime();
-		int requestNum = generator.getCurrentCallNum();
+		transactionEvent = LoadEvents.beginTransaction();
+		int requestNum;
+		try {
+			requestNum = generator.getCurrentCallNum();
+		} catch (RuntimeException e) {
+			dropAfterGeneratorError(e, 0, generator);
+			return;
+		}
 
 		// Check if request is dropped. This indicates a bottleneck in the loadgenerator not in the application.
 		if (generator.getTimeout() > 0 && processStartTime - getStartTime() > generator.getTimeout()) {
@@ -83,56 +95,54 @@ public class HTTPTransaction extends Transaction {
 			return;
 		}
 
-		String url="";
+		RequestDescriptor descriptor;
+		Request request;
 		try {
-			url = generator.getNextInput().trim();
-		} catch (LuaError e) {
-			LOG.severe("Error in Lua Script: " + e.getMessage());
-			logResultAndReleaseResources(
-				new HTTPTransactionResult(
-					this.getTargetTime(),
-					ResultTracker.TransactionState.DROPPED,
-					requestNum
-				),
-				generator
-			);
+			descriptor = generator.getNextRequest();
+			request = generator.initializeHTTPRequest(descriptor);
+		} catch (RuntimeException e) {
+			dropAfterGeneratorError(e, requestNum, generator);
 			return;
 		}
-		String method = "GET";
-		if (url.startsWith("[")) {
-			if (url.startsWith(POST_SIGNAL)) {
-				method = "POST";
-			}
-			if (url.startsWith(PUT_SIGNAL)) {
-				method = "PUT";
-			}
-			url = url.replaceFirst("\\[.*?\\]", "");
-		}
 
-		Request request = generator.initializeHTTPRequest(url, method);
 		HTTPTransactionResult httpResult = new HTTPTransactionResult(
 				this.getTargetTime(),
 				ResultTracker.TransactionState.SUCCESS,
 				requestNum
 		);
-		httpResult.setMethod(method);
-		int index = url.indexOf("[");
-		httpResult.setRequestURI(index != -1 ? url.substring(0, index) : url);
+		httpResult.setMethod(descriptor.getMethod().asString());
+		httpResult.setRequestURI(descriptor.getURL());
+
+		PhaseTimer phases = new PhaseTimer(HTTPInputGeneratorPool.getPool().getConnectionTracker());
+		request.onRequestBegin(phases).onResponseBegin(phases);
+		TrafficCounter traffic = new TrafficCounter();
+		request.onRequestBegin(traffic).onRequestFailure(traffic).onResponseSuccess(traffic).onResponseFailure(traffic);
 
 		try {
 			ResultTracker.TRACKER.addSentRequest();
 			request.send(new BufferingResponseListener() {
+				@Override
+				public void onContent(Response response, ByteBuffer content) {
+					traffic.logDecodedContent(content.remaining());
+					super.onContent(response, content);
+				}
+
 				@Override
 				public void onComplete(Result result) {
 					try {
-						long responseTime = calculateResponseTime(requestStartTime);
-						httpResult.setResponseTime(responseTime);
+						httpResult.setResponseTimeNanos(System.nanoTime() - requestStartTime);
+						traffic.log(httpResult);
 
 						//Check for exception
 						if (result.isFailed()) {
 							httpResult.setTransactionState(TransactionState.FAILED);
 
 							Throwable e = result.getFailure();
+							ResultTracker.TRACKER.logFailure(e);
+							ConnectFailure connectFailure = ConnectFailure.classify(e);
+							if (connectFailure != null) {
+								ResultTracker.TRACKER.logConnectFailure(connectFailure);
+							}
 
 							if (e instanceof TimeoutException) {
 								httpResult.setTransactionState(TransactionState.TIMEOUT);
@@ -177,7 +187,9 @@ public class HTTPTransaction extends Transaction {
 						}
 
 
+						phases.logResponsePhases();
 						Response response = result.getResponse();
+						ResultTracker.TRACKER.logStatusCode(response.getStatus());
 
 						for (HttpField field : response.getHeaders().getFields(HttpHeader.SET_COOKIE)) {
 							generator.addCookie(request.getURI(), field);
@@ -192,10 +204,9 @@ public class HTTPTransaction extends Transaction {
 							return;
 						}
 						try {
-							String content = this.getContentAsString();
-							generator.resetHTMLFunctions(content);
+							generator.onResponse(descriptor, response, this.getContent());
 						} catch (Exception e) {
-							LOG.warning("Failed to parse response body: " + e.getMessage());
+							LOG.warning("Failed to process response body: " + e.getMessage());
 						}
 
 						logResultAndReleaseResources(httpResult, generator);
@@ -217,14 +228,23 @@ public class HTTPTransaction extends Transaction {
 
 
 	/**
-     * Calculates the response time in milliseconds based on a given start time in nanoseconds.
-     * This method uses the current system time to compute the duration since the start.
-     *
-     * @param startNanos The start time in nanoseconds, typically captured with {@code System.nanoTime()}.
-     * @return The elapsed time in milliseconds since {@code startNanos}.
-     */
-	private long calculateResponseTime(long startNanos) {
-		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+	 * Logs a request as dropped because the request generator failed to generate it,
+	 * e.g., because of a LuaError in the script, an invalid URI or an exception in a custom generator.
+	 *
+	 * @param e The exception of the request generator.
+	 * @param requestNum The number of the request in the call cycle.
+	 * @param generator The input generator used for this transaction.
+	 */
+	private void dropAfterGeneratorError(RuntimeException e, int requestNum, HTTPInputGenerator generator) {
+		LOG.severe("Error in request generator: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+		logResultAndReleaseResources(
+			new HTTPTransactionResult(
+				this.getTargetTime(),
+				ResultTracker.TransactionState.DROPPED,
+				requestNum
+			),
+			generator
+		);
 	}
 
 	/**
@@ -276,6 +296,10 @@ public class HTTPTransaction extends Transaction {
 	private void logResultAndReleaseResources(HTTPTransactionResult result, HTTPInputGenerator generator) {
 		resetGeneratorBasedOnTransactionState(result.getTransactionState(), generator);
 		ResultTracker.TRACKER.logTransaction(result);
+		LoadEvents.commitTransaction(transactionEvent, result.getMethod(), result.getRequestURI(),
+				result.getTransactionState(), result.getRequestNum(), result.getTransactionTargetStartTime(),
+				result.getResponseTime());
+		transactionEvent = null;
 		HTTPInputGeneratorPool.getPool().releaseBackToPool(generator);
 		TransactionQueueSingleton transactionQueue = TransactionQueueSingleton.getInstance();
 		transactionQueue.addQueueElement(this);
@@ -284,14 +308,143 @@ public class HTTPTransaction extends Transaction {
 	@Override
 	public void run() {
 		try {
-		HTTPInputGenerator generator = HTTPInputGeneratorPool.getPool().takeFromPool();
-		processAsync(generator);
+			long runTimeNanos = System.nanoTime();
+			if (getEnqueueTimeNanos() != 0) {
+				ResultTracker.TRACKER.logPhase(TransactionPhase.QUEUE, runTimeNanos - getEnqueueTimeNanos());
+			}
+			UserWaitEvent userWaitEvent = LoadEvents.beginUserWait();
+			HTTPInputGenerator generator = HTTPInputGeneratorPool.getPool().takeFromPool();
+			long userWaitNanos = System.nanoTime() - runTimeNanos;
+			ResultTracker.TRACKER.logPhase(TransactionPhase.USER_WAIT, userWaitNanos);
+			LoadEvents.commitUserWait(userWaitEvent, userWaitNanos, getTargetTime());
+			processAsync(generator);
 		} catch (Exception e) {
 			LOG.severe("Unexpected error in HTTPTransaction.run: " +
 				e.getClass().getCanonicalName() + ": " + e.getMessage());
 		}
 	}
 
+	/**
+	 * Records the connect, time to first byte and transfer phases of a request from Jetty's
+	 * request and response events. The connect phase is only recorded for the first request on
+	 * a new connection, with the duration of its socket connect; for pooled connections, there is
+	 * no connection setup to measure.
+	 */
+	private static final class PhaseTimer implements Request.BeginListener, Response.BeginListener {
+
+		private final NewConnectionTracker connectionTracker;
+		private volatile long beginNanos;
+		private volatile long responseBeginNanos;
+
+		private PhaseTimer(NewConnectionTracker connectionTracker) {
+			this.connectionTracker = connectionTracker;
+		}
+
+		@Override
+		public void onBegin(Request request) {
+			beginNanos = System.nanoTime();
+			long connectNanos = connectionTracker.takeConnectNanos(request.getConnection());
+			if (connectNanos != -1) {
+				ResultTracker.TRACKER.logPhase(TransactionPhase.CONNECT, connectNanos);
+			}
+		}
+
+		@Override
+		public void onBegin(Response response) {
+			responseBeginNanos = System.nanoTime();
+		}
+
+		/**
+		 * Records the response phases of a completed exchange.
+		 */
+		private void logResponsePhases() {
+			if (beginNanos != 0 && responseBeginNanos != 0) {
+				ResultTracker.TRACKER.logPhase(TransactionPhase.TTFB, responseBeginNanos - beginNanos);
+				ResultTracker.TRACKER.logPhase(TransactionPhase.TRANSFER, System.nanoTime() - responseBeginNanos);
+			}
+		}
+	}
+
+	/**
+	 * Counts the bytes of a request and its response on the wire, from the byte counters of the
+	 * HTTP/1.1 connection that carries the exchange. A connection carries one exchange at a time,
+	 * so the difference of its counters between the request's begin and the response's success or
+	 * failure are the bytes of the exchange, including request and status lines and headers.
+	 * The counters are read in these events, which Jetty notifies before it releases the connection;
+	 * by the exchange's completion, the next exchange may already use the connection.
+	 * For HTTPS, the bytes are counted before encryption. Exchanges that never got a connection are not counted.
+	 */
+	private static final class TrafficCounter implements Request.BeginListener, Request.FailureListener,
+			Response.SuccessListener, Response.FailureListener {
+
+		private volatile org.eclipse.jetty.io.Connection connection;
+		private volatile long bytesOutBefore;
+		private volatile long bytesInBefore;
+		private volatile long sent;
+		private volatile long received;
+		private volatile long decodedBytes;
+
+		@Override
+		public void onBegin(Request request) {
+			if (request.getConnection() instanceof org.eclipse.jetty.io.Connection) {
+				org.eclipse.jetty.io.Connection ioConnection = (org.eclipse.jetty.io.Connection) request.getConnection();
+				bytesOutBefore = ioConnection.getBytesOut();
+				bytesInBefore = ioConnection.getBytesIn();
+				connection = ioConnection;
+			}
+		}
+
+		@Override
+		public void onFailure(Request request, Throwable failure) {
+			count();
+		}
+
+		@Override
+		public void onSuccess(Response response) {
+			count();
+		}
+
+		@Override
+		public void onFailure(Response response, Throwable failure) {
+			count();
+		}
+
+		/**
+		 * Reads the bytes of the exchange from the connection's counters.
+		 * Called while the exchange still holds the connection, the latest call counts.
+		 */
+		private void count() {
+			org.eclipse.jetty.io.Connection ioConnection = connection;
+			if (ioConnection == null || bytesOutBefore < 0 || bytesInBefore < 0) {
+				// no connection or a connection without byte counters
+				return;
+			}
+			sent = Math.max(0, ioConnection.getBytesOut() - bytesOutBefore);
+			received = Math.max(0, ioConnection.getBytesIn() - bytesInBefore);
+		}
+
+		/**
+		 * Adds decoded bytes of the response body.
+		 * @param bytes The number of bytes.
+		 */
+		private void logDecodedContent(int bytes) {
+			decodedBytes += bytes;
+		}
+
+		/**
+		 * Logs the counted bytes of a completed exchange.
+		 * @param result The transaction's result.
+		 */
+		private void log(HTTPTransactionResult result) {
+			long sent = this.sent;
+			long received = this.received;
+			if (sent != 0 || received != 0) {
+				ResultTracker.TRACKER.logTraffic(EndpointTraffic.endpoint(result.getMethod(), result.getRequestURI()),
+						sent, received, decodedBytes);
+			}
+		}
+	}
+
 	/**
 	 * Represents the result of an HTTP transaction including timing, status,
  	 * and request metadata.
@@ -299,6 +452,8 @@ public class HTTPTransaction extends Transaction {
 	public class HTTPTransactionResult {
 		private long responseTime = 0;
 
+		private long responseTimeNanos = 0;
+
 		private String requestURI = "";
 
 		private String method = "";
@@ -339,6 +494,24 @@ public class HTTPTransaction extends Transaction {
 
 		public void setResponseTime(long responseTime) {
 			this.responseTime = responseTime;
+			this.responseTimeNanos = TimeUnit.MILLISECONDS.toNanos(responseTime);
+		}
+
+		/**
+		 * The response time as measured, without truncating it to ms.
+		 * @return The response time in ns.
+		 */
+		public long getResponseTimeNanos() {
+			return responseTimeNanos;
+		}
+
+		/**
+		 * Sets the measured response time, {@link #getResponseTime()} is truncated to ms.
+		 * @param responseTimeNanos The response time in ns.
+		 */
+		public void setResponseTimeNanos(long responseTimeNanos) {
+			this.responseTime = TimeUnit.NANOSECONDS.toMillis(responseTimeNanos);
+			this.responseTimeNanos = responseTimeNanos;
 		}
 
 		public String getRequestURI() {
@@ -0,0 +1,193 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+/**
+ * Selector, thread pool and connection limits of the HTTP clients of a load generator.
+ * All values are totals for the load generator and are split between its client shards.
+ * A value of {@link #AUTO} (or less) is sized by {@link #resolve(int, int, double)}.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class HttpClientSettings {
+
+	/** Value of a setting that is to be sized automatically. */
+	public static final int AUTO = 0;
+
+	private static final int DEFAULT_THREAD_IDLE_TIMEOUT_MS = 60000;
+	private static final int MIN_AUTO_THREADS = 32;
+	private static final int MAX_AUTO_THREADS = 1024;
+	/** Assumed time that a response callback occupies a client thread, used to size the threads by rate. */
+	private static final double AUTO_CALLBACK_TIME_S = 0.005;
+
+	private final int selectors;
+	private final int minThreads;
+	private final int maxThreads;
+	private final int threadIdleTimeoutMs;
+	private final int executorQueueCapacity;
+	private final int maxConnectionsPerDestination;
+	private final int maxRequestsQueuedPerDestination;
+
+	/**
+	 * Creates new settings.
+	 * @param selectors Number of selector threads.
+	 * @param minThreads Minimum number of client threads.
+	 * @param maxThreads Maximum number of client threads.
+	 * @param threadIdleTimeoutMs Time after which idle threads above the minimum are stopped.
+	 * @param executorQueueCapacity Capacity of the client executor's task queue.
+	 * 			Auto means unbounded, tasks that do not fit a bounded queue fail their request.
+	 * @param maxConnectionsPerDestination Maximum number of connections per target host.
+	 * @param maxRequestsQueuedPerDestination Maximum number of requests that wait for a connection per target host.
+	 */
+	public HttpClientSettings(int selectors, int minThreads, int maxThreads, int threadIdleTimeoutMs,
+			int executorQueueCapacity, int maxConnectionsPerDestination, int maxRequestsQueuedPerDestination) {
+		this.selectors = Math.max(AUTO, selectors);
+		this.minThreads = Math.max(AUTO, minThreads);
+		this.maxThreads = Math.max(AUTO, maxThreads);
+		this.threadIdleTimeoutMs = Math.max(AUTO, threadIdleTimeoutMs);
+		this.executorQueueCapacity = Math.max(AUTO, executorQueueCapacity);
+		this.maxConnectionsPerDestination = Math.max(AUTO, maxConnectionsPerDestination);
+		this.maxRequestsQueuedPerDestination = Math.max(AUTO, maxRequestsQueuedPerDestination);
+	}
+
+	/**
+	 * Settings that are all sized automatically.
+	 * @return The settings.
+	 */
+	public static HttpClientSettings auto() {
+		return new HttpClientSettings(AUTO, AUTO, AUTO, AUTO, AUTO, AUTO, AUTO);
+	}
+
+	/**
+	 * Parses settings in the format of {@link #format()}.
+	 * @param settings The comma separated values.
+	 * @return The settings.
+	 * @throws NumberFormatException If a value is not a number.
+	 * @throws IndexOutOfBoundsException If values are missing.
+	 */
+	public static HttpClientSettings parse(String settings) {
+		String[] tokens = settings.split(",");
+		int[] values = new int[7];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Integer.parseInt(tokens[i].trim());
+		}
+		return new HttpClientSettings(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+	}
+
+	/**
+	 * Formats the settings as comma separated values for sending them to a load generator.
+	 * @return The formatted settings.
+	 */
+	public String format() {
+		return selectors + "," + minThreads + "," + maxThreads + "," + threadIdleTimeoutMs + ","
+				+ executorQueueCapacity + "," + maxConnectionsPerDestination + "," + maxRequestsQueuedPerDestination;
+	}
+
+	/**
+	 * Replaces the automatic settings with concrete values. Selectors default to half the cores.
+	 * Threads are sized from the cores and the number of response callbacks that run concurrently
+	 * at the peak rate. Connections and queued requests per destination default to 1.5 times the users.
+	 * @param cores The number of available cores.
+	 * @param virtualUserCount The number of virtual users.
+	 * @param peakRate The highest arrival rate of this load generator in requests per second.
+	 * @return The resolved settings, only the executor queue capacity may remain auto (unbounded).
+	 */
+	public HttpClientSettings resolve(int cores, int virtualUserCount, double peakRate) {
+		int resolvedSelectors = selectors > AUTO ? selectors : Math.max(1, cores / 2);
+		int resolvedMaxThreads = maxThreads;
+		if (resolvedMaxThreads <= AUTO) {
+			int callbackThreads = (int) Math.ceil(Math.max(0, peakRate) * AUTO_CALLBACK_TIME_S);
+			resolvedMaxThreads = Math.min(MAX_AUTO_THREADS,
+					Math.max(MIN_AUTO_THREADS, resolvedSelectors + 2 * cores + callbackThreads));
+		}
+		// Jetty needs at least one thread per selector and one for the tasks.
+		resolvedMaxThreads = Math.max(resolvedMaxThreads, resolvedSelectors + 1);
+		int resolvedMinThreads = minThreads > AUTO ? minThreads : resolvedSelectors + 2 * cores;
+		resolvedMinThreads = Math.min(resolvedMinThreads, resolvedMaxThreads);
+		int connections = Math.max(1, virtualUserCount + virtualUserCount / 2);
+		return new HttpClientSettings(resolvedSelectors, resolvedMinThreads, resolvedMaxThreads,
+				threadIdleTimeoutMs > AUTO ? threadIdleTimeoutMs : DEFAULT_THREAD_IDLE_TIMEOUT_MS,
+				executorQueueCapacity,
+				maxConnectionsPerDestination > AUTO ? maxConnectionsPerDestination : connections,
+				maxRequestsQueuedPerDestination > AUTO ? maxRequestsQueuedPerDestination : connections);
+	}
+
+	/**
+	 * Number of selector threads.
+	 * @return The selector count, {@link #AUTO} if not resolved.
+	 */
+	public int getSelectors() {
+		return selectors;
+	}
+
+	/**
+	 * Minimum number of client threads.
+	 * @return The thread count, {@link #AUTO} if not resolved.
+	 */
+	public int getMinThreads() {
+		return minThreads;
+	}
+
+	/**
+	 * Maximum number of client threads.
+	 * @return The thread count, {@link #AUTO} if not resolved.
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Time after which idle threads above the minimum are stopped.
+	 * @return The timeout in ms, {@link #AUTO} if not resolved.
+	 */
+	public int getThreadIdleTimeoutMs() {
+		return threadIdleTimeoutMs;
+	}
+
+	/**
+	 * Capacity of the client executor's task queue.
+	 * @return The capacity, {@link #AUTO} for an unbounded queue.
+	 */
+	public int getExecutorQueueCapacity() {
+		return executorQueueCapacity;
+	}
+
+	/**
+	 * Maximum number of connections per target host.
+	 * @return The connection count, {@link #AUTO} if not resolved.
+	 */
+	public int getMaxConnectionsPerDestination() {
+		return maxConnectionsPerDestination;
+	}
+
+	/**
+	 * Maximum number of requests that wait for a connection per target host.
+	 * @return The request count, {@link #AUTO} if not resolved.
+	 */
+	public int getMaxRequestsQueuedPerDestination() {
+		return maxRequestsQueuedPerDestination;
+	}
+
+	@Override
+	public String toString() {
+		return "selectors=" + selectors + ", threads=" + minThreads + ".." + maxThreads
+				+ ", threadIdleTimeout=" + threadIdleTimeoutMs + " ms, executorQueue="
+				+ (executorQueueCapacity > AUTO ? executorQueueCapacity : "unbounded")
+				+ ", maxConnectionsPerDestination=" + maxConnectionsPerDestination
+				+ ", maxRequestsQueuedPerDestination=" + maxRequestsQueuedPerDestination;
+	}
+}
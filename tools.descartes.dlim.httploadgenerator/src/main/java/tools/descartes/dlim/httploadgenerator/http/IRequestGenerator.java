@@ -0,0 +1,60 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import org.eclipse.jetty.client.Response;
+
+/**
+ * Generates the requests of a single virtual user.
+ * Requests are generated in call cycles: at the beginning of each cycle {@link #onCycle()} is called,
+ * followed by {@link #onCall(int)} with increasing call numbers, until it returns null.
+ * The LUA script engine is the default implementation. Custom implementations are loaded by their fully
+ * qualified class name and must have a public no-argument constructor.
+ * Each virtual user has its own instance, which is only ever used by one transaction at a time.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public interface IRequestGenerator {
+
+	/**
+	 * Initializes the generator. Called once before the first cycle.
+	 * @param userId The id of the virtual user, starting at 0.
+	 * @param randomSeed Seed for random decisions of this user.
+	 */
+	public void initialize(int userId, int randomSeed);
+
+	/**
+	 * Called at the beginning of each call cycle.
+	 */
+	public void onCycle();
+
+	/**
+	 * Returns the request for a call in the current cycle.
+	 * May be called again with the same call number if a request is repeated after a failure.
+	 * @param callNum The call number, starting at 1 at the beginning of each cycle.
+	 * @return The request, null to end the cycle.
+	 */
+	public RequestDescriptor onCall(int callNum);
+
+	/**
+	 * Called with each successfully received response (status code below 400) before the next call of the user.
+	 * @param request The request that was sent.
+	 * @param response The response with status and headers.
+	 * @param content The response body.
+	 */
+	public void onResponse(RequestDescriptor request, Response response, byte[] content);
+}
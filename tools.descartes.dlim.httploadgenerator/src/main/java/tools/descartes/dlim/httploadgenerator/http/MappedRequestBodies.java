@@ -0,0 +1,91 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.eclipse.jetty.http.MimeTypes;
+
+/**
+ * JVM-wide registry of memory-mapped request body files.
+ * Each file is mapped once and shared by all requests that send it. The mapped buffers live
+ * outside of the heap, so sending a file body neither reads it into the heap nor copies it per request.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class MappedRequestBodies {
+
+	private static final Logger LOG = Logger.getLogger(MappedRequestBodies.class.getName());
+
+	private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+	private static final ConcurrentHashMap<String, ByteBuffer> BODIES = new ConcurrentHashMap<>();
+
+	private MappedRequestBodies() {
+	}
+
+	/**
+	 * Returns the read-only mapped content of a file, mapping it on first use.
+	 * The file must not be modified while it is mapped.
+	 * @param path The file path, relative paths are resolved against the working directory.
+	 * @return The mapped file.
+	 * @throws UncheckedIOException If the file can not be mapped.
+	 * @throws IllegalArgumentException If the file is larger than 2 GiB.
+	 */
+	public static ByteBuffer get(String path) {
+		File file = new File(path).getAbsoluteFile();
+		return BODIES.computeIfAbsent(file.getPath(), key -> map(file));
+	}
+
+	/**
+	 * Guesses the content type of a file from its extension.
+	 * @param path The file path.
+	 * @return The content type, "application/octet-stream" if it is unknown.
+	 */
+	public static String contentTypeOf(String path) {
+		String contentType = MimeTypes.DEFAULTS.getMimeByExtension(path);
+		return contentType == null ? DEFAULT_CONTENT_TYPE : contentType;
+	}
+
+	/**
+	 * Unmaps all files from the registry. Buffers still in use remain valid.
+	 */
+	public static void clear() {
+		BODIES.clear();
+	}
+
+	private static ByteBuffer map(File file) {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Request body file " + file + " is larger than 2 GiB.");
+			}
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+			LOG.info("Mapped request body file " + file + " (" + size + " bytes).");
+			return buffer;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not map request body file " + file, e);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jetty.client.transport.HttpClientTransportOverHTTP;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.EndPoint;
+
+/**
+ * Tracks connections that were opened but have not sent a request yet, with the duration of their
+ * socket connect. Registered as a bean of the HTTP clients, which add it as listener
+ * to every new connection, and measured by the clients' {@link #newTransport(int) transport}.
+ * A request that begins on such a connection had to wait for the connection to be established.
+ * The duration is taken when the connection opens, so that it does not grow while the connection
+ * is idle, and connections opened ahead of time are {@link #clear() cleared}.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class NewConnectionTracker implements Connection.Listener {
+
+	private static final String CONNECT_START_KEY = NewConnectionTracker.class.getName() + ".connectStart";
+
+	/** Connect durations in ns of the connections without requests. */
+	private final Map<Object, Long> unusedConnections = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an HTTP/1.1 transport that reports its new connections to this tracker.
+	 * @param selectors The number of selectors of the transport.
+	 * @return The transport.
+	 */
+	public HttpClientTransportOverHTTP newTransport(int selectors) {
+		return new HttpClientTransportOverHTTP(selectors) {
+			@Override
+			public void connect(SocketAddress address, Map<String, Object> context) {
+				// after the host was resolved, before the socket connects
+				context.put(CONNECT_START_KEY, System.nanoTime());
+				super.connect(address, context);
+			}
+
+			@Override
+			public Connection newConnection(EndPoint endPoint, Map<String, Object> context) throws IOException {
+				Connection connection = super.newConnection(endPoint, context);
+				Object connectStart = context.get(CONNECT_START_KEY);
+				if (connectStart instanceof Long) {
+					unusedConnections.put(connection, System.nanoTime() - (Long) connectStart);
+				}
+				return connection;
+			}
+		};
+	}
+
+	@Override
+	public void onClosed(Connection connection) {
+		unusedConnections.remove(connection);
+	}
+
+	/**
+	 * Checks whether a request is the first one on its connection and marks the connection as used.
+	 * @param connection The connection that a request begins on.
+	 * @return The duration of the connection's socket connect in ns,
+	 * 			or -1 if the connection was not opened for this request.
+	 */
+	public long takeConnectNanos(Object connection) {
+		Long connectNanos = connection != null ? unusedConnections.remove(connection) : null;
+		return connectNanos != null ? connectNanos : -1;
+	}
+
+	/**
+	 * Marks all open connections as used, e.g., after pre-warming opened them,
+	 * so that the first requests on them do not record a connect phase they did not wait for.
+	 */
+	public void clear() {
+		unusedConnections.clear();
+	}
+}
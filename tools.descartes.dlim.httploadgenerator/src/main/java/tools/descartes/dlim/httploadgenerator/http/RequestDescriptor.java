@@ -0,0 +1,224 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jetty.client.ByteBufferRequestContent;
+import org.eclipse.jetty.client.Request;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpMethod;
+
+/**
+ * Immutable description of a single HTTP request: method, URI, additional headers and body.
+ * Descriptors hold no per-user state and can be built once and sent many times, also concurrently,
+ * e.g., by {@link IRequestGenerator}s that pre-build all their requests.
+ * Request strings of the LUA script DSL are parsed once and memoized, so repeating URLs
+ * cost a single lookup instead of parsing the string and the URI again.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class RequestDescriptor {
+
+	private static final String JSON_SIGNAL = "[JSON]";
+	private static final String JSON_CONTENT_TYPE = "application/json";
+
+	/** Upper bound for the number of memoized request strings, protects against scripts with unique URLs. */
+	private static final int MAX_CACHED_DESCRIPTORS = 4096;
+
+	private static final ConcurrentHashMap<String, RequestDescriptor> CACHE = new ConcurrentHashMap<>();
+
+	private final HttpMethod method;
+	private final String url;
+	private final URI uri;
+	private final HttpFields headers;
+	private final String contentType;
+	private final ByteBuffer body;
+
+	/**
+	 * Creates a new request descriptor.
+	 * @param method The HTTP method.
+	 * @param uri The absolute request URI.
+	 * @param headers Additional request headers, may be null.
+	 * @param contentType The content type of the body, may be null.
+	 * @param body The request body, null if the request has no body. Must not be modified afterwards.
+	 */
+	public RequestDescriptor(HttpMethod method, URI uri, HttpFields headers, String contentType, ByteBuffer body) {
+		this(method, uri.toString(), uri, headers, contentType, body);
+	}
+
+	private RequestDescriptor(HttpMethod method, String url, URI uri, HttpFields headers,
+			String contentType, ByteBuffer body) {
+		this.method = method;
+		this.url = url;
+		this.uri = uri;
+		this.headers = headers == null ? HttpFields.EMPTY : headers.asImmutable();
+		this.contentType = contentType;
+		this.body = body == null ? null : body.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Creates a GET request descriptor.
+	 * @param url The request URL.
+	 * @return The descriptor.
+	 * @throws IllegalArgumentException If the URL is not a valid URI.
+	 */
+	public static RequestDescriptor get(String url) {
+		return new RequestDescriptor(HttpMethod.GET, url, URI.create(url), null, null, null);
+	}
+
+	/**
+	 * Returns the descriptor of a request string of the LUA script DSL, parsing it if it was not seen before.
+	 * The URL may be prefixed by the HTTP method in brackets, e.g., "[POST]", "[PUT]", "[DELETE]" or "[PATCH]".
+	 * POST, PUT and PATCH URLs may be followed by "[JSON]" and a JSON body.
+	 * Requests without prefix or with an unknown prefix are GET requests.
+	 * @param text The request string as returned by the script.
+	 * @return The descriptor.
+	 * @throws IllegalArgumentException If the URL is not a valid URI.
+	 */
+	public static RequestDescriptor parse(String text) {
+		RequestDescriptor descriptor = CACHE.get(text);
+		if (descriptor == null) {
+			descriptor = parseUncached(text);
+			if (CACHE.size() < MAX_CACHED_DESCRIPTORS) {
+				CACHE.putIfAbsent(text, descriptor);
+			}
+		}
+		return descriptor;
+	}
+
+	/**
+	 * Parses a request string without regular expressions.
+	 */
+	private static RequestDescriptor parseUncached(String text) {
+		String url = text.trim();
+		HttpMethod method = HttpMethod.GET;
+		if (url.startsWith("[")) {
+			int prefixEnd = url.indexOf(']');
+			if (prefixEnd != -1) {
+				HttpMethod prefixMethod = HttpMethod.fromString(url.substring(1, prefixEnd));
+				if (prefixMethod != null) {
+					method = prefixMethod;
+				}
+				url = url.substring(prefixEnd + 1);
+			}
+		}
+		ByteBuffer body = null;
+		// the URL ends at the JSON body marker, other brackets belong to the URL, e.g., IPv6 literals
+		int index = url.indexOf(JSON_SIGNAL);
+		if (index != -1) {
+			if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH) {
+				body = ByteBuffer.wrap(url.substring(index + JSON_SIGNAL.length()).getBytes(StandardCharsets.UTF_8));
+			}
+			url = url.substring(0, index);
+		}
+		url = url.trim();
+		return new RequestDescriptor(method, url, URI.create(url), null, body == null ? null : JSON_CONTENT_TYPE,
+				body);
+	}
+
+	/**
+	 * Looks up an HTTP method by name, ignoring case.
+	 * @param name The method name, e.g., "delete".
+	 * @return The method.
+	 * @throws IllegalArgumentException If the method is unknown.
+	 */
+	public static HttpMethod method(String name) {
+		HttpMethod method = HttpMethod.fromString(name.trim().toUpperCase(Locale.ROOT));
+		if (method == null) {
+			throw new IllegalArgumentException("Unknown HTTP method: " + name);
+		}
+		return method;
+	}
+
+	/**
+	 * Removes all memoized request strings.
+	 */
+	public static void clearCache() {
+		CACHE.clear();
+	}
+
+	/**
+	 * The HTTP method.
+	 * @return The method.
+	 */
+	public HttpMethod getMethod() {
+		return method;
+	}
+
+	/**
+	 * The request URL as string, as reported in the request results.
+	 * @return The URL.
+	 */
+	public String getURL() {
+		return url;
+	}
+
+	/**
+	 * The request URI.
+	 * @return The URI.
+	 */
+	public URI getURI() {
+		return uri;
+	}
+
+	/**
+	 * Additional request headers.
+	 * @return The immutable headers, empty if there are none.
+	 */
+	public HttpFields getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * The content type of the request body.
+	 * @return The content type, null if it is not set.
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * True if the request has a body.
+	 * @return The body flag.
+	 */
+	public boolean hasBody() {
+		return body != null;
+	}
+
+	/**
+	 * Creates the content for sending the body with a single request.
+	 * Jetty request contents keep their read position, each request needs its own.
+	 * The body bytes are not copied.
+	 * @return The new content, null if the request has no body.
+	 */
+	public Request.Content newBodyContent() {
+		if (body == null) {
+			return null;
+		}
+		return new ByteBufferRequestContent(contentType, body.slice());
+	}
+
+	@Override
+	public String toString() {
+		return method.asString() + " " + url;
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.logging.Logger;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaClosure;
+import org.luaj.vm2.LuaFunction;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.LuaC;
+import org.luaj.vm2.luajc.JavaGen;
+import org.luaj.vm2.luajc.JavaLoader;
+
+/**
+ * A LUA script that has been parsed and compiled exactly once.
+ * The compiled prototype is immutable and is shared by all virtual users.
+ * Each user instantiates its own closure of the prototype in its own globals,
+ * which is equivalent to running "dofile" on the script, but without parsing it again.
+ * Optionally, the prototype is further compiled to JVM bytecode using LuaJC, which lets the JIT
+ * optimize the script's functions instead of running them in the LuaJ interpreter.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class CompiledLuaScript {
+
+	private static final Logger LOG = Logger.getLogger(CompiledLuaScript.class.getName());
+
+	private static final String LUAJC_CLASS_NAME = "luajc_http_calls";
+
+	private final Prototype prototype;
+	private final String chunkName;
+
+	/** Loader of the LuaJC generated classes, null if the script is interpreted. */
+	private final JavaLoader javaLoader;
+
+	private CompiledLuaScript(Prototype prototype, String chunkName, JavaLoader javaLoader) {
+		this.prototype = prototype;
+		this.chunkName = chunkName;
+		this.javaLoader = javaLoader;
+	}
+
+	/**
+	 * Parses and compiles a LUA script file.
+	 * @param scriptFile The script file.
+	 * @return The compiled script.
+	 * @throws IOException If the script can not be read.
+	 * @throws org.luaj.vm2.LuaError If the script contains syntax errors.
+	 */
+	public static CompiledLuaScript compile(File scriptFile) throws IOException {
+		return compile(scriptFile, false);
+	}
+
+	/**
+	 * Parses and compiles a LUA script file, optionally to JVM bytecode.
+	 * Falls back to the interpreter if the bytecode compilation fails.
+	 * @param scriptFile The script file.
+	 * @param luaJC True if the script is to be compiled to JVM bytecode using LuaJC.
+	 * @return The compiled script.
+	 * @throws IOException If the script can not be read.
+	 * @throws org.luaj.vm2.LuaError If the script contains syntax errors.
+	 */
+	public static CompiledLuaScript compile(File scriptFile, boolean luaJC) throws IOException {
+		String chunkName = "@" + scriptFile.getAbsolutePath();
+		Prototype prototype;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(scriptFile))) {
+			prototype = LuaC.instance.compile(in, chunkName);
+		}
+		JavaLoader javaLoader = null;
+		if (luaJC) {
+			javaLoader = compileToBytecode(prototype, scriptFile.getName());
+		}
+		return new CompiledLuaScript(prototype, chunkName, javaLoader);
+	}
+
+	private static JavaLoader compileToBytecode(Prototype prototype, String fileName) {
+		try {
+			JavaGen gen = new JavaGen(prototype, LUAJC_CLASS_NAME, fileName, false);
+			JavaLoader javaLoader = new JavaLoader();
+			javaLoader.include(gen);
+			// load the main class once, so that broken bytecode is detected here and not per user
+			javaLoader.loadClass(LUAJC_CLASS_NAME);
+			LOG.info("Compiled LUA script to JVM bytecode (LuaJC).");
+			return javaLoader;
+		} catch (RuntimeException | LinkageError | ClassNotFoundException e) {
+			LOG.warning("LuaJC compilation failed, falling back to the LUA interpreter; Exception: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Runs the script's main chunk in the given globals. Defines the script's functions and
+	 * global variables in the globals.
+	 * @param globals The globals of a virtual user.
+	 */
+	public void instantiate(Globals globals) {
+		LuaFunction main;
+		if (javaLoader != null) {
+			main = javaLoader.load(LUAJC_CLASS_NAME, globals);
+		} else {
+			main = new LuaClosure(prototype, globals);
+		}
+		main.call();
+	}
+
+	/**
+	 * True if the script runs as JVM bytecode, false if it is interpreted.
+	 * @return The LuaJC flag.
+	 */
+	public boolean isLuaJC() {
+		return javaLoader != null;
+	}
+
+	/**
+	 * The compiled main chunk.
+	 * @return The prototype.
+	 */
+	public Prototype getPrototype() {
+		return prototype;
+	}
+
+	/**
+	 * The chunk name used in LUA error messages.
+	 * @return The chunk name.
+	 */
+	public String getChunkName() {
+		return chunkName;
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.UncheckedIOException;
+
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.lib.OneArgFunction;
+import org.luaj.vm2.lib.TwoArgFunction;
+
+/**
+ * LUA bindings for the {@link SharedDataTable}s. Exposed to scripts as the "data" library.
+ * The functions are stateless and shared by all LUA contexts.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class DataLuaFunctions {
+
+	/**
+	 * Function to get the shared table of a CSV file. Takes the path and an optional separator (default ",").
+	 * @author Yannik Lubas
+	 *
+	 */
+	public static class CSV extends TwoArgFunction {
+
+		/** The shared instance. */
+		public static final CSV INSTANCE = new CSV();
+
+		@Override
+		public LuaValue call(LuaValue path, LuaValue separator) {
+			String separatorString = separator.optjstring(",");
+			if (separatorString.length() != 1) {
+				argerror(2, "separator must be a single character");
+			}
+			try {
+				return SharedDataTable.csv(path.checkjstring(), separatorString.charAt(0)).toLuaValue();
+			} catch (UncheckedIOException e) {
+				return error(e.getMessage());
+			}
+		}
+
+	}
+
+	/**
+	 * Function to get the shared table of a JSON lines file.
+	 * @author Yannik Lubas
+	 *
+	 */
+	public static class JSONLines extends OneArgFunction {
+
+		/** The shared instance. */
+		public static final JSONLines INSTANCE = new JSONLines();
+
+		@Override
+		public LuaValue call(LuaValue path) {
+			try {
+				return SharedDataTable.jsonLines(path.checkjstring()).toLuaValue();
+			} catch (UncheckedIOException e) {
+				return error(e.getMessage());
+			}
+		}
+
+	}
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Test data feeder backed by a memory-mapped CSV or JSON lines file.
+ * The file is indexed once: the feeder keeps only the start offsets of its records,
+ * the records themselves stay in the page cache and are copied out on access.
+ * Each non-empty line is a record, the first line of a CSV file (".csv") is its header.
+ * Shared cursors are atomic counters, so any number of virtual users can pull records without locking.
+ * Feeders are scoped to a run: {@link Feeders} closes them at its end, which releases the mapped file.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class Feeder {
+
+	private static final Logger LOG = Logger.getLogger(Feeder.class.getName());
+
+	/** Memory-mapped segments are at most 1 GiB. */
+	private static final int SEGMENT_BITS = 30;
+	private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+	/**
+	 * Strategies for distributing the records to the virtual users.
+	 */
+	public static enum Strategy {
+		/** All users share one cursor that wraps around at the end of the file. */
+		CIRCULAR,
+		/** Each user picks random records (with replacement), seeded by its id. */
+		RANDOM,
+		/**
+		 * Each user cycles through its own share of the records, no record is used by two users.
+		 * Users start over once they used their share, which is logged once.
+		 */
+		UNIQUE_PER_USER,
+		/** All users share one cursor, each record is used exactly once. The feeder is exhausted at the end. */
+		UNIQUE_GLOBAL;
+
+		/**
+		 * Parses a strategy name, e.g. "circular" or "unique-global".
+		 * @param name The name.
+		 * @return The strategy.
+		 * @throws IllegalArgumentException If the name is unknown.
+		 */
+		public static Strategy parse(String name) {
+			return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+		}
+	}
+
+	private final String name;
+	private final File file;
+	private final Strategy strategy;
+	private final boolean csv;
+	/** The mapped file, null once the feeder is closed. */
+	private MappedByteBuffer[] segments;
+	/** Start offsets of all records, followed by an end offset. */
+	private final long[] recordOffsets;
+	private final int recordCount;
+	private final String[] columnNames;
+
+	/** First record and end of the record range of this load generator for the unique strategies. */
+	private final int partitionStart;
+	private final int partitionEnd;
+
+	private final AtomicLong sharedCursor = new AtomicLong();
+	private final AtomicBoolean exhaustedWarningLogged = new AtomicBoolean(false);
+	private final AtomicBoolean noShareWarningLogged = new AtomicBoolean(false);
+
+	/**
+	 * Maps and indexes a feeder file.
+	 * @param name The feeder name.
+	 * @param file The CSV or JSON lines file.
+	 * @param strategy The distribution strategy.
+	 * @param generatorIndex Index of this load generator, the unique strategies only use this generator's share
+	 * 		of the records.
+	 * @param generatorCount Number of load generators.
+	 * @throws IOException If the file can not be mapped.
+	 */
+	Feeder(String name, File file, Strategy strategy, int generatorIndex, int generatorCount) throws IOException {
+		long start = System.currentTimeMillis();
+		this.name = name;
+		this.file = file;
+		this.strategy = strategy;
+		this.csv = file.getName().toLowerCase(Locale.ROOT).endsWith(".csv");
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			long size = channel.size();
+			int segmentCount = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+			MappedByteBuffer[] mapped = new MappedByteBuffer[segmentCount];
+			for (int i = 0; i < segmentCount; i++) {
+				long position = i * SEGMENT_SIZE;
+				mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+			}
+			segments = mapped;
+			long[] offsets = index(mapped, size);
+			if (csv && offsets.length > 1) {
+				columnNames = splitCSV(read(mapped, offsets[0], offsets[1]));
+				recordOffsets = Arrays.copyOfRange(offsets, 1, offsets.length);
+			} else {
+				columnNames = new String[0];
+				recordOffsets = offsets;
+			}
+		}
+		recordCount = recordOffsets.length - 1;
+		int count = Math.max(1, generatorCount);
+		int index = Math.max(0, Math.min(generatorIndex, count - 1));
+		partitionStart = (int) ((long) recordCount * index / count);
+		partitionEnd = (int) ((long) recordCount * (index + 1) / count);
+		LOG.info("Feeder \"" + name + "\": indexed " + recordCount + " records of " + file + " in "
+				+ (System.currentTimeMillis() - start) + " ms, strategy " + strategy
+				+ (count > 1 ? ", records " + partitionStart + " to " + partitionEnd + " for unique use" : "") + ".");
+	}
+
+	/**
+	 * Finds the start offsets of all non-empty lines. The array ends with the end offset of the last line.
+	 */
+	private static long[] index(MappedByteBuffer[] segments, long size) {
+		long[] offsets = new long[1024];
+		int count = 0;
+		boolean lineStart = true;
+		for (long pos = 0; pos < size; pos++) {
+			byte b = byteAt(segments, pos);
+			if (b == '\n' || b == '\r') {
+				lineStart = true;
+			} else if (lineStart) {
+				if (count + 2 > offsets.length) {
+					offsets = Arrays.copyOf(offsets, offsets.length * 2);
+				}
+				offsets[count++] = pos;
+				lineStart = false;
+			}
+		}
+		offsets[count] = size;
+		return Arrays.copyOf(offsets, count + 1);
+	}
+
+	private static byte byteAt(MappedByteBuffer[] segments, long position) {
+		// absolute gets do not modify the buffers, concurrent reads are safe
+		return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & (SEGMENT_SIZE - 1)));
+	}
+
+	/**
+	 * Reads a record without its line break.
+	 */
+	private static byte[] read(MappedByteBuffer[] segments, long start, long end) {
+		while (end > start && (byteAt(segments, end - 1) == '\n' || byteAt(segments, end - 1) == '\r')) {
+			end--;
+		}
+		byte[] record = new byte[(int) (end - start)];
+		for (int i = 0; i < record.length; i++) {
+			record[i] = byteAt(segments, start + i);
+		}
+		return record;
+	}
+
+	/**
+	 * Reads the record with the given index.
+	 * @param index The 0-based record index.
+	 * @return The record's bytes.
+	 * @throws IllegalStateException If the feeder is closed.
+	 */
+	byte[] record(int index) {
+		MappedByteBuffer[] mapped = segments;
+		if (mapped == null) {
+			throw new IllegalStateException("Feeder \"" + name + "\" is closed, it belongs to an earlier run.");
+		}
+		return read(mapped, recordOffsets[index], recordOffsets[index + 1]);
+	}
+
+	/**
+	 * Releases the mapped file. The mapping is removed once the garbage collector frees the buffers,
+	 * readers that are still copying a record keep their buffer until they are done.
+	 * Records can not be read afterwards.
+	 */
+	void close() {
+		segments = null;
+	}
+
+	/**
+	 * Index of the next record for a user.
+	 * @param user The user's cursor state.
+	 * @return The record index, -1 if the feeder is exhausted.
+	 */
+	int nextIndex(UserCursor user) {
+		if (recordCount == 0) {
+			return -1;
+		}
+		switch (strategy) {
+		case RANDOM:
+			return user.nextRandom(recordCount);
+		case UNIQUE_PER_USER:
+			int partitionSize = partitionEnd - partitionStart;
+			if (user.userCount <= 0 || user.userId >= partitionSize) {
+				// more users than records: this user has no share
+				if (noShareWarningLogged.compareAndSet(false, true)) {
+					LOG.warning("Feeder \"" + name + "\" has fewer records (" + partitionSize + ") than users ("
+							+ user.userCount + "), users without records get nil.");
+				}
+				return -1;
+			}
+			long sharePosition = user.userId + (long) user.userCount * user.position++;
+			if (sharePosition >= partitionSize) {
+				if (exhaustedWarningLogged.compareAndSet(false, true)) {
+					LOG.warning("Feeder \"" + name + "\": user " + user.userId + " has used all of its "
+							+ (user.position - 1) + " records, users reuse their records from the start.");
+				}
+				user.position = 1;
+				sharePosition = user.userId;
+			}
+			return partitionStart + (int) sharePosition;
+		case UNIQUE_GLOBAL:
+			long next = sharedCursor.getAndIncrement();
+			if (next >= partitionEnd - partitionStart) {
+				if (exhaustedWarningLogged.compareAndSet(false, true)) {
+					LOG.warning("Feeder \"" + name + "\" is exhausted, all " + (partitionEnd - partitionStart)
+							+ " records have been used.");
+				}
+				return -1;
+			}
+			return partitionStart + (int) next;
+		case CIRCULAR:
+		default:
+			return (int) Long.remainderUnsigned(sharedCursor.getAndIncrement(), recordCount);
+		}
+	}
+
+	/**
+	 * 1-based number of a CSV column.
+	 * @param column The column name.
+	 * @return The column number, 0 if the column does not exist.
+	 */
+	int columnNumber(String column) {
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnNames[i].equals(column)) {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * True if records are CSV lines, false for JSON lines.
+	 * @return The CSV flag.
+	 */
+	boolean isCSV() {
+		return csv;
+	}
+
+	/**
+	 * The feeder's name.
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * The feeder's file.
+	 * @return The file.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * The feeder's distribution strategy.
+	 * @return The strategy.
+	 */
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Number of records in the file (excluding the CSV header).
+	 * @return The record count.
+	 */
+	public int size() {
+		return recordCount;
+	}
+
+	/**
+	 * Splits a CSV line into its cells. Cells may be quoted, quotes within quoted cells are doubled.
+	 * @param line The line.
+	 * @return The cells.
+	 */
+	static String[] splitCSV(byte[] line) {
+		String[] cells = new String[8];
+		int count = 0;
+		int pos = 0;
+		do {
+			int[] range = cellRange(line, pos);
+			if (count == cells.length) {
+				cells = Arrays.copyOf(cells, count * 2);
+			}
+			cells[count++] = unquote(line, range[0], range[1]).trim();
+			pos = range[1] + 1;
+		} while (pos <= line.length);
+		return Arrays.copyOf(cells, count);
+	}
+
+	/**
+	 * Returns the 1-based column of a CSV line.
+	 * @param line The line.
+	 * @param column The column number.
+	 * @return The cell, null if the line has fewer columns.
+	 */
+	static String csvCell(byte[] line, int column) {
+		int pos = 0;
+		for (int i = 1; pos <= line.length; i++) {
+			int[] range = cellRange(line, pos);
+			if (i == column) {
+				return unquote(line, range[0], range[1]);
+			}
+			pos = range[1] + 1;
+		}
+		return null;
+	}
+
+	/**
+	 * Start and end (the separator or line end) of the cell starting at the given position.
+	 */
+	private static int[] cellRange(byte[] line, int start) {
+		boolean quoted = false;
+		int pos = start;
+		while (pos < line.length) {
+			byte b = line[pos];
+			if (b == '"') {
+				quoted = !quoted;
+			} else if (b == ',' && !quoted) {
+				break;
+			}
+			pos++;
+		}
+		return new int[] {start, pos};
+	}
+
+	private static String unquote(byte[] line, int start, int end) {
+		if (end - start >= 2 && line[start] == '"' && line[end - 1] == '"') {
+			return new String(line, start + 1, end - start - 2, StandardCharsets.UTF_8)
+					.replace("\"\"", "\"");
+		}
+		return new String(line, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Cursor state of a single virtual user for a single feeder.
+	 * Only used by the thread that currently runs the user, needs no synchronization.
+	 */
+	static final class UserCursor {
+		private final int userId;
+		private final int userCount;
+		private long position = 0;
+		private long randomState;
+
+		/**
+		 * Creates a new cursor.
+		 * @param userId The user's id.
+		 * @param userCount The number of users of this load generator.
+		 */
+		UserCursor(int userId, int userCount) {
+			this.userId = userId;
+			this.userCount = userCount;
+			this.randomState = 0x9E3779B97F4A7C15L * (userId + 1);
+		}
+
+		/**
+		 * Next pseudo random number in [0, bound), using the SplitMix64 sequence.
+		 */
+		private int nextRandom(int bound) {
+			randomState += 0x9E3779B97F4A7C15L;
+			long z = randomState;
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			z = z ^ (z >>> 31);
+			return (int) Long.remainderUnsigned(z, bound);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+
+import org.luaj.vm2.LuaString;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+
+/**
+ * LUA bindings for the {@link Feeder}s. Exposed to scripts as the "feeder" library.
+ * Each virtual user has its own instance, which keeps the user's cursors.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class FeederLuaFunctions {
+
+	private final int userId;
+	private final HashMap<Feeder, Feeder.UserCursor> cursors = new HashMap<>();
+
+	/**
+	 * Creates the feeder functions of a virtual user.
+	 * @param userId The id of the virtual user.
+	 */
+	public FeederLuaFunctions(int userId) {
+		this.userId = userId;
+	}
+
+	/**
+	 * Creates the "define" function.
+	 * @return The function.
+	 */
+	public LuaValue define() {
+		return new Define();
+	}
+
+	/**
+	 * Creates the "next" function.
+	 * @return The function.
+	 */
+	public LuaValue next() {
+		return new Next();
+	}
+
+	private LuaValue nextRecord(Feeder feeder, LuaValue column) {
+		Feeder.UserCursor cursor = cursors.get(feeder);
+		if (cursor == null) {
+			cursor = new Feeder.UserCursor(userId, Feeders.getUserCount());
+			cursors.put(feeder, cursor);
+		}
+		int index = feeder.nextIndex(cursor);
+		if (index < 0) {
+			return LuaValue.NIL;
+		}
+		byte[] record = feeder.record(index);
+		if (column.isnil()) {
+			return LuaString.valueUsing(record);
+		}
+		String value;
+		if (feeder.isCSV()) {
+			int columnNumber = column.isnumber() ? column.toint() : feeder.columnNumber(column.tojstring());
+			value = columnNumber > 0 ? Feeder.csvCell(record, columnNumber) : null;
+		} else {
+			value = new JSONFunctions(record).getFirstMatch(column.checkjstring());
+		}
+		return value == null ? LuaValue.NIL : LuaValue.valueOf(value);
+	}
+
+	/**
+	 * feeder.define(name, path [, strategy]): defines a feeder and returns its record count.
+	 * Strategies are "circular" (default), "random", "unique-per-user" and "unique-global".
+	 */
+	private static class Define extends VarArgFunction {
+
+		@Override
+		public Varargs invoke(Varargs args) {
+			String name = args.checkjstring(1);
+			String path = args.checkjstring(2);
+			try {
+				Feeder.Strategy strategy = Feeder.Strategy.parse(args.optjstring(3, "circular"));
+				return LuaValue.valueOf(Feeders.define(name, path, strategy).size());
+			} catch (IllegalArgumentException | UncheckedIOException e) {
+				return error(e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * feeder.next(name [, column]): returns the next record of a feeder, or nil if it is exhausted.
+	 * The optional column is a CSV column name or number, or a JSON path for JSON lines.
+	 */
+	private class Next extends VarArgFunction {
+
+		@Override
+		public Varargs invoke(Varargs args) {
+			String name = args.checkjstring(1);
+			Feeder feeder = Feeders.get(name);
+			if (feeder == null) {
+				return error("feeder \"" + name + "\" is not defined");
+			}
+			try {
+				return nextRecord(feeder, args.arg(2));
+			} catch (IllegalArgumentException e) {
+				return error(e.getMessage());
+			}
+		}
+	}
+}
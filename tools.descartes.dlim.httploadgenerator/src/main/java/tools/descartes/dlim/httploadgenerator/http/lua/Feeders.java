@@ -0,0 +1,108 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link Feeder}s of a load generator.
+ * Feeders are defined by the script of each virtual user, but only the first definition maps the file,
+ * all users share the same feeder. Feeders live for one run, {@link #close()} releases their files.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class Feeders {
+
+	private static final ConcurrentHashMap<String, Feeder> FEEDERS = new ConcurrentHashMap<>();
+
+	private static volatile int generatorIndex = 0;
+	private static volatile int generatorCount = 1;
+	private static volatile int userCount = 1;
+
+	private Feeders() {
+
+	}
+
+	/**
+	 * Removes all feeders and sets the partitioning for the next run.
+	 * @param generatorIndex The index of this load generator, starting at 0.
+	 * @param generatorCount The number of load generators. Records of unique feeders are split between them.
+	 * @param userCount The number of virtual users of this load generator.
+	 */
+	public static void configure(int generatorIndex, int generatorCount, int userCount) {
+		close();
+		Feeders.generatorIndex = generatorIndex;
+		Feeders.generatorCount = Math.max(1, generatorCount);
+		Feeders.userCount = Math.max(1, userCount);
+	}
+
+	/**
+	 * Defines a feeder, mapping its file on first definition.
+	 * @param name The feeder name.
+	 * @param path The file path, relative paths are resolved against the working directory.
+	 * @param strategy The distribution strategy.
+	 * @return The feeder.
+	 * @throws IllegalArgumentException If a feeder with the same name but a different file or strategy exists.
+	 * @throws UncheckedIOException If the file can not be mapped.
+	 */
+	public static Feeder define(String name, String path, Feeder.Strategy strategy) {
+		File file = new File(path).getAbsoluteFile();
+		Feeder feeder = FEEDERS.computeIfAbsent(name, key -> {
+			try {
+				return new Feeder(name, file, strategy, generatorIndex, generatorCount);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not map feeder file " + file, e);
+			}
+		});
+		if (!feeder.getFile().equals(file) || feeder.getStrategy() != strategy) {
+			throw new IllegalArgumentException("Feeder \"" + name + "\" is already defined for "
+					+ feeder.getFile() + " with strategy " + feeder.getStrategy());
+		}
+		return feeder;
+	}
+
+	/**
+	 * Closes and removes all feeders at the end of a run, so that their mapped files are released
+	 * instead of staying mapped until the next run.
+	 */
+	public static void close() {
+		FEEDERS.values().removeIf(feeder -> {
+			feeder.close();
+			return true;
+		});
+	}
+
+	/**
+	 * Returns a defined feeder.
+	 * @param name The feeder name.
+	 * @return The feeder, null if it is not defined.
+	 */
+	public static Feeder get(String name) {
+		return FEEDERS.get(name);
+	}
+
+	/**
+	 * The number of virtual users of this load generator.
+	 * @return The user count.
+	 */
+	static int getUserCount() {
+		return userCount;
+	}
+}
@@ -0,0 +1,335 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Stateful helper functions for extracting values from JSON responses in LUA.
+ * Stores the raw bytes of the current response. Lookups scan the bytes on demand
+ * and only decode the matched values; no document tree is ever built.
+ * @author Yannik Lubas
+ *
+ */
+public class JSONFunctions {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private byte[] json = EMPTY;
+	private int end = 0;
+
+	/** Collector state of the currently running scan. */
+	private ArrayList<String> matches;
+	private int limit;
+
+	/**
+	 * Creates JSON functions for the given response.
+	 * @param json The raw (UTF-8) response bytes, may be null.
+	 */
+	public JSONFunctions(byte[] json) {
+		resetJSONFunctions(json);
+	}
+
+	/**
+	 * Replaces the response the functions operate on. Does not copy or parse the content.
+	 * @param json The new raw (UTF-8) response bytes, may be null.
+	 */
+	public void resetJSONFunctions(byte[] json) {
+		this.json = json == null ? EMPTY : json;
+		this.end = this.json.length;
+	}
+
+	/**
+	 * Returns all values matching the path. Strings are unescaped, numbers and booleans are returned
+	 * as their literal text, objects and arrays as raw JSON. Null values are skipped.
+	 * In a truncated document, the values before the truncation are returned, a value that is cut off is not.
+	 * @param path The JSONPath or JSON pointer.
+	 * @return All matches in document order.
+	 */
+	public ArrayList<String> getMatches(String path) {
+		return scan(JSONPath.compile(path), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the first value matching the path. Stops scanning as soon as it is found.
+	 * @param path The JSONPath or JSON pointer.
+	 * @return The first match, null if there is none.
+	 */
+	public String getFirstMatch(String path) {
+		ArrayList<String> first = scan(JSONPath.compile(path), 1);
+		return first.isEmpty() ? null : first.get(0);
+	}
+
+	private ArrayList<String> scan(JSONPath path, int limit) {
+		this.matches = new ArrayList<>();
+		this.limit = limit;
+		try {
+			int pos = skipWhitespace(0);
+			if (pos < end) {
+				matchValue(path, 0, pos);
+			}
+		} catch (IndexOutOfBoundsException | NumberFormatException e) {
+			// truncated or malformed document, keep what was found before the value that is cut off
+		}
+		ArrayList<String> result = this.matches;
+		this.matches = null;
+		return result;
+	}
+
+	private boolean isDone() {
+		return matches.size() >= limit;
+	}
+
+	/**
+	 * Matches the value starting at pos against the remaining path segments.
+	 * @return The position after the value.
+	 */
+	private int matchValue(JSONPath path, int segment, int pos) {
+		if (segment == path.length()) {
+			return collect(pos, segment > 0);
+		}
+		byte c = json[pos];
+		if (c == '{' && (path.name(segment) != null || path.index(segment) == JSONPath.WILDCARD)) {
+			return matchObject(path, segment, pos);
+		} else if (c == '[' && path.index(segment) != JSONPath.NO_INDEX) {
+			return matchArray(path, segment, pos);
+		}
+		return skipValue(pos);
+	}
+
+	private int matchObject(JSONPath path, int segment, int pos) {
+		byte[] name = path.name(segment);
+		pos = skipWhitespace(pos + 1);
+		if (json[pos] == '}') {
+			return pos + 1;
+		}
+		while (pos < end) {
+			int keyStart = pos + 1;
+			int keyEnd = skipString(pos) - 1;
+			pos = skipWhitespace(keyEnd + 1);
+			// skip ':'
+			pos = skipWhitespace(pos + 1);
+			if (name == null || keyEquals(keyStart, keyEnd, name)) {
+				pos = matchValue(path, segment + 1, pos);
+				if (isDone()) {
+					return end;
+				}
+			} else {
+				pos = skipValue(pos);
+			}
+			pos = skipWhitespace(pos);
+			if (json[pos] == '}') {
+				return pos + 1;
+			}
+			// skip ','
+			pos = skipWhitespace(pos + 1);
+		}
+		return end;
+	}
+
+	private int matchArray(JSONPath path, int segment, int pos) {
+		int index = path.index(segment);
+		pos = skipWhitespace(pos + 1);
+		if (json[pos] == ']') {
+			return pos + 1;
+		}
+		int i = 0;
+		while (pos < end) {
+			if (index == JSONPath.WILDCARD || index == i) {
+				pos = matchValue(path, segment + 1, pos);
+				if (isDone()) {
+					return end;
+				}
+			} else {
+				pos = skipValue(pos);
+			}
+			pos = skipWhitespace(pos);
+			if (json[pos] == ']') {
+				return pos + 1;
+			}
+			pos = skipWhitespace(pos + 1);
+			i++;
+		}
+		return end;
+	}
+
+	/**
+	 * Adds the value starting at pos to the matches.
+	 * @param nested True if the value is within an object or array, which a complete document must close.
+	 * @return The position after the value.
+	 * @throws IndexOutOfBoundsException If the document ends within the value.
+	 */
+	private int collect(int pos, boolean nested) {
+		int valueEnd = skipValue(pos);
+		byte c = json[pos];
+		if (nested && valueEnd == end) {
+			// a number or literal that runs to the end of the document may be cut off
+			throw new IndexOutOfBoundsException("Document ends within the value at " + pos);
+		}
+		if (c == '"') {
+			matches.add(decodeString(pos));
+		} else if (c != 'n') {
+			matches.add(new String(json, pos, valueEnd - pos, StandardCharsets.UTF_8));
+		}
+		return valueEnd;
+	}
+
+	/**
+	 * Compares the raw key bytes with the name. Keys with escape sequences are decoded first.
+	 */
+	private boolean keyEquals(int keyStart, int keyEnd, byte[] name) {
+		int length = keyEnd - keyStart;
+		for (int i = keyStart; i < keyEnd; i++) {
+			if (json[i] == '\\') {
+				return decodeString(keyStart - 1).equals(new String(name, StandardCharsets.UTF_8));
+			}
+		}
+		if (length != name.length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (json[keyStart + i] != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int skipWhitespace(int pos) {
+		while (pos < end) {
+			byte c = json[pos];
+			if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+				break;
+			}
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Skips any JSON value.
+	 * @return The position after the value.
+	 * @throws IndexOutOfBoundsException If the document ends within a string, object or array.
+	 */
+	private int skipValue(int pos) {
+		int start = pos;
+		byte c = json[pos];
+		if (c == '"') {
+			return skipString(pos);
+		} else if (c == '{' || c == '[') {
+			int depth = 0;
+			while (pos < end) {
+				c = json[pos];
+				if (c == '"') {
+					pos = skipString(pos);
+					continue;
+				} else if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					depth--;
+					if (depth == 0) {
+						return pos + 1;
+					}
+				}
+				pos++;
+			}
+			throw new IndexOutOfBoundsException("Document ends within the value at " + start);
+		}
+		while (pos < end) {
+			c = json[pos];
+			if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+				break;
+			}
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Skips a string starting at the opening quote.
+	 * @return The position after the closing quote.
+	 * @throws IndexOutOfBoundsException If the document ends within the string.
+	 */
+	private int skipString(int pos) {
+		int start = pos;
+		pos++;
+		while (pos < end) {
+			byte c = json[pos];
+			if (c == '\\') {
+				pos += 2;
+			} else if (c == '"') {
+				return pos + 1;
+			} else {
+				pos++;
+			}
+		}
+		throw new IndexOutOfBoundsException("Document ends within the string at " + start);
+	}
+
+	private String decodeString(int pos) {
+		int start = pos + 1;
+		int stringEnd = skipString(pos) - 1;
+		int i = start;
+		while (i < stringEnd && json[i] != '\\') {
+			i++;
+		}
+		if (i == stringEnd) {
+			return new String(json, start, stringEnd - start, StandardCharsets.UTF_8);
+		}
+		StringBuilder builder = new StringBuilder(stringEnd - start);
+		i = start;
+		while (i < stringEnd) {
+			int runStart = i;
+			while (i < stringEnd && json[i] != '\\') {
+				i++;
+			}
+			if (i > runStart) {
+				builder.append(new String(json, runStart, i - runStart, StandardCharsets.UTF_8));
+			}
+			if (i >= stringEnd) {
+				break;
+			}
+			byte escaped = json[i + 1];
+			switch (escaped) {
+			case 'n':
+				builder.append('\n');
+				break;
+			case 't':
+				builder.append('\t');
+				break;
+			case 'r':
+				builder.append('\r');
+				break;
+			case 'b':
+				builder.append('\b');
+				break;
+			case 'f':
+				builder.append('\f');
+				break;
+			case 'u':
+				builder.append((char) Integer.parseInt(new String(json, i + 2, 4, StandardCharsets.US_ASCII), 16));
+				i += 4;
+				break;
+			default:
+				builder.append((char) escaped);
+				break;
+			}
+			i += 2;
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.util.ArrayList;
+
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.lib.OneArgFunction;
+
+/**
+ * LUA bindings for the {@link JSONFunctions}. Exposed to scripts as the "json" library.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class JSONLuaFunctions {
+
+	/**
+	 * Function to get all values matching a JSON path.
+	 * @author Yannik Lubas
+	 *
+	 */
+	public static class GetMatches extends OneArgFunction {
+
+		private JSONFunctions jsonFunctions;
+
+		/**
+		 * Instantiate the function.
+		 * @param jsonFunctions Reference to the stateful {@link JSONFunctions}
+		 * container that knows the most recent response.
+		 */
+		public GetMatches(JSONFunctions jsonFunctions) {
+			this.jsonFunctions = jsonFunctions;
+		}
+
+		@Override
+		public LuaValue call(LuaValue path) {
+			String pathString = path.optjstring("");
+			ArrayList<String> matches = new ArrayList<String>();
+			if (!pathString.isEmpty()) {
+				try {
+					matches = jsonFunctions.getMatches(pathString);
+				} catch (IllegalArgumentException e) {
+					error(e.getMessage());
+				}
+			}
+			return LuaHelpers.toLuaTable(matches);
+		}
+
+	}
+
+	/**
+	 * Function to get the first value matching a JSON path. Returns nil if nothing matches.
+	 * @author Yannik Lubas
+	 *
+	 */
+	public static class Get extends OneArgFunction {
+
+		private JSONFunctions jsonFunctions;
+
+		/**
+		 * Instantiate the function.
+		 * @param jsonFunctions Reference to the stateful {@link JSONFunctions}
+		 * container that knows the most recent response.
+		 */
+		public Get(JSONFunctions jsonFunctions) {
+			this.jsonFunctions = jsonFunctions;
+		}
+
+		@Override
+		public LuaValue call(LuaValue path) {
+			String pathString = path.optjstring("");
+			if (pathString.isEmpty()) {
+				return NIL;
+			}
+			String match = null;
+			try {
+				match = jsonFunctions.getFirstMatch(pathString);
+			} catch (IllegalArgumentException e) {
+				error(e.getMessage());
+			}
+			return match == null ? NIL : LuaValue.valueOf(match);
+		}
+
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled, immutable lookup path for the streaming JSON scanner in {@link JSONFunctions}.
+ * Supports a JSONPath subset ({@code $.items[*].id}, {@code $['name'][0]}, {@code $.*})
+ * and JSON pointers ({@code /items/0/id}).
+ * Compiled paths are cached, as scripts usually only use a handful of constant paths.
+ * @author Yannik Lubas
+ *
+ */
+public final class JSONPath {
+
+	/** Upper bound for the number of cached paths, protects against scripts that build paths dynamically. */
+	private static final int MAX_CACHED_PATHS = 512;
+
+	private static final ConcurrentHashMap<String, JSONPath> CACHE = new ConcurrentHashMap<>();
+
+	/** Index of segments that match any member or element. */
+	static final int WILDCARD = -1;
+	/** Index of segments that only match object members by name. */
+	static final int NO_INDEX = -2;
+
+	private final String path;
+	/** UTF-8 encoded member names per segment, null for pure index and wildcard segments. */
+	private final byte[][] names;
+	/** Array index per segment, {@link #WILDCARD} or {@link #NO_INDEX}. */
+	private final int[] indices;
+
+	private JSONPath(String path, ArrayList<String> names, ArrayList<Integer> indices) {
+		this.path = path;
+		this.names = new byte[names.size()][];
+		this.indices = new int[indices.size()];
+		for (int i = 0; i < this.names.length; i++) {
+			String name = names.get(i);
+			this.names[i] = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+			this.indices[i] = indices.get(i);
+		}
+	}
+
+	/**
+	 * Returns the compiled path for the given expression, compiling it if it was not seen before.
+	 * @param path The JSONPath (starting with "$") or JSON pointer (starting with "/") expression.
+	 * @return The compiled path.
+	 * @throws IllegalArgumentException If the expression is malformed.
+	 */
+	public static JSONPath compile(String path) {
+		JSONPath compiled = CACHE.get(path);
+		if (compiled == null) {
+			compiled = parse(path);
+			if (CACHE.size() < MAX_CACHED_PATHS) {
+				CACHE.putIfAbsent(path, compiled);
+			}
+		}
+		return compiled;
+	}
+
+	private static JSONPath parse(String path) {
+		ArrayList<String> names = new ArrayList<>();
+		ArrayList<Integer> indices = new ArrayList<>();
+		String trimmed = path.trim();
+		if (trimmed.isEmpty() || trimmed.equals("/")) {
+			return new JSONPath(path, names, indices);
+		}
+		if (trimmed.startsWith("/")) {
+			parsePointer(trimmed, names, indices);
+		} else if (trimmed.startsWith("$")) {
+			parseJSONPath(trimmed, names, indices);
+		} else {
+			throw new IllegalArgumentException("JSON path must start with \"$\" or \"/\": " + path);
+		}
+		return new JSONPath(path, names, indices);
+	}
+
+	private static void parsePointer(String pointer, ArrayList<String> names, ArrayList<Integer> indices) {
+		for (String token : pointer.substring(1).split("/", -1)) {
+			String name = token.replace("~1", "/").replace("~0", "~");
+			names.add(name);
+			indices.add(parseIndex(name));
+		}
+	}
+
+	private static void parseJSONPath(String path, ArrayList<String> names, ArrayList<Integer> indices) {
+		int i = 1;
+		while (i < path.length()) {
+			char c = path.charAt(i);
+			if (c == '.') {
+				int end = i + 1;
+				while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+					end++;
+				}
+				String name = path.substring(i + 1, end);
+				if (name.isEmpty()) {
+					throw new IllegalArgumentException("Empty member name in JSON path: " + path);
+				}
+				if (name.equals("*")) {
+					names.add(null);
+					indices.add(WILDCARD);
+				} else {
+					names.add(name);
+					indices.add(NO_INDEX);
+				}
+				i = end;
+			} else if (c == '[') {
+				int end = path.indexOf(']', i);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unterminated \"[\" in JSON path: " + path);
+				}
+				String selector = path.substring(i + 1, end).trim();
+				if (selector.equals("*")) {
+					names.add(null);
+					indices.add(WILDCARD);
+				} else if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')) {
+					names.add(selector.substring(1, selector.length() - 1));
+					indices.add(NO_INDEX);
+				} else {
+					int index = parseIndex(selector);
+					if (index < 0) {
+						throw new IllegalArgumentException("Invalid array index \"" + selector
+								+ "\" in JSON path: " + path);
+					}
+					names.add(null);
+					indices.add(index);
+				}
+				i = end + 1;
+			} else {
+				throw new IllegalArgumentException("Unexpected character '" + c + "' in JSON path: " + path);
+			}
+		}
+	}
+
+	private static int parseIndex(String token) {
+		if (token.isEmpty() || token.length() > 9) {
+			return NO_INDEX;
+		}
+		for (int i = 0; i < token.length(); i++) {
+			if (!Character.isDigit(token.charAt(i))) {
+				return NO_INDEX;
+			}
+		}
+		return Integer.parseInt(token);
+	}
+
+	/**
+	 * Number of segments in the path. The root path has zero segments.
+	 * @return The segment count.
+	 */
+	int length() {
+		return indices.length;
+	}
+
+	/**
+	 * The UTF-8 encoded member name of a segment.
+	 * @param segment The segment.
+	 * @return The name, null if the segment does not match object members by name.
+	 */
+	byte[] name(int segment) {
+		return names[segment];
+	}
+
+	/**
+	 * The array index of a segment.
+	 * @param segment The segment.
+	 * @return The index, {@link #WILDCARD}, or {@link #NO_INDEX}.
+	 */
+	int index(int segment) {
+		return indices[segment];
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+}
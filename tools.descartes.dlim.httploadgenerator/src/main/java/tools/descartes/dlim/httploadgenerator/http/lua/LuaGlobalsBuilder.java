@@ -0,0 +1,164 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LoadState;
+import org.luaj.vm2.compiler.LuaC;
+import org.luaj.vm2.lib.Bit32Lib;
+import org.luaj.vm2.lib.CoroutineLib;
+import org.luaj.vm2.lib.DebugLib;
+import org.luaj.vm2.lib.PackageLib;
+import org.luaj.vm2.lib.StringLib;
+import org.luaj.vm2.lib.TableLib;
+import org.luaj.vm2.lib.jse.JseBaseLib;
+import org.luaj.vm2.lib.jse.JseIoLib;
+import org.luaj.vm2.lib.jse.JseMathLib;
+import org.luaj.vm2.lib.jse.JseOsLib;
+import org.luaj.vm2.lib.jse.LuajavaLib;
+
+/**
+ * Builds the LUA globals of a virtual user with only the whitelisted standard libraries.
+ * The base library and the package library are always loaded, as the remaining libraries depend on them.
+ * Every library that is left out saves several tables and function objects per virtual user.
+ * Immutable, a single builder may build globals for all users concurrently.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class LuaGlobalsBuilder {
+
+	private static final Logger LOG = Logger.getLogger(LuaGlobalsBuilder.class.getName());
+
+	/** Value of the library list that selects the libraries of the LuaJ standard globals. */
+	public static final String ALL_LIBRARIES = "all";
+
+	/** The libraries needed by typical request scripts. */
+	public static final String DEFAULT_LIBRARIES = "string,table,math";
+
+	private static final String[] STANDARD_LIBRARIES = {
+		"string", "table", "math", "coroutine", "bit32", "os", "io", "luajava"
+	};
+
+	private static final String[] KNOWN_LIBRARIES = {
+		"string", "table", "math", "coroutine", "bit32", "os", "io", "luajava", "debug"
+	};
+
+	private final Set<String> libraries;
+
+	private LuaGlobalsBuilder(Set<String> libraries) {
+		this.libraries = Collections.unmodifiableSet(libraries);
+	}
+
+	/**
+	 * Creates a builder for the standard globals, equivalent to
+	 * {@link org.luaj.vm2.lib.jse.JsePlatform#standardGlobals()}.
+	 * @return The builder.
+	 */
+	public static LuaGlobalsBuilder standard() {
+		return new LuaGlobalsBuilder(new LinkedHashSet<>(Arrays.asList(STANDARD_LIBRARIES)));
+	}
+
+	/**
+	 * Creates a builder from a comma separated library whitelist, e.g. "string,table,math".
+	 * {@link #ALL_LIBRARIES} selects the standard libraries, null or an empty list selects
+	 * only the base and package libraries. Unknown library names are ignored with a warning.
+	 * @param whitelist The comma separated library names.
+	 * @return The builder.
+	 */
+	public static LuaGlobalsBuilder fromWhitelist(String whitelist) {
+		if (whitelist == null || whitelist.trim().isEmpty()) {
+			return new LuaGlobalsBuilder(new LinkedHashSet<>());
+		}
+		if (whitelist.trim().equalsIgnoreCase(ALL_LIBRARIES)) {
+			return standard();
+		}
+		Set<String> libraries = new LinkedHashSet<>();
+		for (String name : whitelist.split(",")) {
+			String library = name.trim().toLowerCase(Locale.ROOT);
+			if (library.isEmpty() || library.equals("base") || library.equals("package")) {
+				continue;
+			}
+			if (Arrays.asList(KNOWN_LIBRARIES).contains(library)) {
+				libraries.add(library);
+			} else {
+				LOG.warning("Unknown LUA library \"" + library + "\" is ignored.");
+			}
+		}
+		return new LuaGlobalsBuilder(libraries);
+	}
+
+	/**
+	 * Creates new globals with the base library, the package library and all whitelisted libraries.
+	 * @return The new globals.
+	 */
+	public Globals build() {
+		Globals globals = new Globals();
+		globals.load(new JseBaseLib());
+		globals.load(new PackageLib());
+		// load in the order of JsePlatform.standardGlobals()
+		if (libraries.contains("bit32")) {
+			globals.load(new Bit32Lib());
+		}
+		if (libraries.contains("table")) {
+			globals.load(new TableLib());
+		}
+		if (libraries.contains("string")) {
+			globals.load(new StringLib());
+		}
+		if (libraries.contains("coroutine")) {
+			globals.load(new CoroutineLib());
+		}
+		if (libraries.contains("math")) {
+			globals.load(new JseMathLib());
+		}
+		if (libraries.contains("io")) {
+			globals.load(new JseIoLib());
+		}
+		if (libraries.contains("os")) {
+			globals.load(new JseOsLib());
+		}
+		if (libraries.contains("luajava")) {
+			globals.load(new LuajavaLib());
+		}
+		if (libraries.contains("debug")) {
+			globals.load(new DebugLib());
+		}
+		LoadState.install(globals);
+		LuaC.install(globals);
+		return globals;
+	}
+
+	/**
+	 * The whitelisted libraries in addition to the base and package libraries.
+	 * @return The library names.
+	 */
+	public Set<String> getLibraries() {
+		return libraries;
+	}
+
+	@Override
+	public String toString() {
+		return "base,package" + (libraries.isEmpty() ? "" : "," + String.join(",", libraries));
+	}
+}
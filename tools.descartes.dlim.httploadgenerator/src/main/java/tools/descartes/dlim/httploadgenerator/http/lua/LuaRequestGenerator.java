@@ -0,0 +1,222 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jetty.client.Response;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.MimeTypes;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaString;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+
+import tools.descartes.dlim.httploadgenerator.http.IRequestGenerator;
+import tools.descartes.dlim.httploadgenerator.http.MappedRequestBodies;
+import tools.descartes.dlim.httploadgenerator.http.RequestDescriptor;
+
+/**
+ * Request generator that runs the onCycle() and onCall(callnum) functions of a LUA script.
+ * onCall returns the request in the request string DSL (see {@link RequestDescriptor#parse(String)})
+ * or as table with the fields method, url, headers, body, body_file and content_type.
+ * The most recent response is made available to the script through the html and json libraries.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class LuaRequestGenerator implements IRequestGenerator {
+
+	private static final String LUA_CYCLE_INIT = "onCycle";
+	private static final String LUA_CALL = "onCall";
+
+	private final CompiledLuaScript script;
+	private final LuaGlobalsBuilder globalsBuilder;
+
+	private HTMLFunctions htmlFunctions = new HTMLFunctions("");
+	private JSONFunctions jsonFunctions = new JSONFunctions(null);
+	private Globals luaGlobals;
+
+	/**
+	 * Creates a generator for a compiled script. The script is instantiated on {@link #initialize(int, int)}.
+	 * @param script The compiled script, null if it could not be compiled.
+	 * @param globalsBuilder Builder of the LUA globals with the whitelisted libraries.
+	 */
+	public LuaRequestGenerator(CompiledLuaScript script, LuaGlobalsBuilder globalsBuilder) {
+		this.script = script;
+		this.globalsBuilder = globalsBuilder;
+	}
+
+	/**
+	 * Creates a generator for globals in which a script has already been run.
+	 * Must not be initialized.
+	 * @param luaGlobals The globals containing the onCall and onCycle functions.
+	 */
+	public LuaRequestGenerator(Globals luaGlobals) {
+		this(null, null);
+		this.luaGlobals = luaGlobals;
+	}
+
+	@Override
+	public void initialize(int userId, int randomSeed) {
+		if (script == null) {
+			// the globals were passed to the constructor
+			return;
+		}
+		luaGlobals = globalsBuilder.build();
+		LuaValue library = new LuaTable();
+		library.set("getMatches", new HTMLLuaFunctions.GetMatches(htmlFunctions));
+		library.set("extractMatches", new HTMLLuaFunctions.ExtractAllMatches(htmlFunctions));
+		luaGlobals.set("html", library);
+		LuaValue jsonLibrary = new LuaTable();
+		jsonLibrary.set("getMatches", new JSONLuaFunctions.GetMatches(jsonFunctions));
+		jsonLibrary.set("get", new JSONLuaFunctions.Get(jsonFunctions));
+		luaGlobals.set("json", jsonLibrary);
+		LuaValue dataLibrary = new LuaTable();
+		dataLibrary.set("csv", DataLuaFunctions.CSV.INSTANCE);
+		dataLibrary.set("jsonl", DataLuaFunctions.JSONLines.INSTANCE);
+		luaGlobals.set("data", dataLibrary);
+		FeederLuaFunctions feederFunctions = new FeederLuaFunctions(userId);
+		LuaValue feederLibrary = new LuaTable();
+		feederLibrary.set("define", feederFunctions.define());
+		feederLibrary.set("next", feederFunctions.next());
+		luaGlobals.set("feeder", feederLibrary);
+		LuaValue math = luaGlobals.get("math");
+		if (!math.isnil()) {
+			math.get("randomseed").call(LuaValue.valueOf(5));
+		}
+		script.instantiate(luaGlobals);
+	}
+
+	@Override
+	public void onCycle() {
+		if (luaGlobals == null) {
+			throw new IllegalStateException("No Lua script loaded.");
+		}
+		LuaValue cycleInit = luaGlobals.get(LUA_CYCLE_INIT);
+		if (!cycleInit.isnil()) {
+			cycleInit.call();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws org.luaj.vm2.LuaError If the script fails.
+	 */
+	@Override
+	public RequestDescriptor onCall(int callNum) {
+		LuaValue lvcall = luaGlobals.get(LUA_CALL).call(LuaValue.valueOf(callNum));
+		if (lvcall.isnil()) {
+			return null;
+		}
+		if (lvcall.istable()) {
+			return toDescriptor(lvcall.checktable());
+		}
+		return RequestDescriptor.parse(lvcall.optjstring(""));
+	}
+
+	/**
+	 * Builds the descriptor of a request table. String bodies are sent from the LUA string's own bytes,
+	 * file bodies from the memory-mapped file, neither is copied.
+	 */
+	private static RequestDescriptor toDescriptor(LuaTable table) {
+		LuaValue url = table.get("url");
+		if (!url.isstring()) {
+			throw new LuaError("request table has no url");
+		}
+		HttpMethod method = HttpMethod.GET;
+		try {
+			if (!table.get("method").isnil()) {
+				method = RequestDescriptor.method(table.get("method").tojstring());
+			}
+			HttpFields headers = null;
+			LuaValue headerTable = table.get("headers");
+			if (headerTable.istable()) {
+				HttpFields.Mutable fields = HttpFields.build();
+				LuaValue key = LuaValue.NIL;
+				while (true) {
+					Varargs next = headerTable.next(key);
+					key = next.arg1();
+					if (key.isnil()) {
+						break;
+					}
+					fields.add(key.tojstring(), next.arg(2).tojstring());
+				}
+				headers = fields;
+			}
+			String contentType = table.get("content_type").optjstring(null);
+			ByteBuffer body = null;
+			LuaValue bodyFile = table.get("body_file");
+			LuaValue bodyString = table.get("body");
+			if (bodyFile.isstring()) {
+				String path = bodyFile.tojstring();
+				body = MappedRequestBodies.get(path);
+				if (contentType == null) {
+					contentType = MappedRequestBodies.contentTypeOf(path);
+				}
+			} else if (bodyString.isstring()) {
+				LuaString string = bodyString.checkstring();
+				// LUA strings are immutable, the body can use their backing array
+				body = ByteBuffer.wrap(string.m_bytes, string.m_offset, string.m_length);
+			}
+			return new RequestDescriptor(method, URI.create(url.tojstring().trim()), headers, contentType, body);
+		} catch (IllegalArgumentException | UncheckedIOException e) {
+			throw new LuaError(e.getMessage());
+		}
+	}
+
+	@Override
+	public void onResponse(RequestDescriptor request, Response response, byte[] content) {
+		String charset = MimeTypes.getCharsetFromContentType(response.getHeaders().get(HttpHeader.CONTENT_TYPE));
+		resetHTMLFunctions(new String(content, charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset)));
+		resetJSONFunctions(content);
+	}
+
+	/**
+	 * Reset the HTML functions that are passed to LUA.
+	 *
+	 * @param html The html response that will be accessed from LUA next.
+	 */
+	public void resetHTMLFunctions(String html) {
+		htmlFunctions.resetHTMLFunctions(html);
+	}
+
+	/**
+	 * Reset the JSON functions that are passed to LUA.
+	 *
+	 * @param json The raw response bytes that will be accessed from LUA next.
+	 */
+	public void resetJSONFunctions(byte[] json) {
+		jsonFunctions.resetJSONFunctions(json);
+	}
+
+	/**
+	 * Get the current HTML content that was last received.
+	 *
+	 * @return The HTML content.
+	 */
+	public String getCurrentHTML() {
+		return htmlFunctions.getHTML();
+	}
+}
@@ -0,0 +1,432 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaString;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaUserdata;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+
+/**
+ * Read-only data set (CSV or JSON lines file) that is loaded once per load generator JVM
+ * and shared by the LUA contexts of all virtual users.
+ * All cells are stored back to back in a single byte array and are handed to LUA as strings
+ * that use this array as their backing storage, so accessing a cell neither copies nor decodes it.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class SharedDataTable {
+
+	private static final Logger LOG = Logger.getLogger(SharedDataTable.class.getName());
+
+	private static final ConcurrentHashMap<String, SharedDataTable> TABLES = new ConcurrentHashMap<>();
+
+	private final String name;
+	private final boolean jsonLines;
+	private final byte[] data;
+	/** Start offsets of all cells in row major order, followed by the end offset of the last cell. */
+	private final int[] cellOffsets;
+	private final int columnCount;
+	private final int rowCount;
+	/** Column names mapped to their 1-based column numbers. */
+	private final LuaTable columnNumbers;
+	private final LuaValue luaValue;
+
+	private SharedDataTable(String name, boolean jsonLines, byte[] data, int[] cellOffsets,
+			int columnCount, String[] columnNames) {
+		this.name = name;
+		this.jsonLines = jsonLines;
+		this.data = data;
+		this.cellOffsets = cellOffsets;
+		this.columnCount = columnCount;
+		this.rowCount = (cellOffsets.length - 1) / columnCount;
+		this.columnNumbers = new LuaTable();
+		for (int i = 0; i < columnNames.length; i++) {
+			columnNumbers.set(columnNames[i], LuaValue.valueOf(i + 1));
+		}
+		this.luaValue = new TableValue(this);
+	}
+
+	/**
+	 * Returns the shared table of a CSV file, loading it on first use.
+	 * The first line of the file contains the column names.
+	 * @param path The file path, relative paths are resolved against the working directory.
+	 * @param separator The column separator.
+	 * @return The shared table.
+	 * @throws UncheckedIOException If the file can not be read.
+	 */
+	public static SharedDataTable csv(String path, char separator) {
+		File file = new File(path).getAbsoluteFile();
+		return TABLES.computeIfAbsent("csv" + separator + ":" + file.getPath(),
+				key -> load(file, false, separator));
+	}
+
+	/**
+	 * Returns the shared table of a JSON lines file, loading it on first use.
+	 * Each line is one row with a single cell containing the raw JSON document.
+	 * @param path The file path, relative paths are resolved against the working directory.
+	 * @return The shared table.
+	 * @throws UncheckedIOException If the file can not be read.
+	 */
+	public static SharedDataTable jsonLines(String path) {
+		File file = new File(path).getAbsoluteFile();
+		return TABLES.computeIfAbsent("jsonl:" + file.getPath(), key -> load(file, true, ','));
+	}
+
+	/**
+	 * Removes all loaded tables, so that they are read again on next use.
+	 */
+	public static void clear() {
+		TABLES.clear();
+	}
+
+	private static SharedDataTable load(File file, boolean jsonLines, char separator) {
+		long start = System.currentTimeMillis();
+		byte[] content;
+		try {
+			content = Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read data file " + file, e);
+		}
+		Parser parser = new Parser(content, separator);
+		String[] columnNames;
+		if (jsonLines) {
+			columnNames = new String[0];
+			while (parser.hasMoreLines()) {
+				parser.nextRawLine();
+			}
+		} else {
+			columnNames = parser.nextHeaderLine();
+			while (parser.hasMoreLines()) {
+				parser.nextCSVLine(columnNames.length);
+			}
+		}
+		SharedDataTable table = new SharedDataTable(file.getName(), jsonLines,
+				Arrays.copyOf(parser.out, parser.outLength), Arrays.copyOf(parser.offsets, parser.offsetCount + 1),
+				Math.max(1, columnNames.length), columnNames);
+		LOG.info("Loaded shared data table " + file + " with " + table.size() + " rows in "
+				+ (System.currentTimeMillis() - start) + " ms.");
+		return table;
+	}
+
+	/**
+	 * Number of rows (excluding the CSV header).
+	 * @return The row count.
+	 */
+	public int size() {
+		return rowCount;
+	}
+
+	/**
+	 * Number of columns.
+	 * @return The column count, 1 for JSON lines.
+	 */
+	public int columnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Returns a cell as LUA string, backed by the table's storage.
+	 * @param row The 0-based row.
+	 * @param column The 0-based column.
+	 * @return The cell.
+	 */
+	public LuaString cell(int row, int column) {
+		int index = row * columnCount + column;
+		return LuaString.valueUsing(data, cellOffsets[index], cellOffsets[index + 1] - cellOffsets[index]);
+	}
+
+	/**
+	 * Returns a cell as Java string.
+	 * @param row The 0-based row.
+	 * @param column The 0-based column.
+	 * @return The cell.
+	 */
+	public String getString(int row, int column) {
+		return cell(row, column).tojstring();
+	}
+
+	/**
+	 * The read-only LUA view of this table, shared by all LUA contexts.
+	 * @return The LUA value.
+	 */
+	public LuaValue toLuaValue() {
+		return luaValue;
+	}
+
+	/**
+	 * Looks up a cell for LUA.
+	 * @param row The 1-based row.
+	 * @param column The column name or 1-based number, for JSON lines a JSON path.
+	 * @return The cell or nil.
+	 */
+	private LuaValue lookup(int row, LuaValue column) {
+		if (row < 1 || row > rowCount) {
+			return LuaValue.NIL;
+		}
+		if (jsonLines) {
+			if (column.isnil()) {
+				return cell(row - 1, 0);
+			}
+			int index = row - 1;
+			byte[] json = Arrays.copyOfRange(data, cellOffsets[index], cellOffsets[index + 1]);
+			String match;
+			try {
+				match = new JSONFunctions(json).getFirstMatch(column.checkjstring());
+			} catch (IllegalArgumentException e) {
+				throw new LuaError(e.getMessage());
+			}
+			return match == null ? LuaValue.NIL : LuaValue.valueOf(match);
+		}
+		int columnNumber = column.isnumber() ? column.toint() : columnNumbers.get(column).optint(0);
+		if (columnNumber < 1 || columnNumber > columnCount) {
+			return LuaValue.NIL;
+		}
+		return cell(row - 1, columnNumber - 1);
+	}
+
+	private LuaValue row(int row) {
+		if (row < 1 || row > rowCount) {
+			return LuaValue.NIL;
+		}
+		if (columnCount == 1) {
+			return cell(row - 1, 0);
+		}
+		return new RowValue(this, row);
+	}
+
+	/**
+	 * LUA view of the table. t[i] returns the i-th row, which is the cell itself for single column tables.
+	 * #t returns the row count and t:get(i, column) returns a single cell.
+	 */
+	private static final class TableValue extends LuaUserdata {
+
+		private final SharedDataTable table;
+		private final LuaValue getFunction;
+
+		private TableValue(SharedDataTable table) {
+			super(table);
+			this.table = table;
+			this.getFunction = new VarArgFunction() {
+				@Override
+				public Varargs invoke(Varargs args) {
+					return table.lookup(args.checkint(2), args.arg(3));
+				}
+			};
+		}
+
+		@Override
+		public LuaValue get(LuaValue key) {
+			if (key.isint()) {
+				return table.row(key.toint());
+			}
+			if (key.isstring() && key.tojstring().equals("get")) {
+				return getFunction;
+			}
+			return NIL;
+		}
+
+		@Override
+		public void set(LuaValue key, LuaValue value) {
+			throw new LuaError("shared data table " + table.name + " is read-only");
+		}
+
+		@Override
+		public LuaValue len() {
+			return LuaValue.valueOf(table.rowCount);
+		}
+
+		@Override
+		public int length() {
+			return table.rowCount;
+		}
+
+		@Override
+		public String tojstring() {
+			return "shared data table: " + table.name;
+		}
+	}
+
+	/**
+	 * LUA view of a single row of a multi column table. Cells are accessed by column name or 1-based number.
+	 */
+	private static final class RowValue extends LuaUserdata {
+
+		private final SharedDataTable table;
+		private final int row;
+
+		private RowValue(SharedDataTable table, int row) {
+			super(table);
+			this.table = table;
+			this.row = row;
+		}
+
+		@Override
+		public LuaValue get(LuaValue key) {
+			return table.lookup(row, key);
+		}
+
+		@Override
+		public void set(LuaValue key, LuaValue value) {
+			throw new LuaError("shared data table " + table.name + " is read-only");
+		}
+
+		@Override
+		public LuaValue len() {
+			return LuaValue.valueOf(table.columnCount);
+		}
+
+		@Override
+		public int length() {
+			return table.columnCount;
+		}
+	}
+
+	/**
+	 * Splits the file into cells and copies them into a single compact buffer.
+	 * CSV cells may be quoted, quotes within quoted cells are escaped by doubling them.
+	 * Line breaks within quoted cells are not supported.
+	 */
+	private static final class Parser {
+
+		private final byte[] in;
+		private final byte separator;
+		private int pos = 0;
+
+		private byte[] out;
+		private int outLength = 0;
+		private int[] offsets = new int[1024];
+		private int offsetCount = 0;
+
+		private Parser(byte[] in, char separator) {
+			this.in = in;
+			this.separator = (byte) separator;
+			this.out = new byte[in.length];
+		}
+
+		private boolean hasMoreLines() {
+			// skip empty lines
+			while (pos < in.length && (in[pos] == '\n' || in[pos] == '\r')) {
+				pos++;
+			}
+			return pos < in.length;
+		}
+
+		private String[] nextHeaderLine() {
+			if (!hasMoreLines()) {
+				return new String[] {"value"};
+			}
+			int start = offsetCount;
+			int count = nextCells(Integer.MAX_VALUE);
+			String[] names = new String[count];
+			for (int i = 0; i < count; i++) {
+				names[i] = LuaString.decodeAsUtf8(out, offsets[start + i], offsets[start + i + 1] - offsets[start + i])
+						.trim();
+			}
+			// the header is not part of the data
+			offsetCount = start;
+			outLength = 0;
+			offsets[0] = 0;
+			return names;
+		}
+
+		private void nextCSVLine(int columns) {
+			int count = nextCells(columns);
+			// pad short lines with empty cells
+			for (; count < columns; count++) {
+				addOffset(outLength);
+			}
+		}
+
+		private void nextRawLine() {
+			int start = pos;
+			while (pos < in.length && in[pos] != '\n') {
+				pos++;
+			}
+			int end = pos;
+			if (end > start && in[end - 1] == '\r') {
+				end--;
+			}
+			System.arraycopy(in, start, out, outLength, end - start);
+			outLength += end - start;
+			addOffset(outLength);
+		}
+
+		/**
+		 * Reads the cells of the next line, ignoring cells beyond the maximum.
+		 * @return The number of cells read.
+		 */
+		private int nextCells(int max) {
+			int count = 0;
+			while (true) {
+				boolean quoted = pos < in.length && in[pos] == '"';
+				if (quoted) {
+					pos++;
+				}
+				int cellStart = outLength;
+				while (pos < in.length) {
+					byte b = in[pos];
+					if (quoted) {
+						if (b == '"') {
+							if (pos + 1 < in.length && in[pos + 1] == '"') {
+								pos++;
+							} else {
+								quoted = false;
+								pos++;
+								continue;
+							}
+						}
+					} else if (b == separator || b == '\n' || b == '\r') {
+						break;
+					}
+					out[outLength++] = b;
+					pos++;
+				}
+				if (count < max) {
+					addOffset(outLength);
+					count++;
+				} else {
+					outLength = cellStart;
+				}
+				if (pos < in.length && in[pos] == separator) {
+					pos++;
+				} else {
+					break;
+				}
+			}
+			return count;
+		}
+
+		private void addOffset(int offset) {
+			if (offsetCount + 2 > offsets.length) {
+				offsets = Arrays.copyOf(offsets, offsets.length * 2);
+			}
+			offsets[++offsetCount] = offset;
+		}
+	}
+}
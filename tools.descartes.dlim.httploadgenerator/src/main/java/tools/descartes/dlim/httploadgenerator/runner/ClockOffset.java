@@ -0,0 +1,106 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.time.Instant;
+
+/**
+ * Estimates the offset of a load generator's clock to the director's clock from round trips, as in NTP.
+ * The director sends its time, the load generator replies with its own time. Assuming symmetric network
+ * delays, the load generator's time corresponds to the middle of the round trip. The sample with the
+ * shortest round trip is used, as it has the least queueing delay; the offset is accurate to within
+ * half of its round trip.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class ClockOffset {
+
+	private long offsetMicros = 0;
+	private long roundTripMicros = Long.MAX_VALUE;
+	private int samples = 0;
+
+	/**
+	 * The current time of this machine's clock.
+	 * @return The time in µs since the epoch.
+	 */
+	public static long epochMicros() {
+		Instant now = Instant.now();
+		return now.getEpochSecond() * 1_000_000 + now.getNano() / 1000;
+	}
+
+	/**
+	 * Adds a round trip.
+	 * @param sentMicros Local time at which the request was sent.
+	 * @param remoteMicros The load generator's time in the reply.
+	 * @param receivedMicros Local time at which the reply was received.
+	 */
+	public void addSample(long sentMicros, long remoteMicros, long receivedMicros) {
+		long roundTrip = receivedMicros - sentMicros;
+		samples++;
+		// a negative round trip means that the local clock was stepped
+		if (roundTrip >= 0 && roundTrip < roundTripMicros) {
+			roundTripMicros = roundTrip;
+			offsetMicros = remoteMicros - (sentMicros + roundTrip / 2);
+		}
+	}
+
+	/**
+	 * Whether a valid round trip was added.
+	 * @return True if the offset is known.
+	 */
+	public boolean isValid() {
+		return roundTripMicros != Long.MAX_VALUE;
+	}
+
+	public int getSamples() {
+		return samples;
+	}
+
+	/**
+	 * The offset of the load generator's clock, i.e., how far it is ahead of the local clock.
+	 * @return The offset in µs, 0 if no valid round trip was added.
+	 */
+	public long getOffsetMicros() {
+		return offsetMicros;
+	}
+
+	/**
+	 * The shortest round trip.
+	 * @return The round trip in µs, 0 if no valid round trip was added.
+	 */
+	public long getRoundTripMicros() {
+		return isValid() ? roundTripMicros : 0;
+	}
+
+	/**
+	 * Converts a time of the load generator's clock to the local clock.
+	 * @param remoteMicros The load generator's time in µs since the epoch.
+	 * @return The local time in µs since the epoch.
+	 */
+	public long toLocalMicros(long remoteMicros) {
+		return remoteMicros - offsetMicros;
+	}
+
+	/**
+	 * Converts a time of the local clock to the load generator's clock.
+	 * @param localMillis The local time in ms since the epoch.
+	 * @return The load generator's time in ms since the epoch, rounded to the nearest ms.
+	 */
+	public long toRemoteMillis(long localMillis) {
+		return localMillis + Math.round(offsetMicros / 1000.0);
+	}
+}
@@ -17,17 +17,21 @@ package tools.descartes.dlim.httploadgenerator.runner;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 import tools.descartes.dlim.httploadgenerator.generator.ArrivalRateTuple;
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
 import tools.descartes.dlim.httploadgenerator.power.IPowerCommunicator;
 
 /**
@@ -41,48 +45,40 @@ public class Director extends Thread {
 
 	private static int seed = 5;
 
+	/** Round trips per load generator for estimating its clock offset. */
+	private static final int CLOCK_SAMPLES = 16;
+	/** Time between scheduling the start and the start, in addition to twice the longest round trip. */
+	private static final long START_DELAY_MILLIS = 100;
+	/** Deviation from the scheduled start above which a load generator is considered not aligned. */
+	private static final double MAX_START_SKEW_MILLIS = 10;
+
 	private List<LoadGeneratorCommunicator> communicators;
+	private GeneratorStatus[] generatorStatus;
+	private final GeneratorHealthMonitor healthMonitor = new GeneratorHealthMonitor();
 
 	/**
-	 * Execute the director with the given parameters.
-	 * Parameters may be null. Director asks the user for null parameters if they are required.
-	 * @param profilePath The path of the LIMBO-generated load profile.
-	 * @param outName The name of the output log file.
-	 * @param powerAddresses The addresses of the power daemon (optional).
-	 * @param generators The addresses of the load generator(s).
-	 * @param randomSeed The random seed for exponentially distributed request arrivals.
-	 * @param threadCount The number of threads that generate load.
-	 * @param urlTimeout The url connection timeout.
-	 * @param scriptPath The path of the script file that generates the specific requests.
-	 * @param warmupDurationS The duration of a potential warmup period in seconds.
-	 * 		Warmup is skipped if the duration is 0.
-	 * @param warmupRate The load intensity of the warmup period.
-	 * 		Warmup runs a constant load intensity and is skipped if the load is < 1.
-	 * @param warmupPauseS The pause after warmup before starting measurement in seconds.
-	 * @param randomizeUsers True if users should be randoized.
-	 * 		False if they should be taken from a queue in order.
-	 * @param powerCommunicatorClassName Fully qualified class name of the power communicator class.
+	 * Execute the director with the given settings.
+	 * @param settings The settings of the run.
 	 */
-	public static void executeDirector(String profilePath, String outName, String routName, String powerAddresses,
-			String generators, int randomSeed, int threadCount, int urlTimeout, String scriptPath,
-			boolean randomizeUsers, double warmupRate, int warmupDurationS,
-			int warmupPauseS, String powerCommunicatorClassName) {
+	public static void executeDirector(DirectorSettings settings) {
 			List<IPowerCommunicator> powerCommunicators = new LinkedList<>();
 
 			//Load Profile
 			File file = null;
-			if (profilePath != null) {
-				file = new File(profilePath);
+			if (settings.getProfilePath() != null) {
+				file = new File(settings.getProfilePath());
 			} else {
 				LOG.severe("No arrival rate profile specified.");
 				return;
 			}
 
-			String[] generatorIPs = generators.split(",");
+			String[] generatorIPs = settings.getGenerators().split(",");
 			String[] powerIPs = null;
+			String powerAddresses = settings.getPowerAddresses();
 			if (powerAddresses != null && !powerAddresses.isEmpty()) {
 				powerIPs = powerAddresses.split(",");
 			}
+			String powerCommunicatorClassName = settings.getPowerCommunicatorClassName();
 
 			//Power measurement
 			if (powerCommunicatorClassName != null && !powerCommunicatorClassName.trim().isEmpty()
@@ -102,27 +98,34 @@ public class Director extends Thread {
 
 			//Random Seed
 			boolean randomBatchTimes = true;
-			if (randomSeed <= 0) {
+			if (settings.getRandomSeed() <= 0) {
 				LOG.info("No Random Seed for Batch Generation specified. "
 						+ "This parameter is needed for request time stamp generation.");
 				randomBatchTimes = false;
 				LOG.info("Using equi-distant non-random inter batch times.");
 			}
 
-			LOG.info("Load Generator Thread Count set to " + threadCount);
-			LOG.info("URL connection timeout set to " + urlTimeout + " ms");
+			LOG.info("Load Generator Thread Count set to " + settings.getVirtualUserCount());
+			LOG.info("URL connection timeout set to " + settings.getUrlTimeout() + " ms");
 
 
 			//Script Path
-			String scriptPathRead = scriptPath.trim();
-			LOG.info("Using Lua Script: " + scriptPathRead);
+			String requestGeneratorClassName = settings.getRequestGeneratorClassName();
+			if (requestGeneratorClassName != null && !requestGeneratorClassName.trim().isEmpty()) {
+				LOG.info("Using request generator class: " + requestGeneratorClassName.trim());
+			} else {
+				LOG.info("Using Lua Script: " + settings.getScriptPath().trim());
+				if (settings.isLuaJC()) {
+					LOG.info("Lua Script will be compiled to JVM bytecode (LuaJC).");
+				}
+				LOG.info("Lua libraries: " + settings.getLuaLibraries());
+			}
 
+			String outName = settings.getOutName();
+			String routName = settings.getRoutName();
 			if (file != null && outName != null && !outName.isEmpty() && routName != null && !routName.isEmpty()) {
 				Director director = new Director(generatorIPs);
-				director.process(file, outName, routName, randomBatchTimes,
-						threadCount, urlTimeout, scriptPathRead,
-						warmupDurationS, warmupRate, warmupPauseS, randomizeUsers,
-						powerCommunicators);
+				director.process(file, randomBatchTimes, settings, powerCommunicators);
 			}
 			powerCommunicators.forEach(pc -> pc.stopCommunicator());
 	}
@@ -148,31 +151,33 @@ public class Director extends Thread {
 				communicators.add(new LoadGeneratorCommunicator(ip, port));
 			}
 		}
+		generatorStatus = communicators.stream()
+				.map(c -> GeneratorStatus.initial(c.getAddress(), c.getLastMessageMillis()))
+				.toArray(GeneratorStatus[]::new);
 	}
 
 	/**
 	 * Actually run the director. Sends the messages to the load generator and collects data.
 	 * @param file The arrival rate file.
-	 * @param outName The name of the output log.
-	 * @param scanner The scanner for reading user start signal from console.
 	 * @param randomBatchTimes True if batches are scheduled using a randomized distribution.
-	 * @param userCount The number of virtual users that generate load.
-	 * @param timeout The connection timeout for the HTTP url connections.
-	 * @param scriptPath The path of the script file that generates the specific requests.
-	 * @param warmupDurationS The duration of a potential warmup period in seconds.
-	 * 		Warmup is skipped if the duration is 0.
-	 * @param warmupRate The load intensity of the warmup period.
-	 * 		Warmup runs a constant load intensity and is skipped if the load is < 1.
-	 * @param warmupPauseS The pause after warmup before starting measurement in seconds.
-	 * @param randomizeUsers True if users should be randoized.
-	 * 		False if they should be taken from a queue in order.
+	 * @param settings The settings of the run.
 	 * @param powerCommunicators Communicators for communicating with power daemon (optional).
 	 */
-	public void process(File file, String outName, String routName, boolean randomBatchTimes,
-			int userCount, int timeout, String scriptPath,
-			int warmupDurationS, double warmupRate, int warmupPauseS,
-			boolean randomizeUsers,
+	public void process(File file, boolean randomBatchTimes, DirectorSettings settings,
 			List<IPowerCommunicator> powerCommunicators) {
+		int userCount = settings.getVirtualUserCount();
+		int timeout = settings.getUrlTimeout();
+		String bindAddresses = settings.getBindAddresses();
+		int clientShards = settings.getClientShards();
+		HttpClientSettings httpClientSettings = settings.getHttpClientSettings();
+		int prewarmConnections = settings.getPrewarmConnections();
+		int prewarmCalls = settings.getPrewarmCalls();
+		int reportPeriodMillis = settings.getReportPeriodMillis();
+		String requestGeneratorClassName = settings.getRequestGeneratorClassName();
+		String scriptPath = settings.getScriptPath().trim();
+		double warmupRate = settings.getWarmupRate();
+		int warmupDurationS = settings.getWarmupDurationS();
+		int warmupPauseS = settings.getWarmupPauseS();
 
 		try {
 			List<ArrivalRateTuple> arrRates = Main.readFileToList(file, 0);
@@ -188,19 +193,91 @@ public class Director extends Thread {
 				LOG.info("URL connection timeout sent to Load Generator(s): " + timeout);
 			}
 
-			communicators.parallelStream().forEach(c-> c.sendLUAScript(scriptPath));
-			LOG.info("Contents of script sent to Load Generator: " + scriptPath);
+			communicators.parallelStream().forEach(c-> c.sendLuaJC(settings.isLuaJC()));
+			communicators.parallelStream().forEach(c-> c.sendLuaLibraries(settings.getLuaLibraries()));
+			communicators.parallelStream().forEach(c-> c.sendBindAddresses(bindAddresses));
+			if (bindAddresses != null && !bindAddresses.trim().isEmpty()) {
+				LOG.info("Bind addresses sent to Load Generator(s): " + bindAddresses.trim());
+			}
+			communicators.parallelStream().forEach(c-> c.sendClientShards(clientShards));
+			if (clientShards > 0) {
+				LOG.info("HTTP client shards sent to Load Generator(s): " + clientShards);
+			}
+			communicators.parallelStream().forEach(c-> c.sendHttpClientSettings(httpClientSettings));
+			LOG.info("HTTP client settings sent to Load Generator(s) (0 = auto): " + httpClientSettings.format());
+			communicators.parallelStream().forEach(c-> c.sendPrewarm(prewarmConnections, prewarmCalls));
+			if (prewarmConnections > 0 || prewarmCalls > 0) {
+				LOG.info("Pre-warm sent to Load Generator(s): " + prewarmConnections + " connections per destination, "
+						+ prewarmCalls + " calls per user");
+			}
+			communicators.parallelStream().forEach(c-> c.sendKeepAlive(settings.isKeepAlive()));
+			if (settings.isKeepAlive()) {
+				LOG.info("Keep-alive sent to Load Generator(s): requests reuse their connections");
+			}
+			IntStream.range(0, communicators.size()).parallel()
+					.forEach(i -> communicators.get(i).sendGeneratorIndex(i, communicators.size()));
+			communicators.parallelStream().forEach(c-> c.sendReportPeriod(reportPeriodMillis));
+			if (reportPeriodMillis > 0) {
+				LOG.info("Report period sent to Load Generator(s): " + reportPeriodMillis + " ms");
+			}
+
+			communicators.parallelStream().forEach(c-> c.sendRequestGeneratorClass(requestGeneratorClassName));
+			if (requestGeneratorClassName == null || requestGeneratorClassName.trim().isEmpty()) {
+				communicators.parallelStream().forEach(c-> c.sendLUAScript(scriptPath));
+				LOG.info("Contents of script sent to Load Generator: " + scriptPath);
+			}
+
+			// load generators create their users and compile the script, a broken script stops the run here
+			int failedGenerators = communicators.parallelStream().mapToInt(c -> c.prepareBenchmarking(randomBatchTimes,
+					seed, warmupDurationS, warmupRate, warmupPauseS, settings.isRandomizeUsers()) ? 0 : 1).sum();
+			if (failedGenerators > 0) {
+				LOG.severe("Run aborted: " + failedGenerators + " load generator(s) could not prepare the run.");
+				return;
+			}
 
 			String parentPath = file.getParent();
 			if (parentPath == null || parentPath.isEmpty()) {
 				parentPath = ".";
 			}
-			PrintWriter writer = new PrintWriter(parentPath + "/" + outName);
-			PrintWriter r_writer = new PrintWriter(parentPath + "/" + routName);
-			writer.print("Target Time,Load Intensity,Successful Transactions,"
+			String archiveName = settings.getArchiveName();
+			String breakdownName = settings.getBreakdownName();
+			String periodName = settings.getPeriodName();
+			File archiveFile = archiveName == null || archiveName.isBlank() ? null : new File(parentPath, archiveName);
+			File breakdownFile = breakdownName == null || breakdownName.isBlank()
+					? null : new File(parentPath, breakdownName);
+			File periodFile = reportPeriodMillis <= 0 || periodName == null || periodName.isBlank()
+					? null : new File(parentPath, periodName);
+			ResultWriter resultWriter = new ResultWriter(new ResultWriter.Options(
+					new File(parentPath, settings.getOutName()), new File(parentPath, settings.getRoutName()))
+							.archive(archiveFile).breakdown(breakdownFile).periods(periodFile)
+							.compress(settings.isCompressResults()));
+			PeriodMerger periodMerger = null;
+			if (periodFile != null) {
+				periodMerger = new PeriodMerger(communicators.size(), reportPeriodMillis, resultWriter::printPeriodText);
+				for (int i = 0; i < communicators.size(); i++) {
+					communicators.get(i).setPeriodMerger(periodMerger, i);
+				}
+			}
+			StringBuilder header = new StringBuilder("Target Time,Load Intensity,Successful Transactions,"
 			 + "Failed Transactions,Timed Out Transactions,Dropped Transactions,Avg Response Time,Final Batch Dispatch Time");
-			r_writer.println("Request Target Time,Response Target Time,Request Num,URI,Method,Response Time,Status");
-			powerCommunicators.stream().forEachOrdered(pc -> writer.print(",Watts(" + pc.getCommunicatorName() + ")"));
+			powerCommunicators.stream().forEachOrdered(pc -> header.append(",Watts(" + pc.getCommunicatorName() + ")"));
+			for (MetricGroup group : MetricGroup.values()) {
+				for (String column : group.getColumnNames()) {
+					header.append("," + column);
+				}
+			}
+			resultWriter.printResultText(header.toString());
+			resultWriter.printRequestText(ResultWriter.REQUEST_HEADER + System.lineSeparator());
+
+			MetricsServer metricsServer = null;
+			String metricsAddress = settings.getMetricsAddress();
+			if (metricsAddress != null && !metricsAddress.isBlank()) {
+				try {
+					metricsServer = new MetricsServer(metricsAddress);
+				} catch (IOException e) {
+					LOG.warning("Could not start the metrics endpoint at " + metricsAddress + ": " + e.getMessage());
+				}
+			}
 
 			LOG.info("Starting Load Generation");
 
@@ -213,16 +290,13 @@ public class Director extends Thread {
 					executor.execute(pc);
 				}
 			}
-			communicators.parallelStream()
-					.mapToLong(c -> c.startBenchmarking(randomBatchTimes, seed,
-							warmupDurationS, warmupRate, warmupPauseS, randomizeUsers))
-					.min().getAsLong();
-			long timeZero = System.currentTimeMillis();
+			long startMillis = synchronizeStart();
+			long timeZero = startMillis;
 			String timeZeroString = sdf.format(new Date(timeZero));
 			System.out.println("Beginning Run @" + timeZero + "(" + timeZeroString + ")");
 			//print time zero if no warmup was set
 			if (warmupRate < 1 || warmupDurationS <= 0) {
-				writer.println("," + timeZeroString);
+				resultWriter.printResultText("," + timeZeroString + System.lineSeparator());
 			}
 
 			//get Data from LoadGenerator
@@ -230,18 +304,34 @@ public class Director extends Thread {
 			while (!(result = collectResultRound()).isMeasurementConcluded()) {
 				//Check if a result for time 0 is sent. This result is only sent if warmup occurred.
 				if (result.getTargetTime() == 0.0) {
-					timeZero = System.currentTimeMillis();
+					// load generators start measuring after warmup and pause, scheduled from the common start
+					timeZero = startMillis + (warmupDurationS + warmupPauseS) * 1000L;
 					String dateString = sdf.format(new Date(timeZero));
 					//print time zero after conclusion of warmup
 					System.out.println("Starting Measurement @" + timeZero + "(" + dateString + ")");
-					writer.println("," + dateString);
+					resultWriter.printResultText("," + dateString + System.lineSeparator());
+				}
+				logState(result, powerCommunicators, resultWriter);
+				if (metricsServer != null) {
+					metricsServer.publish(result, Arrays.asList(generatorStatus), resultWriter.getBacklog());
 				}
-				logState(result, powerCommunicators, writer, r_writer);
 			}
 			System.out.println("Workload finished.");
-			writer.close();
-			r_writer.close();
-			System.out.println("Log finished.");
+			if (periodMerger != null) {
+				periodMerger.close();
+			}
+			if (resultWriter.getBacklog() > 0) {
+				System.out.println("Writing " + resultWriter.getBacklog() + " pending intervals.");
+			}
+			try {
+				resultWriter.close();
+				System.out.println("Log finished.");
+			} catch (IOException e) {
+				LOG.severe("Could not write the result files: " + e.getMessage());
+			}
+			if (metricsServer != null) {
+				metricsServer.close();
+			}
 			if (powerCommunicators != null && !powerCommunicators.isEmpty()) {
 				powerCommunicators.forEach(pc -> pc.stopCommunicator());
 				executor.shutdown();
@@ -255,6 +345,39 @@ public class Director extends Thread {
 		}
 	}
 
+	/**
+	 * Estimates the clock offset of each load generator and schedules a common start,
+	 * so that all load generators start their intervals at the same time.
+	 * @return The scheduled start in ms since the epoch.
+	 */
+	private long synchronizeStart() {
+		communicators.parallelStream().forEach(c -> c.synchronizeClock(CLOCK_SAMPLES));
+		long maxRoundTripMillis = communicators.stream()
+				.mapToLong(c -> c.getClockOffset().getRoundTripMicros()).max().orElse(0) / 1000;
+		// the scheduled start must reach all load generators before it passes
+		long timeZero = System.currentTimeMillis() + START_DELAY_MILLIS + 2 * maxRoundTripMillis;
+		communicators.forEach(c -> c.scheduleStart(timeZero));
+		communicators.parallelStream().forEach(c -> c.startBenchmarking(timeZero));
+		for (int i = 0; i < communicators.size(); i++) {
+			LoadGeneratorCommunicator communicator = communicators.get(i);
+			ClockOffset clock = communicator.getClockOffset();
+			double offset = clock.getOffsetMicros() / 1000.0;
+			double skew = communicator.getStartSkewMicros() / 1000.0;
+			generatorStatus[i] = generatorStatus[i].withClock(offset / 1000, skew / 1000);
+			LOG.info(String.format(Locale.ROOT, "Load generator at %s: clock offset %+.3f ms (round trip %.3f ms),"
+					+ " started %+.3f ms from schedule.", communicator.getAddress(), offset,
+					clock.getRoundTripMicros() / 1000.0, skew));
+			if (!clock.isValid()) {
+				LOG.warning("Could not estimate the clock offset of the load generator at "
+						+ communicator.getAddress() + ", its start may not be aligned with the other load generators.");
+			} else if (Math.abs(skew) > MAX_START_SKEW_MILLIS) {
+				LOG.warning("Load generator at " + communicator.getAddress() + " started " + skew
+						+ " ms from schedule, its intervals are not aligned with the other load generators.");
+			}
+		}
+		return timeZero;
+	}
+
 	private static void initializePowerCommunicators(List<IPowerCommunicator> pcList,
 			String pcClassName, String[] addresses) {
 		for (String address : addresses) {
@@ -308,8 +431,13 @@ public class Director extends Thread {
 		ArrayList<Double> responseTimes = new ArrayList<Double>();
 		ArrayList<Double> finalBatchTimes = new ArrayList<Double>();
 		ArrayList<PerRequestIntervalResult> requestResults = new ArrayList<>();
-		for (LoadGeneratorCommunicator communicator : communicators) {
+		EnumMap<MetricGroup, long[]> metrics = MetricGroup.newValues();
+		ErrorBreakdown errorBreakdown = new ErrorBreakdown();
+		EndpointTraffic endpointTraffic = new EndpointTraffic();
+		for (int c = 0; c < communicators.size(); c++) {
+			LoadGeneratorCommunicator communicator = communicators.get(c);
 			if (communicator.isFinished()) {
+				generatorStatus[c] = generatorStatus[c].notReported(true);
 				finishedCommunicators++;
 				if (finishedCommunicators == communicators.size()) {
 					return IntervalResult.createIntervalResultWithMeasurementConcludedFlag();
@@ -317,12 +445,13 @@ public class Director extends Thread {
 			} else {
 				String receivedResults = communicator.getLatestResultMessageBlocking();
 				if (receivedResults == null) {
+					generatorStatus[c] = generatorStatus[c].notReported(true);
 					finishedCommunicators++;
 					if (finishedCommunicators == communicators.size()) {
 						return IntervalResult.createIntervalResultWithMeasurementConcludedFlag();
 					}
 				} else {
-					String[] tokens = receivedResults.split(",");
+					String[] tokens = receivedResults.split(",", 9);
 					double receivedTargetTime = Double.parseDouble(tokens[0].trim());
 					if (targetTime == Double.NEGATIVE_INFINITY) {
 						targetTime = receivedTargetTime;
@@ -338,8 +467,27 @@ public class Director extends Thread {
 					timeoutTransactions += Integer.parseInt(tokens[5].trim());
 					droppedTransactions += Integer.parseInt(tokens[6].trim());
 					finalBatchTimes.add(Double.parseDouble(tokens[7].trim()));
-					if(tokens.length == 9) {
-						String[] elements = tokens[8].trim().split("\\$");
+					generatorStatus[c] = new GeneratorStatus(communicator.getAddress(), receivedTargetTime,
+							Double.parseDouble(tokens[7].trim()), Integer.parseInt(tokens[2].trim()),
+							Integer.parseInt(tokens[4].trim()), Integer.parseInt(tokens[5].trim()),
+							Integer.parseInt(tokens[6].trim()), communicator.getLastMessageMillis());
+					String requestTokens = tokens.length == 9 ? tokens[8].trim() : "";
+					// additional metric groups precede the request results
+					EnumMap<MetricGroup, long[]> generatorMetrics = MetricGroup.newValues();
+					while (requestTokens.startsWith(IRunnerConstants.METRIC_GROUP_PREFIX)) {
+						int end = requestTokens.indexOf(',');
+						String group = end == -1 ? requestTokens : requestTokens.substring(0, end);
+						requestTokens = end == -1 ? "" : requestTokens.substring(end + 1).trim();
+						group = group.substring(IRunnerConstants.METRIC_GROUP_PREFIX.length());
+						if (!errorBreakdown.add(group) && !endpointTraffic.add(group)) {
+							MetricGroup.addTo(group, generatorMetrics);
+						}
+					}
+					MetricGroup.addAll(generatorMetrics, metrics);
+					healthMonitor.check(communicator.getAddress(), receivedTargetTime,
+							generatorMetrics.get(MetricGroup.HEALTH));
+					if (!requestTokens.isEmpty()) {
+						String[] elements = requestTokens.split("\\$");
 						for (String element: elements) {
 							String[] props = element.trim().split(";");
 							int requestNum = Integer.parseInt(props[0].trim());
@@ -354,11 +502,12 @@ public class Director extends Thread {
 		double avgResponseTime = responseTimes.stream().mapToDouble(d -> d.doubleValue()).average().getAsDouble();
 		double finalBatchTime = finalBatchTimes.stream().mapToDouble(d -> d.doubleValue()).max().getAsDouble();
 		return new IntervalResult(targetTime, loadIntensity, successfulTransactions, failedTransactions,
-				timeoutTransactions, droppedTransactions, avgResponseTime, finalBatchTime, requestResults);
+				timeoutTransactions, droppedTransactions, avgResponseTime, finalBatchTime, metrics,
+				errorBreakdown, endpointTraffic, requestResults);
 	}
 
 	private void logState(IntervalResult result, List<IPowerCommunicator> powerCommunicators,
-			PrintWriter writer, PrintWriter r_writer) {
+			ResultWriter resultWriter) {
 		//get Power
 		List<Double> powers = null;
 		if (powerCommunicators != null && !powerCommunicators.isEmpty()) {
@@ -372,24 +521,11 @@ public class Director extends Thread {
 				+ "; #Success = " + result.getSuccessfulTransactions()
 				+ "; #Failed = " + result.getFailedTransactions()
 				+ "; #Timeout = " + result.getTimeoutTransactions()
-				+ "; #Dropped = " + result.getDroppedTransactions());
+				+ "; #Dropped = " + result.getDroppedTransactions()
+				+ "; Writer Backlog = " + resultWriter.getBacklog());
 		//warmup has target times <= 0, ignore it
 		if (result.getTargetTime() > 0) {
-			writer.print(result.getTargetTime() + "," + result.getLoadIntensity() + ","
-					+ result.getSuccessfulTransactions() + "," + result.getFailedTransactions() + ","
-					+ result.getTimeoutTransactions() + "," + result.getDroppedTransactions() + ","
-					+ result.getAvgResponseTime() + "," + result.getFinalBatchTime());
-			if (powers != null && !powers.isEmpty()) {
-				powers.stream().forEachOrdered(p -> writer.print("," + p));
-			}
-			writer.println("");
-
-			for (PerRequestIntervalResult perRequestResult: result.getRequestIntervalResults()) {
-					r_writer.print(perRequestResult.getTransactionStartTime() + "," + perRequestResult.getResponseTargetTime() + "," +
-						perRequestResult.getRequestNum() + "," + perRequestResult.getRequestURI() + "," + perRequestResult.getMethod()
-						+ "," + perRequestResult.getResponseTime() + "," + perRequestResult.getTransactionState());
-					r_writer.println("");
-			}
+			resultWriter.write(result, powers);
 		}
 	}
 
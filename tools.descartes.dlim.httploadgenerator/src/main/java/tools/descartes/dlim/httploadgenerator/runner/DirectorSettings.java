@@ -0,0 +1,585 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaGlobalsBuilder;
+
+/**
+ * Settings of a run of the {@link Director}, usually taken from the command line.
+ * Settings that are not set keep the defaults of the command line.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class DirectorSettings {
+
+	private String profilePath = IRunnerConstants.DEFAULT_ARRIVAL_RATE_PATH;
+	private String outName = IRunnerConstants.DEFAULT_LOG;
+	private String routName = IRunnerConstants.DEFAULT_REQUEST_LOG;
+	private String breakdownName = IRunnerConstants.DEFAULT_BREAKDOWN_LOG;
+	private String periodName = IRunnerConstants.DEFAULT_PERIOD_LOG;
+	private String archiveName = "";
+	private boolean compressResults = false;
+	private String metricsAddress = "";
+	private int reportPeriodMillis = 0;
+	private String powerAddresses = null;
+	private String powerCommunicatorClassName = null;
+	private String generators = IRunnerConstants.LOCALHOST_IP;
+	private int randomSeed = 5;
+	private int virtualUserCount = IRunnerConstants.DEFAULT_VIRTUAL_USER_NUM;
+	private int urlTimeout = 0;
+	private String scriptPath = IRunnerConstants.DEFAULT_LUA_PATH;
+	private boolean luaJC = false;
+	private String luaLibraries = LuaGlobalsBuilder.DEFAULT_LIBRARIES;
+	private String requestGeneratorClassName = "";
+	private boolean randomizeUsers = false;
+	private double warmupRate = 0;
+	private int warmupDurationS = IRunnerConstants.DEFAULT_WARMUP_DURATION;
+	private int warmupPauseS = IRunnerConstants.DEFAULT_WARMUP_PAUSE;
+	private int prewarmConnections = 0;
+	private int prewarmCalls = 0;
+	private boolean keepAlive = false;
+	private String bindAddresses = "";
+	private int clientShards = 0;
+	private HttpClientSettings httpClientSettings = HttpClientSettings.auto();
+
+	/**
+	 * Path of the LIMBO-generated load profile.
+	 * @return The setting.
+	 */
+	public String getProfilePath() {
+		return profilePath;
+	}
+
+	/**
+	 * Sets the {@link #getProfilePath() profilePath}.
+	 * @param profilePath The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings profilePath(String profilePath) {
+		this.profilePath = profilePath;
+		return this;
+	}
+
+	/**
+	 * Name of the interval result file, relative to the directory of the load profile.
+	 * @return The setting.
+	 */
+	public String getOutName() {
+		return outName;
+	}
+
+	/**
+	 * Sets the {@link #getOutName() outName}.
+	 * @param outName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings outName(String outName) {
+		this.outName = outName;
+		return this;
+	}
+
+	/**
+	 * Name of the per-request result file, relative to the directory of the load profile.
+	 * @return The setting.
+	 */
+	public String getRoutName() {
+		return routName;
+	}
+
+	/**
+	 * Sets the {@link #getRoutName() routName}.
+	 * @param routName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings routName(String routName) {
+		this.routName = routName;
+		return this;
+	}
+
+	/**
+	 * Name of the status code, exception and endpoint traffic breakdown file, null or empty for no breakdown.
+	 * @return The setting.
+	 */
+	public String getBreakdownName() {
+		return breakdownName;
+	}
+
+	/**
+	 * Sets the {@link #getBreakdownName() breakdownName}.
+	 * @param breakdownName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings breakdownName(String breakdownName) {
+		this.breakdownName = breakdownName;
+		return this;
+	}
+
+	/**
+	 * Name of the report period file, only written with a report period.
+	 * @return The setting.
+	 */
+	public String getPeriodName() {
+		return periodName;
+	}
+
+	/**
+	 * Sets the {@link #getPeriodName() periodName}.
+	 * @param periodName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings periodName(String periodName) {
+		this.periodName = periodName;
+		return this;
+	}
+
+	/**
+	 * Name of the binary request archive, null or empty for no archive.
+	 * @return The setting.
+	 */
+	public String getArchiveName() {
+		return archiveName;
+	}
+
+	/**
+	 * Sets the {@link #getArchiveName() archiveName}.
+	 * @param archiveName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings archiveName(String archiveName) {
+		this.archiveName = archiveName;
+		return this;
+	}
+
+	/**
+	 * True to compress the result files with gzip.
+	 * @return The setting.
+	 */
+	public boolean isCompressResults() {
+		return compressResults;
+	}
+
+	/**
+	 * Sets the {@link #isCompressResults() compressResults}.
+	 * @param compressResults The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings compressResults(boolean compressResults) {
+		this.compressResults = compressResults;
+		return this;
+	}
+
+	/**
+	 * [HOST:]PORT of the live metrics endpoint, null or empty for no endpoint.
+	 * @return The setting.
+	 */
+	public String getMetricsAddress() {
+		return metricsAddress;
+	}
+
+	/**
+	 * Sets the {@link #getMetricsAddress() metricsAddress}.
+	 * @param metricsAddress The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings metricsAddress(String metricsAddress) {
+		this.metricsAddress = metricsAddress;
+		return this;
+	}
+
+	/**
+	 * Period in ms in which load generators report results in addition to the intervals of the load profile, 0
+	 * 		for no report periods.
+	 * @return The setting.
+	 */
+	public int getReportPeriodMillis() {
+		return reportPeriodMillis;
+	}
+
+	/**
+	 * Sets the {@link #getReportPeriodMillis() reportPeriodMillis}.
+	 * @param reportPeriodMillis The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings reportPeriodMillis(int reportPeriodMillis) {
+		this.reportPeriodMillis = reportPeriodMillis;
+		return this;
+	}
+
+	/**
+	 * Comma separated addresses of the power daemons, null or empty for no power measurements.
+	 * @return The setting.
+	 */
+	public String getPowerAddresses() {
+		return powerAddresses;
+	}
+
+	/**
+	 * Sets the {@link #getPowerAddresses() powerAddresses}.
+	 * @param powerAddresses The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings powerAddresses(String powerAddresses) {
+		this.powerAddresses = powerAddresses;
+		return this;
+	}
+
+	/**
+	 * Fully qualified class name of the power communicator.
+	 * @return The setting.
+	 */
+	public String getPowerCommunicatorClassName() {
+		return powerCommunicatorClassName;
+	}
+
+	/**
+	 * Sets the {@link #getPowerCommunicatorClassName() powerCommunicatorClassName}.
+	 * @param powerCommunicatorClassName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings powerCommunicatorClassName(String powerCommunicatorClassName) {
+		this.powerCommunicatorClassName = powerCommunicatorClassName;
+		return this;
+	}
+
+	/**
+	 * Comma separated addresses of the load generators.
+	 * @return The setting.
+	 */
+	public String getGenerators() {
+		return generators;
+	}
+
+	/**
+	 * Sets the {@link #getGenerators() generators}.
+	 * @param generators The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings generators(String generators) {
+		this.generators = generators;
+		return this;
+	}
+
+	/**
+	 * Random seed for exponentially distributed request arrivals, 0 or less for equi-distant arrivals.
+	 * @return The setting.
+	 */
+	public int getRandomSeed() {
+		return randomSeed;
+	}
+
+	/**
+	 * Sets the {@link #getRandomSeed() randomSeed}.
+	 * @param randomSeed The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings randomSeed(int randomSeed) {
+		this.randomSeed = randomSeed;
+		return this;
+	}
+
+	/**
+	 * Number of virtual users of each load generator.
+	 * @return The setting.
+	 */
+	public int getVirtualUserCount() {
+		return virtualUserCount;
+	}
+
+	/**
+	 * Sets the {@link #getVirtualUserCount() virtualUserCount}.
+	 * @param virtualUserCount The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings virtualUserCount(int virtualUserCount) {
+		this.virtualUserCount = virtualUserCount;
+		return this;
+	}
+
+	/**
+	 * Connection timeout in ms, 0 for no timeout.
+	 * @return The setting.
+	 */
+	public int getUrlTimeout() {
+		return urlTimeout;
+	}
+
+	/**
+	 * Sets the {@link #getUrlTimeout() urlTimeout}.
+	 * @param urlTimeout The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings urlTimeout(int urlTimeout) {
+		this.urlTimeout = urlTimeout;
+		return this;
+	}
+
+	/**
+	 * Path of the Lua script that generates the requests.
+	 * @return The setting.
+	 */
+	public String getScriptPath() {
+		return scriptPath;
+	}
+
+	/**
+	 * Sets the {@link #getScriptPath() scriptPath}.
+	 * @param scriptPath The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings scriptPath(String scriptPath) {
+		this.scriptPath = scriptPath;
+		return this;
+	}
+
+	/**
+	 * True if the load generators are to compile the Lua script to JVM bytecode.
+	 * @return The setting.
+	 */
+	public boolean isLuaJC() {
+		return luaJC;
+	}
+
+	/**
+	 * Sets the {@link #isLuaJC() luaJC}.
+	 * @param luaJC The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings luaJC(boolean luaJC) {
+		this.luaJC = luaJC;
+		return this;
+	}
+
+	/**
+	 * Comma separated whitelist of the Lua standard libraries available to the script.
+	 * @return The setting.
+	 */
+	public String getLuaLibraries() {
+		return luaLibraries;
+	}
+
+	/**
+	 * Sets the {@link #getLuaLibraries() luaLibraries}.
+	 * @param luaLibraries The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings luaLibraries(String luaLibraries) {
+		this.luaLibraries = luaLibraries;
+		return this;
+	}
+
+	/**
+	 * Fully qualified class name of a custom request generator that replaces the Lua script, null or empty to
+	 * 		use the script.
+	 * @return The setting.
+	 */
+	public String getRequestGeneratorClassName() {
+		return requestGeneratorClassName;
+	}
+
+	/**
+	 * Sets the {@link #getRequestGeneratorClassName() requestGeneratorClassName}.
+	 * @param requestGeneratorClassName The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings requestGeneratorClassName(String requestGeneratorClassName) {
+		this.requestGeneratorClassName = requestGeneratorClassName;
+		return this;
+	}
+
+	/**
+	 * True if each request picks a random user, false if users are taken from a queue in order.
+	 * @return The setting.
+	 */
+	public boolean isRandomizeUsers() {
+		return randomizeUsers;
+	}
+
+	/**
+	 * Sets the {@link #isRandomizeUsers() randomizeUsers}.
+	 * @param randomizeUsers The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings randomizeUsers(boolean randomizeUsers) {
+		this.randomizeUsers = randomizeUsers;
+		return this;
+	}
+
+	/**
+	 * Load intensity of the warmup period. Warmup is skipped if the load is < 1.
+	 * @return The setting.
+	 */
+	public double getWarmupRate() {
+		return warmupRate;
+	}
+
+	/**
+	 * Sets the {@link #getWarmupRate() warmupRate}.
+	 * @param warmupRate The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings warmupRate(double warmupRate) {
+		this.warmupRate = warmupRate;
+		return this;
+	}
+
+	/**
+	 * Duration of the warmup period in seconds. Warmup is skipped if the duration is 0.
+	 * @return The setting.
+	 */
+	public int getWarmupDurationS() {
+		return warmupDurationS;
+	}
+
+	/**
+	 * Sets the {@link #getWarmupDurationS() warmupDurationS}.
+	 * @param warmupDurationS The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings warmupDurationS(int warmupDurationS) {
+		this.warmupDurationS = warmupDurationS;
+		return this;
+	}
+
+	/**
+	 * Pause after warmup before measurement starts in seconds.
+	 * @return The setting.
+	 */
+	public int getWarmupPauseS() {
+		return warmupPauseS;
+	}
+
+	/**
+	 * Sets the {@link #getWarmupPauseS() warmupPauseS}.
+	 * @param warmupPauseS The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings warmupPauseS(int warmupPauseS) {
+		this.warmupPauseS = warmupPauseS;
+		return this;
+	}
+
+	/**
+	 * Number of connections per destination that load generators open before measurement starts.
+	 * @return The setting.
+	 */
+	public int getPrewarmConnections() {
+		return prewarmConnections;
+	}
+
+	/**
+	 * Sets the {@link #getPrewarmConnections() prewarmConnections}.
+	 * @param prewarmConnections The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings prewarmConnections(int prewarmConnections) {
+		this.prewarmConnections = prewarmConnections;
+		return this;
+	}
+
+	/**
+	 * Number of calls per user that load generators send before measurement starts.
+	 * @return The setting.
+	 */
+	public int getPrewarmCalls() {
+		return prewarmCalls;
+	}
+
+	/**
+	 * Sets the {@link #getPrewarmCalls() prewarmCalls}.
+	 * @param prewarmCalls The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings prewarmCalls(int prewarmCalls) {
+		this.prewarmCalls = prewarmCalls;
+		return this;
+	}
+
+	/**
+	 * True if the requests of the load generators keep their connections open instead of sending
+	 * "Connection: close".
+	 * @return The setting.
+	 */
+	public boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * Sets the {@link #isKeepAlive() keepAlive}.
+	 * @param keepAlive The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings keepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+		return this;
+	}
+
+	/**
+	 * Comma separated local addresses that load generators bind their connections to, null or empty to let the
+	 * 		operating system choose.
+	 * @return The setting.
+	 */
+	public String getBindAddresses() {
+		return bindAddresses;
+	}
+
+	/**
+	 * Sets the {@link #getBindAddresses() bindAddresses}.
+	 * @param bindAddresses The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings bindAddresses(String bindAddresses) {
+		this.bindAddresses = bindAddresses;
+		return this;
+	}
+
+	/**
+	 * Number of independent HTTP clients per load generator, 0 to choose by core count.
+	 * @return The setting.
+	 */
+	public int getClientShards() {
+		return clientShards;
+	}
+
+	/**
+	 * Sets the {@link #getClientShards() clientShards}.
+	 * @param clientShards The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings clientShards(int clientShards) {
+		this.clientShards = clientShards;
+		return this;
+	}
+
+	/**
+	 * Selector, thread pool and connection limits of each load generator's HTTP clients.
+	 * @return The setting.
+	 */
+	public HttpClientSettings getHttpClientSettings() {
+		return httpClientSettings;
+	}
+
+	/**
+	 * Sets the {@link #getHttpClientSettings() httpClientSettings}.
+	 * @param httpClientSettings The setting.
+	 * @return These settings.
+	 */
+	public DirectorSettings httpClientSettings(HttpClientSettings httpClientSettings) {
+		this.httpClientSettings = httpClientSettings;
+		return this;
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Bytes sent and received per endpoint in an interval, merged over all load generators.
+ * An endpoint is the request method and the URL without query. Load generators send the bytes as three groups
+ * in the format of {@link MetricGroup}, with URL-encoded endpoints as keys:
+ * "#sent=GET+http%3A%2F%2Flocalhost%2F:1200", "#received=..." and "#decoded=...".
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class EndpointTraffic {
+
+	private static final Logger LOG = Logger.getLogger(EndpointTraffic.class.getName());
+
+	/** Index of the bytes sent in requests as written to the connection, including headers. */
+	public static final int SENT = 0;
+	/** Index of the bytes received in responses as read from the connection, including headers. */
+	public static final int RECEIVED = 1;
+	/** Index of the bytes of the decoded response bodies. */
+	public static final int DECODED = 2;
+	/** Maximum number of distinct endpoints. Further endpoints are counted as {@link ErrorBreakdown#OTHER}. */
+	public static final int MAX_ENDPOINTS = 32;
+
+	private static final String[] GROUPS = {"sent", "received", "decoded"};
+	private static final String[] CATEGORIES = {"Sent Bytes", "Received Bytes", "Decoded Bytes"};
+
+	private final TreeMap<String, long[]> endpoints = new TreeMap<>();
+
+	/**
+	 * The endpoint of a request.
+	 * @param method The request method.
+	 * @param url The request URL.
+	 * @return The method and the URL without query.
+	 */
+	public static String endpoint(String method, String url) {
+		int query = url.indexOf('?');
+		return method + " " + (query == -1 ? url : url.substring(0, query));
+	}
+
+	/**
+	 * Formats the bytes per endpoint for sending them to the director.
+	 * @param bytes The sent, received and decoded bytes by endpoint.
+	 * @return The formatted groups, including the prefix. Null for groups without bytes.
+	 */
+	public static List<String> format(Map<String, long[]> bytes) {
+		List<String> groups = new ArrayList<>(GROUPS.length);
+		for (int i = 0; i < GROUPS.length; i++) {
+			StringBuilder group = new StringBuilder(IRunnerConstants.METRIC_GROUP_PREFIX).append(GROUPS[i]).append('=');
+			int length = group.length();
+			for (Map.Entry<String, long[]> endpoint : bytes.entrySet()) {
+				if (endpoint.getValue()[i] != 0) {
+					group.append(group.length() == length ? "" : ";")
+							.append(URLEncoder.encode(endpoint.getKey(), StandardCharsets.UTF_8))
+							.append(':').append(endpoint.getValue()[i]);
+				}
+			}
+			groups.add(group.length() == length ? null : group.toString());
+		}
+		return groups;
+	}
+
+	/**
+	 * Adds a received group to the traffic if it is one of the endpoint byte groups.
+	 * @param group The group without prefix: "[name]=[key]:[value];[key]:[value]".
+	 * @return True if the group was an endpoint byte group.
+	 */
+	public boolean add(String group) {
+		int index = -1;
+		for (int i = 0; i < GROUPS.length; i++) {
+			if (group.startsWith(GROUPS[i] + "=")) {
+				index = i;
+			}
+		}
+		if (index == -1) {
+			return false;
+		}
+		for (String entry : group.substring(group.indexOf('=') + 1).split(";")) {
+			int colon = entry.lastIndexOf(':');
+			if (colon == -1) {
+				continue;
+			}
+			try {
+				String name = URLDecoder.decode(entry.substring(0, colon).trim(), StandardCharsets.UTF_8);
+				long bytes = Long.parseLong(entry.substring(colon + 1).trim());
+				String key = endpoints.containsKey(name) || endpoints.size() < MAX_ENDPOINTS
+						? name : ErrorBreakdown.OTHER;
+				endpoints.computeIfAbsent(key, k -> new long[GROUPS.length])[index] += bytes;
+			} catch (IllegalArgumentException e) {
+				LOG.warning("Invalid traffic entry: " + entry);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The bytes per endpoint.
+	 * @return The sent, received and decoded bytes by endpoint, sorted by endpoint.
+	 */
+	public Map<String, long[]> getEndpoints() {
+		return Collections.unmodifiableMap(endpoints);
+	}
+
+	/**
+	 * Appends the breakdown file rows of an interval: the sent, received and decoded bytes of each endpoint
+	 * with bytes other than 0. Endpoints are quoted.
+	 * @param rows The builder to append to.
+	 * @param targetTime The interval's target time.
+	 */
+	public void appendRows(StringBuilder rows, double targetTime) {
+		for (int i = 0; i < GROUPS.length; i++) {
+			for (Map.Entry<String, long[]> endpoint : endpoints.entrySet()) {
+				if (endpoint.getValue()[i] != 0) {
+					rows.append(targetTime).append(',').append(CATEGORIES[i]).append(",\"").append(endpoint.getKey())
+							.append("\",").append(endpoint.getValue()[i]).append(System.lineSeparator());
+				}
+			}
+		}
+	}
+}
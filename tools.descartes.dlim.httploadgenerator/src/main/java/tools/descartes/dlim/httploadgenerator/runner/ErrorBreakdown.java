@@ -0,0 +1,181 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Breakdown of the responses and failures of an interval by HTTP status code and by exception class,
+ * merged over all load generators. Load generators send it as two groups in the format of
+ * {@link MetricGroup}, with status codes or exception class names as keys:
+ * "#status=200:15;404:3" and "#errors=java.net.ConnectException:2".
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class ErrorBreakdown {
+
+	private static final Logger LOG = Logger.getLogger(ErrorBreakdown.class.getName());
+
+	/** Name of the status code group. */
+	public static final String STATUS_GROUP = "status";
+	/** Name of the exception class group. */
+	public static final String ERROR_GROUP = "errors";
+	/** Length of status code arrays. Codes from 100 to 599 are counted at their index, all others at index 0. */
+	public static final int STATUS_CODES = 600;
+	/** Maximum number of distinct exception classes. Further classes are counted as {@link #OTHER}. */
+	public static final int MAX_ERROR_CLASSES = 32;
+	/** Key of exception classes beyond {@link #MAX_ERROR_CLASSES}. */
+	public static final String OTHER = "(other)";
+	/** Header of the breakdown file. */
+	public static final String HEADER = "Target Time,Category,Key,Count";
+
+	private final long[] statusCodes = new long[STATUS_CODES];
+	private final TreeMap<String, Long> errors = new TreeMap<>();
+
+	/**
+	 * The index of a status code in status code arrays.
+	 * @param status The HTTP status code.
+	 * @return The index, 0 for codes outside 100 to 599.
+	 */
+	public static int statusIndex(int status) {
+		return status >= 100 && status < STATUS_CODES ? status : 0;
+	}
+
+	/**
+	 * Formats status code counts for sending them to the director.
+	 * @param statusCodes The counts, indexed by {@link #statusIndex(int)}.
+	 * @return The formatted group, including the prefix. Null if all counts are 0.
+	 */
+	public static String formatStatusCodes(long[] statusCodes) {
+		StringBuilder group = new StringBuilder(IRunnerConstants.METRIC_GROUP_PREFIX).append(STATUS_GROUP).append('=');
+		int length = group.length();
+		for (int i = 0; i < statusCodes.length; i++) {
+			if (statusCodes[i] != 0) {
+				group.append(group.length() == length ? "" : ";").append(i).append(':').append(statusCodes[i]);
+			}
+		}
+		return group.length() == length ? null : group.toString();
+	}
+
+	/**
+	 * Formats exception class counts for sending them to the director.
+	 * @param errors The counts by exception class name.
+	 * @return The formatted group, including the prefix. Null if there are no counts.
+	 */
+	public static String formatErrors(Map<String, Long> errors) {
+		StringBuilder group = new StringBuilder(IRunnerConstants.METRIC_GROUP_PREFIX).append(ERROR_GROUP).append('=');
+		int length = group.length();
+		errors.forEach((name, count) -> {
+			if (count != 0) {
+				group.append(group.length() == length ? "" : ";").append(name).append(':').append(count);
+			}
+		});
+		return group.length() == length ? null : group.toString();
+	}
+
+	/**
+	 * Adds a received group to the breakdown if it is a status code or exception class group.
+	 * @param group The group without prefix: "[name]=[key]:[value];[key]:[value]".
+	 * @return True if the group was a breakdown group.
+	 */
+	public boolean add(String group) {
+		boolean status = group.startsWith(STATUS_GROUP + "=");
+		if (!status && !group.startsWith(ERROR_GROUP + "=")) {
+			return false;
+		}
+		for (String entry : group.substring(group.indexOf('=') + 1).split(";")) {
+			int colon = entry.lastIndexOf(':');
+			if (colon == -1) {
+				continue;
+			}
+			try {
+				String key = entry.substring(0, colon).trim();
+				long count = Long.parseLong(entry.substring(colon + 1).trim());
+				if (status) {
+					statusCodes[statusIndex(Integer.parseInt(key))] += count;
+				} else {
+					addError(key, count);
+				}
+			} catch (NumberFormatException e) {
+				LOG.warning("Invalid breakdown entry: " + entry);
+			}
+		}
+		return true;
+	}
+
+	private void addError(String name, long count) {
+		String key = errors.containsKey(name) || errors.size() < MAX_ERROR_CLASSES ? name : OTHER;
+		errors.merge(key, count, Long::sum);
+	}
+
+	/**
+	 * The number of responses with a status code.
+	 * @param status The status code, 0 for codes outside 100 to 599.
+	 * @return The count.
+	 */
+	public long getStatusCount(int status) {
+		return statusCodes[statusIndex(status)];
+	}
+
+	/**
+	 * The number of responses with a status code of a class.
+	 * @param statusClass The class, e.g., 4 for 4xx.
+	 * @return The count.
+	 */
+	public long getStatusClassCount(int statusClass) {
+		long count = 0;
+		for (int i = statusClass * 100; i < (statusClass + 1) * 100 && i < STATUS_CODES; i++) {
+			count += statusCodes[i];
+		}
+		return count;
+	}
+
+	/**
+	 * The number of failures by exception class.
+	 * @return The counts by class name, sorted by name.
+	 */
+	public Map<String, Long> getErrors() {
+		return Collections.unmodifiableMap(errors);
+	}
+
+	/**
+	 * Appends the breakdown file rows of an interval: status code classes, status codes and exception classes
+	 * with a count other than 0.
+	 * @param rows The builder to append to.
+	 * @param targetTime The interval's target time.
+	 */
+	public void appendRows(StringBuilder rows, double targetTime) {
+		for (int statusClass = 1; statusClass <= 5; statusClass++) {
+			appendRow(rows, targetTime, "Status Class", statusClass + "xx", getStatusClassCount(statusClass));
+		}
+		appendRow(rows, targetTime, "Status Class", OTHER, statusCodes[0]);
+		for (int i = 100; i < STATUS_CODES; i++) {
+			appendRow(rows, targetTime, "Status Code", Integer.toString(i), statusCodes[i]);
+		}
+		errors.forEach((name, count) -> appendRow(rows, targetTime, "Exception", name, count));
+	}
+
+	private static void appendRow(StringBuilder rows, double targetTime, String category, String key, long count) {
+		if (count != 0) {
+			rows.append(targetTime).append(',').append(category).append(',').append(key).append(',').append(count)
+					.append(System.lineSeparator());
+		}
+	}
+}
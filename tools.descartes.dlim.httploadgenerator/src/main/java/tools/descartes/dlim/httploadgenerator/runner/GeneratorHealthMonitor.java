@@ -0,0 +1,98 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Warns when a load generator's {@link MetricGroup#HEALTH} values cross saturation thresholds, as results
+ * measured by a saturated load generator say more about the load generator than about the system under test.
+ * Warnings are logged when a threshold is crossed and not repeated until the load generator has recovered.
+ *
+ * @author Yannik Lubas
+ *
+ */
+class GeneratorHealthMonitor {
+
+	private static final Logger LOG = Logger.getLogger(GeneratorHealthMonitor.class.getName());
+
+	/**
+	 * Saturation conditions of a load generator.
+	 */
+	enum Saturation {
+		/** Process CPU utilization of all cores in percent. */
+		CPU(0, 90, "CPU utilization %d%%"),
+		/** GC time in percent of the interval. */
+		GC(2, 10, "GC time %d%% of the interval"),
+		/** Heap usage in percent of the maximum heap size. */
+		HEAP(4, 90, "heap usage %d%%"),
+		/** Utilization of the HTTP client threads in percent. */
+		CLIENT_THREADS(5, 95, "HTTP client thread utilization %d%%"),
+		/** Delay of batch dispatches behind their schedule in ms. */
+		DISPATCH(7, 100, "batch dispatch %d ms late");
+
+		private final int index;
+		private final long threshold;
+		private final String description;
+
+		private Saturation(int index, long threshold, String description) {
+			this.index = index;
+			this.threshold = threshold;
+			this.description = description;
+		}
+	}
+
+	private final Map<String, EnumSet<Saturation>> saturated = new HashMap<>();
+	private final Map<String, Double> lastTargetTimes = new HashMap<>();
+
+	/**
+	 * Checks the health values of a load generator's interval and logs crossed thresholds.
+	 * @param address The load generator's address.
+	 * @param targetTime The interval's target time.
+	 * @param health The load generator's {@link MetricGroup#HEALTH} values.
+	 * @return The newly crossed thresholds.
+	 */
+	List<Saturation> check(String address, double targetTime, long[] health) {
+		Double lastTargetTime = lastTargetTimes.put(address, targetTime);
+		double intervalMillis = lastTargetTime == null || targetTime <= lastTargetTime
+				? 1000 : 1000 * (targetTime - lastTargetTime);
+		EnumSet<Saturation> active = saturated.computeIfAbsent(address, a -> EnumSet.noneOf(Saturation.class));
+		List<Saturation> crossed = new ArrayList<>();
+		for (Saturation saturation : Saturation.values()) {
+			long value = health[saturation.index];
+			if (saturation == Saturation.GC) {
+				value = Math.round(100 * value / intervalMillis);
+			}
+			if (value >= saturation.threshold) {
+				if (active.add(saturation)) {
+					crossed.add(saturation);
+					LOG.warning("Load generator " + address + " is saturated at target time " + targetTime + ": "
+							+ String.format(saturation.description, value) + ". Results may be limited by the"
+							+ " load generator rather than the system under test.");
+				}
+			} else if (active.remove(saturation)) {
+				LOG.info("Load generator " + address + " recovered at target time " + targetTime + ": "
+						+ String.format(saturation.description, value) + ".");
+			}
+		}
+		return crossed;
+	}
+}
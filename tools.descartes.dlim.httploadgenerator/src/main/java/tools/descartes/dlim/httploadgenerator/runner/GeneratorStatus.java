@@ -0,0 +1,168 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+/**
+ * Immutable health of a single load generator as of the latest result round of the director.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class GeneratorStatus {
+
+	private final String address;
+	private final boolean reported;
+	private final boolean finished;
+	private final double targetTime;
+	private final double dispatchLag;
+	private final int successfulTransactions;
+	private final int failedTransactions;
+	private final int timeoutTransactions;
+	private final int droppedTransactions;
+	private final long lastMessageMillis;
+	private final double clockOffset;
+	private final double startSkew;
+
+	/**
+	 * Creates the status of a load generator that reported its interval result.
+	 * @param address The load generator's address.
+	 * @param targetTime The target time of the reported interval.
+	 * @param finalBatchTime The time at which the load generator dispatched the interval's last batch.
+	 * @param successfulTransactions Successful transactions of the interval.
+	 * @param failedTransactions Failed transactions of the interval.
+	 * @param timeoutTransactions Timed out transactions of the interval.
+	 * @param droppedTransactions Dropped transactions of the interval.
+	 * @param lastMessageMillis The time at which the result was received in ms since the epoch.
+	 */
+	public GeneratorStatus(String address, double targetTime, double finalBatchTime, int successfulTransactions,
+			int failedTransactions, int timeoutTransactions, int droppedTransactions, long lastMessageMillis) {
+		this(address, true, false, targetTime, Math.max(0, finalBatchTime - targetTime), successfulTransactions,
+				failedTransactions, timeoutTransactions, droppedTransactions, lastMessageMillis, 0, 0);
+	}
+
+	private GeneratorStatus(String address, boolean reported, boolean finished, double targetTime,
+			double dispatchLag, int successfulTransactions, int failedTransactions, int timeoutTransactions,
+			int droppedTransactions, long lastMessageMillis, double clockOffset, double startSkew) {
+		this.address = address;
+		this.reported = reported;
+		this.finished = finished;
+		this.targetTime = targetTime;
+		this.dispatchLag = dispatchLag;
+		this.successfulTransactions = successfulTransactions;
+		this.failedTransactions = failedTransactions;
+		this.timeoutTransactions = timeoutTransactions;
+		this.droppedTransactions = droppedTransactions;
+		this.lastMessageMillis = lastMessageMillis;
+		this.clockOffset = clockOffset;
+		this.startSkew = startSkew;
+	}
+
+	/**
+	 * Creates the status of a load generator that has not reported a result yet.
+	 * @param address The load generator's address.
+	 * @param lastMessageMillis The time of the last message in ms since the epoch.
+	 * @return The status.
+	 */
+	public static GeneratorStatus initial(String address, long lastMessageMillis) {
+		return new GeneratorStatus(address, false, false, 0, 0, 0, 0, 0, 0, lastMessageMillis, 0, 0);
+	}
+
+	/**
+	 * The status after a result round in which the load generator did not report.
+	 * The values of its last reported interval are kept.
+	 * @param finishedGenerator True if the load generator has finished.
+	 * @return The new status.
+	 */
+	public GeneratorStatus notReported(boolean finishedGenerator) {
+		return new GeneratorStatus(address, false, finishedGenerator, targetTime, dispatchLag, successfulTransactions,
+				failedTransactions, timeoutTransactions, droppedTransactions, lastMessageMillis, clockOffset, startSkew);
+	}
+
+	/**
+	 * The status with the load generator's clock synchronization.
+	 * @param clockOffset The offset of the load generator's clock to the director's clock in seconds.
+	 * @param startSkew The deviation of the load generator's start from the scheduled start in seconds.
+	 * @return The new status.
+	 */
+	public GeneratorStatus withClock(double clockOffset, double startSkew) {
+		return new GeneratorStatus(address, reported, finished, targetTime, dispatchLag, successfulTransactions,
+				failedTransactions, timeoutTransactions, droppedTransactions, lastMessageMillis, clockOffset, startSkew);
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	/**
+	 * Whether the load generator reported a result in the latest round.
+	 * @return True if it reported.
+	 */
+	public boolean isReported() {
+		return reported;
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+
+	public double getTargetTime() {
+		return targetTime;
+	}
+
+	/**
+	 * How late the load generator dispatched the last batch of its interval.
+	 * @return The lag in seconds, 0 if it was on time.
+	 */
+	public double getDispatchLag() {
+		return dispatchLag;
+	}
+
+	public int getSuccessfulTransactions() {
+		return successfulTransactions;
+	}
+
+	public int getFailedTransactions() {
+		return failedTransactions;
+	}
+
+	public int getTimeoutTransactions() {
+		return timeoutTransactions;
+	}
+
+	public int getDroppedTransactions() {
+		return droppedTransactions;
+	}
+
+	public long getLastMessageMillis() {
+		return lastMessageMillis;
+	}
+
+	/**
+	 * How far the load generator's clock is ahead of the director's clock.
+	 * @return The offset in seconds.
+	 */
+	public double getClockOffset() {
+		return clockOffset;
+	}
+
+	/**
+	 * How far the load generator started after the start scheduled by the director, on the director's clock.
+	 * @return The deviation in seconds, negative if it started early.
+	 */
+	public double getStartSkew() {
+		return startSkew;
+	}
+}
@@ -41,6 +41,14 @@ public interface IRunnerConstants {
 	 * Default request output log name.
 	 */
 	public static final String DEFAULT_REQUEST_LOG = "request_out.csv";
+	/**
+	 * Default status code and exception breakdown log name.
+	 */
+	public static final String DEFAULT_BREAKDOWN_LOG = "breakdown_out.csv";
+	/**
+	 * Default report period log name.
+	 */
+	public static final String DEFAULT_PERIOD_LOG = "period_out.csv";
 	/**
 	 * Default lua script path.
 	 */
@@ -94,6 +102,88 @@ public interface IRunnerConstants {
 	 * Signal for sending the http timeout.
 	 */
 	public static final String TIMEOUT_KEY = "timout:";
+	/**
+	 * Signal for sending whether the LUA script is to be compiled to JVM bytecode (LuaJC).
+	 */
+	public static final String LUAJC_KEY = "luajc:";
+	/**
+	 * Signal for sending the comma separated whitelist of LUA standard libraries.
+	 */
+	public static final String LUA_LIBRARIES_KEY = "lualibs:";
+	/**
+	 * Signal for sending the fully qualified class name of a custom request generator.
+	 * Empty if the LUA script generates the requests.
+	 */
+	public static final String REQUEST_GENERATOR_KEY = "requestgenerator:";
+	/**
+	 * Signal for sending the index of a load generator and the total number of load generators.
+	 * Expected: "generatorindex:[index(int)],[count(int)]"
+	 */
+	public static final String GENERATOR_INDEX_KEY = "generatorindex:";
+	/**
+	 * Signal for sending the pre-warm settings.
+	 * Expected: "prewarm:[connections per destination(int)],[calls per user(int)]"
+	 */
+	public static final String PREWARM_KEY = "prewarm:";
+	/**
+	 * Signal for sending whether requests keep their connections open instead of sending "Connection: close".
+	 */
+	public static final String KEEP_ALIVE_KEY = "keepalive:";
+	/**
+	 * Signal for the load generator's summary of the pre-warm phase.
+	 * Sent after the start signal, before the ready signal.
+	 */
+	public static final String PREWARM_REPORT_KEY = "prewarmreport:";
+	/**
+	 * Prefix of an error of the load generator. Sent instead of the ready signal if the load generator
+	 * could not prepare the run, e.g., because the script could not be compiled.
+	 */
+	public static final String ERROR_KEY = "Error: ";
+	/**
+	 * Signal of the load generator that it is prepared to start.
+	 * The load generator then answers clock requests until it receives the scheduled start.
+	 */
+	public static final String READY_KEY = "ready";
+	/**
+	 * Signal for requesting the load generator's clock.
+	 * The load generator replies with "clock:[time in µs since the epoch(long)]".
+	 */
+	public static final String CLOCK_KEY = "clock:";
+	/**
+	 * Signal for sending the scheduled start on the load generator's clock.
+	 * Expected: "scheduledstart:[time in ms since the epoch(long)]"
+	 * The load generator replies with its actual start in µs since the epoch once it has started.
+	 */
+	public static final String SCHEDULED_START_KEY = "scheduledstart:";
+	/**
+	 * Signal for sending the comma separated local addresses that load generators bind their connections to.
+	 * Empty to let the operating system choose.
+	 */
+	public static final String BIND_ADDRESSES_KEY = "bindaddresses:";
+	/**
+	 * Signal for sending the number of independent HTTP client shards per load generator.
+	 * 0 to choose it by core count.
+	 */
+	public static final String CLIENT_SHARDS_KEY = "clientshards:";
+	/**
+	 * Signal for sending the HTTP client's selector, thread pool and connection limits.
+	 * Comma separated values in the order of HttpClientSettings#format(), 0 to size a value automatically.
+	 */
+	public static final String HTTP_CLIENT_KEY = "httpclient:";
+	/**
+	 * Prefix of additional metric groups in interval results.
+	 * Groups are sent after the final batch time and before the request results:
+	 * "#[group]=[key]:[value];[key]:[value]"
+	 */
+	public static final String METRIC_GROUP_PREFIX = "#";
+	/**
+	 * Signal for sending the report period in ms, 0 for no report periods.
+	 */
+	public static final String REPORT_PERIOD_KEY = "reportperiod:";
+	/**
+	 * Prefix of the results of a report period, see PeriodMerger.
+	 */
+	public static final String PERIOD_KEY = "period:";
 	/**
 	 * Signal for sending script path.
 	 */
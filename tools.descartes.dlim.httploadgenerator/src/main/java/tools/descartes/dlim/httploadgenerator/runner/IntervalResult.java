@@ -16,6 +16,7 @@
 package tools.descartes.dlim.httploadgenerator.runner;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 
 /**
   * Container for all interval results received by the director.
@@ -33,6 +34,9 @@ public class IntervalResult {
 	private int droppedTransactions;
 	private double finalBatchTime;
 	private boolean measurementConcluded = false;
+	private EnumMap<MetricGroup, long[]> metrics = MetricGroup.newValues();
+	private ErrorBreakdown errorBreakdown = new ErrorBreakdown();
+	private EndpointTraffic endpointTraffic = new EndpointTraffic();
 
 	private ArrayList<PerRequestIntervalResult> requestIntervalResults = new ArrayList<>();
 
@@ -54,10 +58,35 @@ public class IntervalResult {
 	 * @param droppedTransactions Number of dropped transactions.
 	 * @param avgResponseTime The average response time.
 	 * @param finalBatchTime The final batch time.
+	 * @param metrics The values of the additional metric groups.
 	 */
 	public IntervalResult(double targetTime, double loadIntensity, int successfulTransactions,
 			int failedTransactions, int timeoutTransactions, int droppedTransactions,
-			double avgResponseTime, double finalBatchTime, ArrayList<PerRequestIntervalResult> requestIntervalResults) {
+			double avgResponseTime, double finalBatchTime, EnumMap<MetricGroup, long[]> metrics,
+			ArrayList<PerRequestIntervalResult> requestIntervalResults) {
+		this(targetTime, loadIntensity, successfulTransactions, failedTransactions, timeoutTransactions,
+				droppedTransactions, avgResponseTime, finalBatchTime, metrics, new ErrorBreakdown(),
+				new EndpointTraffic(), requestIntervalResults);
+	}
+
+	/**
+	 * Creates a new interval result with measurement results.
+	 * @param targetTime he target time.
+	 * @param loadIntensity The load intensity.
+	 * @param successfulTransactions Number of successful transactions.
+	 * @param failedTransactions Number of failed transactions.
+	 * @param droppedTransactions Number of dropped transactions.
+	 * @param avgResponseTime The average response time.
+	 * @param finalBatchTime The final batch time.
+	 * @param metrics The values of the additional metric groups.
+	 * @param errorBreakdown The responses by status code and the failures by exception class.
+	 * @param endpointTraffic The bytes per endpoint.
+	 */
+	public IntervalResult(double targetTime, double loadIntensity, int successfulTransactions,
+			int failedTransactions, int timeoutTransactions, int droppedTransactions,
+			double avgResponseTime, double finalBatchTime, EnumMap<MetricGroup, long[]> metrics,
+			ErrorBreakdown errorBreakdown, EndpointTraffic endpointTraffic,
+			ArrayList<PerRequestIntervalResult> requestIntervalResults) {
 		this.targetTime = targetTime;
 		this.loadIntensity = loadIntensity;
 		this.successfulTransactions = successfulTransactions;
@@ -67,6 +96,9 @@ public class IntervalResult {
 		this.avgResponseTime = avgResponseTime;
 		this.finalBatchTime = finalBatchTime;
 		this.measurementConcluded = false;
+		this.metrics = metrics;
+		this.errorBreakdown = errorBreakdown;
+		this.endpointTraffic = endpointTraffic;
 		this.requestIntervalResults = requestIntervalResults;
 	}
 
@@ -142,6 +174,31 @@ public class IntervalResult {
 		return finalBatchTime;
 	}
 
+	/**
+	 * Returns the values of an additional metric group, summed over all load generators.
+	 * @param group The metric group.
+	 * @return The values, in the order of the group's columns.
+	 */
+	public long[] getMetrics(MetricGroup group) {
+		return metrics.get(group);
+	}
+
+	/**
+	 * Returns the responses by status code and the failures by exception class, merged over all load generators.
+	 * @return The breakdown.
+	 */
+	public ErrorBreakdown getErrorBreakdown() {
+		return errorBreakdown;
+	}
+
+	/**
+	 * Returns the bytes per endpoint, merged over all load generators.
+	 * @return The traffic.
+	 */
+	public EndpointTraffic getEndpointTraffic() {
+		return endpointTraffic;
+	}
+
 	/**
 	 * Returns true if measurement has concluded. False, otherwise.
 	 * @return If the measurement has concluded.
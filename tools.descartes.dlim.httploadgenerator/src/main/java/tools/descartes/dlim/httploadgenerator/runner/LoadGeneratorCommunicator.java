@@ -29,6 +29,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import tools.descartes.dlim.httploadgenerator.generator.ArrivalRateTuple;
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
 
 /**
  * Sends and receives data to/from a load generator.
@@ -39,6 +40,9 @@ public class LoadGeneratorCommunicator {
 
 	private static final Logger LOG = Logger.getLogger(LoadGeneratorCommunicator.class.getName());
 
+	/** Time without a result message after which a warning is logged. */
+	private static final long RESULT_WARNING_MILLIS = 5000;
+
 	private Socket socket = null;
 	private BufferedReader in = null;
 	private PrintWriter out = null;
@@ -47,9 +51,16 @@ public class LoadGeneratorCommunicator {
 	private int port;
 
 	private boolean finished = false;
+	private volatile long lastMessageMillis = System.currentTimeMillis();
 
 	private BlockingQueue<String> resultMessageQueue = new LinkedBlockingQueue<>();
 
+	private PeriodMerger periodMerger;
+	private int generatorIndex;
+
+	private final ClockOffset clockOffset = new ClockOffset();
+	private long startSkewMicros = 0;
+
 	/**
 	 * Create a new communicator.
 	 * @param ip IP or host name of the load generator.
@@ -60,6 +71,8 @@ public class LoadGeneratorCommunicator {
 		this.port = port;
 		try {
 			socket = new Socket(ip, port);
+			// clock requests are single lines that must not wait for acknowledgements
+			socket.setTcpNoDelay(true);
 			out = new PrintWriter(socket.getOutputStream(), true);
 			in = new BufferedReader(new InputStreamReader(
 					socket.getInputStream()));
@@ -127,10 +140,114 @@ public class LoadGeneratorCommunicator {
 	}
 
 	/**
-	 * Tells the load drivers to start benchmarking.
-	 * Returns the start time as reported by the load driver and then returns.
-	 * The benchmark itself runs asynchronously and results can
-	 * be polled by using {@link #getLatestResultMessageBlocking()}.
+	 * Send whether the load generator is to compile the LUA script to JVM bytecode.
+	 * @param luaJC True for LuaJC compilation, false for the LUA interpreter.
+	 */
+	public void sendLuaJC(boolean luaJC) {
+		out.println(IRunnerConstants.LUAJC_KEY + luaJC);
+		waitForOK();
+	}
+
+	/**
+	 * Send the whitelist of LUA standard libraries to the load generator.
+	 * @param luaLibraries Comma separated library names.
+	 */
+	public void sendLuaLibraries(String luaLibraries) {
+		out.println(IRunnerConstants.LUA_LIBRARIES_KEY + luaLibraries);
+		waitForOK();
+	}
+
+	/**
+	 * Send the class name of the request generator to the load generator.
+	 * @param className Fully qualified class name of the request generator, null or empty for the LUA script.
+	 */
+	public void sendRequestGeneratorClass(String className) {
+		out.println(IRunnerConstants.REQUEST_GENERATOR_KEY + (className == null ? "" : className.trim()));
+		waitForOK();
+	}
+
+	/**
+	 * Send the index of the load generator among all load generators.
+	 * Load generators use it to split unique test data between them.
+	 * @param index The index of this load generator, starting at 0.
+	 * @param count The number of load generators.
+	 */
+	public void sendGeneratorIndex(int index, int count) {
+		out.println(IRunnerConstants.GENERATOR_INDEX_KEY + index + "," + count);
+		waitForOK();
+	}
+
+	/**
+	 * Send the local addresses that the load generator binds its connections to.
+	 * @param bindAddresses Comma separated addresses, null or empty to let the operating system choose.
+	 */
+	public void sendBindAddresses(String bindAddresses) {
+		out.println(IRunnerConstants.BIND_ADDRESSES_KEY + (bindAddresses == null ? "" : bindAddresses.trim()));
+		waitForOK();
+	}
+
+	/**
+	 * Send the number of independent HTTP client shards to the load generator.
+	 * @param clientShards The shard count, 0 or less to let the load generator choose it by core count.
+	 */
+	public void sendClientShards(int clientShards) {
+		out.println(IRunnerConstants.CLIENT_SHARDS_KEY + Math.max(0, clientShards));
+		waitForOK();
+	}
+
+	/**
+	 * Send the HTTP client's selector, thread pool and connection limits to the load generator.
+	 * @param settings The settings, values of {@link HttpClientSettings#AUTO} are sized by the load generator.
+	 */
+	public void sendHttpClientSettings(HttpClientSettings settings) {
+		out.println(IRunnerConstants.HTTP_CLIENT_KEY + settings.format());
+		waitForOK();
+	}
+
+	/**
+	 * Send the pre-warm settings to the load generator.
+	 * @param connections Number of connections to open per destination before measurement starts.
+	 * @param calls Number of calls per user to send before measurement starts.
+	 */
+	public void sendPrewarm(int connections, int calls) {
+		out.println(IRunnerConstants.PREWARM_KEY + connections + "," + calls);
+		waitForOK();
+	}
+
+	/**
+	 * Send whether the load generator's requests keep their connections open.
+	 * @param keepAlive True to reuse connections, false to send "Connection: close" with every request.
+	 */
+	public void sendKeepAlive(boolean keepAlive) {
+		out.println(IRunnerConstants.KEEP_ALIVE_KEY + keepAlive);
+		waitForOK();
+	}
+
+	/**
+	 * Send the report period to the load generator.
+	 * @param reportPeriodMillis The period in ms, 0 for no report periods.
+	 */
+	public void sendReportPeriod(int reportPeriodMillis) {
+		out.println(IRunnerConstants.REPORT_PERIOD_KEY + Math.max(0, reportPeriodMillis));
+		waitForOK();
+	}
+
+	/**
+	 * Sets the merger that receives the report periods of the load generator.
+	 * Must be set before {@link #startBenchmarking}.
+	 * @param periodMerger The merger.
+	 * @param generatorIndex The index of the load generator in the merger.
+	 */
+	public void setPeriodMerger(PeriodMerger periodMerger, int generatorIndex) {
+		this.periodMerger = periodMerger;
+		this.generatorIndex = generatorIndex;
+	}
+
+	/**
+	 * Tells the load drivers to prepare benchmarking.
+	 * Returns once the load driver has created its users, pre-warmed and is ready to start.
+	 * Synchronize the clocks with {@link #synchronizeClock(int)} and schedule the start with
+	 * {@link #scheduleStart(long)} afterwards.
 	 * @param randomBatchTimes True if batch times are to be randomized.
 	 * @param seed The random seed for random batch times.
 	 * @param warmupDurationS
@@ -143,32 +260,107 @@ public class LoadGeneratorCommunicator {
 	 * 			  The pause after warmup before starting measurement in seconds.
 	 * @param randomizeUsers True if users should be randoized.
 	 * 		False if they should be taken from a queue in order.
-	 * @return The time of start.
+	 * @return True if the load driver is ready, false if it reported an error, e.g., a broken script.
 	 */
-	public long startBenchmarking(boolean randomBatchTimes, int seed, int warmupDurationS,
+	public boolean prepareBenchmarking(boolean randomBatchTimes, int seed, int warmupDurationS,
 			double warmupLoad, int warmupPauseS, boolean randomizeUsers) {
 		out.println(IRunnerConstants.START_KEY + "," + randomBatchTimes + "," + seed + ","
 				+ warmupDurationS + "," + warmupLoad + "," + warmupPauseS + "," + randomizeUsers);
-		long time = 0;
 		try {
-			time = Long.parseLong(in.readLine().trim());
+			String line = readLine();
+			// the load generator prepares its users and pre-warms before reporting that it is ready
+			while (line.startsWith(IRunnerConstants.PREWARM_REPORT_KEY)) {
+				LOG.info("Load generator at " + ip + ":" + port + " pre-warmed in "
+						+ line.substring(IRunnerConstants.PREWARM_REPORT_KEY.length()));
+				line = readLine();
+			}
+			if (line.startsWith(IRunnerConstants.ERROR_KEY)) {
+				LOG.severe("Load generator at " + ip + ":" + port + " could not prepare the run: "
+						+ line.substring(IRunnerConstants.ERROR_KEY.length()));
+				return false;
+			} else if (!line.equals(IRunnerConstants.READY_KEY)) {
+				LOG.severe("Unexpected start response from load generator at " + ip + ":" + port + ": " + line);
+				return false;
+			}
+			return true;
 		} catch (IOException e) {
 			LOG.severe("Error receiving start response from load generator at: " + ip + ":" + port);
+			return false;
+		}
+	}
+
+	/**
+	 * Estimates the offset of the load generator's clock from round trips.
+	 * @param samples The number of round trips.
+	 * @return The estimated offset.
+	 */
+	public ClockOffset synchronizeClock(int samples) {
+		try {
+			for (int i = 0; i < samples; i++) {
+				long sent = ClockOffset.epochMicros();
+				out.println(IRunnerConstants.CLOCK_KEY);
+				String line = readLine();
+				long received = ClockOffset.epochMicros();
+				clockOffset.addSample(sent, Long.parseLong(line.substring(IRunnerConstants.CLOCK_KEY.length())),
+						received);
+			}
+		} catch (IOException | IndexOutOfBoundsException | NumberFormatException e) {
+			LOG.severe("Error receiving clock response from load generator at: " + ip + ":" + port);
+		}
+		return clockOffset;
+	}
+
+	/**
+	 * Sends the scheduled start to the load generator, translated to its clock.
+	 * Returns immediately, so that the start can be sent to all load generators before any of them starts.
+	 * @param startMillis The start in ms since the epoch on the director's clock.
+	 */
+	public void scheduleStart(long startMillis) {
+		out.println(IRunnerConstants.SCHEDULED_START_KEY + clockOffset.toRemoteMillis(startMillis));
+	}
+
+	/**
+	 * Waits until the load generator reports that it started benchmarking and then returns.
+	 * The benchmark itself runs asynchronously and results can
+	 * be polled by using {@link #getLatestResultMessageBlocking()}.
+	 * @param startMillis The scheduled start in ms since the epoch on the director's clock.
+	 * @return The deviation of the actual start from the scheduled start in µs, on the director's clock.
+	 */
+	public long startBenchmarking(long startMillis) {
+		try {
+			long actualStart = clockOffset.toLocalMicros(Long.parseLong(readLine()));
+			startSkewMicros = actualStart - startMillis * 1000;
+		} catch (IOException | NumberFormatException e) {
+			LOG.severe("Error receiving start response from load generator at: " + ip + ":" + port);
 		}
 		new LoadGeneratorCommunicatorThread().start();
-		return time;
+		return startSkewMicros;
 	}
 
 	/**
 	 * Gets the latest result message received by the communicator.
-	 * Blocks and waits if no message was received.
-	 * Returns {@link IRunnerConstants#DONE_KEY} if the load generator is finished.
-	 * @return The result message or {@link IRunnerConstants#DONE_KEY}.
+	 * Blocks and waits if no message was received, as long as the load generator has not finished,
+	 * regardless of the length of the load profile's intervals.
+	 * @return The result message or null if the load generator is finished.
 	 */
 	public String getLatestResultMessageBlocking() {
 		try {
-			//5 second timeout means no load intensity with granularity > 5 seconds
-			return resultMessageQueue.poll(5, TimeUnit.SECONDS);
+			long waitingSince = System.currentTimeMillis();
+			while (true) {
+				// all messages are queued before the load generator is marked as finished
+				if (isFinished()) {
+					return resultMessageQueue.poll();
+				}
+				String message = resultMessageQueue.poll(1, TimeUnit.SECONDS);
+				if (message != null) {
+					return message;
+				}
+				if (System.currentTimeMillis() - waitingSince >= RESULT_WARNING_MILLIS) {
+					LOG.warning("No result from load generator at " + ip + ":" + port + " for "
+							+ (System.currentTimeMillis() - lastMessageMillis) / 1000 + " s.");
+					waitingSince = System.currentTimeMillis();
+				}
+			}
 		} catch (InterruptedException e) {
 			LOG.severe("Interrupted taking from message queue.");
 		}
@@ -176,6 +368,14 @@ public class LoadGeneratorCommunicator {
 	}
 
 
+	private String readLine() throws IOException {
+		String line = in.readLine();
+		if (line == null) {
+			throw new IOException("Connection closed by load generator.");
+		}
+		return line.trim();
+	}
+
 	private void waitForOK() {
 		waitForMessage("ok");
 	}
@@ -195,6 +395,39 @@ public class LoadGeneratorCommunicator {
 		}
 	}
 
+	/**
+	 * The address of the load generator.
+	 * @return IP or host name and port, separated by ":".
+	 */
+	public String getAddress() {
+		return ip + ":" + port;
+	}
+
+	/**
+	 * The time at which the last result message was received from the load generator.
+	 * @return The time in ms since the epoch, the creation time of the communicator if no message was received.
+	 */
+	public long getLastMessageMillis() {
+		return lastMessageMillis;
+	}
+
+	/**
+	 * The estimated offset of the load generator's clock to the director's clock.
+	 * @return The offset, see {@link #synchronizeClock(int)}.
+	 */
+	public ClockOffset getClockOffset() {
+		return clockOffset;
+	}
+
+	/**
+	 * How far the load generator's actual start deviated from the scheduled start, on the director's clock.
+	 * Accurate to within half the round trip of the clock offset.
+	 * @return The deviation in µs, positive if the load generator started late.
+	 */
+	public long getStartSkewMicros() {
+		return startSkewMicros;
+	}
+
 	/**
 	 * Returns true if this communcator has received the done signal.
 	 * @return The finshed flag.
@@ -219,16 +452,25 @@ public class LoadGeneratorCommunicator {
 			try {
 				while (true) {
 					String line = in.readLine();
-					if (line.trim().equals(IRunnerConstants.DONE_KEY)) {
-						setFinished(true);
+					if (line == null || line.trim().equals(IRunnerConstants.DONE_KEY)) {
 						break;
-					} else if (line != null && !line.isEmpty()) {
+					} else if (line.startsWith(IRunnerConstants.PERIOD_KEY)) {
+						if (periodMerger != null) {
+							periodMerger.add(generatorIndex, line.trim());
+						}
+					} else if (!line.isEmpty()) {
+						lastMessageMillis = System.currentTimeMillis();
 						resultMessageQueue.put(line.trim());
 					}
 				}
 			} catch (IOException | InterruptedException e) {
 				LOG.severe("Error reading result response from load generator at: " + ip + ":" + port);
 			} finally {
+				// also finished if the connection broke, so that the director does not wait for it
+				setFinished(true);
+				if (periodMerger != null) {
+					periodMerger.finish(generatorIndex);
+				}
 				try {
 					in.close();
 					out.close();
@@ -29,7 +29,9 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParameterException;
 import tools.descartes.dlim.httploadgenerator.generator.ArrivalRateTuple;
-import tools.descartes.dlim.httploadgenerator.runner.cli.DirectorCommand;
+import tools.descartes.dlim.httploadgenerator.runner.cli.AnalyzeCommand;
+import tools.descartes.dlim.httploadgenerator.runner.cli.DirectorCommand;
+import tools.descartes.dlim.httploadgenerator.runner.cli.ExportCommand;
 import tools.descartes.dlim.httploadgenerator.runner.cli.LoadGeneratorCommand;
 
 /**
@@ -42,7 +44,8 @@ import tools.descartes.dlim.httploadgenerator.runner.cli.LoadGeneratorCommand;
 @Command(name = "httploadgenerator",
 	customSynopsis = "@|bold java -jar httploadgenerator.jar |@@|red COMMAND|@ [@|yellow <options>|@...]",
 	description = "HTTP load generator for varying load intensities.",
-	subcommands = { DirectorCommand.class, LoadGeneratorCommand.class })
+	subcommands = { DirectorCommand.class, LoadGeneratorCommand.class, AnalyzeCommand.class,
+		ExportCommand.class })
 public class Main implements Runnable {
 
 	/** The constant logging instance. */
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import tools.descartes.dlim.httploadgenerator.generator.HealthSampler;
+import tools.descartes.dlim.httploadgenerator.generator.LatencyHistogram;
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker;
+import tools.descartes.dlim.httploadgenerator.generator.TransactionPhase;
+import tools.descartes.dlim.httploadgenerator.http.ConnectFailure;
+
+/**
+ * Groups of additional per-interval metrics that load generators send to the director.
+ * A group is sent as "#[name]=[key]:[value];[key]:[value]" after the final batch time
+ * (see {@link IRunnerConstants#METRIC_GROUP_PREFIX}), values of 0 are omitted. The director sums
+ * each value over all load generators and writes the group's result columns.
+ * Histogram groups carry the values of a {@link LatencyHistogram} and are written as
+ * mean, median, 99th percentile and maximum in milliseconds. Throughput groups carry rates in bytes per second
+ * and are written in MB/s.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public enum MetricGroup {
+
+	/** Failed connection attempts per {@link ConnectFailure} class. */
+	CONNECT_FAILURES("connect",
+			Arrays.stream(ConnectFailure.values()).map(ConnectFailure::getKey).toArray(String[]::new),
+			Arrays.stream(ConnectFailure.values()).map(ConnectFailure::getColumnName).toArray(String[]::new)),
+	/** Thread and queue usage of the HTTP clients and the transaction dispatcher, sampled at the interval end. */
+	THREADS("threads",
+			new String[] {"client_threads", "client_busy", "client_queued", "dispatch_busy", "dispatch_queued"},
+			new String[] {"Client Threads", "Client Busy Threads", "Client Queued Tasks",
+				"Dispatch Busy Threads", "Dispatch Queued Tasks"}),
+	/** Durations of {@link TransactionPhase#QUEUE}. */
+	QUEUE_TIME("phase_queue", "Queue Time"),
+	/** Durations of {@link TransactionPhase#USER_WAIT}. */
+	USER_WAIT_TIME("phase_user", "User Wait Time"),
+	/** Durations of {@link TransactionPhase#CONNECT}. */
+	CONNECT_TIME("phase_connect", "Connect Time"),
+	/** Durations of {@link TransactionPhase#TTFB}. */
+	TTFB("phase_ttfb", "TTFB"),
+	/** Durations of {@link TransactionPhase#TRANSFER}. */
+	TRANSFER_TIME("phase_transfer", "Transfer Time"),
+	/** Health of the load generator itself, see {@link HealthSampler}. The maximum over all load generators. */
+	HEALTH("health",
+			new String[] {"cpu", "gc_count", "gc_time", "alloc_rate", "heap", "client_util", "in_flight",
+				"dispatch_lateness"},
+			new String[] {"Max Generator CPU (%)", "Max Generator GC Count", "Max Generator GC Time (ms)",
+				"Max Generator Allocation Rate (MB/s)", "Max Generator Heap Usage (%)",
+				"Max Generator Client Thread Utilization (%)", "Max Generator In-Flight Requests",
+				"Max Generator Dispatch Lateness (ms)"},
+			false, true),
+	/**
+	 * Bytes per second of all transactions, see {@link ResultTracker#logTraffic(String, long, long, long)}.
+	 * Written in MB/s, i.e., 10^6 bytes per second, as network bandwidth is specified.
+	 */
+	NETWORK("network",
+			new String[] {"sent", "received", "decoded"},
+			new String[] {"Sent (MB/s)", "Received (MB/s)", "Received Decoded (MB/s)"},
+			1_000_000);
+
+	private static final Logger LOG = Logger.getLogger(MetricGroup.class.getName());
+
+	private final String groupName;
+	private final String[] keys;
+	private final String[] columnNames;
+	private final boolean histogram;
+	private final boolean maximum;
+	private final long columnDivisor;
+	private final Map<String, Integer> keyIndices = new HashMap<>();
+
+	private MetricGroup(String groupName, String[] keys, String[] columnNames) {
+		this(groupName, keys, columnNames, false, false);
+	}
+
+	private MetricGroup(String groupName, String label) {
+		this(groupName, null, new String[] {label + " Mean (ms)", label + " P50 (ms)", label + " P99 (ms)",
+			label + " Max (ms)"}, true, false);
+	}
+
+	private MetricGroup(String groupName, String[] keys, String[] columnNames, long columnDivisor) {
+		this(groupName, keys, columnNames, false, false, columnDivisor);
+	}
+
+	private MetricGroup(String groupName, String[] keys, String[] columnNames, boolean histogram,
+			boolean maximum) {
+		this(groupName, keys, columnNames, histogram, maximum, 1);
+	}
+
+	private MetricGroup(String groupName, String[] keys, String[] columnNames, boolean histogram,
+			boolean maximum, long columnDivisor) {
+		this.groupName = groupName;
+		this.keys = histogram ? histogramKeys() : keys;
+		this.columnNames = columnNames;
+		this.histogram = histogram;
+		this.maximum = maximum;
+		this.columnDivisor = columnDivisor;
+		for (int i = 0; i < this.keys.length; i++) {
+			keyIndices.put(this.keys[i], i);
+		}
+	}
+
+	private static String[] histogramKeys() {
+		String[] keys = new String[LatencyHistogram.VALUES_LENGTH];
+		keys[LatencyHistogram.COUNT_INDEX] = "n";
+		keys[LatencyHistogram.SUM_INDEX] = "sum";
+		for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+			keys[LatencyHistogram.FIRST_BUCKET_INDEX + i] = "b" + i;
+		}
+		return keys;
+	}
+
+	/**
+	 * The metric group of a transaction phase's histogram.
+	 * @param phase The phase.
+	 * @return The metric group.
+	 */
+	public static MetricGroup of(TransactionPhase phase) {
+		switch (phase) {
+		case QUEUE:
+			return QUEUE_TIME;
+		case USER_WAIT:
+			return USER_WAIT_TIME;
+		case CONNECT:
+			return CONNECT_TIME;
+		case TTFB:
+			return TTFB;
+		default:
+			return TRANSFER_TIME;
+		}
+	}
+
+	/**
+	 * The name of the group in messages between load generator and director.
+	 * @return The name.
+	 */
+	public String getGroupName() {
+		return groupName;
+	}
+
+	/**
+	 * The keys of the group's values in messages between load generator and director.
+	 * @return The keys, in value order.
+	 */
+	public String[] getKeys() {
+		return keys.clone();
+	}
+
+	/**
+	 * Whether the group carries the values of a {@link LatencyHistogram}.
+	 * @return True for histogram groups.
+	 */
+	public boolean isHistogram() {
+		return histogram;
+	}
+
+	/**
+	 * Whether the values of the load generators are aggregated by their maximum instead of their sum.
+	 * @return True for maximum groups.
+	 */
+	public boolean isMaximum() {
+		return maximum;
+	}
+
+	/**
+	 * The number of values in this group.
+	 * @return The value count.
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * The names of the group's result columns.
+	 * @return The column names.
+	 */
+	public String[] getColumnNames() {
+		return columnNames.clone();
+	}
+
+	/**
+	 * Converts the group's summed values to result columns.
+	 * @param values The values, in key order.
+	 * @return The column values, in the order of {@link #getColumnNames()}.
+	 */
+	public String[] toColumns(long[] values) {
+		if (!histogram && columnDivisor != 1) {
+			return Arrays.stream(values).mapToObj(v -> String.format(Locale.ROOT, "%.3f", (double) v / columnDivisor))
+					.toArray(String[]::new);
+		} else if (!histogram) {
+			return Arrays.stream(values).mapToObj(Long::toString).toArray(String[]::new);
+		}
+		return new String[] {
+			toMillis(LatencyHistogram.meanMicros(values)),
+			toMillis(LatencyHistogram.percentileMicros(values, 0.5)),
+			toMillis(LatencyHistogram.percentileMicros(values, 0.99)),
+			toMillis(LatencyHistogram.percentileMicros(values, 1.0))
+		};
+	}
+
+	private static String toMillis(double micros) {
+		return String.format(Locale.ROOT, "%.3f", micros / 1000.0);
+	}
+
+	/**
+	 * Formats the values of this group for sending them to the director.
+	 * @param values The values, in key order.
+	 * @return The formatted group, including the prefix. Null if all values are 0.
+	 */
+	public String format(long[] values) {
+		StringBuilder group = new StringBuilder(IRunnerConstants.METRIC_GROUP_PREFIX).append(groupName).append('=');
+		boolean empty = true;
+		for (int i = 0; i < keys.length && i < values.length; i++) {
+			if (values[i] != 0) {
+				if (!empty) {
+					group.append(';');
+				}
+				group.append(keys[i]).append(':').append(values[i]);
+				empty = false;
+			}
+		}
+		return empty ? null : group.toString();
+	}
+
+	/**
+	 * Creates zeroed values for all groups.
+	 * @return The values per group.
+	 */
+	public static EnumMap<MetricGroup, long[]> newValues() {
+		EnumMap<MetricGroup, long[]> values = new EnumMap<>(MetricGroup.class);
+		for (MetricGroup group : values()) {
+			values.put(group, new long[group.size()]);
+		}
+		return values;
+	}
+
+	/**
+	 * Adds the values of all groups of a load generator to the sums of all load generators.
+	 * @param values The load generator's values per group.
+	 * @param sums The sums per group, as created by {@link #newValues()}.
+	 */
+	public static void addAll(EnumMap<MetricGroup, long[]> values, EnumMap<MetricGroup, long[]> sums) {
+		for (MetricGroup group : values()) {
+			long[] groupValues = values.get(group);
+			long[] groupSums = sums.get(group);
+			for (int i = 0; i < groupValues.length; i++) {
+				groupSums[i] = group.aggregate(groupSums[i], groupValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * Adds the values of a received group to the sums.
+	 * Unknown groups and keys are ignored, so that load generators may send metrics this director does not know.
+	 * @param group The group without prefix: "[name]=[key]:[value];[key]:[value]".
+	 * @param sums The sums per group, as created by {@link #newValues()}.
+	 */
+	public static void addTo(String group, EnumMap<MetricGroup, long[]> sums) {
+		int separator = group.indexOf('=');
+		if (separator == -1) {
+			return;
+		}
+		String name = group.substring(0, separator);
+		for (MetricGroup metricGroup : values()) {
+			if (metricGroup.groupName.equals(name)) {
+				metricGroup.addValues(group.substring(separator + 1), sums.get(metricGroup));
+			}
+		}
+	}
+
+	private void addValues(String entries, long[] sums) {
+		for (String entry : entries.split(";")) {
+			int colon = entry.indexOf(':');
+			if (colon == -1) {
+				continue;
+			}
+			Integer index = keyIndices.get(entry.substring(0, colon).trim());
+			if (index != null) {
+				try {
+					sums[index] = aggregate(sums[index], Long.parseLong(entry.substring(colon + 1).trim()));
+				} catch (NumberFormatException e) {
+					LOG.warning("Invalid metric value: " + entry);
+				}
+			}
+		}
+	}
+
+	private long aggregate(long sum, long value) {
+		return maximum ? Math.max(sum, value) : sum + value;
+	}
+}
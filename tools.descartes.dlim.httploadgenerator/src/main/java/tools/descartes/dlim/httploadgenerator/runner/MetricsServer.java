@@ -0,0 +1,393 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import tools.descartes.dlim.httploadgenerator.generator.LatencyHistogram;
+
+/**
+ * Serves the latest interval results of the director over HTTP, in the Prometheus text format at
+ * {@value #PROMETHEUS_PATH} and as JSON at {@value #JSON_PATH}. Only GET requests of these exact paths are served.
+ * The director publishes an immutable snapshot after each interval by swapping a single reference,
+ * all formatting happens on the server's own thread when a client asks for the metrics.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class MetricsServer implements AutoCloseable {
+
+	private static final Logger LOG = Logger.getLogger(MetricsServer.class.getName());
+
+	/** Path of the Prometheus text format. */
+	public static final String PROMETHEUS_PATH = "/metrics";
+	/** Path of the JSON format. */
+	public static final String JSON_PATH = "/metrics.json";
+	private static final String DEFAULT_HOST = "127.0.0.1";
+	private static final String PREFIX = "httploadgenerator_";
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 1.0};
+	private static final String[] STATES = {"success", "failed", "timeout", "dropped"};
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot());
+
+	/**
+	 * Starts the server.
+	 * @param address The port to listen on, optionally preceded by a host name or IP and ":".
+	 * 		Listens on the loopback address if no host is given.
+	 * @throws IOException If the server can not be started.
+	 */
+	public MetricsServer(String address) throws IOException {
+		String host = DEFAULT_HOST;
+		String port = address.trim();
+		int separator = port.lastIndexOf(':');
+		if (separator >= 0) {
+			host = port.substring(0, separator);
+			port = port.substring(separator + 1);
+		}
+		try {
+			server = HttpServer.create(new InetSocketAddress(host, Integer.parseInt(port)), 0);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid metrics port: " + port);
+		}
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "MetricsServer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+		LOG.info("Serving metrics at http://" + host + ":" + server.getAddress().getPort() + PROMETHEUS_PATH);
+	}
+
+	/**
+	 * The port the server listens on.
+	 * @return The port.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Publishes the result of an interval. Never blocks.
+	 * Must only be called by the single thread that collects the results.
+	 * @param result The interval's aggregated result.
+	 * @param generators The status of each load generator.
+	 * @param writerBacklog The number of intervals that the result writer has not written yet.
+	 */
+	public void publish(IntervalResult result, List<GeneratorStatus> generators, int writerBacklog) {
+		snapshot.set(new Snapshot(snapshot.get(), result, generators, writerBacklog));
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Serves the metrics at their exact paths, 404 for all other paths and 405 for methods other than GET.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		if (!PROMETHEUS_PATH.equals(path) && !JSON_PATH.equals(path)) {
+			sendEmpty(exchange, 404);
+		} else if (!"GET".equals(exchange.getRequestMethod())) {
+			exchange.getResponseHeaders().set("Allow", "GET");
+			sendEmpty(exchange, 405);
+		} else if (JSON_PATH.equals(path)) {
+			respond(exchange, "application/json", snapshot.get().toJson());
+		} else {
+			respond(exchange, "text/plain; version=0.0.4", snapshot.get().toPrometheus());
+		}
+	}
+
+	private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+		exchange.sendResponseHeaders(status, -1);
+		exchange.close();
+	}
+
+	private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Immutable state of the run after an interval.
+	 */
+	private static final class Snapshot {
+
+		private final IntervalResult result;
+		private final List<GeneratorStatus> generators;
+		private final int writerBacklog;
+		/** Transactions per state of all measurement intervals so far. */
+		private final long[] totals;
+		private final long publishedMillis;
+		/** Response time histogram of the interval's requests, built by the server thread on first use. */
+		private long[] responseTimes;
+
+		private Snapshot() {
+			result = null;
+			generators = List.of();
+			writerBacklog = 0;
+			totals = new long[STATES.length];
+			publishedMillis = System.currentTimeMillis();
+		}
+
+		private Snapshot(Snapshot previous, IntervalResult result, List<GeneratorStatus> generators,
+				int writerBacklog) {
+			this.result = result;
+			this.generators = List.copyOf(generators);
+			this.writerBacklog = writerBacklog;
+			totals = previous.totals.clone();
+			// warmup intervals have target times <= 0
+			if (result.getTargetTime() > 0) {
+				long[] counts = counts(result);
+				for (int i = 0; i < totals.length; i++) {
+					totals[i] += counts[i];
+				}
+			}
+			publishedMillis = System.currentTimeMillis();
+		}
+
+		private static long[] counts(IntervalResult result) {
+			return new long[] {result.getSuccessfulTransactions(), result.getFailedTransactions(),
+				result.getTimeoutTransactions(), result.getDroppedTransactions()};
+		}
+
+		private static long[] counts(GeneratorStatus generator) {
+			return new long[] {generator.getSuccessfulTransactions(), generator.getFailedTransactions(),
+				generator.getTimeoutTransactions(), generator.getDroppedTransactions()};
+		}
+
+		private long[] responseTimes() {
+			if (responseTimes == null) {
+				long[] histogram = new long[LatencyHistogram.VALUES_LENGTH];
+				for (PerRequestIntervalResult request : result.getRequestIntervalResults()) {
+					if (!"DROPPED".equals(request.getTransactionState())) {
+						long micros = Math.max(0, Math.round(request.getResponseTime() * 1_000_000));
+						histogram[LatencyHistogram.COUNT_INDEX]++;
+						histogram[LatencyHistogram.SUM_INDEX] += micros;
+						histogram[LatencyHistogram.FIRST_BUCKET_INDEX + LatencyHistogram.bucketIndex(micros)]++;
+					}
+				}
+				responseTimes = histogram;
+			}
+			return responseTimes;
+		}
+
+		private double dispatchLag() {
+			return generators.stream().mapToDouble(GeneratorStatus::getDispatchLag).max().orElse(0);
+		}
+
+		private String toPrometheus() {
+			StringBuilder text = new StringBuilder();
+			gauge(text, "writer_backlog", "Intervals the result writer has not written yet.");
+			sample(text, "writer_backlog", "", writerBacklog);
+			counter(text, "transactions_total", "Transactions of all measurement intervals by state.");
+			for (int i = 0; i < STATES.length; i++) {
+				sample(text, "transactions_total", "state=\"" + STATES[i] + "\"", totals[i]);
+			}
+			if (result != null) {
+				gauge(text, "interval_target_time_seconds", "Target time of the latest interval.");
+				sample(text, "interval_target_time_seconds", "", result.getTargetTime());
+				gauge(text, "interval_load_intensity", "Target load intensity of the latest interval.");
+				sample(text, "interval_load_intensity", "", result.getLoadIntensity());
+				gauge(text, "interval_transactions", "Transactions of the latest interval by state.");
+				long[] counts = counts(result);
+				for (int i = 0; i < STATES.length; i++) {
+					sample(text, "interval_transactions", "state=\"" + STATES[i] + "\"", counts[i]);
+				}
+				gauge(text, "interval_dispatch_lag_seconds",
+						"Delay of the latest interval's last batch on the slowest load generator.");
+				sample(text, "interval_dispatch_lag_seconds", "", dispatchLag());
+				histogram(text, "interval_response_time_seconds",
+						"Response times of the latest interval's transactions.", responseTimes());
+				for (MetricGroup group : MetricGroup.values()) {
+					long[] values = result.getMetrics(group);
+					if (group.isHistogram()) {
+						histogram(text, "interval_" + group.getGroupName() + "_seconds",
+								group.getColumnNames()[0].replace(" Mean (ms)", "") + " of the latest interval.", values);
+					} else {
+						String name = "interval_" + group.getGroupName();
+						gauge(text, name, String.join(", ", group.getColumnNames()) + " of the latest interval.");
+						String[] keys = group.getKeys();
+						for (int i = 0; i < keys.length; i++) {
+							sample(text, name, "key=\"" + keys[i] + "\"", values[i]);
+						}
+					}
+				}
+			}
+			if (!generators.isEmpty()) {
+				long now = System.currentTimeMillis();
+				gauge(text, "generator_up", "1 if the load generator reported the latest interval.");
+				generators.forEach(g -> sample(text, "generator_up", label(g), g.isReported() ? 1 : 0));
+				gauge(text, "generator_finished", "1 if the load generator has finished.");
+				generators.forEach(g -> sample(text, "generator_finished", label(g), g.isFinished() ? 1 : 0));
+				gauge(text, "generator_dispatch_lag_seconds",
+						"Delay of the last batch of the load generator's latest interval.");
+				generators.forEach(g -> sample(text, "generator_dispatch_lag_seconds", label(g), g.getDispatchLag()));
+				gauge(text, "generator_last_report_age_seconds", "Time since the load generator's last result.");
+				generators.forEach(g -> sample(text, "generator_last_report_age_seconds", label(g),
+						(now - g.getLastMessageMillis()) / 1000.0));
+				gauge(text, "generator_clock_offset_seconds",
+						"Estimated offset of the load generator's clock to the director's clock.");
+				generators.forEach(g -> sample(text, "generator_clock_offset_seconds", label(g), g.getClockOffset()));
+				gauge(text, "generator_start_skew_seconds",
+						"Deviation of the load generator's start from the start scheduled by the director.");
+				generators.forEach(g -> sample(text, "generator_start_skew_seconds", label(g), g.getStartSkew()));
+				gauge(text, "generator_transactions", "Transactions of the load generator's latest interval by state.");
+				for (GeneratorStatus generator : generators) {
+					long[] counts = counts(generator);
+					for (int i = 0; i < STATES.length; i++) {
+						sample(text, "generator_transactions", label(generator) + ",state=\"" + STATES[i] + "\"",
+								counts[i]);
+					}
+				}
+			}
+			return text.toString();
+		}
+
+		private String toJson() {
+			StringBuilder json = new StringBuilder("{");
+			json.append("\"published\":").append(publishedMillis);
+			json.append(",\"writerBacklog\":").append(writerBacklog);
+			json.append(",\"totals\":");
+			states(json, totals);
+			if (result != null) {
+				json.append(",\"interval\":{\"targetTime\":").append(result.getTargetTime())
+						.append(",\"loadIntensity\":").append(result.getLoadIntensity())
+						.append(",\"transactions\":");
+				states(json, counts(result));
+				json.append(",\"dispatchLag\":").append(dispatchLag())
+						.append(",\"responseTime\":");
+				quantiles(json, responseTimes());
+				for (MetricGroup group : MetricGroup.values()) {
+					long[] values = result.getMetrics(group);
+					json.append(",\"").append(group.getGroupName()).append("\":");
+					if (group.isHistogram()) {
+						quantiles(json, values);
+					} else {
+						json.append('{');
+						String[] keys = group.getKeys();
+						for (int i = 0; i < keys.length; i++) {
+							json.append(i == 0 ? "" : ",").append('"').append(keys[i]).append("\":").append(values[i]);
+						}
+						json.append('}');
+					}
+				}
+				json.append('}');
+			}
+			json.append(",\"generators\":[");
+			for (int g = 0; g < generators.size(); g++) {
+				GeneratorStatus generator = generators.get(g);
+				json.append(g == 0 ? "" : ",").append("{\"address\":\"").append(escape(generator.getAddress()))
+						.append("\",\"reported\":").append(generator.isReported())
+						.append(",\"finished\":").append(generator.isFinished())
+						.append(",\"targetTime\":").append(generator.getTargetTime())
+						.append(",\"dispatchLag\":").append(generator.getDispatchLag())
+						.append(",\"lastReport\":").append(generator.getLastMessageMillis())
+						.append(",\"clockOffset\":").append(generator.getClockOffset())
+						.append(",\"startSkew\":").append(generator.getStartSkew())
+						.append(",\"transactions\":");
+				states(json, counts(generator));
+				json.append('}');
+			}
+			return json.append("]}").toString();
+		}
+
+		private static void states(StringBuilder json, long[] counts) {
+			json.append('{');
+			for (int i = 0; i < STATES.length; i++) {
+				json.append(i == 0 ? "" : ",").append('"').append(STATES[i]).append("\":").append(counts[i]);
+			}
+			json.append('}');
+		}
+
+		private static void quantiles(StringBuilder json, long[] histogram) {
+			json.append("{\"count\":").append(histogram[LatencyHistogram.COUNT_INDEX])
+					.append(",\"mean\":").append(LatencyHistogram.meanMicros(histogram) / 1_000_000);
+			for (double quantile : QUANTILES) {
+				json.append(",\"").append(quantile == 1.0 ? "max" : "p" + Math.round(quantile * 100)).append("\":")
+						.append(LatencyHistogram.percentileMicros(histogram, quantile) / 1_000_000.0);
+			}
+			json.append('}');
+		}
+
+		private static void histogram(StringBuilder text, String name, String help, long[] histogram) {
+			text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+			text.append("# TYPE ").append(PREFIX).append(name).append(" summary\n");
+			for (double quantile : QUANTILES) {
+				sample(text, name, "quantile=\"" + quantile + "\"",
+						LatencyHistogram.percentileMicros(histogram, quantile) / 1_000_000.0);
+			}
+			sample(text, name + "_sum", "", histogram[LatencyHistogram.SUM_INDEX] / 1_000_000.0);
+			sample(text, name + "_count", "", histogram[LatencyHistogram.COUNT_INDEX]);
+		}
+
+		private static void gauge(StringBuilder text, String name, String help) {
+			text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+			text.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+		}
+
+		private static void counter(StringBuilder text, String name, String help) {
+			text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+			text.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+		}
+
+		private static void sample(StringBuilder text, String name, String labels, double value) {
+			text.append(PREFIX).append(name);
+			if (!labels.isEmpty()) {
+				text.append('{').append(labels).append('}');
+			}
+			text.append(' ');
+			if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+				text.append((long) value);
+			} else {
+				text.append(value);
+			}
+			text.append('\n');
+		}
+
+		private static String label(GeneratorStatus generator) {
+			return "generator=\"" + escape(generator.getAddress()) + "\"";
+		}
+
+		private static String escape(String value) {
+			return value.replace("\\", "\\\\").replace("\"", "\\\"");
+		}
+	}
+}
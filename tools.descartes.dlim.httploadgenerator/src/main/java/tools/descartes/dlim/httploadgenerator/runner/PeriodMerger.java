@@ -0,0 +1,199 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import tools.descartes.dlim.httploadgenerator.generator.LatencyHistogram;
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+
+/**
+ * Merges the report periods of all load generators. With a report period, load generators report the
+ * transactions and response times of each period of the measurement, independent of the intervals of the
+ * load profile: "period:[index],[successful],[failed],[timeout],[dropped],[histogram]". The index counts the
+ * periods since the load generator's measurement start. The histogram holds the values of the response times'
+ * {@link LatencyHistogram} as "[value index]:[value];[value index]:[value]", values of 0 are omitted.
+ * Periods are aligned by their index and written as soon as all load generators that have not finished
+ * reported them.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public final class PeriodMerger {
+
+	private static final Logger LOG = Logger.getLogger(PeriodMerger.class.getName());
+
+	/** Header of the period file. */
+	public static final String HEADER = "Time,Load Generators,Successful Transactions,Failed Transactions,"
+			+ "Timed Out Transactions,Dropped Transactions,Throughput,Avg Response Time (ms),"
+			+ "Response Time P50 (ms),Response Time P99 (ms),Response Time Max (ms)";
+	/**
+	 * Maximum number of periods that wait for lagging load generators.
+	 * Beyond that, the oldest periods are written with the load generators that reported them.
+	 */
+	static final int MAX_PENDING_PERIODS = 10000;
+
+	private static final int STATES = TransactionState.values().length;
+
+	private final long periodMillis;
+	private final Consumer<String> rows;
+	private final long[] latestIndices;
+	private final boolean[] finished;
+	private final TreeMap<Long, Period> periods = new TreeMap<>();
+	private long writtenIndex = -1;
+
+	/**
+	 * Creates a merger.
+	 * @param generators The number of load generators.
+	 * @param periodMillis The report period in ms.
+	 * @param rows Receives the rows of merged periods, each with a line separator.
+	 */
+	public PeriodMerger(int generators, long periodMillis, Consumer<String> rows) {
+		this.periodMillis = periodMillis;
+		this.rows = rows;
+		this.latestIndices = new long[generators];
+		this.finished = new boolean[generators];
+		Arrays.fill(latestIndices, -1);
+	}
+
+	/**
+	 * Formats the results of a period for sending them to the director.
+	 * @param index The period's index since measurement start.
+	 * @param transactions The transactions per state, indexed by the state's ordinal.
+	 * @param responseTimes The values of the response times' histogram.
+	 * @return The message.
+	 */
+	public static String format(long index, long[] transactions, long[] responseTimes) {
+		StringBuilder message = new StringBuilder(IRunnerConstants.PERIOD_KEY).append(index);
+		for (TransactionState state : TransactionState.values()) {
+			message.append(',').append(transactions[state.ordinal()]);
+		}
+		message.append(',');
+		int length = message.length();
+		for (int i = 0; i < responseTimes.length; i++) {
+			if (responseTimes[i] != 0) {
+				message.append(message.length() == length ? "" : ";").append(i).append(':').append(responseTimes[i]);
+			}
+		}
+		return message.toString();
+	}
+
+	/**
+	 * Adds the period of a load generator.
+	 * @param generator The load generator's index.
+	 * @param message The message, see {@link #format(long, long[], long[])}.
+	 */
+	public synchronized void add(int generator, String message) {
+		Period period;
+		long index;
+		try {
+			String[] tokens = message.substring(IRunnerConstants.PERIOD_KEY.length()).split(",", STATES + 2);
+			index = Long.parseLong(tokens[0].trim());
+			if (index <= latestIndices[generator] || index <= writtenIndex) {
+				LOG.fine("Late period " + index + " of load generator " + generator + " ignored.");
+				return;
+			}
+			period = new Period();
+			for (int i = 0; i < STATES; i++) {
+				period.transactions[i] = Long.parseLong(tokens[i + 1].trim());
+			}
+			String histogram = tokens.length > STATES + 1 ? tokens[STATES + 1].trim() : "";
+			for (String entry : histogram.isEmpty() ? new String[0] : histogram.split(";")) {
+				int colon = entry.indexOf(':');
+				period.responseTimes[Integer.parseInt(entry.substring(0, colon).trim())]
+						= Long.parseLong(entry.substring(colon + 1).trim());
+			}
+		} catch (IndexOutOfBoundsException | NumberFormatException e) {
+			LOG.warning("Invalid period: " + message);
+			return;
+		}
+		periods.merge(index, period, Period::add);
+		latestIndices[generator] = index;
+		flush();
+	}
+
+	/**
+	 * Marks a load generator as finished, so that no further periods are awaited from it.
+	 * @param generator The load generator's index.
+	 */
+	public synchronized void finish(int generator) {
+		finished[generator] = true;
+		flush();
+	}
+
+	/**
+	 * Writes all pending periods, regardless of whether all load generators reported them.
+	 */
+	public synchronized void close() {
+		while (!periods.isEmpty()) {
+			write(periods.pollFirstEntry());
+		}
+	}
+
+	private void flush() {
+		long complete = Long.MAX_VALUE;
+		for (int i = 0; i < latestIndices.length; i++) {
+			if (!finished[i]) {
+				complete = Math.min(complete, latestIndices[i]);
+			}
+		}
+		while (!periods.isEmpty() && (periods.firstKey() <= complete || periods.size() > MAX_PENDING_PERIODS)) {
+			write(periods.pollFirstEntry());
+		}
+	}
+
+	private void write(Map.Entry<Long, Period> entry) {
+		writtenIndex = entry.getKey();
+		Period period = entry.getValue();
+		long[] transactions = period.transactions;
+		long[] responseTimes = period.responseTimes;
+		rows.accept(String.format(Locale.ROOT, "%.3f,%d,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+				(entry.getKey() + 1) * periodMillis / 1000.0, period.generators,
+				transactions[TransactionState.SUCCESS.ordinal()], transactions[TransactionState.FAILED.ordinal()],
+				transactions[TransactionState.TIMEOUT.ordinal()], transactions[TransactionState.DROPPED.ordinal()],
+				transactions[TransactionState.SUCCESS.ordinal()] * 1000.0 / periodMillis,
+				LatencyHistogram.meanMicros(responseTimes) / 1000.0,
+				LatencyHistogram.percentileMicros(responseTimes, 0.5) / 1000.0,
+				LatencyHistogram.percentileMicros(responseTimes, 0.99) / 1000.0,
+				LatencyHistogram.percentileMicros(responseTimes, 1.0) / 1000.0));
+	}
+
+	/**
+	 * The merged results of a period.
+	 */
+	private static final class Period {
+
+		private int generators = 1;
+		private final long[] transactions = new long[STATES];
+		private final long[] responseTimes = new long[LatencyHistogram.VALUES_LENGTH];
+
+		private Period add(Period other) {
+			generators += other.generators;
+			for (int i = 0; i < STATES; i++) {
+				transactions[i] += other.transactions[i];
+			}
+			for (int i = 0; i < responseTimes.length; i++) {
+				responseTimes[i] += other.responseTimes[i];
+			}
+			return this;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Format of the binary request archive.
+ * <p>
+ * An archive starts with the magic bytes, the format version and the column schema
+ * (column count, then name and encoding of each column). Row groups follow, each starting with its row count.
+ * A row count of 0 marks the end of the archive. For each column, a row group stores the minimum and
+ * maximum of the column's values, the length of the encoded column chunk and the chunk itself,
+ * so that readers can skip row groups or columns without decoding them.
+ * All integers are unsigned LEB128 varints, signed values are zig-zag encoded.
+ * Times are stored in microseconds.
+ * </p>
+ * @author Yannik Lubas
+ *
+ */
+final class RequestArchive {
+
+	/** Magic bytes at the start of each archive. */
+	static final byte[] MAGIC = {'H', 'L', 'G', 'A', 'R', 'C'};
+	/** Current format version. */
+	static final int VERSION = 1;
+	/** Default number of rows per row group. */
+	static final int DEFAULT_ROW_GROUP_SIZE = 1 << 16;
+
+	private static final double MICROS_PER_SECOND = 1_000_000.0;
+
+	/**
+	 * Encodings of column chunks.
+	 */
+	enum Encoding {
+		/** Zig-zag varint differences to the previous value, suitable for ascending values like time stamps. */
+		DELTA,
+		/** Zig-zag varint per value. */
+		VARINT,
+		/** Dictionary of distinct strings, followed by the varint dictionary index per value. */
+		DICTIONARY;
+	}
+
+	/**
+	 * Columns of the request archive, in the order of the request CSV file.
+	 */
+	enum Column {
+		REQUEST_TARGET_TIME("Request Target Time", Encoding.DELTA),
+		RESPONSE_TARGET_TIME("Response Target Time", Encoding.DELTA),
+		REQUEST_NUM("Request Num", Encoding.VARINT),
+		URI("URI", Encoding.DICTIONARY),
+		METHOD("Method", Encoding.DICTIONARY),
+		RESPONSE_TIME("Response Time", Encoding.VARINT),
+		STATUS("Status", Encoding.DICTIONARY);
+
+		private final String columnName;
+		private final Encoding encoding;
+
+		Column(String columnName, Encoding encoding) {
+			this.columnName = columnName;
+			this.encoding = encoding;
+		}
+
+		String getColumnName() {
+			return columnName;
+		}
+
+		Encoding getEncoding() {
+			return encoding;
+		}
+	}
+
+	private RequestArchive() {
+
+	}
+
+	/**
+	 * Converts seconds to the archive's microsecond resolution.
+	 * @param seconds Time in seconds.
+	 * @return Time in microseconds.
+	 */
+	static long toMicros(double seconds) {
+		return Math.round(seconds * MICROS_PER_SECOND);
+	}
+
+	/**
+	 * Converts microseconds back to seconds.
+	 * @param micros Time in microseconds.
+	 * @return Time in seconds.
+	 */
+	static double toSeconds(long micros) {
+		return micros / MICROS_PER_SECOND;
+	}
+
+	static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void writeVarLong(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	static long readVarLong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Unexpected end of request archive.");
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint in request archive.");
+	}
+}
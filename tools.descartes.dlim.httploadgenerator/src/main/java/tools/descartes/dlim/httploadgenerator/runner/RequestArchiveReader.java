@@ -0,0 +1,268 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchive.Column;
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchive.Encoding;
+
+/**
+ * Reads per-request results from a binary archive written by {@link RequestArchiveWriter}.
+ * Results are read one row group at a time. Row groups outside of a requested time range
+ * are skipped using their min/max index without decoding them.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class RequestArchiveReader implements AutoCloseable {
+
+	private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+	private final InputStream in;
+	private final List<String> columnNames = new ArrayList<>();
+	private final List<Encoding> encodings = new ArrayList<>();
+	/** Position of each known column in the archive's schema. */
+	private final int[] columnPositions = new int[Column.values().length];
+	private boolean finished = false;
+
+	/**
+	 * Opens an archive and reads its schema.
+	 * @param file The archive file.
+	 * @throws IOException If the file can not be read or is no request archive.
+	 */
+	public RequestArchiveReader(File file) throws IOException {
+		in = new BufferedInputStream(new FileInputStream(file), INPUT_BUFFER_SIZE);
+		try {
+			byte[] magic = in.readNBytes(RequestArchive.MAGIC.length);
+			if (!Arrays.equals(magic, RequestArchive.MAGIC)) {
+				throw new IOException(file + " is not a request archive.");
+			}
+			long version = RequestArchive.readVarLong(in);
+			if (version > RequestArchive.VERSION) {
+				throw new IOException("Unsupported request archive version " + version + ".");
+			}
+			long columnCount = RequestArchive.readVarLong(in);
+			Encoding[] allEncodings = Encoding.values();
+			for (int i = 0; i < columnCount; i++) {
+				columnNames.add(readString(in));
+				int encoding = in.read();
+				if (encoding < 0 || encoding >= allEncodings.length) {
+					throw new IOException("Unknown column encoding " + encoding + " in request archive.");
+				}
+				encodings.add(allEncodings[encoding]);
+			}
+			for (Column column : Column.values()) {
+				columnPositions[column.ordinal()] = columnNames.indexOf(column.getColumnName());
+				if (columnPositions[column.ordinal()] < 0) {
+					throw new IOException("Request archive is missing the column " + column.getColumnName() + ".");
+				}
+			}
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks whether a file is a request archive.
+	 * @param file The file.
+	 * @return True if the file starts with the archive's magic bytes.
+	 * @throws IOException If the file can not be read.
+	 */
+	public static boolean isArchive(File file) throws IOException {
+		try (InputStream in = new FileInputStream(file)) {
+			return Arrays.equals(in.readNBytes(RequestArchive.MAGIC.length), RequestArchive.MAGIC);
+		}
+	}
+
+	/**
+	 * The names of the archive's columns.
+	 * @return The column names in archive order.
+	 */
+	public List<String> getColumnNames() {
+		return Collections.unmodifiableList(columnNames);
+	}
+
+	/**
+	 * Reads the next row group.
+	 * @return The requests of the row group, null at the end of the archive.
+	 * @throws IOException If the archive can not be read.
+	 */
+	public List<PerRequestIntervalResult> readRowGroup() throws IOException {
+		return readRowGroup(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Reads the next row group that contains requests with a request target time in the given range.
+	 * Row groups without such requests are skipped.
+	 * @param fromTime The earliest request target time in seconds (inclusive).
+	 * @param toTime The latest request target time in seconds (inclusive).
+	 * @return The requests of the row group within the range, null at the end of the archive.
+	 * @throws IOException If the archive can not be read.
+	 */
+	public List<PerRequestIntervalResult> readRowGroup(double fromTime, double toTime) throws IOException {
+		int timePosition = columnPositions[Column.REQUEST_TARGET_TIME.ordinal()];
+		long from = fromTime == Double.NEGATIVE_INFINITY ? Long.MIN_VALUE : RequestArchive.toMicros(fromTime);
+		long to = toTime == Double.POSITIVE_INFINITY ? Long.MAX_VALUE : RequestArchive.toMicros(toTime);
+		byte[][] chunks = new byte[columnNames.size()][];
+		while (!finished) {
+			int rows = readRowCount();
+			if (rows == 0) {
+				finished = true;
+				break;
+			}
+			boolean skip = false;
+			for (int position = 0; position < columnNames.size(); position++) {
+				long min = RequestArchive.unZigZag(RequestArchive.readVarLong(in));
+				long max = RequestArchive.unZigZag(RequestArchive.readVarLong(in));
+				int length = (int) RequestArchive.readVarLong(in);
+				if (position == timePosition && (max < from || min > to)) {
+					skip = true;
+				}
+				if (skip) {
+					skipFully(length);
+				} else {
+					chunks[position] = readFully(length);
+				}
+			}
+			if (!skip) {
+				return decode(rows, chunks, from, to);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Closes the archive file.
+	 * @throws IOException If closing failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private int readRowCount() throws IOException {
+		// archives of aborted runs end without the end marker
+		in.mark(1);
+		if (in.read() < 0) {
+			return 0;
+		}
+		in.reset();
+		return (int) RequestArchive.readVarLong(in);
+	}
+
+	private List<PerRequestIntervalResult> decode(int rows, byte[][] chunks, long from, long to)
+			throws IOException {
+		long[][] values = new long[Column.values().length][];
+		String[][] dictionaries = new String[Column.values().length][];
+		for (Column column : Column.values()) {
+			int position = columnPositions[column.ordinal()];
+			ByteArrayInputStream chunk = new ByteArrayInputStream(chunks[position]);
+			Encoding encoding = encodings.get(position);
+			if (encoding == Encoding.DICTIONARY) {
+				String[] dictionary = new String[(int) RequestArchive.readVarLong(chunk)];
+				for (int i = 0; i < dictionary.length; i++) {
+					dictionary[i] = readString(chunk);
+				}
+				dictionaries[column.ordinal()] = dictionary;
+			}
+			long[] columnValues = new long[rows];
+			long previous = 0;
+			for (int i = 0; i < rows; i++) {
+				long value = RequestArchive.readVarLong(chunk);
+				switch (encoding) {
+				case DELTA:
+					previous += RequestArchive.unZigZag(value);
+					columnValues[i] = previous;
+					break;
+				case VARINT:
+					columnValues[i] = RequestArchive.unZigZag(value);
+					break;
+				default:
+					columnValues[i] = value;
+					break;
+				}
+			}
+			values[column.ordinal()] = columnValues;
+		}
+		List<PerRequestIntervalResult> requests = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			long time = values[Column.REQUEST_TARGET_TIME.ordinal()][i];
+			if (time < from || time > to) {
+				continue;
+			}
+			requests.add(new PerRequestIntervalResult(
+					RequestArchive.toSeconds(values[Column.RESPONSE_TARGET_TIME.ordinal()][i]),
+					(int) values[Column.REQUEST_NUM.ordinal()][i],
+					lookup(dictionaries, values, Column.URI, i),
+					lookup(dictionaries, values, Column.METHOD, i),
+					RequestArchive.toSeconds(values[Column.RESPONSE_TIME.ordinal()][i]),
+					lookup(dictionaries, values, Column.STATUS, i),
+					RequestArchive.toSeconds(time)));
+		}
+		return requests;
+	}
+
+	private static String lookup(String[][] dictionaries, long[][] values, Column column, int row) {
+		String[] dictionary = dictionaries[column.ordinal()];
+		if (dictionary == null) {
+			return Long.toString(values[column.ordinal()][row]);
+		}
+		return dictionary[(int) values[column.ordinal()][row]];
+	}
+
+	private byte[] readFully(int length) throws IOException {
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length < length) {
+			throw new EOFException("Unexpected end of request archive.");
+		}
+		return bytes;
+	}
+
+	private void skipFully(long length) throws IOException {
+		while (length > 0) {
+			long skipped = in.skip(length);
+			if (skipped <= 0) {
+				if (in.read() < 0) {
+					throw new EOFException("Unexpected end of request archive.");
+				}
+				skipped = 1;
+			}
+			length -= skipped;
+		}
+	}
+
+	private static String readString(InputStream in) throws IOException {
+		int length = (int) RequestArchive.readVarLong(in);
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length < length) {
+			throw new EOFException("Unexpected end of request archive.");
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchive.Column;
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchive.Encoding;
+
+/**
+ * Writes per-request results to a columnar binary archive.
+ * Requests are buffered per column and written in row groups once a group is full.
+ * Time stamps are delta-encoded, URIs, methods and states are dictionary-encoded per row group
+ * and response times are stored as varints. See {@link RequestArchive} for the format.
+ * Not thread-safe.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class RequestArchiveWriter implements AutoCloseable {
+
+	private static final Column[] COLUMNS = Column.values();
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+	private final OutputStream out;
+	private final int rowGroupSize;
+	private final long[][] values;
+	private final Map<Column, Map<String, Integer>> dictionaries = new EnumMap<>(Column.class);
+	private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+	private int rows = 0;
+
+	/**
+	 * Creates the archive file and writes its schema.
+	 * @param file The archive file.
+	 * @throws IOException If the file can not be written.
+	 */
+	public RequestArchiveWriter(File file) throws IOException {
+		this(file, RequestArchive.DEFAULT_ROW_GROUP_SIZE);
+	}
+
+	/**
+	 * Creates the archive file and writes its schema.
+	 * @param file The archive file.
+	 * @param rowGroupSize The number of rows per row group.
+	 * @throws IOException If the file can not be written.
+	 */
+	RequestArchiveWriter(File file, int rowGroupSize) throws IOException {
+		this.rowGroupSize = rowGroupSize;
+		values = new long[COLUMNS.length][rowGroupSize];
+		for (Column column : COLUMNS) {
+			if (column.getEncoding() == Encoding.DICTIONARY) {
+				dictionaries.put(column, new LinkedHashMap<>());
+			}
+		}
+		out = new BufferedOutputStream(new FileOutputStream(file), OUTPUT_BUFFER_SIZE);
+		try {
+			out.write(RequestArchive.MAGIC);
+			RequestArchive.writeVarLong(out, RequestArchive.VERSION);
+			RequestArchive.writeVarLong(out, COLUMNS.length);
+			for (Column column : COLUMNS) {
+				writeString(out, column.getColumnName());
+				out.write(column.getEncoding().ordinal());
+			}
+		} catch (IOException e) {
+			out.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends a request to the archive.
+	 * @param request The request's result.
+	 * @throws IOException If a full row group can not be written.
+	 */
+	public void write(PerRequestIntervalResult request) throws IOException {
+		values[Column.REQUEST_TARGET_TIME.ordinal()][rows] = RequestArchive.toMicros(request.getTransactionStartTime());
+		values[Column.RESPONSE_TARGET_TIME.ordinal()][rows] = RequestArchive.toMicros(request.getResponseTargetTime());
+		values[Column.REQUEST_NUM.ordinal()][rows] = request.getRequestNum();
+		values[Column.URI.ordinal()][rows] = lookup(Column.URI, request.getRequestURI());
+		values[Column.METHOD.ordinal()][rows] = lookup(Column.METHOD, request.getMethod());
+		values[Column.RESPONSE_TIME.ordinal()][rows] = RequestArchive.toMicros(request.getResponseTime());
+		values[Column.STATUS.ordinal()][rows] = lookup(Column.STATUS, request.getTransactionState());
+		rows++;
+		if (rows == rowGroupSize) {
+			flushRowGroup();
+		}
+	}
+
+	/**
+	 * Writes the last row group and the end marker and closes the file.
+	 * @throws IOException If writing failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flushRowGroup();
+			RequestArchive.writeVarLong(out, 0);
+		} finally {
+			out.close();
+		}
+	}
+
+	private int lookup(Column column, String value) {
+		Map<String, Integer> dictionary = dictionaries.get(column);
+		return dictionary.computeIfAbsent(value == null ? "" : value, v -> dictionary.size());
+	}
+
+	private void flushRowGroup() throws IOException {
+		if (rows == 0) {
+			return;
+		}
+		RequestArchive.writeVarLong(out, rows);
+		for (Column column : COLUMNS) {
+			long[] columnValues = values[column.ordinal()];
+			long min = Long.MAX_VALUE;
+			long max = Long.MIN_VALUE;
+			chunk.reset();
+			if (column.getEncoding() == Encoding.DICTIONARY) {
+				Map<String, Integer> dictionary = dictionaries.get(column);
+				RequestArchive.writeVarLong(chunk, dictionary.size());
+				for (String value : dictionary.keySet()) {
+					writeString(chunk, value);
+				}
+				dictionary.clear();
+			}
+			long previous = 0;
+			for (int i = 0; i < rows; i++) {
+				long value = columnValues[i];
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+				switch (column.getEncoding()) {
+				case DELTA:
+					RequestArchive.writeVarLong(chunk, RequestArchive.zigZag(value - previous));
+					previous = value;
+					break;
+				case VARINT:
+					RequestArchive.writeVarLong(chunk, RequestArchive.zigZag(value));
+					break;
+				default:
+					RequestArchive.writeVarLong(chunk, value);
+					break;
+				}
+			}
+			RequestArchive.writeVarLong(out, RequestArchive.zigZag(min));
+			RequestArchive.writeVarLong(out, RequestArchive.zigZag(max));
+			RequestArchive.writeVarLong(out, chunk.size());
+			chunk.writeTo(out);
+		}
+		rows = 0;
+	}
+
+	private static void writeString(OutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		RequestArchive.writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+}
@@ -0,0 +1,480 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the result and request CSV files on a dedicated thread.
+ * The director hands interval results over through a bounded queue and continues collecting results.
+ * The writer thread formats all queued intervals at once and writes them with one batched write per file,
+ * encoding through a large direct buffer. Files can optionally be compressed with gzip while writing.
+ * Requests can additionally be written to a binary {@link RequestArchiveWriter request archive},
+ * the {@link ErrorBreakdown} and {@link EndpointTraffic} of each interval to a breakdown file
+ * and the rows of the {@link PeriodMerger} to a period file.
+ *
+ * @author Yannik Lubas
+ *
+ */
+public class ResultWriter implements AutoCloseable {
+
+	private static final Logger LOG = Logger.getLogger(ResultWriter.class.getName());
+
+	/** Maximum number of pending intervals before the director blocks. */
+	private static final int QUEUE_CAPACITY = 256;
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final int GZIP_BUFFER_SIZE = 1 << 16;
+	/** File extension of compressed result files. */
+	public static final String GZIP_EXTENSION = ".gz";
+	/** Header of the per-request result file. */
+	public static final String REQUEST_HEADER
+			= "Request Target Time,Response Target Time,Request Num,URI,Method,Response Time,Status";
+
+	private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	/** All opened files, in the order they were opened. */
+	private final List<Closeable> files = new ArrayList<>();
+	private final Sink resultSink;
+	private final Sink requestSink;
+	private final Sink breakdownSink;
+	private final Sink periodSink;
+	private final RequestArchiveWriter archive;
+	private final Thread thread;
+	private volatile IOException failure;
+	private volatile boolean backlogFull = false;
+
+	/**
+	 * Opens the result files and starts the writer thread.
+	 * @param options The files to write.
+	 * @throws IOException If a file can not be opened. Files opened before are closed.
+	 */
+	public ResultWriter(Options options) throws IOException {
+		try {
+			resultSink = open(new Sink(options.resultFile, options.compress));
+			requestSink = open(new Sink(options.requestFile, options.compress));
+			archive = options.archiveFile == null ? null : new RequestArchiveWriter(options.archiveFile);
+			if (archive != null) {
+				files.add(archive::close);
+			}
+			breakdownSink = options.breakdownFile == null ? null : open(new Sink(options.breakdownFile, options.compress));
+			if (breakdownSink != null) {
+				breakdownSink.write(ErrorBreakdown.HEADER + System.lineSeparator());
+			}
+			periodSink = options.periodFile == null ? null : open(new Sink(options.periodFile, options.compress));
+			if (periodSink != null) {
+				periodSink.write(PeriodMerger.HEADER + System.lineSeparator());
+			}
+		} catch (IOException e) {
+			try {
+				closeFiles();
+			} catch (IOException closeFailure) {
+				e.addSuppressed(closeFailure);
+			}
+			throw e;
+		}
+		thread = new Thread(this::run, "ResultWriter");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private Sink open(Sink sink) {
+		files.add(sink);
+		return sink;
+	}
+
+	/**
+	 * Appends text to the interval result file, e.g., the header.
+	 * @param text The text.
+	 */
+	public void printResultText(String text) {
+		enqueue(new Entry(text, null, null));
+	}
+
+	/**
+	 * Appends text to the per-request result file, e.g., the header.
+	 * @param text The text.
+	 */
+	public void printRequestText(String text) {
+		enqueue(new Entry(null, text, null));
+	}
+
+	/**
+	 * Appends rows to the report period file. Ignored if there is no period file.
+	 * @param text The rows.
+	 */
+	public void printPeriodText(String text) {
+		enqueue(new Entry(null, null, null, null, text));
+	}
+
+	/**
+	 * Appends the row of an interval to the result file and its requests to the request file.
+	 * @param result The interval's result.
+	 * @param powers The power measurements of the interval, null or empty if there are none.
+	 */
+	public void write(IntervalResult result, List<Double> powers) {
+		enqueue(new Entry(null, null, result, powers));
+	}
+
+	/**
+	 * The number of pending entries that have not been written yet.
+	 * @return The backlog in intervals.
+	 */
+	public int getBacklog() {
+		return queue.size();
+	}
+
+	/**
+	 * Writes all pending entries and closes the files.
+	 * @throws IOException If writing failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		enqueue(Entry.END);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted waiting for the result writer.", e);
+		}
+		closeFiles();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Closes all opened files, even if closing one of them fails.
+	 * @throws IOException The first failure, with the others suppressed.
+	 */
+	private void closeFiles() throws IOException {
+		IOException closeFailure = null;
+		for (Closeable file : files) {
+			try {
+				file.close();
+			} catch (IOException e) {
+				if (closeFailure == null) {
+					closeFailure = e;
+				} else {
+					closeFailure.addSuppressed(e);
+				}
+			}
+		}
+		if (closeFailure != null) {
+			throw closeFailure;
+		}
+	}
+
+	private void enqueue(Entry entry) {
+		try {
+			if (queue.offer(entry)) {
+				backlogFull = false;
+				return;
+			}
+			if (!backlogFull) {
+				backlogFull = true;
+				LOG.warning("Result writer backlog is full (" + QUEUE_CAPACITY + " entries), "
+						+ "the director waits for the result files to be written.");
+			}
+			queue.put(entry);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOG.severe("Interrupted handing results over to the result writer.");
+		}
+	}
+
+	private void run() {
+		List<Entry> batch = new ArrayList<>();
+		StringBuilder results = new StringBuilder();
+		StringBuilder requests = new StringBuilder();
+		StringBuilder breakdowns = new StringBuilder();
+		StringBuilder periods = new StringBuilder();
+		boolean end = false;
+		while (!end) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				LOG.severe("Result writer interrupted.");
+				return;
+			}
+			queue.drainTo(batch);
+			for (Entry entry : batch) {
+				if (entry == Entry.END) {
+					end = true;
+					break;
+				}
+				entry.format(results, requests, breakdowns, periods);
+			}
+			if (failure == null) {
+				try {
+					resultSink.write(results);
+					requestSink.write(requests);
+					if (breakdownSink != null) {
+						breakdownSink.write(breakdowns);
+					}
+					if (periodSink != null) {
+						periodSink.write(periods);
+					}
+					if (archive != null) {
+						for (Entry entry : batch) {
+							entry.archive(archive);
+						}
+					}
+				} catch (IOException e) {
+					LOG.severe("Could not write results: " + e.getMessage());
+					failure = e;
+				}
+			}
+			batch.clear();
+			results.setLength(0);
+			requests.setLength(0);
+			breakdowns.setLength(0);
+			periods.setLength(0);
+		}
+	}
+
+	/**
+	 * Pending text or interval result.
+	 */
+	private static final class Entry {
+
+		private static final Entry END = new Entry(null, null, null);
+
+		private final String resultText;
+		private final String requestText;
+		private final IntervalResult result;
+		private final List<Double> powers;
+		private final String periodText;
+
+		private Entry(String resultText, String requestText, IntervalResult result) {
+			this(resultText, requestText, result, null);
+		}
+
+		private Entry(String resultText, String requestText, IntervalResult result, List<Double> powers) {
+			this(resultText, requestText, result, powers, null);
+		}
+
+		private Entry(String resultText, String requestText, IntervalResult result, List<Double> powers,
+				String periodText) {
+			this.resultText = resultText;
+			this.requestText = requestText;
+			this.result = result;
+			this.powers = powers;
+			this.periodText = periodText;
+		}
+
+		private void format(StringBuilder results, StringBuilder requests, StringBuilder breakdowns,
+				StringBuilder periods) {
+			if (resultText != null) {
+				results.append(resultText);
+			}
+			if (requestText != null) {
+				requests.append(requestText);
+			}
+			if (periodText != null) {
+				periods.append(periodText);
+			}
+			if (result == null) {
+				return;
+			}
+			results.append(result.getTargetTime()).append(',').append(result.getLoadIntensity())
+					.append(',').append(result.getSuccessfulTransactions())
+					.append(',').append(result.getFailedTransactions())
+					.append(',').append(result.getTimeoutTransactions())
+					.append(',').append(result.getDroppedTransactions())
+					.append(',').append(result.getAvgResponseTime())
+					.append(',').append(result.getFinalBatchTime());
+			if (powers != null) {
+				for (Double power : powers) {
+					results.append(',').append(power);
+				}
+			}
+			for (MetricGroup group : MetricGroup.values()) {
+				for (String value : group.toColumns(result.getMetrics(group))) {
+					results.append(',').append(value);
+				}
+			}
+			results.append(System.lineSeparator());
+
+			for (PerRequestIntervalResult request : result.getRequestIntervalResults()) {
+				appendRequest(requests, request);
+			}
+			result.getErrorBreakdown().appendRows(breakdowns, result.getTargetTime());
+			result.getEndpointTraffic().appendRows(breakdowns, result.getTargetTime());
+		}
+
+		private void archive(RequestArchiveWriter archive) throws IOException {
+			if (result == null) {
+				return;
+			}
+			for (PerRequestIntervalResult request : result.getRequestIntervalResults()) {
+				archive.write(request);
+			}
+		}
+	}
+
+	/**
+	 * The files of a {@link ResultWriter}. The interval and per-request result files are required,
+	 * all other files are optional.
+	 */
+	public static final class Options {
+
+		private final File resultFile;
+		private final File requestFile;
+		private File archiveFile;
+		private File breakdownFile;
+		private File periodFile;
+		private boolean compress;
+
+		/**
+		 * Creates the options with the required files.
+		 * @param resultFile The interval result file.
+		 * @param requestFile The per-request result file.
+		 */
+		public Options(File resultFile, File requestFile) {
+			this.resultFile = resultFile;
+			this.requestFile = requestFile;
+		}
+
+		/**
+		 * Sets the binary request archive.
+		 * @param archiveFile The archive, null for no archive.
+		 * @return These options.
+		 */
+		public Options archive(File archiveFile) {
+			this.archiveFile = archiveFile;
+			return this;
+		}
+
+		/**
+		 * Sets the status code, exception and endpoint traffic breakdown file.
+		 * @param breakdownFile The breakdown file, null for no breakdown.
+		 * @return These options.
+		 */
+		public Options breakdown(File breakdownFile) {
+			this.breakdownFile = breakdownFile;
+			return this;
+		}
+
+		/**
+		 * Sets the report period file.
+		 * @param periodFile The period file, null for no report periods.
+		 * @return These options.
+		 */
+		public Options periods(File periodFile) {
+			this.periodFile = periodFile;
+			return this;
+		}
+
+		/**
+		 * Compresses all CSV files with gzip. ".gz" is appended to file names without it.
+		 * @param compress True to compress.
+		 * @return These options.
+		 */
+		public Options compress(boolean compress) {
+			this.compress = compress;
+			return this;
+		}
+	}
+
+	/**
+	 * Appends the line of a request in the per-request result file.
+	 * @param requests The builder to append to.
+	 * @param request The request's result.
+	 */
+	public static void appendRequest(StringBuilder requests, PerRequestIntervalResult request) {
+		requests.append(request.getTransactionStartTime()).append(',')
+				.append(request.getResponseTargetTime()).append(',')
+				.append(request.getRequestNum()).append(',')
+				.append(request.getRequestURI()).append(',')
+				.append(request.getMethod()).append(',')
+				.append(request.getResponseTime()).append(',')
+				.append(request.getTransactionState())
+				.append(System.lineSeparator());
+	}
+
+	/**
+	 * Output file that encodes text through a direct buffer into a file channel,
+	 * or into a gzip stream if compressed.
+	 */
+	private static final class Sink implements Closeable {
+
+		private final WritableByteChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+		private Sink(File file, boolean compress) throws IOException {
+			if (compress) {
+				String path = file.getPath().endsWith(GZIP_EXTENSION) ? file.getPath() : file.getPath() + GZIP_EXTENSION;
+				channel = Channels.newChannel(new GZIPOutputStream(new FileOutputStream(path), GZIP_BUFFER_SIZE));
+			} else {
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING);
+			}
+		}
+
+		private void write(CharSequence text) throws IOException {
+			if (text.length() == 0) {
+				return;
+			}
+			CharBuffer chars = CharBuffer.wrap(text);
+			encoder.reset();
+			while (true) {
+				CoderResult result = encoder.encode(chars, buffer, true);
+				if (result.isOverflow()) {
+					drain();
+				} else if (result.isError()) {
+					result.throwException();
+				} else {
+					break;
+				}
+			}
+			while (encoder.flush(buffer).isOverflow()) {
+				drain();
+			}
+			drain();
+		}
+
+		private void drain() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import tools.descartes.dlim.httploadgenerator.analysis.AnalysisReport;
+import tools.descartes.dlim.httploadgenerator.analysis.RequestLogAnalysis;
+import tools.descartes.dlim.httploadgenerator.analysis.RequestLogAnalyzer;
+import tools.descartes.dlim.httploadgenerator.runner.IRunnerConstants;
+
+@Command(name = "analyze",
+header = "Analyze the results of a run.",
+showDefaultValues = true,
+customSynopsis = "@|bold java -jar httploadgenerator.jar |@@|red analyze|@ [@|yellow <options>|@...]",
+description = "Streams the request log of a run and writes per-interval and per-endpoint tables with response time "
+		+ "percentiles, error breakdowns and SLO compliance. Memory use does not depend on the size of the log."
+        )
+/**
+ * Command class capturing all command line parameters and options when analyzing the results of a run.
+ * @author Yannik Lubas
+ *
+ */
+public class AnalyzeCommand implements Runnable {
+
+	private static final Logger LOG = Logger.getLogger(AnalyzeCommand.class.getName());
+
+	@Option(names = {"--requests", "--rlog", "-i"},
+			paramLabel = "REQUEST_LOG",
+			description="Path of the request log: the request csv file, optionally gzip-compressed,"
+					+ " or a request archive.")
+	private String requestPath = IRunnerConstants.DEFAULT_REQUEST_LOG;
+
+	@Option(names = {"--results", "--log", "-r"},
+			paramLabel = "RESULT_FILE",
+			description="Path of the interval result file (optional). Adds the load intensity to the interval table.")
+	private String resultPath;
+
+	@Option(names = {"--out", "-o"},
+			paramLabel = "OUT_PREFIX",
+			description="Prefix of the output tables, \"_intervals.csv\" and \"_endpoints.csv\" are appended."
+					+ " Default: the request log's path without extension.")
+	private String outPrefix;
+
+	@Option(names = {"--slo-latency"},
+			paramLabel = "MS",
+			description="Response time objective in ms. No SLO compliance is reported if set to 0.")
+	private double sloMillis = 0;
+
+	@Option(names = {"--slo-percentile"},
+			paramLabel = "PERCENTILE",
+			description="Share of the requests of an interval in percent that must be successful within"
+					+ " the SLO latency for the interval to meet the SLO.")
+	private double sloPercentile = 99;
+
+	@Option(names = { "-h", "--help" }, usageHelp = true, description = "Display this help message.")
+	private boolean helpRequested = false;
+
+	@Override
+	public void run() {
+		File requests = new File(requestPath);
+		String prefix = outPrefix == null ? defaultPrefix(requestPath) : outPrefix;
+		try {
+			long start = System.nanoTime();
+			RequestLogAnalysis analysis = new RequestLogAnalyzer(sloMillis).analyze(requests);
+			AnalysisReport report = new AnalysisReport(analysis, sloMillis, sloPercentile);
+			if (resultPath != null) {
+				report.readLoadIntensities(new File(resultPath));
+			}
+			report.writeIntervals(new File(prefix + "_intervals.csv"));
+			report.writeEndpoints(new File(prefix + "_endpoints.csv"));
+			System.out.print(report.getSummary());
+			LOG.info("Analyzed " + requests + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+		} catch (IOException e) {
+			LOG.severe("Could not analyze " + requests + ": " + e.getMessage());
+		}
+	}
+
+	private static String defaultPrefix(String path) {
+		String prefix = path.endsWith(".gz") ? path.substring(0, path.length() - 3) : path;
+		int extension = prefix.lastIndexOf('.');
+		if (extension > Math.max(prefix.lastIndexOf('/'), prefix.lastIndexOf(File.separatorChar))) {
+			prefix = prefix.substring(0, extension);
+		}
+		return prefix;
+	}
+}
@@ -17,7 +17,10 @@ package tools.descartes.dlim.httploadgenerator.runner.cli;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaGlobalsBuilder;
 import tools.descartes.dlim.httploadgenerator.runner.Director;
+import tools.descartes.dlim.httploadgenerator.runner.DirectorSettings;
 import tools.descartes.dlim.httploadgenerator.runner.IRunnerConstants;
 
 @Command(name = "director",
@@ -48,6 +51,26 @@ public class DirectorCommand implements Runnable {
 			description="Name of @|yellow r|@equest @|yellow o|@utput log relative to directory of arrival rate file.")
 	private String routName = IRunnerConstants.DEFAULT_REQUEST_LOG;
 
+	@Option(names = {"--breakdown-out", "--bo"},
+			paramLabel = "BREAKDOWN_OUT_FILE",
+			description="Name of the log of responses per status code, failures per exception class and bytes per"
+					+ " endpoint of each interval, relative to directory of arrival rate file."
+					+ " No name => no breakdown log.")
+	private String breakdownName = IRunnerConstants.DEFAULT_BREAKDOWN_LOG;
+
+	@Option(names = {"--report-period"},
+			paramLabel = "MS",
+			description="Additionally report the transactions and response times of all load generators in periods"
+					+ " of this length, independent of the intervals of the arrival rate file, e.g., 100 or 10 for"
+					+ " sub-second resolution. 0 => no report periods.")
+	private int reportPeriodMillis = 0;
+
+	@Option(names = {"--period-out", "--po"},
+			paramLabel = "PERIOD_OUT_FILE",
+			description="Name of the report period log relative to directory of arrival rate file."
+					+ " Only written with --report-period.")
+	private String periodName = IRunnerConstants.DEFAULT_PERIOD_LOG;
+
 	@Option(names = {"--power", "--poweraddress", "-p"},
 			paramLabel = "POWER_IP[:POWER_PORT]",
 			description="Adress of @|yellow p|@owerDaemon. Multiple addresses are "
@@ -110,13 +133,138 @@ public class DirectorCommand implements Runnable {
 					+ " It is highly recommended to configure long warmup times when randomizing users.")
 	private boolean randomizeUsers =  false;
 
+	@Option(names = {"--luajc"},
+			description="With this flag, load generators compile the LUA script to JVM bytecode (LuaJC)"
+					+ " instead of interpreting it. Falls back to the interpreter if compilation fails.")
+	private boolean luaJC = false;
+
+	@Option(names = {"--lua-libs", "--lualibs"},
+			paramLabel = "LUA_LIBRARIES",
+			description="Comma separated whitelist of the LUA standard libraries loaded for each virtual user"
+					+ " (string, table, math, coroutine, bit32, os, io, luajava, debug)."
+					+ " The base library and the html and json helpers are always available."
+					+ " Use \"all\" for the full LuaJ standard globals.")
+	private String luaLibraries = LuaGlobalsBuilder.DEFAULT_LIBRARIES;
+
+	@Option(names = {"--request-generator", "--requestgenerator"},
+			paramLabel = "REQUEST_GENERATOR_CLASS",
+			description="Fully qualified class name of a custom request generator"
+					+ " (implementing tools.descartes.dlim.httploadgenerator.http.IRequestGenerator)."
+					+ " Replaces the LUA script. The class must be on the load generators' classpath.")
+	private String requestGeneratorClassName = "";
+
+	@Option(names = {"--prewarm-connections"},
+			paramLabel = "CONNECTIONS",
+			description="Number of connections per target host that load generators open before measurement starts."
+					+ " Target hosts are always resolved before measurement starts.")
+	private int prewarmConnections = 0;
+
+	@Option(names = {"--prewarm-calls"},
+			paramLabel = "CALLS",
+			description="Number of calls per user that load generators send before measurement starts."
+					+ " Their results are not logged.")
+	private int prewarmCalls = 0;
+
+	@Option(names = {"--keep-alive", "--keepalive"},
+			description="With this flag, requests keep their connections open and later requests reuse them."
+					+ " By default, each request sends \"Connection: close\", so that its response time"
+					+ " includes the connection setup.")
+	private boolean keepAlive = false;
+
+	@Option(names = {"--bind-addresses", "--bindaddresses"},
+			paramLabel = "ADDRESSES",
+			description="Comma separated local addresses that load generators bind their connections to,"
+					+ " e.g., 127.0.0.2,127.0.0.3. Users are spread over the addresses round-robin, each address"
+					+ " has its own range of ephemeral ports. Addresses that do not exist on a load generator"
+					+ " are ignored.")
+	private String bindAddresses = "";
+
+	@Option(names = {"--client-shards", "--clientshards"},
+			paramLabel = "SHARDS",
+			description="Number of independent HTTP clients per load generator. Each shard has its own"
+					+ " selectors, threads and connection pools, users are assigned to the shards round-robin."
+					+ " Default: one shard per 4 cores of the load generator.")
+	private int clientShards = 0;
+
+	@Option(names = {"--client-selectors"},
+			paramLabel = "SELECTORS",
+			description="Number of selector threads of each load generator's HTTP clients."
+					+ " Default: half the cores.")
+	private int clientSelectors = HttpClientSettings.AUTO;
+
+	@Option(names = {"--client-min-threads"},
+			paramLabel = "THREADS",
+			description="Minimum number of threads of each load generator's HTTP clients."
+					+ " Default: selectors + 2 threads per core.")
+	private int clientMinThreads = HttpClientSettings.AUTO;
+
+	@Option(names = {"--client-max-threads"},
+			paramLabel = "THREADS",
+			description="Maximum number of threads of each load generator's HTTP clients."
+					+ " Default: sized from the cores and the peak rate of the load profile, 32 to 1024.")
+	private int clientMaxThreads = HttpClientSettings.AUTO;
+
+	@Option(names = {"--client-thread-idle-timeout"},
+			paramLabel = "MS",
+			description="Time after which idle HTTP client threads above the minimum are stopped."
+					+ " Default: 60000.")
+	private int clientThreadIdleTimeout = HttpClientSettings.AUTO;
+
+	@Option(names = {"--client-queue-capacity"},
+			paramLabel = "TASKS",
+			description="Capacity of the HTTP client's task queue on each load generator. Requests whose"
+					+ " tasks do not fit the queue fail. Default: unbounded.")
+	private int clientQueueCapacity = HttpClientSettings.AUTO;
+
+	@Option(names = {"--max-connections"},
+			paramLabel = "CONNECTIONS",
+			description="Maximum number of connections per target host on each load generator."
+					+ " Default: 1.5 times the virtual users.")
+	private int maxConnections = HttpClientSettings.AUTO;
+
+	@Option(names = {"--max-queued-requests"},
+			paramLabel = "REQUESTS",
+			description="Maximum number of requests per target host that wait for a connection on each load"
+					+ " generator. Default: 1.5 times the virtual users.")
+	private int maxQueuedRequests = HttpClientSettings.AUTO;
+
+	@Option(names = {"--compress-results", "--compressresults"},
+			description="With this flag, the result files are compressed with gzip while they are written."
+					+ " \".gz\" is appended to their names.")
+	private boolean compressResults = false;
+
+	@Option(names = {"--archive", "--request-archive"},
+			paramLabel = "ARCHIVE_FILE",
+			description="Name of a binary request archive relative to directory of arrival rate file."
+					+ " The archive is written in addition to the request log and can be converted back to csv"
+					+ " with the export command. No name => no archive.")
+	private String archiveName = "";
+
+	@Option(names = {"--metrics"},
+			paramLabel = "[HOST:]PORT",
+			description="Serves the latest interval results, percentiles and load generator health at"
+					+ " http://HOST:PORT/metrics (Prometheus) and /metrics.json during the run."
+					+ " HOST defaults to 127.0.0.1. No port => no endpoint.")
+	private String metricsAddress = "";
+
 	@Option(names = { "-h", "--help" }, usageHelp = true, description = "Display this help message.")
 	private boolean helpRequested = false;
 
 	@Override
 	public void run() {
-		Director.executeDirector(profilePath, outName, routName, powerAddresses, generators,
-				randomSeed, virtualUserCount, urlTimeout, scriptPath, randomizeUsers, warmupRate, warmupDuration,
-				warmupPause, powerCommunicatorClassName);
+		Director.executeDirector(new DirectorSettings()
+				.profilePath(profilePath).outName(outName).routName(routName).breakdownName(breakdownName)
+				.periodName(periodName).archiveName(archiveName).compressResults(compressResults)
+				.metricsAddress(metricsAddress).reportPeriodMillis(reportPeriodMillis)
+				.powerAddresses(powerAddresses).powerCommunicatorClassName(powerCommunicatorClassName)
+				.generators(generators).randomSeed(randomSeed).virtualUserCount(virtualUserCount)
+				.urlTimeout(urlTimeout).scriptPath(scriptPath).luaJC(luaJC).luaLibraries(luaLibraries)
+				.requestGeneratorClassName(requestGeneratorClassName).randomizeUsers(randomizeUsers)
+				.warmupRate(warmupRate).warmupDurationS(warmupDuration).warmupPauseS(warmupPause)
+				.prewarmConnections(prewarmConnections).prewarmCalls(prewarmCalls).keepAlive(keepAlive)
+				.bindAddresses(bindAddresses)
+				.clientShards(clientShards).httpClientSettings(new HttpClientSettings(clientSelectors,
+						clientMinThreads, clientMaxThreads, clientThreadIdleTimeout, clientQueueCapacity,
+						maxConnections, maxQueuedRequests)));
 	}
 }
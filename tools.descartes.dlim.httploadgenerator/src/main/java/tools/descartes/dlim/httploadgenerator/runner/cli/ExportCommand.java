@@ -0,0 +1,103 @@
+/**
+ * Copyright 2025 Yannik Lubas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.descartes.dlim.httploadgenerator.runner.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.logging.Logger;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import tools.descartes.dlim.httploadgenerator.runner.PerRequestIntervalResult;
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchiveReader;
+import tools.descartes.dlim.httploadgenerator.runner.ResultWriter;
+
+@Command(name = "export",
+header = "Export a request archive to csv.",
+showDefaultValues = true,
+customSynopsis = "@|bold java -jar httploadgenerator.jar |@@|red export|@ [@|yellow <options>|@...]",
+description = "Converts a binary request archive written by the director back to the request csv format."
+        )
+/**
+ * Command class capturing all command line parameters and options when exporting a request archive.
+ * @author Yannik Lubas
+ *
+ */
+public class ExportCommand implements Runnable {
+
+	private static final Logger LOG = Logger.getLogger(ExportCommand.class.getName());
+
+	@Option(names = {"--archive", "-i"},
+			paramLabel = "ARCHIVE_FILE",
+			required = true,
+			description="Path of the request archive.")
+	private String archivePath;
+
+	@Option(names = {"--out", "--csv", "-o"},
+			paramLabel = "OUT_FILE",
+			description="Path of the csv file. Default: the archive path with the extension \".csv\".")
+	private String outPath;
+
+	@Option(names = {"--from"},
+			paramLabel = "SECONDS",
+			description="Only export requests with a request target time at or after this time.")
+	private double fromTime = Double.NEGATIVE_INFINITY;
+
+	@Option(names = {"--to"},
+			paramLabel = "SECONDS",
+			description="Only export requests with a request target time at or before this time.")
+	private double toTime = Double.POSITIVE_INFINITY;
+
+	@Option(names = { "-h", "--help" }, usageHelp = true, description = "Display this help message.")
+	private boolean helpRequested = false;
+
+	@Override
+	public void run() {
+		File archive = new File(archivePath);
+		File out = new File(outPath == null ? defaultOutPath(archivePath) : outPath);
+		long exported = 0;
+		try (RequestArchiveReader reader = new RequestArchiveReader(archive);
+				Writer writer = Files.newBufferedWriter(out.toPath(), StandardCharsets.UTF_8)) {
+			StringBuilder lines = new StringBuilder(ResultWriter.REQUEST_HEADER).append(System.lineSeparator());
+			List<PerRequestIntervalResult> requests;
+			while ((requests = reader.readRowGroup(fromTime, toTime)) != null) {
+				for (PerRequestIntervalResult request : requests) {
+					ResultWriter.appendRequest(lines, request);
+				}
+				writer.append(lines);
+				lines.setLength(0);
+				exported += requests.size();
+			}
+			writer.append(lines);
+		} catch (IOException e) {
+			LOG.severe("Could not export request archive " + archive + ": " + e.getMessage());
+			return;
+		}
+		LOG.info("Exported " + exported + " requests to " + out + ".");
+	}
+
+	private static String defaultOutPath(String archivePath) {
+		int extension = archivePath.lastIndexOf('.');
+		if (extension <= Math.max(archivePath.lastIndexOf('/'), archivePath.lastIndexOf(File.separatorChar))) {
+			return archivePath + ".csv";
+		}
+		return archivePath.substring(0, extension) + ".csv";
+	}
+}
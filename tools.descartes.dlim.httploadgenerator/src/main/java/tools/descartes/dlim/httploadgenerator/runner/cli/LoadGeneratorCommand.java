@@ -16,7 +16,9 @@
 package tools.descartes.dlim.httploadgenerator.runner.cli;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import tools.descartes.dlim.httploadgenerator.generator.AbstractLoadGenerator;
+import tools.descartes.dlim.httploadgenerator.generator.jfr.LoadEvents;
 
 @Command(name = "loadgenerator", 
 header = "Run in load generator mode.",
@@ -26,15 +28,28 @@ description = "Runs the load generator in director mode. The director parses con
 		+ "connects to one or multiple load generators, and writes the results to the result csv file."
         )
 /**
- * Command class capturing all command line parameters and options (which are none)
+ * Command class capturing all command line parameters and options
  * when running the load generator.
  * @author Joakim von Kistowski
  *
  */
 public class LoadGeneratorCommand implements Runnable {
 
+	@Option(names = {"--jfr-threshold"},
+			paramLabel = "MS",
+			description="Emits Java Flight Recorder events for batch dispatches, interval rollovers, and transactions"
+					+ " and user waits that take at least MS ms. The events are recorded by flight recordings of the"
+					+ " load generator's JVM, e.g., with -XX:StartFlightRecording. Negative => no events.")
+	private long jfrThresholdMillis = -1;
+
+	@Option(names = { "-h", "--help" }, usageHelp = true, description = "Display this help message.")
+	private boolean helpRequested = false;
+
 	@Override
 	public void run() {
+		if (jfrThresholdMillis >= 0) {
+			LoadEvents.enable(jfrThresholdMillis);
+		}
 		AbstractLoadGenerator.executeLoadGenerator();
 	}
 
@@ -27,6 +27,8 @@ public abstract class Transaction implements Runnable {
 
 	private long startTimeMs = 0;
 
+	private long enqueueTimeNanos = 0;
+
 	// the target time at which this transaction was sent
 	private double targetTime = 0;
 
@@ -67,6 +69,23 @@ public abstract class Transaction implements Runnable {
 		return startTimeMs;
 	}
 
+	/**
+	 * Set the time at which the transaction was queued into the threadpool.
+	 * Unlike the start time, it is used for measuring durations only.
+	 * @param enqueueTimeNanos The time as returned by {@link System#nanoTime()}.
+	 */
+	public void setEnqueueTimeNanos(long enqueueTimeNanos) {
+		this.enqueueTimeNanos = enqueueTimeNanos;
+	}
+
+	/**
+	 * Gets the time at which the transaction was queued into the threadpool.
+	 * @return The time as returned by {@link System#nanoTime()}.
+	 */
+	public long getEnqueueTimeNanos() {
+		return enqueueTimeNanos;
+	}
+
 	/**
 	 * Set the target time of the transaction at which it was queued into the threadpool.
 	 * @param targetTime The target time.
@@ -61,6 +61,7 @@ public class TransactionBatch {
 	public void executeBatch(ThreadPoolExecutor executor) {
 		//use a single start time approximation for all transactions in the batch to reduce overhead
 		long startTime = System.currentTimeMillis();
+		long enqueueTimeNanos = System.nanoTime();
 		TransactionQueueSingleton transactionQueue = TransactionQueueSingleton.getInstance();
 		for (int i = 0; i < size; i++) {
 			Transaction transaction = transactionQueue.getQueueElement();
@@ -68,6 +69,7 @@ public class TransactionBatch {
 				transaction = new HTTPTransaction();
 			}
 			transaction.setStartTime(startTime);
+			transaction.setEnqueueTimeNanos(enqueueTimeNanos);
 			transaction.setTargetTime(targetTime);
 			executor.execute(transaction);
 		}
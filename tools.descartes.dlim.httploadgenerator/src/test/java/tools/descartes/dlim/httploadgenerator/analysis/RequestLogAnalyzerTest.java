@@ -0,0 +1,113 @@
+package tools.descartes.dlim.httploadgenerator.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+import tools.descartes.dlim.httploadgenerator.runner.PerRequestIntervalResult;
+import tools.descartes.dlim.httploadgenerator.runner.RequestArchiveWriter;
+import tools.descartes.dlim.httploadgenerator.runner.ResultWriter;
+
+public class RequestLogAnalyzerTest {
+
+    private static final int REQUESTS = 5000;
+
+    @TempDir
+    File dir;
+
+    private File csv;
+
+    private static PerRequestIntervalResult request(int i) {
+        double targetTime = 1 + i / 500;
+        String state = i % 100 == 0 ? "FAILED" : i % 250 == 1 ? "DROPPED" : "SUCCESS";
+        // every tenth request takes 200 ms, the others 10 ms
+        return new PerRequestIntervalResult(targetTime, i % 4, "\"http://localhost/item/" + (i % 3) + "?id=" + i + "\"",
+                "GET", i % 10 == 0 ? 0.2 : 0.01, state, targetTime - 0.5);
+    }
+
+    @BeforeEach
+    void writeLog() throws IOException {
+        csv = new File(dir, "request_out.csv");
+        StringBuilder lines = new StringBuilder(ResultWriter.REQUEST_HEADER).append(System.lineSeparator());
+        for (int i = 0; i < REQUESTS; i++) {
+            ResultWriter.appendRequest(lines, request(i));
+        }
+        Files.writeString(csv.toPath(), lines);
+    }
+
+    private static void assertAnalysis(RequestLogAnalysis analysis) {
+        RequestStatistics total = analysis.getTotal();
+        assertEquals(REQUESTS, total.getCount());
+        assertEquals(50, total.getCount(TransactionState.FAILED));
+        assertEquals(20, total.getCount(TransactionState.DROPPED));
+        assertEquals(0, analysis.getSkippedLines());
+        assertEquals(10, analysis.getIntervals().size());
+        assertEquals(500, analysis.getIntervals().get(1.0).getCount());
+        assertEquals(3, analysis.getEndpoints().size());
+        assertEquals(1667, analysis.getEndpoints().get("GET http://localhost/item/0").getCount());
+        // 10% of the requests take 200 ms, SLO is 100 ms
+        assertEquals(REQUESTS - 500 - 20, total.getWithinSlo());
+        assertEquals(10.0, total.percentileMillis(0.5), 1.25);
+        assertEquals(200.0, total.percentileMillis(0.99), 25);
+    }
+
+    @Test
+    void testParallelChunks() throws IOException {
+        assertAnalysis(new RequestLogAnalyzer(100, 1000).analyze(csv));
+        assertAnalysis(new RequestLogAnalyzer(100, 1 << 20).analyze(csv));
+    }
+
+    @Test
+    void testCompressedAndArchive() throws IOException {
+        File gz = new File(dir, "request_out.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(gz))) {
+            out.write(Files.readAllBytes(csv.toPath()));
+        }
+        assertAnalysis(new RequestLogAnalyzer(100).analyze(gz));
+
+        File archive = new File(dir, "requests.hlga");
+        try (RequestArchiveWriter writer = new RequestArchiveWriter(archive)) {
+            for (int i = 0; i < REQUESTS; i++) {
+                writer.write(request(i));
+            }
+        }
+        assertAnalysis(new RequestLogAnalyzer(100).analyze(archive));
+    }
+
+    @Test
+    void testReport() throws IOException {
+        RequestLogAnalysis analysis = new RequestLogAnalyzer(100).analyze(csv);
+        File results = new File(dir, "out.csv");
+        Files.writeString(results.toPath(), "Target Time,Load Intensity,Successful Transactions\n,01.01.2025;12:00:00000\n"
+                + "1.0,500.0,480\n2.0,500.0,480\n");
+        AnalysisReport report = new AnalysisReport(analysis, 100, 90);
+        report.readLoadIntensities(results);
+        File intervals = new File(dir, "intervals.csv");
+        report.writeIntervals(intervals);
+        assertEquals(11, Files.readAllLines(intervals.toPath()).size());
+        assertTrue(Files.readAllLines(intervals.toPath()).get(1).startsWith("1.0,500.0,500,"));
+        // less than 90% of each interval's requests are successful within 100 ms
+        assertTrue(Files.readAllLines(intervals.toPath()).get(1).endsWith(",0"));
+        assertTrue(report.getSummary().contains("met in 0 of 10 intervals"));
+    }
+
+    @Test
+    void testParseDouble() {
+        for (String value : new String[] {"0.0", "1.5", "-2.25", "0.037500000000000006", "1.0E7", "123456789.123", "7"}) {
+            ByteBuffer buffer = ByteBuffer.wrap(("," + value + ",").getBytes(StandardCharsets.US_ASCII));
+            assertEquals(Double.parseDouble(value), RequestLogAnalyzer.parseDouble(buffer, 1, value.length() + 1));
+        }
+    }
+}
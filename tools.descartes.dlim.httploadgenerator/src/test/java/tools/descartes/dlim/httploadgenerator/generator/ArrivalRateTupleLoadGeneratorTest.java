@@ -0,0 +1,57 @@
+package tools.descartes.dlim.httploadgenerator.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import tools.descartes.dlim.httploadgenerator.http.HttpClientSettings;
+import tools.descartes.dlim.httploadgenerator.runner.IRunnerConstants;
+import tools.descartes.dlim.httploadgenerator.runner.LoadGeneratorCommunicator;
+
+public class ArrivalRateTupleLoadGeneratorTest {
+
+    private static final int GENERATORS = 2;
+    private static final int CORES = 8;
+    private static final int USERS = 100;
+
+    @Test
+    void testResolvesThreadsForShareOfLoad() throws Exception {
+        List<ArrivalRateTuple> rates = List.of(new ArrivalRateTuple(1, 1000), new ArrivalRateTuple(2, 40000));
+        List<ArrivalRateTupleLoadGenerator> generators = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, GENERATORS, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < GENERATORS; i++) {
+                LoadGeneratorCommunicator communicator = new LoadGeneratorCommunicator(
+                        InetAddress.getLoopbackAddress().getHostAddress(), server.getLocalPort());
+                try (Socket socket = server.accept()) {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                    PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                    ArrivalRateTupleLoadGenerator generator = new ArrivalRateTupleLoadGenerator(socket, in, out);
+                    // the director sends each load generator its share of the profile
+                    CompletableFuture<Void> sent = CompletableFuture.runAsync(
+                            () -> communicator.sendArrivalRates(rates, GENERATORS));
+                    generator.readLoadProfile(in, in.readLine());
+                    out.println(IRunnerConstants.OK_KEY);
+                    sent.get();
+                    generators.add(generator);
+                }
+            }
+        }
+        generators.get(0).setNumberOfVirtualUsers(USERS);
+        int expected = HttpClientSettings.auto().resolve(CORES, USERS, 40000 / GENERATORS).getMaxThreads();
+        assertTrue(expected > HttpClientSettings.auto().resolve(CORES, USERS, 40000 / GENERATORS / GENERATORS)
+                .getMaxThreads());
+        for (ArrivalRateTupleLoadGenerator generator : generators) {
+            assertEquals(expected, generator.resolveHttpClientSettings(CORES).getMaxThreads());
+        }
+    }
+}
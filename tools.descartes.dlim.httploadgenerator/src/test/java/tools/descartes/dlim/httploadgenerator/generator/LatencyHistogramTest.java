@@ -0,0 +1,37 @@
+package tools.descartes.dlim.httploadgenerator.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testBucketBounds() {
+        long previousUpperBound = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long upperBound = LatencyHistogram.bucketUpperBoundMicros(i);
+            // buckets are contiguous and each value maps to the bucket that contains it
+            assertEquals(i, LatencyHistogram.bucketIndex(previousUpperBound));
+            assertEquals(i, LatencyHistogram.bucketIndex(upperBound - 1));
+            assertTrue(upperBound - previousUpperBound <= Math.max(1, previousUpperBound / 8));
+            previousUpperBound = upperBound;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testRetrieveAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(1500);
+        histogram.recordNanos(2500);
+        histogram.recordNanos(-1);
+        long[] values = histogram.retrieveAndReset();
+        assertEquals(3, values[LatencyHistogram.COUNT_INDEX]);
+        assertEquals(3, values[LatencyHistogram.SUM_INDEX]);
+        assertEquals(1.0, LatencyHistogram.meanMicros(values));
+        assertEquals(3, LatencyHistogram.percentileMicros(values, 1.0));
+        assertEquals(0, histogram.retrieveAndReset()[LatencyHistogram.COUNT_INDEX]);
+        assertEquals(0, LatencyHistogram.percentileMicros(histogram.retrieveAndReset(), 0.5));
+    }
+}
@@ -0,0 +1,65 @@
+package tools.descartes.dlim.httploadgenerator.generator.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker.TransactionState;
+
+public class LoadEventsTest {
+
+    @TempDir
+    File dir;
+
+    @AfterEach
+    void disable() {
+        LoadEvents.disable();
+    }
+
+    @Test
+    void testDisabledCreatesNoEvents() {
+        assertNull(LoadEvents.beginTransaction());
+        assertNull(LoadEvents.beginUserWait());
+        assertNull(LoadEvents.beginBatch());
+        assertNull(LoadEvents.beginInterval());
+        // committing without an event is a no-op
+        LoadEvents.commitTransaction(null, "GET", "http://localhost/", TransactionState.SUCCESS, 1, 1.0, 500);
+    }
+
+    @Test
+    void testRecordsSlowTransactions() throws IOException {
+        LoadEvents.enable(50);
+        File file = new File(dir, "events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TransactionEvent.class);
+            recording.enable(BatchDispatchEvent.class);
+            recording.start();
+            LoadEvents.commitTransaction(LoadEvents.beginTransaction(), "GET", "http://localhost/fast",
+                    TransactionState.SUCCESS, 1, 1.0, 10);
+            LoadEvents.commitTransaction(LoadEvents.beginTransaction(), "POST", "http://localhost/slow",
+                    TransactionState.FAILED, 2, 1.0, 100);
+            LoadEvents.commitBatch(LoadEvents.beginBatch(), 1.0, 20, 3);
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+        assertEquals(2, events.size());
+        RecordedEvent transaction = events.stream()
+                .filter(e -> e.getEventType().getName().endsWith("Transaction")).findFirst().get();
+        assertEquals("http://localhost/slow", transaction.getString("uri"));
+        assertEquals("FAILED", transaction.getString("state"));
+        assertEquals(100, transaction.getDuration("responseTime").toMillis());
+        RecordedEvent batch = events.stream()
+                .filter(e -> e.getEventType().getName().endsWith("BatchDispatch")).findFirst().get();
+        assertEquals(20, batch.getInt("batchSize"));
+    }
+}
@@ -0,0 +1,39 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class CachingSocketAddressResolverTest {
+
+    @Test
+    void testHostsAreResolvedOnce() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingSocketAddressResolver resolver = new CachingSocketAddressResolver((host, port, promise) -> {
+            lookups.incrementAndGet();
+            if (host.equals("unknown")) {
+                promise.failed(new UnknownHostException(host));
+            } else {
+                promise.succeeded(List.of(InetSocketAddress.createUnresolved(host, port)));
+            }
+        });
+
+        List<InetSocketAddress> first = resolver.preResolve("example", 80);
+        assertSame(first, resolver.preResolve("example", 80));
+        assertEquals(1, lookups.get());
+        resolver.preResolve("example", 443);
+        assertEquals(2, lookups.get());
+
+        // failed lookups are not cached
+        assertThrows(ExecutionException.class, () -> resolver.preResolve("unknown", 80));
+        assertThrows(ExecutionException.class, () -> resolver.preResolve("unknown", 80));
+        assertEquals(4, lookups.get());
+        assertEquals(2, resolver.size());
+    }
+}
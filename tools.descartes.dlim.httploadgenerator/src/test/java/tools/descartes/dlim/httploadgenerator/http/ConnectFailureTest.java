@@ -0,0 +1,104 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.SocketAddressResolver;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+public class ConnectFailureTest {
+
+    @Test
+    void testClassifyConnectErrors() {
+        assertEquals(ConnectFailure.REFUSED, ConnectFailure.classify(new ConnectException("Connection refused")));
+        assertEquals(ConnectFailure.ADDRESS_NOT_AVAILABLE,
+                ConnectFailure.classify(new ConnectException("Cannot assign requested address")));
+        assertEquals(ConnectFailure.ADDRESS_NOT_AVAILABLE,
+                ConnectFailure.classify(new BindException("Address already in use")));
+        assertEquals(ConnectFailure.UNRESOLVED, ConnectFailure.classify(new UnknownHostException("nowhere")));
+        assertEquals(ConnectFailure.OTHER, ConnectFailure.classify(new ConnectException("Network is down")));
+    }
+
+    @Test
+    void testClassifyWrappedCause() {
+        Throwable wrapped = new ExecutionException(new IOException(new ConnectException("Connection refused")));
+        assertEquals(ConnectFailure.REFUSED, ConnectFailure.classify(wrapped));
+    }
+
+    @Test
+    void testTypeBeforeMessage() {
+        // an outer connect exception with a misleading message does not hide the errno's type
+        Throwable wrapped = new ConnectException("Connection refused");
+        wrapped.initCause(new NoRouteToHostException("No route to host"));
+        assertEquals(ConnectFailure.NO_ROUTE, ConnectFailure.classify(wrapped));
+    }
+
+    @Test
+    void testClassifyRealConnectFailures() throws Exception {
+        InetAddress bindAddress = InetAddress.getByName("127.0.0.2");
+        try (Socket probe = new Socket()) {
+            probe.bind(new InetSocketAddress(bindAddress, 0));
+        } catch (IOException e) {
+            Assumptions.assumeTrue(false, "127.0.0.2 is not available: " + e.getMessage());
+        }
+        // 192.0.2.1 (TEST-NET-1) is not assigned to this host
+        List<HttpClient> clients = HTTPInputGeneratorPool.createHttpClients(2,
+                List.of(bindAddress, InetAddress.getByName("192.0.2.1")), HttpClientSettings.auto().resolve(2, 2, 0),
+                5000, new SocketAddressResolver.Sync(), new NewConnectionTracker());
+        try {
+            try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"))) {
+                CompletableFuture<InetAddress> remote = CompletableFuture.supplyAsync(() -> {
+                    try (Socket socket = server.accept()) {
+                        return socket.getInetAddress();
+                    } catch (IOException e) {
+                        return null;
+                    }
+                });
+                String uri = "http://127.0.0.1:" + server.getLocalPort() + "/";
+                ExecutionException e = assertThrows(ExecutionException.class,
+                        () -> clients.get(0).newRequest(uri).timeout(5, TimeUnit.SECONDS).send());
+                // the server closed the connection without a response, but it was connected through 127.0.0.2
+                assertNull(ConnectFailure.classify(e));
+                assertEquals(bindAddress, remote.get(5, TimeUnit.SECONDS));
+
+                e = assertThrows(ExecutionException.class,
+                        () -> clients.get(1).newRequest(uri).timeout(5, TimeUnit.SECONDS).send());
+                assertEquals(ConnectFailure.ADDRESS_NOT_AVAILABLE, ConnectFailure.classify(e));
+            }
+            int closedPort;
+            try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"))) {
+                closedPort = closed.getLocalPort();
+            }
+            ExecutionException e = assertThrows(ExecutionException.class, () -> clients.get(0)
+                    .newRequest("http://127.0.0.1:" + closedPort + "/").timeout(5, TimeUnit.SECONDS).send());
+            assertEquals(ConnectFailure.REFUSED, ConnectFailure.classify(e));
+        } finally {
+            for (HttpClient client : clients) {
+                client.stop();
+            }
+        }
+    }
+
+    @Test
+    void testNonConnectFailures() {
+        assertNull(ConnectFailure.classify(new TimeoutException("Total timeout 1000 ms elapsed")));
+        assertNull(ConnectFailure.classify(new IOException("Connection reset by peer")));
+        assertNull(ConnectFailure.classify(null));
+    }
+}
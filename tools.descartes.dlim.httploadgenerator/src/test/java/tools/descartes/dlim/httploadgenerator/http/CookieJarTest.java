@@ -0,0 +1,89 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CookieJarTest {
+
+    private CookieJar jar;
+
+    @BeforeEach
+    void setup() {
+        jar = new CookieJar();
+    }
+
+    @Test
+    void testHostOnlyCookie() {
+        jar.addSetCookie(URI.create("http://shop.example.com/login"), "SESSION=abc; Path=/; HttpOnly");
+        assertEquals("SESSION=abc", jar.getCookieHeader(URI.create("http://shop.example.com/cart")));
+        assertNull(jar.getCookieHeader(URI.create("http://other.example.com/cart")));
+        assertNull(jar.getCookieHeader(URI.create("http://sub.shop.example.com/cart")));
+    }
+
+    @Test
+    void testDomainCookie() {
+        jar.addSetCookie(URI.create("http://shop.example.com/"), "id=1; Domain=.example.com");
+        assertEquals("id=1", jar.getCookieHeader(URI.create("http://api.example.com/")));
+        assertEquals("id=1", jar.getCookieHeader(URI.create("http://example.com/")));
+        assertNull(jar.getCookieHeader(URI.create("http://badexample.com/")));
+        jar.addSetCookie(URI.create("http://shop.example.com/"), "evil=1; Domain=other.com");
+        assertEquals(1, jar.size(), "Cookies for foreign domains are rejected");
+    }
+
+    @Test
+    void testPathMatching() {
+        jar.addSetCookie(URI.create("http://localhost/app/login"), "a=1");
+        jar.addSetCookie(URI.create("http://localhost/"), "b=2; Path=/");
+        assertEquals("a=1; b=2", jar.getCookieHeader(URI.create("http://localhost/app/items")));
+        assertEquals("a=1; b=2", jar.getCookieHeader(URI.create("http://localhost/app")));
+        assertEquals("b=2", jar.getCookieHeader(URI.create("http://localhost/application")));
+        assertEquals("b=2", jar.getCookieHeader(URI.create("http://localhost/")));
+    }
+
+    @Test
+    void testReplaceAndDelete() {
+        URI uri = URI.create("http://localhost/");
+        jar.addSetCookie(uri, "a=1; Path=/");
+        jar.addSetCookie(uri, "b=2; Path=/");
+        assertEquals("a=1; b=2", jar.getCookieHeader(uri));
+        jar.addSetCookie(uri, "a=3; Path=/");
+        assertEquals("a=3; b=2", jar.getCookieHeader(uri));
+        jar.addSetCookie(uri, "a=; Path=/; Max-Age=0");
+        assertEquals("b=2", jar.getCookieHeader(uri));
+        jar.addSetCookie(uri, "b=; Path=/; Expires=Thu, 01 Jan 1970 00:00:00 GMT");
+        assertNull(jar.getCookieHeader(uri));
+        assertEquals(0, jar.size());
+    }
+
+    @Test
+    void testSecureCookie() {
+        jar.addSetCookie(URI.create("https://localhost/"), "s=1; Path=/; Secure");
+        assertNull(jar.getCookieHeader(URI.create("http://localhost/")));
+        assertEquals("s=1", jar.getCookieHeader(URI.create("https://localhost/")));
+    }
+
+    @Test
+    void testExpiry() throws InterruptedException {
+        URI uri = URI.create("http://localhost/");
+        jar.addSetCookie(uri, "short=1; Path=/; Max-Age=1");
+        jar.addSetCookie(uri, "long=2; Path=/; Max-Age=3600");
+        assertEquals("short=1; long=2", jar.getCookieHeader(uri));
+        Thread.sleep(1100);
+        assertEquals("long=2", jar.getCookieHeader(uri));
+    }
+
+    @Test
+    void testClear() {
+        URI uri = URI.create("http://localhost/");
+        jar.addSetCookie(uri, "a=1; Path=/");
+        assertEquals("a=1", jar.getCookieHeader(uri));
+        jar.clear();
+        assertNull(jar.getCookieHeader(uri));
+        jar.addSetCookie(uri, "b=2; Path=/");
+        assertEquals("b=2", jar.getCookieHeader(uri));
+    }
+}
@@ -0,0 +1,128 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HTTPInputGeneratorPoolTest {
+
+    @Test
+    void testShardCount() {
+        assertEquals(4, HTTPInputGeneratorPool.shardCount(4, 100, 0));
+        // never more shards than users
+        assertEquals(2, HTTPInputGeneratorPool.shardCount(4, 2, 0));
+        assertEquals(1, HTTPInputGeneratorPool.shardCount(4, 0, 0));
+        // rounded up to a multiple of the bind addresses
+        assertEquals(6, HTTPInputGeneratorPool.shardCount(4, 100, 3));
+        assertTrue(HTTPInputGeneratorPool.shardCount(0, 100, 0) >= 1);
+    }
+
+    @Test
+    void testBrokenScriptFailsInitialization(@TempDir File dir) throws IOException {
+        File script = new File(dir, "broken.lua");
+        Files.writeString(script.toPath(), "function onCall(callnum)\n  return \"http://localhost/\"\n");
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> initialize(script.getPath(), ""));
+        assertTrue(e.getMessage().startsWith("Could not compile Lua script"));
+
+        e = assertThrows(IllegalStateException.class, () -> initialize(new File(dir, "missing.lua").getPath(), ""));
+        assertTrue(e.getMessage().startsWith("Lua script does not exist"));
+
+        e = assertThrows(IllegalStateException.class, () -> initialize(script.getPath(), "java.lang.String"));
+        assertTrue(e.getMessage().startsWith("Could not load request generator java.lang.String"));
+    }
+
+    @Test
+    void testPrewarmAbortsCallsInFlight(@TempDir File dir) throws Exception {
+        // the server reads the requests, but never responds
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<List<String>> requestHeaders = CompletableFuture.supplyAsync(() -> readHeaders(server));
+            File script = new File(dir, "calls.lua");
+            Files.writeString(script.toPath(), "function onCycle()\nend\nfunction onCall(callnum)\n"
+                    + "  return \"http://127.0.0.1:" + server.getLocalPort() + "/\"\nend\n");
+            initialize(script.getPath(), "");
+
+            long start = System.nanoTime();
+            HTTPInputGeneratorPool.getPool().prewarm(0, 1, 1);
+            // returns after the timeout, once the aborted call has completed
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+            // pre-warming does not change the connection semantics
+            assertTrue(requestHeaders.get(10, TimeUnit.SECONDS).contains("Connection: close"));
+        }
+    }
+
+    @Test
+    void testKeepAliveIsSeparateFromPrewarm(@TempDir File dir) throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<List<String>> requestHeaders = CompletableFuture.supplyAsync(() -> readHeaders(server));
+            File script = new File(dir, "calls.lua");
+            Files.writeString(script.toPath(), "function onCycle()\nend\nfunction onCall(callnum)\n"
+                    + "  return \"http://127.0.0.1:" + server.getLocalPort() + "/\"\nend\n");
+            initialize(script.getPath(), "");
+            HTTPInputGeneratorPool pool = HTTPInputGeneratorPool.getPool();
+            pool.setKeepAlive(true);
+
+            HTTPInputGenerator user = pool.takeFromPool();
+            user.initializeHTTPRequest(user.getNextRequest()).timeout(1, TimeUnit.SECONDS).send(result -> { });
+            assertFalse(requestHeaders.get(10, TimeUnit.SECONDS).contains("Connection: close"));
+        }
+    }
+
+    @Test
+    void testPrewarmedConnectionsAreNotTimedAsConnect(@TempDir File dir) throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<List<String>> requestHeaders = CompletableFuture.supplyAsync(() -> readHeaders(server));
+            File script = new File(dir, "calls.lua");
+            Files.writeString(script.toPath(), "function onCycle()\nend\nfunction onCall(callnum)\n"
+                    + "  return \"http://127.0.0.1:" + server.getLocalPort() + "/\"\nend\n");
+            initialize(script.getPath(), "");
+            HTTPInputGeneratorPool pool = HTTPInputGeneratorPool.getPool();
+            pool.prewarm(1, 0, 5);
+            Thread.sleep(300);
+
+            // the first measured request uses the pre-warmed connection, as the phase timer sees it
+            HTTPInputGenerator user = pool.takeFromPool();
+            long[] connectNanos = {0};
+            user.initializeHTTPRequest(user.getNextRequest())
+                    .onRequestBegin(r -> connectNanos[0] = pool.getConnectionTracker().takeConnectNanos(
+                            r.getConnection()))
+                    .timeout(1, TimeUnit.SECONDS).send(result -> { });
+            requestHeaders.get(10, TimeUnit.SECONDS);
+            assertEquals(-1, connectNanos[0]);
+        }
+    }
+
+    private static List<String> readHeaders(ServerSocket server) {
+        List<String> headers = new ArrayList<>();
+        try {
+            Socket socket = server.accept();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII));
+            for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                headers.add(line);
+            }
+        } catch (IOException e) {
+            headers.add(e.getMessage());
+        }
+        return headers;
+    }
+
+    private static void initialize(String scriptPath, String requestGeneratorClassName) {
+        HTTPInputGeneratorPool.initializePool(HTTPInputGeneratorPool.PoolMode.QUEUE, scriptPath, 2, 0, 5, false,
+                "string", requestGeneratorClassName, "", 1, HttpClientSettings.auto().resolve(2, 2, 0));
+    }
+}
@@ -0,0 +1,43 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class HttpClientSettingsTest {
+
+    @Test
+    void testFormatAndParse() {
+        HttpClientSettings settings = new HttpClientSettings(2, 16, 64, 30000, 1000, 300, 400);
+        assertEquals("2,16,64,30000,1000,300,400", settings.format());
+        assertEquals(settings.format(), HttpClientSettings.parse(settings.format()).format());
+        assertThrows(IndexOutOfBoundsException.class, () -> HttpClientSettings.parse("1,2,3"));
+    }
+
+    @Test
+    void testResolveAuto() {
+        HttpClientSettings low = HttpClientSettings.auto().resolve(8, 100, 10);
+        assertEquals(4, low.getSelectors());
+        assertEquals(32, low.getMaxThreads());
+        assertEquals(20, low.getMinThreads());
+        assertEquals(60000, low.getThreadIdleTimeoutMs());
+        assertEquals(HttpClientSettings.AUTO, low.getExecutorQueueCapacity());
+        assertEquals(150, low.getMaxConnectionsPerDestination());
+        assertEquals(150, low.getMaxRequestsQueuedPerDestination());
+
+        // threads grow with the peak rate, up to the limit
+        assertEquals(4 + 16 + 100, HttpClientSettings.auto().resolve(8, 100, 20000).getMaxThreads());
+        assertEquals(1024, HttpClientSettings.auto().resolve(8, 100, 1000000).getMaxThreads());
+    }
+
+    @Test
+    void testResolveKeepsExplicitValues() {
+        HttpClientSettings settings = new HttpClientSettings(1, 64, 8, 0, 0, 10, 0).resolve(8, 100, 0);
+        assertEquals(1, settings.getSelectors());
+        assertEquals(8, settings.getMaxThreads());
+        // the minimum never exceeds the maximum
+        assertEquals(8, settings.getMinThreads());
+        assertEquals(10, settings.getMaxConnectionsPerDestination());
+        assertEquals(150, settings.getMaxRequestsQueuedPerDestination());
+    }
+}
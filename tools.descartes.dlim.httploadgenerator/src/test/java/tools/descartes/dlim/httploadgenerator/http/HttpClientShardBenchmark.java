@@ -0,0 +1,108 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.SocketAddressResolver;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Measures the request throughput of closed-loop users spread over 1 to N HTTP client shards.
+ * Sends requests to an in-process server on the loopback interface, so the server shares the cores
+ * with the clients; the absolute numbers are lower than against a remote server.
+ * Skipped unless the benchmark property is set:
+ * mvn test -Dtest=HttpClientShardBenchmark -Dbenchmark=true
+ *   [-Dbenchmark.shards=...] [-Dbenchmark.users=...] [-Dbenchmark.seconds=...]
+ * The shards are doubled from 1 up to the maximum, which defaults to the core count.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class HttpClientShardBenchmark {
+
+    private static final int DEFAULT_USERS = 256;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int WARMUP_SECONDS = 3;
+    private static final byte[] RESPONSE = "<html><body>benchmark</body></html>".getBytes();
+
+    @Test
+    void benchmarkShards() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxShards = Integer.getInteger("benchmark.shards", cores);
+        int users = Integer.getInteger("benchmark.users", DEFAULT_USERS);
+        int seconds = Integer.getInteger("benchmark.seconds", DEFAULT_SECONDS);
+
+        // without TCP_NODELAY, the JDK server's delayed ACKs limit each connection to ~25 requests/s
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(cores);
+        server.setExecutor(serverExecutor);
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+        HttpClientSettings settings = HttpClientSettings.auto().resolve(cores, users, 0);
+        try {
+            for (int shards = 1; shards <= maxShards; shards *= 2) {
+                List<HttpClient> clients = HTTPInputGeneratorPool.createHttpClients(shards,
+                        Collections.emptyList(), settings, 0, new SocketAddressResolver.Sync(),
+                        new NewConnectionTracker());
+                try {
+                    run(clients, users, url, WARMUP_SECONDS);
+                    long requests = run(clients, users, url, seconds);
+                    System.out.printf("%3d shard(s) %,12d requests/s%n", shards, requests / seconds);
+                    assertTrue(requests > 0);
+                } finally {
+                    for (HttpClient client : clients) {
+                        client.stop();
+                    }
+                }
+            }
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static long run(List<HttpClient> clients, int users, String url, int seconds)
+            throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < users; i++) {
+            // same assignment as the pool: user i uses shard i % shards
+            send(clients.get(i % clients.size()), url, end, completed);
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        // let requests that are in flight at the end finish before the next step
+        Thread.sleep(500);
+        return completed.get();
+    }
+
+    private static void send(HttpClient client, String url, long end, AtomicLong completed) {
+        client.newRequest(url).send(result -> {
+            if (System.nanoTime() < end) {
+                if (result.isSucceeded()) {
+                    completed.incrementAndGet();
+                }
+                send(client, url, end, completed);
+            }
+        });
+    }
+}
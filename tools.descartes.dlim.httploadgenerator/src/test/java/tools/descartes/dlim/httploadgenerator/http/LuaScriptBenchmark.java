@@ -0,0 +1,81 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import tools.descartes.dlim.httploadgenerator.http.lua.CompiledLuaScript;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaGlobalsBuilder;
+import tools.descartes.dlim.httploadgenerator.http.lua.LuaRequestGenerator;
+
+/**
+ * Measures the onCall throughput of a LUA script in the interpreter and when compiled with LuaJC.
+ * Skipped unless the benchmark property is set:
+ * mvn test -Dtest=LuaScriptBenchmark -Dbenchmark=true [-Dbenchmark.script=...] [-Dbenchmark.seconds=...]
+ * Defaults to the DVD store example script, which is fed a static response page
+ * so that its html.getMatches and html.extractMatches calls find matches.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LuaScriptBenchmark {
+
+    private static final String DEFAULT_SCRIPT = "../examplefiles/http_calls_dvd.lua";
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int WARMUP_SECONDS = 3;
+    private static final int USERS = 16;
+
+    @Test
+    void benchmarkInterpreterAndLuaJC() throws IOException {
+        File scriptFile = new File(System.getProperty("benchmark.script", DEFAULT_SCRIPT));
+        int seconds = Integer.getInteger("benchmark.seconds", DEFAULT_SECONDS);
+        String html = responsePage();
+
+        for (boolean luaJC : new boolean[] {false, true}) {
+            CompiledLuaScript script = CompiledLuaScript.compile(scriptFile, luaJC);
+            HTTPInputGenerator[] users = new HTTPInputGenerator[USERS];
+            for (int i = 0; i < USERS; i++) {
+                LuaRequestGenerator requestGenerator = new LuaRequestGenerator(script, LuaGlobalsBuilder.standard());
+                users[i] = new HTTPInputGenerator(i, requestGenerator, i, 0, null);
+                requestGenerator.resetHTMLFunctions(html);
+            }
+            String mode = script.isLuaJC() ? "LuaJC" : "interpreter";
+            run(users, WARMUP_SECONDS);
+            long calls = run(users, seconds);
+            System.out.printf("%-12s %,12d onCall/s%n", mode, calls / seconds);
+            assertTrue(calls > 0);
+        }
+    }
+
+    private static long run(HTTPInputGenerator[] users, int seconds) {
+        long end = System.nanoTime() + seconds * 1000000000L;
+        long calls = 0;
+        int checksum = 0;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; i++) {
+                checksum += users[i % users.length].getNextInput().length();
+            }
+            calls += 1000;
+        }
+        // use the checksum so that the calls cannot be optimized away
+        assertTrue(checksum != 0);
+        return calls;
+    }
+
+    private static String responsePage() {
+        StringBuilder page = new StringBuilder("<HTML><BODY><SELECT NAME=browse_category>\n");
+        for (int i = 1; i <= 16; i++) {
+            page.append("<OPTION VALUE=").append(i).append(">Category</OPTION>\n");
+        }
+        page.append("</SELECT><TABLE>\n");
+        for (int i = 1; i <= 10; i++) {
+            page.append("<TR><TD><INPUT NAME=selected_item[] TYPE=CHECKBOX VALUE=").append(1000 + i)
+                    .append("></TD><TD>Title</TD></TR>\n");
+        }
+        return page.append("</TABLE></BODY></HTML>\n").toString();
+    }
+}
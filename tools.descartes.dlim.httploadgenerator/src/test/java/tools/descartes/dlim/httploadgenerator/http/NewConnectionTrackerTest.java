@@ -0,0 +1,114 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Test;
+
+public class NewConnectionTrackerTest {
+
+    @Test
+    void testConnectIsTimedForTheFirstRequestOnly() throws Exception {
+        NewConnectionTracker tracker = new NewConnectionTracker();
+        HttpClient httpClient = new HttpClient(tracker.newTransport(1));
+        httpClient.addBean(tracker);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture.runAsync(() -> respond(server, 2));
+            httpClient.start();
+            String uri = "http://127.0.0.1:" + server.getLocalPort() + "/";
+
+            long before = System.nanoTime();
+            long[] connectNanos = new long[2];
+            for (int i = 0; i < connectNanos.length; i++) {
+                int request = i;
+                httpClient.newRequest(uri)
+                        .onRequestBegin(r -> connectNanos[request] = tracker.takeConnectNanos(r.getConnection()))
+                        .timeout(10, TimeUnit.SECONDS).send();
+            }
+            assertTrue(connectNanos[0] >= 0);
+            assertTrue(connectNanos[0] <= System.nanoTime() - before);
+            // the second request reuses the connection
+            assertEquals(-1, connectNanos[1]);
+        } finally {
+            httpClient.stop();
+        }
+    }
+
+    @Test
+    void testIdleTimeOfPreCreatedConnectionIsNotTimed() throws Exception {
+        NewConnectionTracker tracker = new NewConnectionTracker();
+        HttpClient httpClient = new HttpClient(tracker.newTransport(1));
+        httpClient.addBean(tracker);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture.runAsync(() -> respond(server, 1));
+            httpClient.start();
+            String uri = "http://127.0.0.1:" + server.getLocalPort() + "/";
+            long before = System.nanoTime();
+            httpClient.resolveDestination(httpClient.newRequest(uri)).getConnectionPool()
+                    .preCreateConnections(1).get(10, TimeUnit.SECONDS);
+            long connected = System.nanoTime();
+            Thread.sleep(300);
+
+            long[] connectNanos = new long[1];
+            httpClient.newRequest(uri)
+                    .onRequestBegin(r -> connectNanos[0] = tracker.takeConnectNanos(r.getConnection()))
+                    .timeout(10, TimeUnit.SECONDS).send();
+            // the connect, not the time the connection was idle in the pool
+            assertTrue(connectNanos[0] >= 0);
+            assertTrue(connectNanos[0] <= connected - before);
+        } finally {
+            httpClient.stop();
+        }
+    }
+
+    @Test
+    void testClearedConnectionsAreNotTimed() throws Exception {
+        NewConnectionTracker tracker = new NewConnectionTracker();
+        HttpClient httpClient = new HttpClient(tracker.newTransport(1));
+        httpClient.addBean(tracker);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            CompletableFuture.runAsync(() -> respond(server, 1));
+            httpClient.start();
+            String uri = "http://127.0.0.1:" + server.getLocalPort() + "/";
+            httpClient.resolveDestination(httpClient.newRequest(uri)).getConnectionPool()
+                    .preCreateConnections(1).get(10, TimeUnit.SECONDS);
+            tracker.clear();
+
+            long[] connectNanos = new long[1];
+            httpClient.newRequest(uri)
+                    .onRequestBegin(r -> connectNanos[0] = tracker.takeConnectNanos(r.getConnection()))
+                    .timeout(10, TimeUnit.SECONDS).send();
+            assertEquals(-1, connectNanos[0]);
+        } finally {
+            httpClient.stop();
+        }
+    }
+
+    private static void respond(ServerSocket server, int requests) {
+        try (Socket socket = server.accept()) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            for (int i = 0; i < requests; i++) {
+                for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                    // skip the request headers
+                }
+                out.write("HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the request fails
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jetty.client.Request;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.io.Content;
+import org.junit.jupiter.api.Test;
+
+public class RequestDescriptorTest {
+
+    @Test
+    void testParseGet() {
+        RequestDescriptor get = RequestDescriptor.parse("http://localhost/search?q=a");
+        assertEquals(HttpMethod.GET, get.getMethod());
+        assertEquals("http://localhost/search?q=a", get.getURL());
+        assertEquals("localhost", get.getURI().getHost());
+        assertFalse(get.hasBody());
+    }
+
+    @Test
+    void testParsePostWithJSONBody() {
+        RequestDescriptor post = RequestDescriptor.parse("[POST]http://localhost/cart [JSON]{\"ids\":[1,2]}");
+        assertEquals(HttpMethod.POST, post.getMethod());
+        assertEquals("http://localhost/cart", post.getURL());
+        assertEquals("application/json", post.getContentType());
+        assertEquals("{\"ids\":[1,2]}", readBody(post.newBodyContent()));
+        // every request gets its own content of the same body
+        assertEquals("{\"ids\":[1,2]}", readBody(post.newBodyContent()));
+    }
+
+    @Test
+    void testParseIPv6Host() {
+        RequestDescriptor get = RequestDescriptor.parse("http://[::1]:8080/index");
+        assertEquals(HttpMethod.GET, get.getMethod());
+        assertEquals("http://[::1]:8080/index", get.getURL());
+        assertEquals("[::1]", get.getURI().getHost());
+        assertEquals(8080, get.getURI().getPort());
+        RequestDescriptor post = RequestDescriptor.parse("[POST]http://[::1]:8080/cart[JSON]{\"ids\":[1]}");
+        assertEquals(HttpMethod.POST, post.getMethod());
+        assertEquals("http://[::1]:8080/cart", post.getURL());
+        assertEquals("{\"ids\":[1]}", readBody(post.newBodyContent()));
+    }
+
+    @Test
+    void testParseOtherMethods() {
+        assertEquals(HttpMethod.DELETE, RequestDescriptor.parse("[DELETE]http://localhost/item/1").getMethod());
+        assertEquals(HttpMethod.HEAD, RequestDescriptor.parse("[HEAD]http://localhost/").getMethod());
+        RequestDescriptor patch = RequestDescriptor.parse("[PATCH]http://localhost/item/1[JSON]{\"n\":2}");
+        assertEquals(HttpMethod.PATCH, patch.getMethod());
+        assertEquals("http://localhost/item/1", patch.getURL());
+        assertEquals("{\"n\":2}", readBody(patch.newBodyContent()));
+    }
+
+    @Test
+    void testRepeatedStringsAreMemoized() {
+        RequestDescriptor.clearCache();
+        RequestDescriptor first = RequestDescriptor.parse("[PUT]http://localhost/item/7");
+        assertSame(first, RequestDescriptor.parse("[PUT]http://localhost/item/7"));
+        assertNotSame(first, RequestDescriptor.parse("[PUT]http://localhost/item/8"));
+    }
+
+    @Test
+    void testInvalidURI() {
+        assertThrows(IllegalArgumentException.class, () -> RequestDescriptor.parse("http://local host/"));
+    }
+
+    private static String readBody(Request.Content content) {
+        ByteBuffer result = ByteBuffer.allocate(1024);
+        Content.Chunk chunk;
+        do {
+            chunk = content.read();
+            if (chunk == null) {
+                fail("Body content is not immediately available");
+            }
+            result.put(chunk.getByteBuffer());
+            chunk.release();
+        } while (!chunk.isLast());
+        result.flip();
+        return StandardCharsets.UTF_8.decode(result).toString();
+    }
+}
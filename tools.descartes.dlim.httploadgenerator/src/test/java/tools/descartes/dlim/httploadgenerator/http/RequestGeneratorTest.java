@@ -0,0 +1,84 @@
+package tools.descartes.dlim.httploadgenerator.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jetty.client.Response;
+import org.eclipse.jetty.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+public class RequestGeneratorTest {
+
+    /**
+     * Java request generator with two pre-built requests per cycle.
+     */
+    public static class TwoRequestGenerator implements IRequestGenerator {
+
+        private static final RequestDescriptor[] REQUESTS = {
+            RequestDescriptor.get("http://localhost/index.html"),
+            RequestDescriptor.parse("[POST]http://localhost/cart[JSON]{\"item\":1}")
+        };
+
+        private int userId = -1;
+        private int cycles = 0;
+
+        @Override
+        public void initialize(int userId, int randomSeed) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void onCycle() {
+            cycles++;
+        }
+
+        @Override
+        public RequestDescriptor onCall(int callNum) {
+            return callNum <= REQUESTS.length ? REQUESTS[callNum - 1] : null;
+        }
+
+        @Override
+        public void onResponse(RequestDescriptor request, Response response, byte[] content) {
+        }
+    }
+
+    @Test
+    void testJavaGeneratorCycles() {
+        TwoRequestGenerator requestGenerator = new TwoRequestGenerator();
+        HTTPInputGenerator generator = new HTTPInputGenerator(7, requestGenerator, 0, 0, null);
+        assertEquals(7, requestGenerator.userId);
+
+        RequestDescriptor first = generator.getNextRequest();
+        assertEquals(HttpMethod.GET, first.getMethod());
+        assertEquals("http://localhost/index.html", first.getURL());
+
+        RequestDescriptor second = generator.getNextRequest();
+        assertEquals(HttpMethod.POST, second.getMethod());
+        assertEquals("http://localhost/cart", second.getURL());
+        assertTrue(second.hasBody());
+
+        // null ends the cycle, the next cycle starts with the first request again
+        assertSame(first, generator.getNextRequest());
+        assertEquals(2, requestGenerator.cycles);
+    }
+
+    @Test
+    void testFailedCallIsRepeated() {
+        HTTPInputGenerator generator = new HTTPInputGenerator(0, new TwoRequestGenerator(), 0, 0, null);
+        RequestDescriptor first = generator.getNextRequest();
+        generator.revertLastCall();
+        assertSame(first, generator.getNextRequest());
+    }
+
+    @Test
+    void testParseRequestString() {
+        RequestDescriptor put = RequestDescriptor.parse(" [PUT]http://localhost/item/1 ");
+        assertEquals(HttpMethod.PUT, put.getMethod());
+        assertEquals("http://localhost/item/1", put.getURL());
+        assertFalse(put.hasBody());
+        // GET requests have no body, the JSON marker still ends the URL
+        RequestDescriptor get = RequestDescriptor.parse("[GET]http://localhost/item/1[JSON]{}");
+        assertEquals(HttpMethod.GET, get.getMethod());
+        assertEquals("http://localhost/item/1", get.getURL());
+        assertFalse(get.hasBody());
+    }
+}
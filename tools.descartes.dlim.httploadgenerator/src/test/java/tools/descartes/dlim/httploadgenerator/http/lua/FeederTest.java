@@ -0,0 +1,179 @@
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+
+public class FeederTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void cleanup() {
+        Feeders.configure(0, 1, 1);
+    }
+
+    private String file(String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toString().replace("\\", "/");
+    }
+
+    private String accounts(int count) throws IOException {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 0; i < count; i++) {
+            csv.append(i).append(",\"user, ").append(i).append("\"\r\n");
+        }
+        return file("accounts.csv", csv.toString());
+    }
+
+    private Globals user(int id) {
+        Globals globals = LuaGlobalsBuilder.fromWhitelist(LuaGlobalsBuilder.DEFAULT_LIBRARIES).build();
+        FeederLuaFunctions functions = new FeederLuaFunctions(id);
+        LuaValue feeder = new LuaTable();
+        feeder.set("define", functions.define());
+        feeder.set("next", functions.next());
+        globals.set("feeder", feeder);
+        return globals;
+    }
+
+    private List<String> pull(Globals user, int count) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(user.load("return tostring(feeder.next('accounts', 'id'))").call().tojstring());
+        }
+        return values;
+    }
+
+    @Test
+    void testCircularAndColumns() throws IOException {
+        String path = accounts(3);
+        Globals user = user(0);
+        assertEquals("3", user.load("return feeder.define('accounts', '" + path + "')").call().tojstring());
+        assertEquals("0,\"user, 0\"", user.load("return feeder.next('accounts')").call().tojstring());
+        assertEquals("user, 1", user.load("return feeder.next('accounts', 'name')").call().tojstring());
+        assertEquals("2", user.load("return feeder.next('accounts', 1)").call().tojstring());
+        assertEquals(List.of("0", "1"), pull(user, 2), "Circular feeders wrap around");
+        assertThrows(LuaError.class, () -> user.load("feeder.define('accounts', '" + path + "', 'random')").call());
+        assertThrows(LuaError.class, () -> user.load("feeder.next('unknown')").call());
+    }
+
+    @Test
+    void testRandomIsReproduciblePerUser() throws IOException {
+        String path = accounts(100);
+        Globals first = user(1);
+        first.load("feeder.define('accounts', '" + path + "', 'random')").call();
+        List<String> values = pull(first, 20);
+        Feeders.configure(0, 1, 1);
+        Globals second = user(1);
+        second.load("feeder.define('accounts', '" + path + "', 'random')").call();
+        assertEquals(values, pull(second, 20));
+        assertTrue(new HashSet<>(values).size() > 1);
+    }
+
+    @Test
+    void testUniquePerUser() throws IOException {
+        String path = accounts(10);
+        Feeders.configure(0, 1, 3);
+        Set<String> seen = new HashSet<>();
+        for (int id = 0; id < 3; id++) {
+            Globals user = user(id);
+            user.load("feeder.define('accounts', '" + path + "', 'unique-per-user')").call();
+            List<String> values = pull(user, 8);
+            Set<String> own = new HashSet<>(values);
+            assertEquals(id == 0 ? 4 : 3, own.size(), "Users cycle through their own share");
+            for (String value : own) {
+                assertTrue(seen.add(value), "No record is shared by two users");
+            }
+        }
+        assertEquals(10, seen.size());
+    }
+
+    @Test
+    void testUniquePerUserWarnsWhenRecordsRunOut() throws IOException {
+        String path = accounts(4);
+        Feeders.configure(0, 1, 2);
+        List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                warnings.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger log = Logger.getLogger(Feeder.class.getName());
+        log.addHandler(handler);
+        try {
+            Globals user = user(0);
+            user.load("feeder.define('accounts', '" + path + "', 'unique-per-user')").call();
+            assertEquals(List.of("0", "2"), pull(user, 2));
+            assertTrue(warnings.stream().noneMatch(w -> w.contains("reuse")));
+            assertEquals(List.of("0", "2"), pull(user, 2));
+            assertEquals(1, warnings.stream().filter(w -> w.contains("user 0 has used all of its 2 records")).count());
+            pull(user, 4);
+            assertEquals(1, warnings.stream().filter(w -> w.contains("reuse")).count(), "Warns once per feeder");
+        } finally {
+            log.removeHandler(handler);
+        }
+    }
+
+    @Test
+    void testFeedersAreClosedAtTheEndOfTheRun() throws IOException {
+        String path = accounts(3);
+        Globals user = user(0);
+        user.load("feeder.define('accounts', '" + path + "')").call();
+        assertEquals(List.of("0"), pull(user, 1));
+        Feeders.close();
+        assertNull(Feeders.get("accounts"));
+        // a user that outlives the run no longer finds the feeder
+        LuaError e = assertThrows(LuaError.class, () -> pull(user, 1));
+        assertTrue(e.getMessage().contains("not defined"));
+    }
+
+    @Test
+    void testUniqueGlobalIsPartitionedAndExhausts() throws IOException {
+        String path = accounts(1000);
+        Set<String> all = ConcurrentHashMap.newKeySet();
+        for (int generator = 0; generator < 3; generator++) {
+            Feeders.configure(generator, 3, 8);
+            user(0).load("feeder.define('accounts', '" + path + "', 'unique-global')").call();
+            List<String> values = Collections.synchronizedList(new ArrayList<>());
+            IntStream.range(0, 8).parallel().forEach(id -> values.addAll(pull(user(id), 200)));
+            values.removeIf("nil"::equals);
+            assertTrue(values.size() == 333 || values.size() == 334);
+            for (String value : values) {
+                assertTrue(all.add(value), "Value " + value + " was used twice");
+            }
+        }
+        assertEquals(1000, all.size());
+    }
+}
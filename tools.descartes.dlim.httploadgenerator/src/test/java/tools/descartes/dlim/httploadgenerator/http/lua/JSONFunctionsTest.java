@@ -0,0 +1,85 @@
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class JSONFunctionsTest {
+
+    private static final String DOCUMENT = "{\n"
+            + "  \"total\": 3,\n"
+            + "  \"meta\": {\"next\": \"/items?page=2\", \"tags\": [\"a\", \"b\"]},\n"
+            + "  \"items\": [\n"
+            + "    {\"id\": 17, \"name\": \"first \\\"one\\\"\", \"price\": 1.5e2},\n"
+            + "    {\"id\": 18, \"name\": \"caf\\u00e9\", \"nested\": {\"id\": 99}},\n"
+            + "    {\"id\": null, \"name\": \"ümläut\", \"active\": true}\n"
+            + "  ]\n"
+            + "}";
+
+    private JSONFunctions functions(String json) {
+        return new JSONFunctions(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWildcardArrayMembers() {
+        JSONFunctions json = functions(DOCUMENT);
+        assertEquals(Arrays.asList("17", "18"), json.getMatches("$.items[*].id"),
+                "Null values are skipped and nested ids are not matched");
+        assertEquals(Arrays.asList("first \"one\"", "café", "ümläut"),
+                json.getMatches("$.items[*].name"));
+    }
+
+    @Test
+    void testIndexAndBracketNotation() {
+        JSONFunctions json = functions(DOCUMENT);
+        assertEquals("18", json.getFirstMatch("$.items[1].id"));
+        assertEquals("99", json.getFirstMatch("$['items'][1]['nested'].id"));
+        assertEquals("1.5e2", json.getFirstMatch("$.items[0].price"));
+        assertEquals("true", json.getFirstMatch("$.items[2].active"));
+        assertEquals("/items?page=2", json.getFirstMatch("$.meta.next"));
+    }
+
+    @Test
+    void testJSONPointer() {
+        JSONFunctions json = functions(DOCUMENT);
+        assertEquals("17", json.getFirstMatch("/items/0/id"));
+        assertEquals("b", json.getFirstMatch("/meta/tags/1"));
+    }
+
+    @Test
+    void testContainersAreReturnedAsRawJSON() {
+        JSONFunctions json = functions(DOCUMENT);
+        assertEquals("[\"a\", \"b\"]", json.getFirstMatch("$.meta.tags"));
+        assertEquals("{\"id\": 99}", json.getFirstMatch("$.items[1].nested"));
+        assertEquals(Arrays.asList("3"), json.getMatches("$.total"));
+        assertEquals(3, json.getMatches("$.items[*]").size());
+        assertEquals(3, json.getMatches("$.*").size());
+    }
+
+    @Test
+    void testMissingAndMalformed() {
+        assertNull(functions(DOCUMENT).getFirstMatch("$.items[5].id"));
+        assertNull(functions(DOCUMENT).getFirstMatch("$.missing"));
+        assertTrue(functions("").getMatches("$.items[*].id").isEmpty());
+        assertTrue(new JSONFunctions(null).getMatches("$.a").isEmpty());
+        assertTrue(functions("<html><body>not json</body></html>").getMatches("$.a").isEmpty());
+        // values cut off by the end of the document are not matched
+        assertEquals(Arrays.asList("1"), functions("{\"a\": [{\"b\": 1}, {\"b\": 2").getMatches("$.a[*].b"));
+        assertEquals(Arrays.asList("1"), functions("{\"a\": [{\"b\": 1}, {\"b\": \"x").getMatches("$.a[*].b"));
+        assertEquals(Arrays.asList("{\"b\": 1}"), functions("{\"a\": [{\"b\": 1}, {\"b\": 2").getMatches("$.a[*]"));
+        assertTrue(functions("{\"a\": [{\"b\": 1}").getMatches("$.a").isEmpty());
+        assertEquals(Arrays.asList("3"), functions("3").getMatches("$"));
+        assertThrows(IllegalArgumentException.class, () -> functions(DOCUMENT).getMatches("items.id"));
+    }
+
+    @Test
+    void testResetReplacesDocument() {
+        JSONFunctions json = functions("{\"id\": 1}");
+        assertEquals("1", json.getFirstMatch("$.id"));
+        json.resetJSONFunctions("[{\"id\": 2}, {\"id\": 3}]".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("2", "3"), json.getMatches("$[*].id"));
+    }
+}
@@ -0,0 +1,37 @@
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.Globals;
+
+public class LuaGlobalsBuilderTest {
+
+    @Test
+    void testDefaultWhitelist() {
+        Globals globals = LuaGlobalsBuilder.fromWhitelist(LuaGlobalsBuilder.DEFAULT_LIBRARIES).build();
+        assertFalse(globals.get("string").isnil());
+        assertFalse(globals.get("table").isnil());
+        assertFalse(globals.get("math").isnil());
+        assertFalse(globals.get("dofile").isnil(), "Base library is always loaded");
+        assertFalse(globals.get("package").isnil(), "Package library is always loaded");
+        assertTrue(globals.get("io").isnil());
+        assertTrue(globals.get("os").isnil());
+        assertTrue(globals.get("luajava").isnil());
+        assertTrue(globals.get("coroutine").isnil());
+        assertEquals("abc", globals.load("return string.lower('ABC')").call().tojstring());
+    }
+
+    @Test
+    void testAllAndUnknownLibraries() {
+        Globals all = LuaGlobalsBuilder.fromWhitelist("all").build();
+        assertFalse(all.get("os").isnil());
+        assertFalse(all.get("io").isnil());
+        assertTrue(all.get("debug").isnil(), "Debug library is not part of the standard globals");
+
+        LuaGlobalsBuilder builder = LuaGlobalsBuilder.fromWhitelist(" OS, nosuchlib ,, base ");
+        assertEquals("base,package,os", builder.toString());
+        assertFalse(builder.build().get("os").isnil());
+        assertTrue(LuaGlobalsBuilder.fromWhitelist(null).getLibraries().isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jetty.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import tools.descartes.dlim.httploadgenerator.http.RequestDescriptor;
+
+public class LuaRequestGeneratorTest {
+
+    private static LuaRequestGenerator generator(String script) {
+        Globals globals = JsePlatform.standardGlobals();
+        globals.load(script).call();
+        return new LuaRequestGenerator(globals);
+    }
+
+    @Test
+    void testRequestTable() {
+        LuaRequestGenerator generator = generator("function onCall(n) return {method = 'delete',"
+                + " url = 'http://localhost/items/' .. n, headers = {Authorization = 'Bearer abc'}} end");
+        RequestDescriptor request = generator.onCall(3);
+        assertEquals(HttpMethod.DELETE, request.getMethod());
+        assertEquals("http://localhost/items/3", request.getURL());
+        assertEquals("Bearer abc", request.getHeaders().get("Authorization"));
+        assertFalse(request.hasBody());
+    }
+
+    @Test
+    void testStringAndFileBodies(@TempDir Path dir) throws IOException {
+        Path upload = dir.resolve("upload.json");
+        Files.write(upload, new byte[] {'{', '}'});
+        LuaRequestGenerator generator = generator("function onCall(n) if n == 1 then"
+                + " return {method = 'PATCH', url = 'http://localhost/a', body = 'x=1', content_type = 'text/plain'}"
+                + " end return {method = 'PUT', url = 'http://localhost/b', body_file = '"
+                + upload.toString().replace("\\", "\\\\") + "'} end");
+
+        RequestDescriptor patch = generator.onCall(1);
+        assertEquals(HttpMethod.PATCH, patch.getMethod());
+        assertEquals("text/plain", patch.getContentType());
+        assertEquals(3, patch.newBodyContent().getLength());
+
+        RequestDescriptor put = generator.onCall(2);
+        assertEquals(HttpMethod.PUT, put.getMethod());
+        assertEquals("application/json", put.getContentType());
+        assertEquals(2, put.newBodyContent().getLength());
+    }
+
+    @Test
+    void testInvalidRequestTable() {
+        assertThrows(LuaError.class, () -> generator("function onCall(n) return {method = 'GET'} end").onCall(1));
+        assertThrows(LuaError.class,
+                () -> generator("function onCall(n) return {method = 'FOO', url = 'http://localhost/'} end").onCall(1));
+    }
+}
@@ -0,0 +1,88 @@
+package tools.descartes.dlim.httploadgenerator.http.lua;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+
+public class SharedDataTableTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void cleanup() {
+        SharedDataTable.clear();
+    }
+
+    private Globals globals() {
+        Globals globals = LuaGlobalsBuilder.fromWhitelist(LuaGlobalsBuilder.DEFAULT_LIBRARIES).build();
+        LuaValue data = new LuaTable();
+        data.set("csv", DataLuaFunctions.CSV.INSTANCE);
+        data.set("jsonl", DataLuaFunctions.JSONLines.INSTANCE);
+        globals.set("data", data);
+        return globals;
+    }
+
+    private String path(String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toString().replace("\\", "/");
+    }
+
+    private String run(Globals globals, String script) {
+        return globals.load(script).call().tojstring();
+    }
+
+    @Test
+    void testCSV() throws IOException {
+        String csv = path("products.csv", "id,name,price\r\n17,\"Chair, \"\"red\"\"\",9.5\r\n\r\n18,Table\n19,Lamp,3,extra\n");
+        SharedDataTable table = SharedDataTable.csv(csv, ',');
+        assertEquals(3, table.size());
+        assertEquals(3, table.columnCount());
+        assertEquals("Chair, \"red\"", table.getString(0, 1));
+        assertEquals("", table.getString(1, 2), "Short lines are padded");
+        assertEquals("3", table.getString(2, 2), "Extra cells are ignored");
+
+        Globals globals = globals();
+        globals.set("path", csv);
+        assertEquals("3", run(globals, "return #data.csv(path)"));
+        assertEquals("Chair, \"red\"", run(globals, "return data.csv(path)[1].name"));
+        assertEquals("Lamp", run(globals, "return data.csv(path)[3][2]"));
+        assertEquals("18", run(globals, "return data.csv(path):get(2, 'id')"));
+        assertEquals("nil", run(globals, "return tostring(data.csv(path)[4])"));
+        assertSame(table, SharedDataTable.csv(csv, ','), "Tables are loaded once");
+        assertTrue(run(globals(), "local t = data.csv('" + csv + "'); return t").contains("products.csv"));
+    }
+
+    @Test
+    void testSingleColumnAndReadOnly() throws IOException {
+        String ids = path("ids.csv", "id\n1\n2\n3\n");
+        Globals globals = globals();
+        globals.set("path", ids);
+        assertEquals("6", run(globals, "local t = data.csv(path); local s = 0; "
+                + "for i = 1, #t do s = s + tonumber(t[i]) end; return s"));
+        assertThrows(LuaError.class, () -> run(globals, "data.csv(path)[1] = 'x'"));
+        assertThrows(LuaError.class, () -> run(globals, "data.csv(path .. '.missing')"));
+    }
+
+    @Test
+    void testJSONLines() throws IOException {
+        String jsonl = path("users.jsonl", "{\"id\": 1, \"name\": \"a\"}\n{\"id\": 2, \"tags\": [\"x\", \"y\"]}\n");
+        Globals globals = globals();
+        globals.set("path", jsonl);
+        assertEquals("2", run(globals, "return #data.jsonl(path)"));
+        assertEquals("{\"id\": 1, \"name\": \"a\"}", run(globals, "return data.jsonl(path)[1]"));
+        assertEquals("y", run(globals, "return data.jsonl(path):get(2, '$.tags[1]')"));
+    }
+}
@@ -0,0 +1,31 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ClockOffsetTest {
+
+    @Test
+    void testUsesShortestRoundTrip() {
+        ClockOffset clock = new ClockOffset();
+        assertFalse(clock.isValid());
+
+        // the load generator's clock is 5 s ahead, the network delay is 100 µs each way
+        long offset = 5_000_000;
+        clock.addSample(1_000_000, 1_000_100 + offset, 1_000_200);
+        // queued for 3 ms on the way back
+        clock.addSample(2_000_000, 2_000_100 + offset, 2_003_200);
+        // queued for 3 ms on the way there
+        clock.addSample(3_000_000, 3_003_100 + offset, 3_003_200);
+        // the local clock was stepped back
+        clock.addSample(4_000_000, 4_000_100 + offset, 3_000_000);
+
+        assertTrue(clock.isValid());
+        assertEquals(4, clock.getSamples());
+        assertEquals(200, clock.getRoundTripMicros());
+        assertEquals(offset, clock.getOffsetMicros());
+        assertEquals(1_000_000, clock.toLocalMicros(1_000_000 + offset));
+        assertEquals(1_000 + 5_000, clock.toRemoteMillis(1_000));
+    }
+}
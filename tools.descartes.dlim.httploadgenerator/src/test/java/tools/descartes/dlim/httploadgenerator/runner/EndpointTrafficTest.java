@@ -0,0 +1,52 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker;
+
+public class EndpointTrafficTest {
+
+    @Test
+    void testMergeLoadGenerators() {
+        ResultTracker.TRACKER.reset();
+        String items = EndpointTraffic.endpoint("GET", "http://localhost:8080/items?id=1,2");
+        assertEquals("GET http://localhost:8080/items", items);
+        ResultTracker.TRACKER.logTraffic(items, 100, 1000, 3000);
+        ResultTracker.TRACKER.logTraffic(EndpointTraffic.endpoint("GET", "http://localhost:8080/items?id=3"),
+                100, 1000, 3000);
+        ResultTracker.TRACKER.logTraffic(EndpointTraffic.endpoint("POST", "http://localhost:8080/a;b=c"), 500, 50, 0);
+        ResultTracker.IntervalResult result = ResultTracker.TRACKER.retrieveIntervalResultAndReset();
+        assertArrayEquals(new long[] {700, 2050, 6000}, result.getTraffic());
+
+        List<String> groups = EndpointTraffic.format(result.getEndpointTraffic());
+        assertEquals("#sent=GET+http%3A%2F%2Flocalhost%3A8080%2Fitems:200;POST+http%3A%2F%2Flocalhost%3A8080%2Fa%3Bb%3Dc:500",
+                groups.get(EndpointTraffic.SENT));
+        EndpointTraffic traffic = new EndpointTraffic();
+        for (String group : groups) {
+            assertTrue(traffic.add(group.substring(1)));
+            assertTrue(traffic.add(group.substring(1)));
+        }
+        assertFalse(traffic.add("status=200:1"));
+        assertArrayEquals(new long[] {400, 4000, 12000}, traffic.getEndpoints().get(items));
+
+        StringBuilder rows = new StringBuilder();
+        traffic.appendRows(rows, 2.0);
+        assertTrue(rows.toString().startsWith("2.0,Sent Bytes,\"GET http://localhost:8080/items\",400"));
+        assertTrue(rows.toString().contains("2.0,Decoded Bytes,\"GET http://localhost:8080/items\",12000"));
+        // POST has no decoded bytes
+        assertEquals(5, rows.toString().split(System.lineSeparator()).length);
+
+        // the next interval starts from 0
+        assertArrayEquals(new long[3], ResultTracker.TRACKER.retrieveIntervalResultAndReset().getTraffic());
+    }
+
+    @Test
+    void testThroughputColumns() {
+        assertArrayEquals(new String[] {"1.500", "0.000", "10.000"},
+                MetricGroup.NETWORK.toColumns(new long[] {1_500_000, 0, 10_000_000}));
+    }
+}
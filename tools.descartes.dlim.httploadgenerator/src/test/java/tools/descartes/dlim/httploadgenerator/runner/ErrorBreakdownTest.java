@@ -0,0 +1,66 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.ConnectException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import tools.descartes.dlim.httploadgenerator.generator.ResultTracker;
+
+public class ErrorBreakdownTest {
+
+    @Test
+    void testMergeLoadGenerators() {
+        ResultTracker.TRACKER.reset();
+        for (int i = 0; i < 10; i++) {
+            ResultTracker.TRACKER.logStatusCode(200);
+        }
+        ResultTracker.TRACKER.logStatusCode(404);
+        ResultTracker.TRACKER.logStatusCode(503);
+        ResultTracker.TRACKER.logStatusCode(999);
+        ResultTracker.TRACKER.logFailure(new ConnectException("refused"));
+        // execution exceptions are counted by their cause
+        ResultTracker.TRACKER.logFailure(new ExecutionException(new ConnectException("refused")));
+        ResultTracker.TRACKER.logFailure(new TimeoutException());
+        ResultTracker.IntervalResult result = ResultTracker.TRACKER.retrieveIntervalResultAndReset();
+        String status = ErrorBreakdown.formatStatusCodes(result.getStatusCodes());
+        String errors = ErrorBreakdown.formatErrors(result.getFailures());
+        assertEquals("#status=0:1;200:10;404:1;503:1", status);
+        assertEquals("#errors=java.net.ConnectException:2;java.util.concurrent.TimeoutException:1", errors);
+
+        ErrorBreakdown breakdown = new ErrorBreakdown();
+        assertTrue(breakdown.add(status.substring(1)));
+        assertTrue(breakdown.add(status.substring(1)));
+        assertTrue(breakdown.add(errors.substring(1)));
+        assertFalse(breakdown.add("threads=client_threads:4"));
+        assertEquals(20, breakdown.getStatusCount(200));
+        assertEquals(2, breakdown.getStatusClassCount(4));
+        assertEquals(2, breakdown.getStatusCount(999));
+        assertEquals(2L, breakdown.getErrors().get("java.net.ConnectException"));
+
+        StringBuilder rows = new StringBuilder();
+        breakdown.appendRows(rows, 3.0);
+        String nl = System.lineSeparator();
+        assertEquals("3.0,Status Class,2xx,20" + nl + "3.0,Status Class,4xx,2" + nl + "3.0,Status Class,5xx,2" + nl
+                + "3.0,Status Class,(other),2" + nl + "3.0,Status Code,200,20" + nl + "3.0,Status Code,404,2" + nl
+                + "3.0,Status Code,503,2" + nl + "3.0,Exception,java.net.ConnectException,2" + nl
+                + "3.0,Exception,java.util.concurrent.TimeoutException,1" + nl, rows.toString());
+
+        // the next interval starts from 0
+        assertNull(ErrorBreakdown.formatStatusCodes(ResultTracker.TRACKER.retrieveIntervalResultAndReset()
+                .getStatusCodes()));
+    }
+
+    @Test
+    void testBoundedErrorClasses() {
+        ErrorBreakdown breakdown = new ErrorBreakdown();
+        for (int i = 0; i < ErrorBreakdown.MAX_ERROR_CLASSES + 5; i++) {
+            breakdown.add("errors=Exception" + i + ":1");
+        }
+        assertEquals(ErrorBreakdown.MAX_ERROR_CLASSES + 1, breakdown.getErrors().size());
+        assertEquals(5L, breakdown.getErrors().get(ErrorBreakdown.OTHER));
+    }
+}
@@ -0,0 +1,30 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tools.descartes.dlim.httploadgenerator.runner.GeneratorHealthMonitor.Saturation;
+
+public class GeneratorHealthMonitorTest {
+
+    @Test
+    void testWarnsOncePerSaturation() {
+        GeneratorHealthMonitor monitor = new GeneratorHealthMonitor();
+        long[] healthy = {50, 1, 20, 100, 40, 30, 10, 5};
+        assertTrue(monitor.check("lg1", 1.0, healthy).isEmpty());
+        // 200 ms of GC in a 1 s interval and 97% CPU
+        long[] saturated = {97, 3, 200, 100, 40, 30, 10, 5};
+        assertEquals(List.of(Saturation.CPU, Saturation.GC), monitor.check("lg1", 2.0, saturated));
+        assertTrue(monitor.check("lg1", 3.0, saturated).isEmpty());
+        // other load generators are monitored separately
+        assertEquals(List.of(Saturation.CPU, Saturation.GC), monitor.check("lg2", 3.0, saturated));
+        assertTrue(monitor.check("lg1", 4.0, healthy).isEmpty());
+        assertEquals(List.of(Saturation.CPU, Saturation.GC), monitor.check("lg1", 5.0, saturated));
+        // 200 ms of GC in a 4 s interval are not saturated, 150 ms dispatch lateness are
+        assertEquals(List.of(Saturation.DISPATCH), monitor.check("lg2", 7.0,
+                new long[] {50, 3, 200, 100, 40, 30, 10, 150}));
+    }
+}
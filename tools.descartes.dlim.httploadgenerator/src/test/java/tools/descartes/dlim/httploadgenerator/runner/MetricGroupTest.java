@@ -0,0 +1,68 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import org.junit.jupiter.api.Test;
+
+import tools.descartes.dlim.httploadgenerator.generator.LatencyHistogram;
+
+public class MetricGroupTest {
+
+    @Test
+    void testSumOverLoadGenerators() {
+        String group = MetricGroup.THREADS.format(new long[] {40, 12, 3, 2, 0});
+        // values of 0 are omitted
+        assertEquals("#threads=client_threads:40;client_busy:12;client_queued:3;dispatch_busy:2", group);
+        assertNull(MetricGroup.THREADS.format(new long[5]));
+
+        EnumMap<MetricGroup, long[]> sums = MetricGroup.newValues();
+        MetricGroup.addTo(group.substring(1), sums);
+        MetricGroup.addTo(group.substring(1), sums);
+        assertArrayEquals(new long[] {80, 24, 6, 4, 0}, sums.get(MetricGroup.THREADS));
+    }
+
+    @Test
+    void testMaximumOverLoadGenerators() {
+        EnumMap<MetricGroup, long[]> sums = MetricGroup.newValues();
+        EnumMap<MetricGroup, long[]> first = MetricGroup.newValues();
+        MetricGroup.addTo(MetricGroup.HEALTH.format(new long[] {80, 1, 5, 100, 40, 20, 10, 2}).substring(1), first);
+        EnumMap<MetricGroup, long[]> second = MetricGroup.newValues();
+        MetricGroup.addTo(MetricGroup.HEALTH.format(new long[] {30, 2, 50, 10, 60, 90, 5, 0}).substring(1), second);
+        MetricGroup.addTo(MetricGroup.THREADS.format(new long[] {40, 12, 3, 2, 0}).substring(1), first);
+        MetricGroup.addTo(MetricGroup.THREADS.format(new long[] {40, 12, 3, 2, 0}).substring(1), second);
+        MetricGroup.addAll(first, sums);
+        MetricGroup.addAll(second, sums);
+        assertArrayEquals(new long[] {80, 2, 50, 100, 60, 90, 10, 2}, sums.get(MetricGroup.HEALTH));
+        assertArrayEquals(new long[] {80, 24, 6, 4, 0}, sums.get(MetricGroup.THREADS));
+    }
+
+    @Test
+    void testHistogramColumns() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordNanos(i * 1000000L);
+        }
+        EnumMap<MetricGroup, long[]> sums = MetricGroup.newValues();
+        MetricGroup.addTo(MetricGroup.TTFB.format(histogram.retrieveAndReset()).substring(1), sums);
+        String[] columns = MetricGroup.TTFB.toColumns(sums.get(MetricGroup.TTFB));
+        assertEquals(4, MetricGroup.TTFB.getColumnNames().length);
+        assertEquals("50.500", columns[0]);
+        // percentiles are bucket upper bounds, within 12.5% of the exact value
+        assertEquals(50.0, Double.parseDouble(columns[1]), 50.0 * 0.125);
+        assertEquals(99.0, Double.parseDouble(columns[2]), 99.0 * 0.125);
+        assertEquals(100.0, Double.parseDouble(columns[3]), 100.0 * 0.125);
+    }
+
+    @Test
+    void testUnknownGroupsAndKeysAreIgnored() {
+        EnumMap<MetricGroup, long[]> sums = MetricGroup.newValues();
+        MetricGroup.addTo("future=a:1", sums);
+        MetricGroup.addTo("connect=refused:2;future:5;timeout:x", sums);
+        long[] connect = sums.get(MetricGroup.CONNECT_FAILURES);
+        assertEquals(2, connect[0]);
+        assertEquals(2, Arrays.stream(connect).sum());
+    }
+}
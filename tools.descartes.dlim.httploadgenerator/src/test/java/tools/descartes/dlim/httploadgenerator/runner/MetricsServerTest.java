@@ -0,0 +1,86 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricsServerTest {
+
+    private static IntervalResult interval(double targetTime, int requests) {
+        ArrayList<PerRequestIntervalResult> requestResults = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            requestResults.add(new PerRequestIntervalResult(targetTime, i + 1, "\"http://localhost/\"", "GET",
+                    i == 0 ? 0.5 : 0.01, "SUCCESS", targetTime - 0.5));
+        }
+        return new IntervalResult(targetTime, requests, requests - 1, 1, 0, 0, 0.01, targetTime + 0.25,
+                MetricGroup.newValues(), requestResults);
+    }
+
+    private static String get(MetricsServer server, String path) throws IOException {
+        try (InputStream in = new URL("http://127.0.0.1:" + server.getPort() + path).openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testServesLatestInterval() throws IOException {
+        try (MetricsServer server = new MetricsServer("127.0.0.1:0")) {
+            assertTrue(get(server, MetricsServer.PROMETHEUS_PATH)
+                    .contains("httploadgenerator_transactions_total{state=\"success\"} 0\n"));
+
+            GeneratorStatus ok = new GeneratorStatus("lg1:24226", 2, 2.25, 99, 1, 0, 0, System.currentTimeMillis())
+                    .withClock(0.5, 0.001);
+            GeneratorStatus done = GeneratorStatus.initial("lg2:24226", System.currentTimeMillis()).notReported(true);
+            server.publish(interval(1, 100), List.of(ok, done), 0);
+            server.publish(interval(2, 100), List.of(ok, done), 3);
+
+            String text = get(server, MetricsServer.PROMETHEUS_PATH);
+            assertTrue(text.contains("httploadgenerator_interval_target_time_seconds 2\n"));
+            assertTrue(text.contains("httploadgenerator_transactions_total{state=\"success\"} 198\n"));
+            assertTrue(text.contains("httploadgenerator_interval_transactions{state=\"failed\"} 1\n"));
+            assertTrue(text.contains("httploadgenerator_interval_response_time_seconds_count 100\n"));
+            assertTrue(text.contains("httploadgenerator_interval_dispatch_lag_seconds 0.25\n"));
+            assertTrue(text.contains("httploadgenerator_writer_backlog 3\n"));
+            assertTrue(text.contains("httploadgenerator_generator_up{generator=\"lg1:24226\"} 1\n"));
+            assertTrue(text.contains("httploadgenerator_generator_finished{generator=\"lg2:24226\"} 1\n"));
+            assertTrue(text.contains("httploadgenerator_interval_phase_ttfb_seconds_count 0\n"));
+            assertTrue(text.contains("httploadgenerator_generator_start_skew_seconds{generator=\"lg1:24226\"} 0.001\n"));
+
+            String json = get(server, MetricsServer.JSON_PATH);
+            assertTrue(json.contains("\"totals\":{\"success\":198,\"failed\":2,\"timeout\":0,\"dropped\":0}"));
+            assertTrue(json.contains("\"address\":\"lg1:24226\",\"reported\":true"));
+        }
+    }
+
+    @Test
+    void testServesExactPathsOnly() throws IOException {
+        try (MetricsServer server = new MetricsServer("127.0.0.1:0")) {
+            assertEquals(200, status(server, "GET", MetricsServer.PROMETHEUS_PATH));
+            assertEquals(200, status(server, "GET", MetricsServer.JSON_PATH));
+            assertEquals(404, status(server, "GET", "/"));
+            assertEquals(404, status(server, "GET", "/metricsfoo"));
+            assertEquals(404, status(server, "GET", "/metrics/other"));
+            assertEquals(405, status(server, "POST", MetricsServer.PROMETHEUS_PATH));
+            assertEquals(405, status(server, "DELETE", MetricsServer.JSON_PATH));
+        }
+    }
+
+    private static int status(MetricsServer server, String method, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+                .openConnection();
+        try {
+            connection.setRequestMethod(method);
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import tools.descartes.dlim.httploadgenerator.generator.LatencyHistogram;
+
+public class PeriodMergerTest {
+
+    private static String period(long index, long successful, long responseTimeMillis) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < successful; i++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(responseTimeMillis));
+        }
+        return PeriodMerger.format(index, new long[] {successful, 1, 0, 0}, histogram.retrieveAndReset());
+    }
+
+    @Test
+    void testAlignsPeriodsOfAllGenerators() {
+        List<String> rows = new ArrayList<>();
+        PeriodMerger merger = new PeriodMerger(2, 100, rows::add);
+
+        merger.add(0, period(0, 10, 10));
+        merger.add(0, period(1, 10, 10));
+        assertTrue(rows.isEmpty());
+
+        merger.add(1, period(0, 30, 10));
+        assertEquals(1, rows.size());
+        assertTrue(rows.get(0).startsWith("0.100,2,40,2,0,0,400.000,"));
+
+        // a late period of an already written index is ignored
+        merger.add(1, period(0, 30, 10));
+        assertEquals(1, rows.size());
+
+        merger.finish(1);
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(1).startsWith("0.200,1,10,1,0,0,100.000,"));
+
+        merger.add(0, period(2, 5, 100));
+        merger.add(0, "period:3,invalid");
+        assertEquals(3, rows.size());
+        String[] columns = rows.get(2).trim().split(",");
+        assertEquals(PeriodMerger.HEADER.split(",").length, columns.length);
+        assertEquals(100, Double.parseDouble(columns[8]), 10);
+    }
+
+    @Test
+    void testCloseWritesPendingPeriods() {
+        List<String> rows = new ArrayList<>();
+        PeriodMerger merger = new PeriodMerger(2, 10, rows::add);
+        merger.add(0, period(0, 1, 1));
+        merger.add(0, period(1, 1, 1));
+        merger.close();
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(1).startsWith("0.020,1,1,"));
+    }
+}
@@ -0,0 +1,103 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RequestArchiveTest {
+
+    @TempDir
+    File dir;
+
+    private static PerRequestIntervalResult request(int i) {
+        double startTime = i * 12500 / 1_000_000.0;
+        return new PerRequestIntervalResult(Math.floor(startTime) + 1, i % 7, "\"http://localhost/" + (i % 3) + "\"",
+                i % 2 == 0 ? "GET" : "POST", (i % 50) / 1000.0, i % 10 == 0 ? "FAILED" : "SUCCESS", startTime);
+    }
+
+    private static String csv(PerRequestIntervalResult request) {
+        StringBuilder line = new StringBuilder();
+        ResultWriter.appendRequest(line, request);
+        return line.toString();
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        File file = new File(dir, "requests.hlga");
+        try (RequestArchiveWriter writer = new RequestArchiveWriter(file, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.write(request(i));
+            }
+        }
+        List<PerRequestIntervalResult> read = new ArrayList<>();
+        try (RequestArchiveReader reader = new RequestArchiveReader(file)) {
+            assertEquals(List.of("Request Target Time", "Response Target Time", "Request Num", "URI", "Method",
+                    "Response Time", "Status"), reader.getColumnNames());
+            List<PerRequestIntervalResult> group;
+            while ((group = reader.readRowGroup()) != null) {
+                assertTrue(group.size() <= 64);
+                read.addAll(group);
+            }
+        }
+        assertEquals(1000, read.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(csv(request(i)), csv(read.get(i)));
+        }
+    }
+
+    @Test
+    void testTimeRangeSkipsRowGroups() throws IOException {
+        File file = new File(dir, "requests.hlga");
+        try (RequestArchiveWriter writer = new RequestArchiveWriter(file, 50)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.write(request(i));
+            }
+        }
+        int groups = 0;
+        List<PerRequestIntervalResult> read = new ArrayList<>();
+        try (RequestArchiveReader reader = new RequestArchiveReader(file)) {
+            List<PerRequestIntervalResult> group;
+            while ((group = reader.readRowGroup(3.2, 3.5)) != null) {
+                groups++;
+                read.addAll(group);
+            }
+        }
+        assertEquals(1, groups);
+        assertEquals(25, read.size());
+        assertTrue(read.stream().allMatch(r -> r.getTransactionStartTime() >= 3.2 && r.getTransactionStartTime() <= 3.5));
+    }
+
+    @Test
+    void testResultWriterArchive() throws IOException {
+        File archive = new File(dir, "requests.hlga");
+        ArrayList<PerRequestIntervalResult> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(request(i));
+        }
+        try (ResultWriter writer = new ResultWriter(
+                new ResultWriter.Options(new File(dir, "out.csv"), new File(dir, "requests.csv")).archive(archive))) {
+            writer.write(new IntervalResult(1, 10, 10, 0, 0, 0, 0.01, 0.9, MetricGroup.newValues(), requests), null);
+        }
+        try (RequestArchiveReader reader = new RequestArchiveReader(archive)) {
+            List<PerRequestIntervalResult> group = reader.readRowGroup();
+            StringBuilder lines = new StringBuilder();
+            group.forEach(r -> ResultWriter.appendRequest(lines, r));
+            assertEquals(Files.readString(new File(dir, "requests.csv").toPath()), lines.toString());
+            assertNull(reader.readRowGroup());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        File file = new File(dir, "requests.csv");
+        Files.writeString(file.toPath(), ResultWriter.REQUEST_HEADER);
+        assertThrows(IOException.class, () -> new RequestArchiveReader(file));
+    }
+}
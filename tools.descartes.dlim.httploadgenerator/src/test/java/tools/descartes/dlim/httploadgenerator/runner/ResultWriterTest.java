@@ -0,0 +1,71 @@
+package tools.descartes.dlim.httploadgenerator.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ResultWriterTest {
+
+    @TempDir
+    File dir;
+
+    private static IntervalResult interval(double targetTime, int requests) {
+        ArrayList<PerRequestIntervalResult> requestResults = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            requestResults.add(new PerRequestIntervalResult(targetTime, i + 1, "\"http://localhost/\"", "GET",
+                    0.01, "SUCCESS", targetTime - 0.5));
+        }
+        return new IntervalResult(targetTime, requests, requests, 0, 0, 0, 0.01, targetTime - 0.1,
+                MetricGroup.newValues(), requestResults);
+    }
+
+    @Test
+    void testWritesInOrder() throws IOException {
+        File results = new File(dir, "out.csv");
+        File requests = new File(dir, "requests.csv");
+        try (ResultWriter writer = new ResultWriter(new ResultWriter.Options(results, requests))) {
+            writer.printResultText("Target Time,Load Intensity");
+            writer.printRequestText("Request Target Time" + System.lineSeparator());
+            writer.printResultText(",time zero" + System.lineSeparator());
+            for (int i = 1; i <= 1000; i++) {
+                writer.write(interval(i, 10), Arrays.asList(42.0));
+            }
+        }
+        String[] lines = Files.readString(results.toPath()).split(System.lineSeparator());
+        assertEquals(1001, lines.length);
+        assertEquals("Target Time,Load Intensity,time zero", lines[0]);
+        assertTrue(lines[1].startsWith("1.0,10.0,10,0,0,0,0.01,0.9,42.0,"));
+        assertTrue(lines[1000].startsWith("1000.0,"));
+        assertEquals(10001, Files.readAllLines(requests.toPath()).size());
+        assertEquals("0.5,1.0,1,\"http://localhost/\",GET,0.01,SUCCESS", Files.readAllLines(requests.toPath()).get(1));
+    }
+
+    @Test
+    void testCompressed() throws IOException {
+        try (ResultWriter writer = new ResultWriter(
+                new ResultWriter.Options(new File(dir, "out.csv"), new File(dir, "requests.csv.gz")).compress(true))) {
+            writer.printResultText("header" + System.lineSeparator());
+            writer.write(interval(1, 3), null);
+        }
+        assertFalse(new File(dir, "out.csv").exists());
+        assertTrue(gunzip(new File(dir, "out.csv.gz")).startsWith("header" + System.lineSeparator() + "1.0,"));
+        assertEquals(3, gunzip(new File(dir, "requests.csv.gz")).split(System.lineSeparator()).length);
+    }
+
+    private static String gunzip(File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}